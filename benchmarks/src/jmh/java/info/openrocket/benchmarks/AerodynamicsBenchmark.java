@@ -0,0 +1,67 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+
+/**
+ * Benchmarks the aerodynamic force calculation of {@link BarrowmanCalculator}.
+ * <p>
+ * The flight conditions cycle through a set of Mach numbers and angles of attack, as
+ * they would change during a simulation, while the rocket is rolling.  The forces are
+ * calculated both directly and from the tabulated coefficients.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AerodynamicsBenchmark {
+
+	private static final double[] MACH = { 0.1, 0.3, 0.6, 0.9, 1.2 };
+	private static final double[] AOA = { 0, Math.toRadians(1), Math.toRadians(4), Math.toRadians(10) };
+
+	@Param({ "ESTES_ALPHA_III", "BIG_BLUE", "FALCON_9_HEAVY" })
+	public BenchmarkRockets.Design design;
+
+	@Param({ "false", "true" })
+	public boolean tabulated;
+
+	private BarrowmanCalculator calculator;
+	private FlightConfiguration config;
+	private FlightConditions conditions;
+	private final WarningSet warnings = new WarningSet();
+	private int counter = 0;
+
+	@Setup
+	public void setup() {
+		BenchmarkRockets.initialize();
+
+		Rocket rocket = design.create();
+		config = BenchmarkRockets.getMotorConfiguration(rocket);
+		calculator = new BarrowmanCalculator(tabulated);
+		conditions = new FlightConditions(config);
+		conditions.setRollRate(1);
+	}
+
+	@Benchmark
+	public AerodynamicForces getAerodynamicForces() {
+		counter++;
+		conditions.setMach(MACH[counter % MACH.length]);
+		conditions.setAOA(AOA[counter % AOA.length]);
+		warnings.clear();
+		return calculator.getAerodynamicForces(config, conditions, warnings);
+	}
+}
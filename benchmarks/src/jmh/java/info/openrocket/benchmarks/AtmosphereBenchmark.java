@@ -0,0 +1,38 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.models.atmosphere.ExtendedISAModel;
+
+/**
+ * Benchmarks the atmospheric condition lookup of {@link ExtendedISAModel}.  The altitude
+ * sweeps from the ground to 20 km.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AtmosphereBenchmark {
+
+	private static final double MAX_ALTITUDE = 20000;
+	private static final double ALTITUDE_STEP = 7.3;
+
+	private final ExtendedISAModel model = new ExtendedISAModel();
+	private double altitude = 0;
+
+	@Benchmark
+	public AtmosphericConditions getConditions() {
+		altitude += ALTITUDE_STEP;
+		if (altitude > MAX_ALTITUDE) {
+			altitude = 0;
+		}
+		return model.getConditions(altitude);
+	}
+}
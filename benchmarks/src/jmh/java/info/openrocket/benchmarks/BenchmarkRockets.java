@@ -0,0 +1,102 @@
+package info.openrocket.benchmarks;
+
+import java.util.function.Supplier;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.startup.OpenRocketCore;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * The rocket designs used by the benchmarks, and common setup code.
+ * <p>
+ * The designs are the ones from {@link TestRockets} that have motors defined, so that
+ * they can be simulated.
+ */
+public final class BenchmarkRockets {
+
+	public enum Design {
+		ESTES_ALPHA_III(TestRockets::makeEstesAlphaIII),
+		ESTES_ALPHA_III_WITH_PODS(TestRockets::makeEstesAlphaIIIWithPods),
+		ESTES_ALPHA_III_WITH_INLINE_POD(TestRockets::makeEstesAlphaIIIwithInlinePod),
+		BETA(TestRockets::makeBeta),
+		BIG_BLUE(TestRockets::makeBigBlue),
+		ISO_HAISU(TestRockets::makeIsoHaisu),
+		FALCON_9_HEAVY(TestRockets::makeFalcon9Heavy),
+		MULTI_STAGE_EVENT_TEST(TestRockets::makeMultiStageEventTestRocket),
+		END_PLATE(TestRockets::makeEndPlateRocket),
+		CLUSTER_PODS(TestRockets::makeClusterPods);
+
+		private final Supplier<Rocket> factory;
+
+		Design(Supplier<Rocket> factory) {
+			this.factory = factory;
+		}
+
+		public Rocket create() {
+			return factory.get();
+		}
+	}
+
+	private BenchmarkRockets() {
+	}
+
+	/**
+	 * Initialize the application for headless use.  The component preset and motor
+	 * databases are not loaded, since the test rockets define their own motors.
+	 */
+	public static synchronized void initialize() {
+		if (OpenRocketCore.isInitialized()) {
+			return;
+		}
+		System.setProperty("openrocket.bypass.presets", "true");
+		System.setProperty("openrocket.bypass.motors", "true");
+		OpenRocketCore.initialize();
+	}
+
+	/**
+	 * Return the flight configuration of the rocket to use, which is the selected configuration
+	 * if it has motors, or otherwise the first configuration with motors.
+	 */
+	public static FlightConfiguration getMotorConfiguration(Rocket rocket) {
+		FlightConfiguration selected = rocket.getSelectedConfiguration();
+		if (selected.hasMotors()) {
+			return selected;
+		}
+		for (FlightConfigurationId id : rocket.getIds()) {
+			FlightConfiguration config = rocket.getFlightConfiguration(id);
+			if (config.hasMotors()) {
+				return config;
+			}
+		}
+		throw new IllegalArgumentException("Rocket " + rocket.getName() + " has no motors");
+	}
+
+	/**
+	 * Create a simulation of the rocket with deterministic options.
+	 */
+	public static Simulation createSimulation(Rocket rocket) {
+		return createSimulation(null, rocket);
+	}
+
+	/**
+	 * Create a simulation of the rocket with deterministic options.
+	 *
+	 * @param document	the document the simulation belongs to, or <code>null</code>.
+	 * @param rocket	the rocket to simulate.
+	 */
+	public static Simulation createSimulation(OpenRocketDocument document, Rocket rocket) {
+		FlightConfiguration config = getMotorConfiguration(rocket);
+		config.setAllStages();
+
+		Simulation simulation = new Simulation(document, rocket);
+		simulation.setFlightConfigurationId(config.getFlightConfigurationID());
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().setRandomSeed(0);
+		return simulation;
+	}
+}
@@ -0,0 +1,86 @@
+package info.openrocket.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.GeneralRocketSaver;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.DecalNotFoundException;
+
+/**
+ * Benchmarks saving and loading .ork files through {@link GeneralRocketSaver} and
+ * {@link GeneralRocketLoader}.  The document optionally contains a simulation with
+ * its flight data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileBenchmark {
+
+	@Param({ "ESTES_ALPHA_III", "FALCON_9_HEAVY" })
+	public BenchmarkRockets.Design design;
+
+	@Param({ "false", "true" })
+	public boolean saveSimulationData;
+
+	private OpenRocketDocument document;
+	private StorageOptions options;
+	private File file;
+	private byte[] contents;
+
+	@Setup
+	public void setup() throws IOException, SimulationException, DecalNotFoundException {
+		BenchmarkRockets.initialize();
+
+		Rocket rocket = design.create();
+		document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation simulation = BenchmarkRockets.createSimulation(document, rocket);
+		document.addSimulation(simulation);
+		if (saveSimulationData) {
+			simulation.simulate();
+		}
+
+		options = new StorageOptions();
+		options.setSaveSimulationData(saveSimulationData);
+
+		file = File.createTempFile("openrocket-benchmark", ".ork");
+		new GeneralRocketSaver().save(file, document, options);
+		contents = Files.readAllBytes(file.toPath());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Benchmark
+	public File save() throws IOException, DecalNotFoundException {
+		new GeneralRocketSaver().save(file, document, options);
+		return file;
+	}
+
+	@Benchmark
+	public OpenRocketDocument load() throws RocketLoadException {
+		return new GeneralRocketLoader(file).load(new ByteArrayInputStream(contents), "benchmark");
+	}
+}
@@ -0,0 +1,45 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.masscalc.MassCalculation;
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Benchmarks the mass and inertia calculation of {@link MassCalculator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MassBenchmark {
+
+	@Param({ "ESTES_ALPHA_III", "BIG_BLUE", "FALCON_9_HEAVY" })
+	public BenchmarkRockets.Design design;
+
+	@Param({ "STRUCTURE", "MOTOR", "LAUNCH" })
+	public MassCalculation.Type type;
+
+	private FlightConfiguration config;
+
+	@Setup
+	public void setup() {
+		BenchmarkRockets.initialize();
+		config = BenchmarkRockets.getMotorConfiguration(design.create());
+	}
+
+	@Benchmark
+	public RigidBody calculate() {
+		return MassCalculator.calculate(type, config, 0.5);
+	}
+}
@@ -0,0 +1,50 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Benchmarks the thrust lookup of {@link ThrustCurveMotor}.  The motor time advances by
+ * a small step on each invocation and wraps around after burnout, as in a simulation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MotorBenchmark {
+
+	private static final double TIME_STEP = 0.001;
+
+	private ThrustCurveMotor motor;
+	private double burnTime;
+	private double time = 0;
+
+	@Setup
+	public void setup() {
+		BenchmarkRockets.initialize();
+		FlightConfiguration config = BenchmarkRockets.getMotorConfiguration(
+				BenchmarkRockets.Design.ESTES_ALPHA_III.create());
+		MotorConfiguration motorConfig = config.getActiveMotors().iterator().next();
+		motor = (ThrustCurveMotor) motorConfig.getMotor();
+		burnTime = motor.getBurnTime();
+	}
+
+	@Benchmark
+	public double getThrust() {
+		time += TIME_STEP;
+		if (time > burnTime) {
+			time = 0;
+		}
+		return motor.getThrust(time);
+	}
+}
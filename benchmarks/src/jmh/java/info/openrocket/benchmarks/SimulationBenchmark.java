@@ -0,0 +1,47 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SimulationStepperMethod;
+import info.openrocket.core.simulation.exception.SimulationException;
+
+/**
+ * Benchmarks a full simulation of each of the test rocket designs, from launch to landing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBenchmark {
+
+	@Param
+	public BenchmarkRockets.Design design;
+
+	@Param({ "RK4", "RK6" })
+	public SimulationStepperMethod method;
+
+	private Simulation simulation;
+
+	@Setup
+	public void setup() {
+		BenchmarkRockets.initialize();
+		simulation = BenchmarkRockets.createSimulation(design.create());
+		simulation.getOptions().setSimulationStepperMethodChoice(method);
+	}
+
+	@Benchmark
+	public FlightData simulate() throws SimulationException {
+		simulation.simulate();
+		return simulation.getSimulatedData();
+	}
+}
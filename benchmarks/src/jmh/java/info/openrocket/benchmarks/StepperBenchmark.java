@@ -0,0 +1,100 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.RK6SimulationStepper;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.SimulationStepper;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+import info.openrocket.core.util.Quaternion;
+
+/**
+ * Benchmarks a single integration step of the flight steppers.
+ * <p>
+ * The rocket is placed in free flight after burnout, and the kinematic state is reset
+ * before every step so that every invocation integrates the same part of the flight.
+ * Each step stores a data point, so the flight data branch is replaced once it holds the
+ * points of a typical flight; otherwise the benchmark would mostly measure the growth of
+ * the data columns.  The allocation rate per step is reported by the GC profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StepperBenchmark {
+
+	/** The number of data points after which the flight data branch is replaced */
+	private static final int BRANCH_LENGTH = 1000;
+
+	@Param({ "RK4", "RK6" })
+	public String method;
+
+	@Param({ "ESTES_ALPHA_III", "FALCON_9_HEAVY" })
+	public BenchmarkRockets.Design design;
+
+	private SimulationStepper stepper;
+	private SimulationStatus status;
+
+	private final CoordinateIF position = new Coordinate(5, 2, 150);
+	private final CoordinateIF velocity = new Coordinate(1, 0.5, 40);
+	private final CoordinateIF rotationVelocity = new Coordinate(0.01, -0.02, 0.5);
+	private Quaternion orientation;
+	private String branchName;
+
+	@Setup(Level.Iteration)
+	public void setup() throws SimulationException {
+		BenchmarkRockets.initialize();
+
+		Rocket rocket = design.create();
+		Simulation simulation = BenchmarkRockets.createSimulation(rocket);
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		FlightConfiguration config = rocket.getFlightConfiguration(simulation.getFlightConfigurationId());
+
+		SimulationStatus initial = new SimulationStatus(config, conditions);
+		branchName = rocket.getName();
+		initial.setFlightDataBranch(new FlightDataBranch(branchName, FlightDataType.TYPE_TIME));
+		initial.setLiftoff(true);
+		initial.setLaunchRodCleared(true);
+		orientation = initial.getRocketOrientationQuaternion();
+
+		stepper = "RK6".equals(method) ? new RK6SimulationStepper() : new RK4SimulationStepper();
+		status = stepper.initialize(initial);
+	}
+
+	@Setup(Level.Invocation)
+	public void resetStatus() {
+		if (status.getFlightDataBranch().getLength() >= BRANCH_LENGTH) {
+			status.setFlightDataBranch(new FlightDataBranch(branchName, FlightDataType.TYPE_TIME));
+		}
+		status.setSimulationTime(10);
+		status.setRocketPosition(position);
+		status.setRocketVelocity(velocity);
+		status.setRocketOrientationQuaternion(orientation);
+		status.setRocketRotationVelocity(rotationVelocity);
+	}
+
+	@Benchmark
+	public SimulationStatus step() throws SimulationException {
+		stepper.step(status, 1);
+		return status;
+	}
+}
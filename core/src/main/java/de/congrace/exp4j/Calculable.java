@@ -28,4 +28,19 @@ public interface Calculable {
 	 *            the value of the variable
 	 */
 	public void setVariable(Variable var);
+
+	/**
+	 * get the names of the variables referenced by the expression
+	 * 
+	 * @return the variable names, in the order of their first use
+	 */
+	public String[] getUsedVariableNames();
+
+	/**
+	 * compile the expression to bytecode for repeated scalar evaluation
+	 * 
+	 * @return the {@link CompiledExpression}, or null if the expression uses
+	 *         custom functions
+	 */
+	public CompiledExpression compile();
 }
@@ -0,0 +1,193 @@
+/*
+   Copyright 2011 frank asseg
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package de.congrace.exp4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * A scalar expression compiled to JVM bytecode.<br/>
+ * The postfix tokens of the expression are translated directly to the corresponding
+ * double arithmetic instructions and {@link Math} calls, so that evaluating the
+ * expression does not allocate any {@link Variable}s.  The values of the variables are
+ * passed as an array, in the order of {@link #getVariableNames()}; only the variables
+ * actually referenced by the expression are included.
+ * <p>
+ * Only expressions consisting of numbers, variables, operators and the built-in
+ * functions can be compiled.  For array variables the result equals the first element
+ * of the interpreted result, since operators and built-in functions are applied element
+ * by element.
+ *
+ * @see Calculable#compile()
+ */
+public abstract class CompiledExpression {
+
+	private static final String SUPER_NAME = "de/congrace/exp4j/CompiledExpression";
+	private static final String CLASS_NAME = SUPER_NAME + "$Generated";
+
+	private String[] variableNames;
+
+	CompiledExpression() {
+	}
+
+	/**
+	 * calculate the result of the expression
+	 *
+	 * @param values
+	 *            the values of the variables, in the order of
+	 *            {@link #getVariableNames()}
+	 * @return the result of the calculation
+	 */
+	public abstract double calculate(double[] values);
+
+	/**
+	 * get the names of the variables used by the expression
+	 *
+	 * @return the variable names, in the order of their values
+	 */
+	public String[] getVariableNames() {
+		return variableNames.clone();
+	}
+
+	/**
+	 * compile postfix tokens to a new {@link CompiledExpression}
+	 *
+	 * @param tokens
+	 *            the postfix tokens of the expression
+	 * @param variableNames
+	 *            the names of the variables used by the expression
+	 * @return the compiled expression, or null if the tokens contain custom
+	 *         functions or do not form a valid expression
+	 */
+	static CompiledExpression compile(Token[] tokens, String[] variableNames) {
+		if (!isCompilable(tokens)) {
+			return null;
+		}
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, CLASS_NAME, null, SUPER_NAME, null);
+
+		MethodVisitor init = cw.visitMethod(0, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER_NAME, "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "calculate", "([D)D", null, null);
+		mv.visitCode();
+		for (Token t : tokens) {
+			if (t instanceof NumberToken) {
+				mv.visitLdcInsn(((NumberToken) t).getDoubleValue());
+			} else if (t instanceof VariableToken) {
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+				mv.visitLdcInsn(indexOf(variableNames, t.getValue()));
+				mv.visitInsn(Opcodes.DALOAD);
+			} else if (t instanceof OperatorToken) {
+				visitOperation(mv, ((OperatorToken) t).getOperation());
+			} else {
+				visitFunction(mv, ((FunctionToken) t).getFunction());
+			}
+		}
+		mv.visitInsn(Opcodes.DRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+
+		CompiledExpression compiled;
+		try {
+			// Hidden classes can be unloaded as soon as the expression is no longer used
+			MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(cw.toByteArray(), true);
+			compiled = (CompiledExpression) lookup.findConstructor(lookup.lookupClass(),
+					MethodType.methodType(void.class)).invoke();
+		} catch (Throwable e) {
+			throw new IllegalStateException("Unable to compile expression", e);
+		}
+		compiled.variableNames = variableNames.clone();
+		return compiled;
+	}
+
+	/*
+	 * Check that the tokens contain only compilable tokens and leave exactly one value on the stack
+	 */
+	private static boolean isCompilable(Token[] tokens) {
+		int depth = 0;
+		for (Token t : tokens) {
+			if (t instanceof NumberToken || t instanceof VariableToken) {
+				depth++;
+			} else if (t instanceof OperatorToken) {
+				int operands = ((OperatorToken) t).getOperandCount();
+				if (operands == 0 || depth < operands) {
+					return false;
+				}
+				depth -= operands - 1;
+			} else if (t instanceof FunctionToken) {
+				if (depth < 1) {
+					return false;
+				}
+			} else {
+				return false;
+			}
+		}
+		return depth == 1;
+	}
+
+	private static int indexOf(String[] names, String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Variable " + name + " is not used by the expression");
+	}
+
+	private static void visitOperation(MethodVisitor mv, OperatorToken.Operation operation) {
+		switch (operation) {
+			case ADDITION -> mv.visitInsn(Opcodes.DADD);
+			case SUBTRACTION -> mv.visitInsn(Opcodes.DSUB);
+			case MULTIPLICATION -> mv.visitInsn(Opcodes.DMUL);
+			case DIVISION -> mv.visitInsn(Opcodes.DDIV);
+			case MODULO -> mv.visitInsn(Opcodes.DREM);
+			case EXPONENTIATION -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false);
+			case UNARY_MINUS -> mv.visitInsn(Opcodes.DNEG);
+			case UNARY_PLUS -> {
+			}
+		}
+	}
+
+	private static void visitFunction(MethodVisitor mv, FunctionToken.Function function) {
+		switch (function) {
+			case ROUND -> {
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "round", "(D)J", false);
+				mv.visitInsn(Opcodes.L2D);
+			}
+			case RANDOM -> {
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "random", "()D", false);
+				mv.visitInsn(Opcodes.DMUL);
+			}
+			// The remaining functions have the same names as the Math methods
+			default -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", function.name().toLowerCase(Locale.ENGLISH), "(D)D",
+					false);
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.ModID;
+
+/**
+ * A lazily filled table of the aerodynamic coefficients of a flight configuration over
+ * a grid of Mach number and angle of attack.
+ * <p>
+ * The table holds the coefficients that depend only on the geometry of the configuration,
+ * the Mach number and the angle of attack: the normal force and pitch moment coefficients,
+ * the CP, the roll forcing coefficient and the pressure and base drag coefficients.  It also
+ * holds the roll damping coefficient per unit of roll rate divided by velocity, which within
+ * the linear range of the fins depends only on the Mach number.
+ * Values between the grid nodes are interpolated bilinearly.  Each node is calculated the
+ * first time it is needed, so only the part of the flight envelope that is actually flown
+ * is ever computed.
+ * <p>
+ * Tables are shared between calculator instances.  They are keyed by the aerodynamic and
+ * tree modification IDs of the rocket, the flight configuration ID and the active stages.
+ * Copies made using {@link info.openrocket.core.rocketcomponent.Rocket#copyWithOriginalID()}
+ * share the modification IDs of the original rocket, so repeated simulations of the same
+ * design reuse the same table, while any aerodynamic change of the rocket results in a
+ * new one.
+ * <p>
+ * This class is thread-safe.
+ */
+final class AerodynamicCoefficientTable {
+
+	/** The Mach number spacing of the grid */
+	static final double MACH_STEP = 0.02;
+	/** The largest tabulated Mach number */
+	static final double MAX_MACH = 5.0;
+	/** The angle of attack spacing of the grid */
+	static final double AOA_STEP = Math.PI / 180;
+
+	private static final int MACH_COUNT = (int) Math.round(MAX_MACH / MACH_STEP) + 1;
+	private static final int AOA_COUNT = (int) Math.round(Math.PI / AOA_STEP) + 1;
+
+	/** The number of tables kept in the shared cache */
+	private static final int MAX_TABLES = 16;
+
+	private static final Map<Key, AerodynamicCoefficientTable> tables =
+			new LinkedHashMap<>(MAX_TABLES, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, AerodynamicCoefficientTable> eldest) {
+					return size() > MAX_TABLES;
+				}
+			};
+
+	private final AtomicReferenceArray<Node> nodes = new AtomicReferenceArray<>(MACH_COUNT * AOA_COUNT);
+
+
+	private AerodynamicCoefficientTable() {
+	}
+
+	/**
+	 * Return the shared table of a flight configuration, creating an empty table if necessary.
+	 *
+	 * @param configuration	the flight configuration.
+	 * @return				the coefficient table of the configuration in its current state.
+	 */
+	static AerodynamicCoefficientTable get(FlightConfiguration configuration) {
+		Key key = new Key(configuration);
+		synchronized (tables) {
+			return tables.computeIfAbsent(key, k -> new AerodynamicCoefficientTable());
+		}
+	}
+
+	/**
+	 * Return whether the given Mach number is within the tabulated range.
+	 */
+	static boolean isTabulated(double mach) {
+		return mach <= MAX_MACH;
+	}
+
+	/**
+	 * Interpolate the tabulated coefficients at the given Mach number and angle of attack.
+	 * The normal force, pitch moment, CP, roll forcing, pressure drag and base drag
+	 * coefficients of <code>forces</code> are set; the other values are left untouched.
+	 * The warnings of the nearest grid node are added to <code>warnings</code>.
+	 *
+	 * @param mach			the Mach number, at most {@link #MAX_MACH}.
+	 * @param aoa			the angle of attack.
+	 * @param calculator	the calculator used to compute missing grid nodes.
+	 * @param forces		the forces to store the coefficients in.
+	 * @param warnings		the warning set to add the warnings of the nearest node to.
+	 * @return				the roll damping coefficient per unit of roll rate divided by velocity.
+	 */
+	double interpolate(double mach, double aoa, NodeCalculator calculator, AerodynamicForces forces,
+			WarningSet warnings) {
+		double m = Math.max(mach, 0) / MACH_STEP;
+		int m0 = Math.min((int) m, MACH_COUNT - 2);
+		double fm = m - m0;
+
+		double a = MathUtil.clamp(aoa, 0, Math.PI) / AOA_STEP;
+		int a0 = Math.min((int) a, AOA_COUNT - 2);
+		double fa = a - a0;
+
+		Node n00 = getNode(m0, a0, calculator);
+		Node n01 = getNode(m0, a0 + 1, calculator);
+		Node n10 = getNode(m0 + 1, a0, calculator);
+		Node n11 = getNode(m0 + 1, a0 + 1, calculator);
+
+		double w00 = (1 - fm) * (1 - fa);
+		double w01 = (1 - fm) * fa;
+		double w10 = fm * (1 - fa);
+		double w11 = fm * fa;
+
+		double cna = w00 * n00.cna + w01 * n01.cna + w10 * n10.cna + w11 * n11.cna;
+		double cpMoment = w00 * n00.cpMoment + w01 * n01.cpMoment + w10 * n10.cpMoment + w11 * n11.cpMoment;
+		if (MathUtil.equals(cna, 0)) {
+			forces.setCP(Coordinate.ZERO);
+		} else {
+			forces.setCP(new Coordinate(cpMoment / cna, 0, 0, cna));
+		}
+		forces.setCN(w00 * n00.cn + w01 * n01.cn + w10 * n10.cn + w11 * n11.cn);
+		forces.setCm(w00 * n00.cm + w01 * n01.cm + w10 * n10.cm + w11 * n11.cm);
+		forces.setCrollForce(w00 * n00.crollForce + w01 * n01.crollForce + w10 * n10.crollForce
+				+ w11 * n11.crollForce);
+		forces.setPressureCD(w00 * n00.pressureCD + w01 * n01.pressureCD + w10 * n10.pressureCD
+				+ w11 * n11.pressureCD);
+		forces.setBaseCD(w00 * n00.baseCD + w01 * n01.baseCD + w10 * n10.baseCD + w11 * n11.baseCD);
+
+		Node nearest;
+		if (fm < 0.5) {
+			nearest = (fa < 0.5) ? n00 : n01;
+		} else {
+			nearest = (fa < 0.5) ? n10 : n11;
+		}
+		warnings.addAll(nearest.warnings);
+
+		return w00 * n00.rollDampingRate + w01 * n01.rollDampingRate + w10 * n10.rollDampingRate
+				+ w11 * n11.rollDampingRate;
+	}
+
+	private Node getNode(int machIndex, int aoaIndex, NodeCalculator calculator) {
+		int index = machIndex * AOA_COUNT + aoaIndex;
+		Node node = nodes.get(index);
+		if (node == null) {
+			// Concurrent callers may compute the same node, but the result is identical
+			node = calculator.calculateNode(machIndex * MACH_STEP, Math.min(aoaIndex * AOA_STEP, Math.PI));
+			nodes.set(index, node);
+		}
+		return node;
+	}
+
+
+	/**
+	 * Computes the coefficients of a single grid node.
+	 */
+	@FunctionalInterface
+	interface NodeCalculator {
+		Node calculateNode(double mach, double aoa);
+	}
+
+	/**
+	 * The coefficients at a single grid node.
+	 */
+	static final class Node {
+		private final double cn;
+		private final double cm;
+		private final double cna;
+		private final double cpMoment;
+		private final double crollForce;
+		private final double pressureCD;
+		private final double baseCD;
+		private final double rollDampingRate;
+		private final WarningSet warnings;
+
+		/**
+		 * @param forces			the non-axial forces at the node.
+		 * @param pressureCD		the pressure drag coefficient at the node.
+		 * @param baseCD			the base drag coefficient at the node.
+		 * @param rollDampingRate	the roll damping coefficient per unit of roll rate divided
+		 * 							by velocity at the node.
+		 * @param warnings			the warnings produced when calculating the node.
+		 */
+		Node(AerodynamicForces forces, double pressureCD, double baseCD, double rollDampingRate,
+				WarningSet warnings) {
+			this.cn = forces.getCN();
+			this.cm = forces.getCm();
+			this.cna = forces.getCP().getWeight();
+			this.cpMoment = forces.getCP().getX() * forces.getCP().getWeight();
+			this.crollForce = forces.getCrollForce();
+			this.pressureCD = pressureCD;
+			this.baseCD = baseCD;
+			this.rollDampingRate = rollDampingRate;
+			this.warnings = warnings;
+		}
+	}
+
+	/**
+	 * The cache key of a table.
+	 */
+	private static final class Key {
+		private final ModID aeroModID;
+		private final ModID treeModID;
+		private final FlightConfigurationId configurationId;
+		private final List<Integer> activeStages = new ArrayList<>();
+
+		Key(FlightConfiguration configuration) {
+			this.aeroModID = configuration.getRocket().getAerodynamicModID();
+			this.treeModID = configuration.getRocket().getTreeModID();
+			this.configurationId = configuration.getFlightConfigurationID();
+			for (AxialStage stage : configuration.getActiveStages()) {
+				activeStages.add(stage.getStageNumber());
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return aeroModID == other.aeroModID && treeModID == other.treeModID
+					&& configurationId.equals(other.configurationId) && activeStages.equals(other.activeStages);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * (31 * aeroModID.toInt() + treeModID.toInt()) + configurationId.hashCode())
+					+ activeStages.hashCode();
+		}
+	}
+}
@@ -11,7 +11,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.aerodynamics.barrowman.FinSetCalc;
+import info.openrocket.core.aerodynamics.barrowman.RailButtonCalc;
 import info.openrocket.core.aerodynamics.barrowman.RocketComponentCalc;
+import info.openrocket.core.aerodynamics.barrowman.TubeCalc;
+import info.openrocket.core.aerodynamics.barrowman.TubeFinSetCalc;
 import info.openrocket.core.rocketcomponent.position.AxialMethod;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
 import info.openrocket.core.rocketcomponent.ExternalComponent;
@@ -25,6 +28,7 @@ import info.openrocket.core.rocketcomponent.PodSet;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.SymmetricComponent;
+import info.openrocket.core.rocketcomponent.TubeFinSet;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
@@ -59,15 +63,60 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 	private final double stallAngle = 17.5 * Math.PI / 180;
 	private double stallMargin;
+
+	/** Fin tip helix angle above which the fins stall and the roll damping is computed directly */
+	private static final double ROLL_DAMPING_STALL_ANGLE = 15 * Math.PI / 180;
+	/** Fin tip helix angle at which the roll damping rate of the table nodes is computed */
+	private static final double ROLL_DAMPING_REFERENCE_ANGLE = Math.PI / 180;
+	/** Roll rate below which the fin set calculator ignores roll damping */
+	private static final double MIN_ROLL_DAMPING_RATE = 0.1;
+	/** Smallest Mach number at which the roll damping rate is computed, as it is undefined at rest */
+	private static final double MIN_ROLL_DAMPING_MACH = 0.01;
+
+	private final boolean tabulated;
+	private AerodynamicCoefficientTable coefficientTable = null;
+	private FlightConfiguration tableConfiguration = null;
+	private ModID tableConfigurationModID = ModID.INVALID;
+	/** The largest fin tip radius of the table configuration */
+	private double finTipRadius = 0;
+	/** The components of the table configuration whose pressure drag depends on the flow */
+	private final List<RocketComponent> flowDependentComponents = new ArrayList<>();
 	
 	public BarrowmanCalculator() {
-		
+		this(false);
+	}
+
+	/**
+	 * Create a new calculator.
+	 * <p>
+	 * If <code>tabulated</code> is set, {@link #getAerodynamicForces} interpolates the
+	 * coefficients that depend only on the Mach number and angle of attack from a
+	 * {@link AerodynamicCoefficientTable} that is shared between calculators, instead of
+	 * computing them from the components on every call.  This speeds up repeated
+	 * simulations of the same design at the cost of a small interpolation error.
+	 * The roll damping is tabulated per unit of roll rate divided by velocity, and computed
+	 * directly when the fin tips are stalled.  Friction drag, the pressure drag of tubes and
+	 * rail buttons and pitch and yaw damping are always computed exactly.
+	 * Configurations whose normal force depends on the roll angle (fin sets with fewer
+	 * than three fins) and Mach numbers above the table range are always computed directly.
+	 *
+	 * @param tabulated	whether to use tabulated aerodynamic coefficients.
+	 */
+	public BarrowmanCalculator(boolean tabulated) {
+		this.tabulated = tabulated;
 	}
 	
 	
 	@Override
 	public BarrowmanCalculator newInstance() {
-		return new BarrowmanCalculator();
+		return new BarrowmanCalculator(tabulated);
+	}
+
+	/**
+	 * Return whether this calculator uses tabulated aerodynamic coefficients.
+	 */
+	public boolean isTabulated() {
+		return tabulated;
 	}
 
 	/**
@@ -223,13 +272,20 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (warnings == null)
 			warnings = ignoreWarningSet;
 
-		// Calculate non-axial force data
-		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings);
+		AerodynamicForces total = null;
+		if (tabulated) {
+			total = calculateTabulatedForces(configuration, conditions, warnings);
+		}
+		if (total == null) {
+			// Calculate non-axial force data
+			total = calculateNonAxialForces(configuration, conditions, warnings);
+
+			total.setPressureCD(calculatePressureCD(configuration, conditions, null, warnings));
+			total.setBaseCD(calculateBaseCD(configuration, conditions, null, warnings));
+		}
 
 		// Calculate friction data
 		total.setFrictionCD(calculateFrictionCD(configuration, conditions, null, warnings));
-		total.setPressureCD(calculatePressureCD(configuration, conditions, null, warnings));
-		total.setBaseCD(calculateBaseCD(configuration, conditions, null, warnings));
 		total.setOverrideCD(calculateOverrideCD(configuration, conditions, null, null, warnings));
 
 		total.setCD(total.getFrictionCD() + total.getPressureCD() + total.getBaseCD() + total.getOverrideCD());
@@ -247,6 +303,169 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		return total;
 	}
 
+	/**
+	 * Calculate the non-axial forces and the pressure and base drag using the coefficient
+	 * table of the configuration.  The terms that depend on the flight state besides the
+	 * Mach number and angle of attack are calculated directly.
+	 *
+	 * @return	the forces, or <code>null</code> if the table cannot be used for these conditions.
+	 */
+	private AerodynamicForces calculateTabulatedForces(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		if (!AerodynamicCoefficientTable.isTabulated(conditions.getMach())) {
+			return null;
+		}
+		AerodynamicCoefficientTable table = getCoefficientTable(configuration);
+		if (table == null) {
+			return null;
+		}
+
+		AerodynamicForces total = new AerodynamicForces().zero();
+		double rollDampingRate = table.interpolate(conditions.getMach(), conditions.getAOA(),
+				(mach, aoa) -> calculateTableNode(configuration, conditions, mach, aoa), total, warnings);
+
+		if (!flowDependentComponents.isEmpty()) {
+			total.setPressureCD(total.getPressureCD() +
+					calculateFlowDependentPressureCD(configuration, conditions, warnings));
+		}
+
+		double rollDamp = calculateTabulatedRollDamping(configuration, conditions, rollDampingRate);
+		total.setCrollDamp(rollDamp);
+		total.setCroll(total.getCrollForce() - rollDamp);
+
+		return total;
+	}
+
+	/**
+	 * Calculate a grid node of the coefficient table at zero roll angle and roll rate.
+	 */
+	private AerodynamicCoefficientTable.Node calculateTableNode(FlightConfiguration configuration,
+			FlightConditions conditions, double mach, double aoa) {
+		FlightConditions nodeConditions = conditions.clone();
+		nodeConditions.setMach(mach);
+		nodeConditions.setAOA(aoa);
+		nodeConditions.setTheta(0);
+		nodeConditions.setRollRate(0);
+
+		WarningSet nodeWarnings = new WarningSet();
+		AerodynamicForces forces = calculateNonAxialForces(configuration, nodeConditions, nodeWarnings);
+		double pressureCD = calculatePressureCD(configuration, nodeConditions, null, nodeWarnings, true, false);
+		double baseCD = calculateBaseCD(configuration, nodeConditions, null, nodeWarnings);
+		double rollDampingRate = calculateRollDampingRate(configuration, nodeConditions);
+
+		return new AerodynamicCoefficientTable.Node(forces, pressureCD, baseCD, rollDampingRate, nodeWarnings);
+	}
+
+	/**
+	 * Calculate the roll damping coefficient per unit of roll rate divided by velocity.  The
+	 * damping is calculated at a roll rate small enough for the fins to be in their linear
+	 * range, where the damping is proportional to the roll rate divided by velocity.
+	 */
+	private double calculateRollDampingRate(FlightConfiguration configuration, FlightConditions conditions) {
+		if (finTipRadius <= 0) {
+			return 0;
+		}
+		FlightConditions rateConditions = conditions.clone();
+		rateConditions.setMach(Math.max(conditions.getMach(), MIN_ROLL_DAMPING_MACH));
+		double velocity = rateConditions.getVelocity();
+		double rollRate = Math.max(ROLL_DAMPING_REFERENCE_ANGLE * velocity / finTipRadius, MIN_ROLL_DAMPING_RATE);
+		rateConditions.setRollRate(rollRate);
+		return calculateRollDamping(configuration, rateConditions) * velocity / rollRate;
+	}
+
+	/**
+	 * Calculate the roll damping coefficient from the tabulated roll damping rate.  When the
+	 * fin tips are stalled, the damping is no longer proportional to the roll rate and is
+	 * calculated directly.
+	 */
+	private double calculateTabulatedRollDamping(FlightConfiguration configuration, FlightConditions conditions,
+			double rollDampingRate) {
+		double rollRate = conditions.getRollRate();
+		if (rollRate == 0 || rollDampingRate == 0) {
+			return 0;
+		}
+		if (Math.abs(rollRate) * finTipRadius > ROLL_DAMPING_STALL_ANGLE * conditions.getVelocity()) {
+			return calculateRollDamping(configuration, conditions);
+		}
+		return rollDampingRate * rollRate / conditions.getVelocity();
+	}
+
+	/**
+	 * Return the coefficient table of a configuration, or <code>null</code> if the
+	 * aerodynamics of the configuration cannot be tabulated.
+	 */
+	private AerodynamicCoefficientTable getCoefficientTable(FlightConfiguration configuration) {
+		if (tableConfiguration != configuration || tableConfigurationModID != configuration.getModID()) {
+			coefficientTable = isTabulable(configuration) ? AerodynamicCoefficientTable.get(configuration) : null;
+			tableConfiguration = configuration;
+			tableConfigurationModID = configuration.getModID();
+			analyzeTableConfiguration(configuration);
+		}
+		return coefficientTable;
+	}
+
+	/**
+	 * Determine the fin tip radius and the components with flow dependent pressure drag of
+	 * the table configuration.
+	 */
+	private void analyzeTableConfiguration(FlightConfiguration configuration) {
+		if (calcMap == null)
+			buildCalcMap(configuration);
+
+		finTipRadius = 0;
+		flowDependentComponents.clear();
+		for (RocketComponent c : configuration.getActiveInstances().keySet()) {
+			if (c instanceof FinSet) {
+				finTipRadius = Math.max(finTipRadius, ((FinSet) c).getBodyRadius() + ((FinSet) c).getSpan());
+			} else if (c instanceof TubeFinSet) {
+				TubeFinSet tubes = (TubeFinSet) c;
+				finTipRadius = Math.max(finTipRadius, tubes.getBodyRadius() + 2 * tubes.getOuterRadius());
+			}
+			if (c.isAerodynamic() && isFlowDependent(calcMap.get(c))) {
+				flowDependentComponents.add(c);
+			}
+		}
+	}
+
+	/**
+	 * Check whether the non-axial forces of a configuration are independent of the roll
+	 * angle, which is the case unless it contains fin sets with one or two fins.
+	 */
+	private boolean isTabulable(FlightConfiguration configuration) {
+		for (RocketComponent c : configuration.getActiveComponents()) {
+			if (c instanceof FinSet && ((FinSet) c).getFinCount() < 3) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calculate the roll damping coefficient of the fins.
+	 */
+	private double calculateRollDamping(FlightConfiguration configuration, FlightConditions conditions) {
+		if (conditions.getRollRate() == 0) {
+			return 0;
+		}
+		if (calcMap == null)
+			buildCalcMap(configuration);
+
+		double rollDamp = 0;
+		final InstanceMap imap = configuration.getActiveInstances();
+		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
+			RocketComponentCalc calcObj = calcMap.get(entry.getKey());
+			if (!(calcObj instanceof FinSetCalc) && !(calcObj instanceof TubeFinSetCalc)) {
+				continue;
+			}
+			for (InstanceContext context : entry.getValue()) {
+				AerodynamicForces instanceForces = new AerodynamicForces().zero();
+				calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, ignoreWarningSet);
+				rollDamp += instanceForces.getCrollDamp();
+			}
+		}
+		return rollDamp;
+	}
+
 	private AerodynamicForces calculateComponentNonAxialForces(FlightConditions conditions,
 			RocketComponent comp,
 			RocketComponentCalc calcObj,
@@ -725,6 +944,25 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	 */
 	private double calculatePressureCD(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
+		return calculatePressureCD(configuration, conditions, forceMap, warningSet, true, true);
+	}
+
+	/**
+	 * Calculation of drag coefficient due to pressure of a subset of the components.
+	 * The pressure drag of tubes and rail buttons depends on the velocity and atmospheric
+	 * conditions, that of all other components only on the Mach number.
+	 *
+	 * @param configuration Rocket configuration
+	 * @param conditions    Flight conditions taken into account
+	 * @param forceMap
+	 * @param warningSet    all current warnings
+	 * @param machOnly      whether to include components whose pressure drag depends only on the Mach number
+	 * @param flowDependent whether to include components whose pressure drag depends on the flow conditions
+	 * @return
+	 */
+	private double calculatePressureCD(FlightConfiguration configuration, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet,
+			boolean machOnly, boolean flowDependent) {
 
 		double total, stagnation, base;
 		if (calcMap == null)
@@ -742,48 +980,91 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				continue;
 			}
 
-			if (c.isCDOverridden() ||
-				c.isCDOverriddenByAncestor()) {
+			if (isFlowDependent(calcMap.get(c)) ? !flowDependent : !machOnly) {
 				continue;
 			}
 
-			int instanceCount = entry.getValue().size();
+			total += calculateComponentPressureCD(configuration, conditions, c, entry.getValue().size(),
+					stagnation, base, forceMap, warningSet);
+		}
 
-			// Pressure drag of this component
-			double cd = calcMap.get(c).calculatePressureCD(conditions, stagnation, base,
-					warningSet);
+		return total;
+	}
 
-			if (forceMap != null) {
-				forceMap.get(c).setPressureCD(cd);
-			}
+	/**
+	 * Calculation of drag coefficient due to pressure of the components of the table
+	 * configuration whose pressure drag depends on the flow conditions.
+	 */
+	private double calculateFlowDependentPressureCD(FlightConfiguration configuration, FlightConditions conditions,
+			WarningSet warningSet) {
+		double stagnation = calculateStagnationCD(conditions.getMach());
+		double base = calculateBaseCD(conditions.getMach());
+
+		double total = 0;
+		final InstanceMap imap = configuration.getActiveInstances();
+		for (RocketComponent c : flowDependentComponents) {
+			total += calculateComponentPressureCD(configuration, conditions, c, imap.get(c).size(),
+					stagnation, base, null, warningSet);
+		}
+		return total;
+	}
 
-			total += cd * instanceCount;
+	/**
+	 * Return whether the pressure drag calculated by a component calculator depends on the
+	 * velocity and atmospheric conditions besides the Mach number.
+	 */
+	private static boolean isFlowDependent(RocketComponentCalc calcObj) {
+		return (calcObj instanceof TubeCalc) || (calcObj instanceof RailButtonCalc);
+	}
 
-			// Stagnation drag caused by difference in radius between this component
-			// and previous component (increasing radii. Decreasing radii handled in
-			// base drag calculation
-			if (c instanceof SymmetricComponent) {
-				SymmetricComponent s = (SymmetricComponent) c;
-				double foreRadius = s.getForeRadius();
-				double aftRadius = s.getAftRadius();
-				// If length is zero, the component is a disk, i.e. a zero-length tube, so match
-				// the fore and aft diameter
-				if (s.getLength() == 0) {
-					foreRadius = Math.max(foreRadius, aftRadius);
-				}
-				double radius = 0;
-				final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
-				if (prevComponent != null && configuration.isComponentActive(prevComponent))
-					radius = prevComponent.getAftRadius();
-
-				if (radius < foreRadius) {
-					double area = Math.PI * (pow2(foreRadius) - pow2(radius));
-					cd = stagnation * area / conditions.getRefArea();
-					total += instanceCount * cd;
-
-					if (forceMap != null) {
-						forceMap.get(c).setPressureCD(forceMap.get(c).getPressureCD() + cd);
-					}
+	/**
+	 * Calculation of drag coefficient due to pressure of all instances of a component.
+	 */
+	private double calculateComponentPressureCD(FlightConfiguration configuration, FlightConditions conditions,
+			RocketComponent c, int instanceCount, double stagnation, double base,
+			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
+
+		if (c.isCDOverridden() ||
+			c.isCDOverriddenByAncestor()) {
+			return 0;
+		}
+
+		final RocketComponentCalc calcObj = calcMap.get(c);
+
+		// Pressure drag of this component
+		double cd = calcObj.calculatePressureCD(conditions, stagnation, base,
+				warningSet);
+
+		if (forceMap != null) {
+			forceMap.get(c).setPressureCD(cd);
+		}
+
+		double total = cd * instanceCount;
+
+		// Stagnation drag caused by difference in radius between this component
+		// and previous component (increasing radii. Decreasing radii handled in
+		// base drag calculation
+		if (c instanceof SymmetricComponent) {
+			SymmetricComponent s = (SymmetricComponent) c;
+			double foreRadius = s.getForeRadius();
+			double aftRadius = s.getAftRadius();
+			// If length is zero, the component is a disk, i.e. a zero-length tube, so match
+			// the fore and aft diameter
+			if (s.getLength() == 0) {
+				foreRadius = Math.max(foreRadius, aftRadius);
+			}
+			double radius = 0;
+			final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
+			if (prevComponent != null && configuration.isComponentActive(prevComponent))
+				radius = prevComponent.getAftRadius();
+
+			if (radius < foreRadius) {
+				double area = Math.PI * (pow2(foreRadius) - pow2(radius));
+				cd = stagnation * area / conditions.getRefArea();
+				total += instanceCount * cd;
+
+				if (forceMap != null) {
+					forceMap.get(c).setPressureCD(forceMap.get(c).getPressureCD() + cd);
 				}
 			}
 		}
@@ -1061,6 +1342,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		calcMap = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
+
+		coefficientTable = null;
+		tableConfiguration = null;
+		tableConfigurationModID = ModID.INVALID;
 	}
 
 
@@ -0,0 +1,182 @@
+package info.openrocket.core.batch;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+
+import info.openrocket.core.logging.SimulationAbort;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightEvent;
+
+/**
+ * The summary result of a single simulation run by a {@link BatchSimulationRunner}.
+ * Only the summary values of the flight are kept, the flight data itself is discarded.
+ */
+public class BatchResult {
+
+	/**
+	 * The outcome of a simulation.
+	 */
+	public enum Status {
+		/** The simulation completed normally */
+		OK,
+		/** The simulation was aborted, e.g. because the rocket was unstable */
+		ABORTED,
+		/** The document could not be loaded or the simulation threw an exception */
+		FAILED
+	}
+
+	/**
+	 * The summary values of a simulation.  All values are in SI units.
+	 */
+	public enum Value {
+		MAX_ALTITUDE("maxAltitude"),
+		MAX_VELOCITY("maxVelocity"),
+		MAX_ACCELERATION("maxAcceleration"),
+		MAX_MACH("maxMach"),
+		TIME_TO_APOGEE("timeToApogee"),
+		FLIGHT_TIME("flightTime"),
+		GROUND_HIT_VELOCITY("groundHitVelocity"),
+		LAUNCH_ROD_VELOCITY("launchRodVelocity"),
+		DEPLOYMENT_VELOCITY("deploymentVelocity"),
+		OPTIMUM_DELAY("optimumDelay");
+
+		private final String key;
+
+		Value(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * Return the name of this value used in the CSV header and JSON output.
+		 */
+		public String getKey() {
+			return key;
+		}
+	}
+
+	private final File file;
+	private final int simulationIndex;
+	private final String simulationName;
+	private final Status status;
+	private final String message;
+	private final Map<Value, Double> values = new EnumMap<>(Value.class);
+	private final int warningCount;
+	private final long runTime;
+
+	private BatchResult(File file, int simulationIndex, String simulationName, Status status, String message,
+			int warningCount, long runTime) {
+		this.file = file;
+		this.simulationIndex = simulationIndex;
+		this.simulationName = simulationName;
+		this.status = status;
+		this.message = message;
+		this.warningCount = warningCount;
+		this.runTime = runTime;
+	}
+
+	/**
+	 * Create the result of a simulation that completed or was aborted.
+	 *
+	 * @param file				the document file.
+	 * @param simulationIndex	the index of the simulation in the document.
+	 * @param simulationName	the name of the simulation.
+	 * @param data				the simulated flight data.
+	 * @param runTime			the wall clock time used by the simulation, in milliseconds.
+	 */
+	public static BatchResult fromFlightData(File file, int simulationIndex, String simulationName, FlightData data,
+			long runTime) {
+		Status status = Status.OK;
+		String message = null;
+		if (data.getBranchCount() > 0) {
+			FlightDataBranch sustainer = data.getBranch(0);
+			FlightEvent abort = sustainer.getFirstEvent(FlightEvent.Type.SIM_ABORT);
+			if (abort != null) {
+				status = Status.ABORTED;
+				if (abort.getData() instanceof SimulationAbort) {
+					message = ((SimulationAbort) abort.getData()).getMessageDescription();
+				}
+			}
+		}
+
+		BatchResult result = new BatchResult(file, simulationIndex, simulationName, status, message,
+				data.getWarningSet().size(), runTime);
+		result.values.put(Value.MAX_ALTITUDE, data.getMaxAltitude());
+		result.values.put(Value.MAX_VELOCITY, data.getMaxVelocity());
+		result.values.put(Value.MAX_ACCELERATION, data.getMaxAcceleration());
+		result.values.put(Value.MAX_MACH, data.getMaxMachNumber());
+		result.values.put(Value.TIME_TO_APOGEE, data.getTimeToApogee());
+		result.values.put(Value.FLIGHT_TIME, data.getFlightTime());
+		result.values.put(Value.GROUND_HIT_VELOCITY, data.getGroundHitVelocity());
+		result.values.put(Value.LAUNCH_ROD_VELOCITY, data.getLaunchRodVelocity());
+		result.values.put(Value.DEPLOYMENT_VELOCITY, data.getDeploymentVelocity());
+		result.values.put(Value.OPTIMUM_DELAY, data.getOptimumDelay());
+		return result;
+	}
+
+	/**
+	 * Create the result of a document or simulation that failed.
+	 *
+	 * @param file				the document file.
+	 * @param simulationIndex	the index of the simulation in the document, or -1 if the document could not be loaded.
+	 * @param simulationName	the name of the simulation, or <code>null</code> if the document could not be loaded.
+	 * @param message			the error message.
+	 * @param runTime			the wall clock time used, in milliseconds.
+	 */
+	public static BatchResult failed(File file, int simulationIndex, String simulationName, String message,
+			long runTime) {
+		return new BatchResult(file, simulationIndex, simulationName, Status.FAILED, message, 0, runTime);
+	}
+
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Return the index of the simulation in the document, or -1 if the document could not be loaded.
+	 */
+	public int getSimulationIndex() {
+		return simulationIndex;
+	}
+
+	public String getSimulationName() {
+		return simulationName;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Return the abort or error message, or <code>null</code> if the simulation completed normally.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Return a summary value, or NaN if it is not available.
+	 */
+	public double getValue(Value value) {
+		Double d = values.get(value);
+		return (d == null) ? Double.NaN : d;
+	}
+
+	public int getWarningCount() {
+		return warningCount;
+	}
+
+	/**
+	 * Return the wall clock time used by the simulation, in milliseconds.
+	 */
+	public long getRunTime() {
+		return runTime;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult[file=" + file + ", simulation=" + simulationName + ", status=" + status + "]";
+	}
+}
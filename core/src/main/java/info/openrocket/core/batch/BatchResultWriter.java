@@ -0,0 +1,122 @@
+package info.openrocket.core.batch;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Writes the results of a batch simulation run as CSV or JSON.
+ * <p>
+ * Numbers are written in a locale-independent format and all summary values are in SI
+ * units.  Values that are not available are written as empty fields in CSV and as
+ * <code>null</code> in JSON.
+ */
+public final class BatchResultWriter {
+
+	/**
+	 * The output formats.
+	 */
+	public enum Format {
+		CSV, JSON
+	}
+
+	private BatchResultWriter() {
+	}
+
+	public static void write(List<BatchResult> results, Writer writer, Format format) {
+		switch (format) {
+			case CSV -> writeCSV(results, writer);
+			case JSON -> writeJSON(results, writer);
+			default -> throw new IllegalArgumentException("Unknown format " + format);
+		}
+	}
+
+	/**
+	 * Write the results as CSV with a header line.
+	 */
+	public static void writeCSV(List<BatchResult> results, Writer writer) {
+		PrintWriter out = new PrintWriter(writer);
+
+		out.print("file,simulation,status,message,warnings,runTime");
+		for (BatchResult.Value value : BatchResult.Value.values()) {
+			out.print(',');
+			out.print(value.getKey());
+		}
+		out.println();
+
+		for (BatchResult result : results) {
+			out.print(quote(result.getFile().getPath()));
+			out.print(',');
+			out.print(quote(result.getSimulationName()));
+			out.print(',');
+			out.print(result.getStatus());
+			out.print(',');
+			out.print(quote(result.getMessage()));
+			out.print(',');
+			out.print(result.getWarningCount());
+			out.print(',');
+			out.print(result.getRunTime());
+			for (BatchResult.Value value : BatchResult.Value.values()) {
+				out.print(',');
+				double d = result.getValue(value);
+				if (!Double.isNaN(d)) {
+					out.print(d);
+				}
+			}
+			out.println();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Write the results as a JSON array with one object per simulation.
+	 */
+	public static void writeJSON(List<BatchResult> results, Writer writer) {
+		JsonGenerator generator = Json.createGenerator(writer);
+		generator.writeStartArray();
+		for (BatchResult result : results) {
+			generator.writeStartObject();
+			generator.write("file", result.getFile().getPath());
+			writeString(generator, "simulation", result.getSimulationName());
+			generator.write("status", result.getStatus().name());
+			writeString(generator, "message", result.getMessage());
+			generator.write("warnings", result.getWarningCount());
+			generator.write("runTime", result.getRunTime());
+			for (BatchResult.Value value : BatchResult.Value.values()) {
+				double d = result.getValue(value);
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					generator.writeNull(value.getKey());
+				} else {
+					generator.write(value.getKey(), d);
+				}
+			}
+			generator.writeEnd();
+		}
+		generator.writeEnd();
+		generator.flush();
+	}
+
+	private static void writeString(JsonGenerator generator, String key, String value) {
+		if (value == null) {
+			generator.writeNull(key);
+		} else {
+			generator.write(key, value);
+		}
+	}
+
+	/**
+	 * Quote a CSV field if necessary.
+	 */
+	private static String quote(String field) {
+		if (field == null) {
+			return "";
+		}
+		if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+			return field;
+		}
+		return '"' + field.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,164 @@
+package info.openrocket.core.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import info.openrocket.core.startup.OpenRocketCore;
+
+/**
+ * Command-line entry point for running the simulations of OpenRocket documents without
+ * the GUI.  Only the core module is initialized; Swing, Java2D and JOGL are never loaded.
+ * <p>
+ * Usage:
+ * <pre>
+ * BatchSimulation [options] &lt;file or directory&gt;...
+ *   -o, --output &lt;file&gt;        write the results to a file instead of standard output
+ *   -f, --format csv|json      output format (default: from the output file extension, or csv)
+ *   -s, --simulation &lt;name&gt;    only run simulations with the given name (may be repeated)
+ *   -t, --threads &lt;n&gt;         number of worker threads (default: number of processors)
+ * </pre>
+ * The exit code is 0 if all simulations completed, 1 if any simulation was aborted or
+ * failed, and 2 on invalid arguments.
+ */
+public class BatchSimulation {
+
+	private static final int EXIT_OK = 0;
+	private static final int EXIT_FAILURES = 1;
+	private static final int EXIT_USAGE = 2;
+
+	public static void main(String[] args) {
+		// Make sure no AWT resources are initialized, even indirectly
+		System.setProperty("java.awt.headless", "true");
+		System.exit(run(args, System.out, System.err));
+	}
+
+	/**
+	 * Run the batch simulation with the given command line arguments.
+	 *
+	 * @param args	the command line arguments.
+	 * @param out	the stream to write the results to if no output file is given.
+	 * @param err	the stream to write errors to.
+	 * @return		the exit code.
+	 */
+	static int run(String[] args, PrintStream out, PrintStream err) {
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		List<File> paths = new ArrayList<>();
+		File output = null;
+		BatchResultWriter.Format format = null;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				switch (arg) {
+					case "-h", "--help" -> {
+						printUsage(out);
+						return EXIT_OK;
+					}
+					case "-o", "--output" -> output = new File(argument(args, ++i, arg));
+					case "-f", "--format" -> {
+						String f = argument(args, ++i, arg);
+						try {
+							format = BatchResultWriter.Format.valueOf(f.toUpperCase(Locale.ROOT));
+						} catch (IllegalArgumentException e) {
+							throw new IllegalArgumentException("Unknown format: " + f);
+						}
+					}
+					case "-s", "--simulation" -> runner.addSimulationName(argument(args, ++i, arg));
+					case "-t", "--threads" -> {
+						String n = argument(args, ++i, arg);
+						try {
+							runner.setThreadCount(Integer.parseInt(n));
+						} catch (NumberFormatException e) {
+							throw new IllegalArgumentException("Invalid thread count: " + n);
+						}
+					}
+					default -> {
+						if (arg.startsWith("-")) {
+							throw new IllegalArgumentException("Unknown option: " + arg);
+						}
+						paths.add(new File(arg));
+					}
+				}
+			}
+			if (paths.isEmpty()) {
+				throw new IllegalArgumentException("No files specified");
+			}
+		} catch (IllegalArgumentException e) {
+			err.println(e.getMessage());
+			printUsage(err);
+			return EXIT_USAGE;
+		}
+
+		if (format == null) {
+			boolean json = output != null && output.getName().toLowerCase(Locale.ROOT).endsWith(".json");
+			format = json ? BatchResultWriter.Format.JSON : BatchResultWriter.Format.CSV;
+		}
+
+		List<File> files;
+		try {
+			files = BatchSimulationRunner.findDocuments(paths);
+		} catch (IllegalArgumentException e) {
+			err.println(e.getMessage());
+			return EXIT_USAGE;
+		}
+
+		OpenRocketCore.initialize();
+
+		List<BatchResult> results;
+		try {
+			results = runner.run(files);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			err.println("Interrupted");
+			return EXIT_FAILURES;
+		}
+
+		try {
+			if (output != null) {
+				try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)) {
+					BatchResultWriter.write(results, writer, format);
+				}
+			} else {
+				Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+				BatchResultWriter.write(results, writer, format);
+				writer.flush();
+			}
+		} catch (IOException e) {
+			err.println("Unable to write results: " + e.getMessage());
+			return EXIT_FAILURES;
+		}
+
+		int failures = 0;
+		for (BatchResult result : results) {
+			if (result.getStatus() != BatchResult.Status.OK) {
+				failures++;
+			}
+		}
+		err.println(results.size() + " simulations of " + files.size() + " documents, " + failures
+				+ " aborted or failed");
+		return (failures == 0) ? EXIT_OK : EXIT_FAILURES;
+	}
+
+	private static String argument(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing argument for " + option);
+		}
+		return args[index];
+	}
+
+	private static void printUsage(PrintStream out) {
+		out.println("Usage: BatchSimulation [options] <file or directory>...");
+		out.println("  -o, --output <file>        write the results to a file instead of standard output");
+		out.println("  -f, --format csv|json      output format (default: from the output file extension, or csv)");
+		out.println("  -s, --simulation <name>    only run simulations with the given name (may be repeated)");
+		out.println("  -t, --threads <n>          number of worker threads (default: number of processors)");
+	}
+}
@@ -0,0 +1,229 @@
+package info.openrocket.core.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SharedRocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Loads OpenRocket documents and runs their simulations in parallel, collecting a
+ * {@link BatchResult} for each simulation.
+ * <p>
+ * Loading a document and running each of its simulations are separate tasks on a
+ * shared thread pool, so that both a directory of many designs and a single design
+ * with many simulations make use of all threads.  The simulations of a document share
+ * a single read-only snapshot of the rocket (see {@link SharedRocket}), so the rocket is
+ * copied only once per document regardless of the number of simulations.
+ * <p>
+ * The application injector must have been initialized (e.g. using
+ * {@link info.openrocket.core.startup.OpenRocketCore#initialize()}) before running.
+ */
+public class BatchSimulationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationRunner.class);
+
+	private static final String ORK_EXTENSION = ".ork";
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private final Set<String> simulationNames = new HashSet<>();
+
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Set the number of worker threads to use.
+	 *
+	 * @param threadCount	the number of threads, at least one.
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be positive, threadCount=" + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Add the name of a simulation to run.  If no names are added, all simulations of
+	 * each document are run.
+	 */
+	public void addSimulationName(String name) {
+		simulationNames.add(name);
+	}
+
+	/**
+	 * Return whether a simulation is selected to be run.
+	 */
+	public boolean isSelected(Simulation simulation) {
+		return simulationNames.isEmpty() || simulationNames.contains(simulation.getName());
+	}
+
+
+	/**
+	 * Find the OpenRocket documents to process.  Files are included as is, directories are
+	 * searched recursively for .ork files.  The result is sorted by path within each directory.
+	 *
+	 * @param paths		the files and directories.
+	 * @return			the document files.
+	 * @throws IllegalArgumentException	if a path does not exist.
+	 */
+	public static List<File> findDocuments(Collection<File> paths) {
+		List<File> files = new ArrayList<>();
+		for (File path : paths) {
+			if (path.isDirectory()) {
+				try (Stream<Path> stream = Files.walk(path.toPath())) {
+					files.addAll(stream
+							.filter(Files::isRegularFile)
+							.filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(ORK_EXTENSION))
+							.sorted()
+							.map(Path::toFile)
+							.collect(Collectors.toList()));
+				} catch (IOException e) {
+					throw new UncheckedIOException("Unable to list directory " + path, e);
+				}
+			} else if (path.isFile()) {
+				files.add(path);
+			} else {
+				throw new IllegalArgumentException("File not found: " + path);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Load the documents and run the selected simulations.  The results are returned in
+	 * the order of the files, and the simulations in the order they appear in each document.
+	 * A document that cannot be loaded produces a single failed result.
+	 *
+	 * @param files		the document files.
+	 * @return			the results of all simulations.
+	 * @throws InterruptedException	if the calling thread was interrupted while waiting.
+	 */
+	public List<BatchResult> run(List<File> files) throws InterruptedException {
+		long t0 = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+		try {
+			List<Future<List<Future<BatchResult>>>> documents = new ArrayList<>();
+			for (File file : files) {
+				documents.add(executor.submit(() -> loadDocument(file, executor)));
+			}
+
+			List<BatchResult> results = new ArrayList<>();
+			for (Future<List<Future<BatchResult>>> document : documents) {
+				for (Future<BatchResult> simulation : getResult(document)) {
+					results.add(getResult(simulation));
+				}
+			}
+
+			log.info("Ran " + results.size() + " simulations of " + files.size() + " documents using " + threadCount
+					+ " threads in " + (System.currentTimeMillis() - t0) + "ms");
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Load a document and submit its selected simulations to the executor.  This does
+	 * not wait for the simulations, so it never blocks a worker thread.
+	 */
+	private List<Future<BatchResult>> loadDocument(File file, ExecutorService executor) {
+		List<Future<BatchResult>> futures = new ArrayList<>();
+		long t0 = System.currentTimeMillis();
+
+		OpenRocketDocument document;
+		try {
+			document = new GeneralRocketLoader(file).load();
+		} catch (RocketLoadException | RuntimeException e) {
+			log.warn("Unable to load " + file, e);
+			futures.add(CompletableFuture.completedFuture(
+					BatchResult.failed(file, -1, null, e.getMessage(), System.currentTimeMillis() - t0)));
+			return futures;
+		}
+
+		List<Simulation> simulations = document.getSimulations();
+		SharedRocket sharedRocket = null;
+		for (int i = 0; i < simulations.size(); i++) {
+			Simulation simulation = simulations.get(i);
+			if (!isSelected(simulation)) {
+				continue;
+			}
+			if (sharedRocket == null) {
+				// The snapshot is made here so that the simulations never access the document rocket
+				sharedRocket = SharedRocket.of(document.getRocket());
+			}
+			final int index = i;
+			final SharedRocket rocket = sharedRocket;
+			final Simulation copy = simulation.duplicateSimulation(rocket.getRocket());
+			futures.add(executor.submit(() -> runSimulation(file, index, copy, rocket)));
+		}
+		return futures;
+	}
+
+	private BatchResult runSimulation(File file, int index, Simulation simulation, SharedRocket rocket) {
+		long t0 = System.currentTimeMillis();
+		try {
+			simulation.simulate(rocket);
+			FlightData data = simulation.getSimulatedData();
+			return BatchResult.fromFlightData(file, index, simulation.getName(), data,
+					System.currentTimeMillis() - t0);
+		} catch (SimulationException | RuntimeException e) {
+			log.warn("Simulation " + simulation.getName() + " of " + file + " failed", e);
+			return BatchResult.failed(file, index, simulation.getName(), e.getMessage(),
+					System.currentTimeMillis() - t0);
+		}
+	}
+
+	private static <T> T getResult(Future<T> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			// The tasks catch all exceptions themselves
+			throw new BugException("Batch simulation task failed", e.getCause());
+		}
+	}
+
+
+	/**
+	 * Creates daemon threads, so that a stuck simulation does not prevent the JVM from exiting.
+	 */
+	private static class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "BatchSimulation-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
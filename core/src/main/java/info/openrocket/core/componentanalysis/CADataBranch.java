@@ -3,7 +3,6 @@ package info.openrocket.core.componentanalysis;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.DataBranch;
 import info.openrocket.core.util.ArrayList;
-import info.openrocket.core.util.ModID;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,19 +38,13 @@ public class CADataBranch extends DataBranch<CADataType> {
 
 	@Override
 	public void addPoint() {
-		mutable.check();
-
-		for (Map.Entry<CADataType, ArrayList<Double>> entry : values.entrySet()) {
-			entry.getValue().add(Double.NaN);
-		}
+		super.addPoint();
 
 		for (Map<RocketComponent, ArrayList<Double>> componentMap : componentValues.values()) {
 			for (ArrayList<Double> list : componentMap.values()) {
 				list.add(Double.NaN);
 			}
 		}
-
-		modID = new ModID();
 	}
 
 	public void setValue(CADataType type, RocketComponent component, double value) {
@@ -83,7 +76,7 @@ public class CADataBranch extends DataBranch<CADataType> {
 		// Update min and max values
 		updateMinMaxValues(type, component, value);
 
-		modID = new ModID();
+		markModified();
 	}
 
 	public void setDomainValue(CADomainDataType domainType, double value) {
@@ -91,8 +84,6 @@ public class CADataBranch extends DataBranch<CADataType> {
 
 		// Use the existing DataBranch functionality for domain values
 		super.setValue(domainType, value);
-
-		modID = new ModID();
 	}
 
 	private void updateMinMaxValues(CADataType type, RocketComponent component, double value) {
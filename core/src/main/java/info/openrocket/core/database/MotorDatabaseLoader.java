@@ -7,6 +7,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.List;
 
@@ -17,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
+import info.openrocket.core.file.motor.BinaryMotorDatabase;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.motor.ThrustCurveMotor;
@@ -87,23 +91,52 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  The binary database format
+	 * is used, with legacy Java serialized databases still being supported.
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, BinaryMotorDatabase.EXTENSION, "ser"));
 		if (iterator == null) {
 			log.error("Unable to read serialized motor database from " + THRUSTCURVE_DIRECTORY);
 			return;
 		}
 		while (iterator.hasNext()) {
 			Pair<File, InputStream> f = iterator.next();
-			loadSerialized(f);
+			if (f.getU().getName().endsWith("." + BinaryMotorDatabase.EXTENSION)) {
+				loadBinary(f);
+			} else {
+				loadSerialized(f);
+			}
 		}
 		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
 	}
 	
 	
+	/**
+	 * loads a binary motor database from a stream, memory-mapping the file if it
+	 * is a regular file
+	 * 
+	 * @param f	the pair of a File and the input stream
+	 */
+	private void loadBinary(Pair<File, InputStream> f) {
+		log.debug("Reading motors from file " + f.getU().getPath());
+		try (InputStream is = f.getV()) {
+			ByteBuffer buffer;
+			if (f.getU().isFile()) {
+				try (FileChannel channel = FileChannel.open(f.getU().toPath(), StandardOpenOption.READ)) {
+					buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				}
+			} else {
+				buffer = ByteBuffer.wrap(is.readAllBytes());
+			}
+			addMotors(BinaryMotorDatabase.read(buffer));
+		} catch (Exception ex) {
+			throw new BugException(ex);
+		}
+	}
+	
 	/**
 	 * loads a serailized motor data from an stream
 	 * 
@@ -0,0 +1,220 @@
+package info.openrocket.core.database.motor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.ThrustCurveMotor;
+
+/**
+ * An immutable set of secondary indexes over the motors of a {@link ThrustCurveMotorSetDatabase}.
+ * <p>
+ * The motors are numbered in the iteration order of the database, and the lookup methods
+ * return the numbers of the candidate motors as a <code>BitSet</code>, so that the results
+ * of several lookups can be intersected and iterated in database order.  The lookups are
+ * exact for the criteria they index; the other search criteria have to be checked by the
+ * caller.
+ * <p>
+ * Substring searches use a sorted map of all suffixes of the indexed strings, in which the
+ * strings containing a given substring are the ones with a suffix starting with it.
+ */
+final class ThrustCurveMotorIndex {
+
+	/** Queries longer than this are not split into substrings for the common name lookup */
+	private static final int MAX_SUBSTRING_QUERY = 64;
+
+	private final ThrustCurveMotor[] motors;
+	private final ThrustCurveMotorSet[] motorSetOfMotor;
+	private final ThrustCurveMotorSet[] motorSets;
+
+	private final Map<String, int[]> digests;
+	private final Map<Manufacturer, int[]> manufacturers;
+	private final NavigableMap<Double, int[]> diameters;
+	private final NavigableMap<String, int[]> designationSuffixes;
+	private final Map<String, int[]> commonNames;
+	private final NavigableMap<String, int[]> textSuffixes;
+
+
+	ThrustCurveMotorIndex(List<ThrustCurveMotorSet> sets) {
+		List<ThrustCurveMotor> motorList = new ArrayList<>();
+		List<ThrustCurveMotorSet> motorSetList = new ArrayList<>();
+		for (ThrustCurveMotorSet set : sets) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				motorList.add(m);
+				motorSetList.add(set);
+			}
+		}
+		this.motors = motorList.toArray(new ThrustCurveMotor[0]);
+		this.motorSetOfMotor = motorSetList.toArray(new ThrustCurveMotorSet[0]);
+		this.motorSets = sets.toArray(new ThrustCurveMotorSet[0]);
+
+		Map<String, List<Integer>> digestMap = new HashMap<>();
+		Map<Manufacturer, List<Integer>> manufacturerMap = new HashMap<>();
+		NavigableMap<Double, List<Integer>> diameterMap = new TreeMap<>();
+		NavigableMap<String, List<Integer>> designationMap = new TreeMap<>();
+		Map<String, List<Integer>> commonNameMap = new HashMap<>();
+		for (int i = 0; i < motors.length; i++) {
+			ThrustCurveMotor m = motors[i];
+			add(digestMap, m.getDigest(), i);
+			add(manufacturerMap, m.getManufacturer(), i);
+			add(diameterMap, m.getDiameter(), i);
+			addSuffixes(designationMap, m.getDesignation().toUpperCase(), i);
+			add(commonNameMap, m.getCommonName().toUpperCase(), i);
+		}
+
+		NavigableMap<String, List<Integer>> textMap = new TreeMap<>();
+		for (int i = 0; i < motorSets.length; i++) {
+			ThrustCurveMotorSet set = motorSets[i];
+			addSuffixes(textMap, normalizeText(set.getManufacturer().getDisplayName()), i);
+			addSuffixes(textMap, normalizeText(set.getDesignation()), i);
+			addSuffixes(textMap, normalizeText(set.getCommonName()), i);
+			if (set.getCaseInfo() != null) {
+				addSuffixes(textMap, normalizeText(set.getCaseInfo()), i);
+			}
+		}
+
+		this.digests = toArrays(digestMap, new HashMap<>());
+		this.manufacturers = toArrays(manufacturerMap, new HashMap<>());
+		this.diameters = toArrays(diameterMap, new TreeMap<>());
+		this.designationSuffixes = toArrays(designationMap, new TreeMap<>());
+		this.commonNames = toArrays(commonNameMap, new HashMap<>());
+		this.textSuffixes = toArrays(textMap, new TreeMap<>());
+	}
+
+	/**
+	 * Return the number of indexed motors.
+	 */
+	int getMotorCount() {
+		return motors.length;
+	}
+
+	ThrustCurveMotor getMotor(int index) {
+		return motors[index];
+	}
+
+	/**
+	 * Return the set containing the motor with the given number.
+	 */
+	ThrustCurveMotorSet getMotorSet(int index) {
+		return motorSetOfMotor[index];
+	}
+
+	/**
+	 * Return the motors with the given digest.
+	 */
+	BitSet findByDigest(String digest) {
+		return toBitSet(digests.get(digest));
+	}
+
+	/**
+	 * Return the motors whose manufacturer matches the given name, as defined by
+	 * {@link Manufacturer#matches(String)}.
+	 */
+	BitSet findByManufacturer(String manufacturer) {
+		BitSet result = new BitSet(motors.length);
+		for (Map.Entry<Manufacturer, int[]> entry : manufacturers.entrySet()) {
+			if (entry.getKey().matches(manufacturer)) {
+				set(result, entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the motors whose diameter differs by at most the given tolerance from the given diameter.
+	 */
+	BitSet findByDiameter(double diameter, double tolerance) {
+		BitSet result = new BitSet(motors.length);
+		for (int[] indexes : diameters.subMap(diameter - tolerance, true, diameter + tolerance, true).values()) {
+			set(result, indexes);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the motors whose designation contains the given designation, or whose common
+	 * name is contained in the given designation, both ignoring case.  Returns <code>null</code>
+	 * if the designation is too long to be looked up.
+	 */
+	BitSet findByDesignation(String designation) {
+		final String query = designation.toUpperCase();
+		if (query.length() > MAX_SUBSTRING_QUERY) {
+			return null;
+		}
+
+		BitSet result = findSuffixes(designationSuffixes, query, motors.length);
+		for (int start = 0; start <= query.length(); start++) {
+			for (int end = start; end <= query.length(); end++) {
+				set(result, commonNames.get(query.substring(start, end)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the motor sets whose manufacturer, designation, common name or case info
+	 * contains the given text, ignoring case.
+	 */
+	List<ThrustCurveMotorSet> findMotorSets(String text) {
+		BitSet found = findSuffixes(textSuffixes, normalizeText(text), motorSets.length);
+		List<ThrustCurveMotorSet> result = new ArrayList<>(found.cardinality());
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+			result.add(motorSets[i]);
+		}
+		return result;
+	}
+
+
+	private static String normalizeText(String text) {
+		return text.toLowerCase(Locale.getDefault());
+	}
+
+	private static BitSet findSuffixes(NavigableMap<String, int[]> suffixes, String prefix, int size) {
+		BitSet result = new BitSet(size);
+		for (int[] indexes : suffixes.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+			set(result, indexes);
+		}
+		return result;
+	}
+
+	private static void addSuffixes(Map<String, List<Integer>> map, String str, int index) {
+		for (int i = 0; i <= str.length(); i++) {
+			add(map, str.substring(i), index);
+		}
+	}
+
+	private static <K> void add(Map<K, List<Integer>> map, K key, int index) {
+		List<Integer> list = map.computeIfAbsent(key, k -> new ArrayList<>());
+		// The same motor may add the same suffix several times
+		if (list.isEmpty() || list.get(list.size() - 1) != index) {
+			list.add(index);
+		}
+	}
+
+	private static <K, M extends Map<K, int[]>> M toArrays(Map<K, List<Integer>> map, M result) {
+		for (Map.Entry<K, List<Integer>> entry : map.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+		return result;
+	}
+
+	private static BitSet toBitSet(int[] indexes) {
+		BitSet result = new BitSet();
+		set(result, indexes);
+		return result;
+	}
+
+	private static void set(BitSet bits, int[] indexes) {
+		if (indexes != null) {
+			for (int i : indexes) {
+				bits.set(i);
+			}
+		}
+	}
+}
@@ -1,14 +1,20 @@
 package info.openrocket.core.database.motor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.motor.Manufacturer;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.MathUtil;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
@@ -21,9 +27,19 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<>();
 
+	private static final double DIMENSION_TOLERANCE = 0.005;
+
+	// The motor sets by manufacturer and designation, in the order they were created
+	private final Map<List<Object>, List<ThrustCurveMotorSet>> motorSetIndex = new HashMap<>();
+
+	// The search index, built when needed and discarded whenever a motor is added
+	private volatile ThrustCurveMotorIndex index = null;
+
 	@Override
 	public List<ThrustCurveMotor> findMotors(String digest, Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
+		final ThrustCurveMotorIndex index = getIndex();
+
 		ArrayList<ThrustCurveMotor> fullMatches = new ArrayList<>();
 		ArrayList<ThrustCurveMotor> digestMatches = new ArrayList<>();
 		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
@@ -32,37 +48,15 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		// We'll return
 		// the most restrictive nonempty list we find, or empty list if no matches at
 		// all
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean matchDescription = true;
-				boolean matchDigest = true;
-
-				// unlike the description, digest must be present in search criteria to get a
-				// match
-				if (digest == null || !digest.equals(m.getDigest()))
-					matchDigest = false;
-
-				// match description
-				if (type != null && type != set.getType())
-					matchDescription = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					matchDescription = false;
-				else if (designation != null &&
-						!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
-						!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
-					matchDescription = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					matchDescription = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					matchDescription = false;
-
-				if (matchDigest)
-					digestMatches.add(m);
-
-				if (matchDescription)
-					descriptionMatches.add(m);
-
-				if (matchDigest && matchDescription)
+
+		// unlike the description, digest must be present in search criteria to get a
+		// match
+		if (digest != null) {
+			BitSet found = index.findByDigest(digest);
+			for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+				ThrustCurveMotor m = index.getMotor(i);
+				digestMatches.add(m);
+				if (matchesDescription(index.getMotorSet(i), m, type, manufacturer, designation, diameter, length))
 					fullMatches.add(m);
 			}
 		}
@@ -73,10 +67,93 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		if (!digestMatches.isEmpty())
 			return digestMatches;
 
+		// Narrow down the candidates using the indexed criteria
+		BitSet candidates = null;
+		if (manufacturer != null) {
+			candidates = intersect(candidates, index.findByManufacturer(manufacturer));
+		}
+		if (!Double.isNaN(diameter)) {
+			candidates = intersect(candidates, index.findByDiameter(diameter, DIMENSION_TOLERANCE + MathUtil.EPSILON));
+		}
+		if (designation != null) {
+			candidates = intersect(candidates, index.findByDesignation(designation));
+		}
+		if (candidates == null) {
+			candidates = new BitSet(index.getMotorCount());
+			candidates.set(0, index.getMotorCount());
+		}
+
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			ThrustCurveMotor m = index.getMotor(i);
+			if (matchesDescription(index.getMotorSet(i), m, type, manufacturer, designation, diameter, length))
+				descriptionMatches.add(m);
+		}
+
 		return descriptionMatches;
 
 	}
 
+	/**
+	 * Return the motor sets whose manufacturer, designation, common name or case info
+	 * contains the given text, ignoring case.  This uses an index, and is intended for
+	 * filtering the motor sets as the user types.
+	 * 
+	 * @param text	the text to search for.
+	 * @return		the matching motor sets, in the order of {@link #getMotorSets()}.
+	 */
+	public List<ThrustCurveMotorSet> findMotorSets(String text) {
+		return getIndex().findMotorSets(text);
+	}
+
+	private static boolean matchesDescription(ThrustCurveMotorSet set, ThrustCurveMotor m, Motor.Type type,
+			String manufacturer, String designation, double diameter, double length) {
+		if (type != null && type != set.getType())
+			return false;
+		else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+			return false;
+		else if (designation != null &&
+				!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
+				!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
+			return false;
+		else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > DIMENSION_TOLERANCE))
+			return false;
+		else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > DIMENSION_TOLERANCE))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Intersect a set of candidates with another set, where <code>null</code> means
+	 * that all motors are candidates.
+	 */
+	private static BitSet intersect(BitSet candidates, BitSet found) {
+		if (found == null) {
+			return candidates;
+		}
+		if (candidates == null) {
+			return found;
+		}
+		candidates.and(found);
+		return candidates;
+	}
+
+	/**
+	 * Return the index of the motors, building it if the database has changed.
+	 */
+	private ThrustCurveMotorIndex getIndex() {
+		ThrustCurveMotorIndex i = index;
+		if (i == null) {
+			synchronized (this) {
+				i = index;
+				if (i == null) {
+					i = new ThrustCurveMotorIndex(motorSets);
+					index = i;
+				}
+			}
+		}
+		return i;
+	}
+
 	/**
 	 * Return a list of all ThrustCurveMotorSets.
 	 */
@@ -89,14 +166,22 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	 * the motor is added to that set, otherwise a new set is created and added to
 	 * the
 	 * database.
+	 * <p>
+	 * Only the sets with the same manufacturer and designation as the motor are
+	 * considered, as no other set can match it.
 	 * 
 	 * @param motor the motor to add
 	 */
 	public void addMotor(ThrustCurveMotor motor) {
+		index = null;
+
+		List<ThrustCurveMotorSet> candidates = motorSetIndex.computeIfAbsent(
+				getIndexKey(motor.getManufacturer(), motor.getDesignation()), k -> new ArrayList<>());
+
 		// Iterate from last to first, as this is most likely to hit early when loading
 		// files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			ThrustCurveMotorSet set = candidates.get(i);
 			if (set.matches(motor)) {
 				set.addMotor(motor);
 				return;
@@ -106,6 +191,11 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
 		newSet.addMotor(motor);
 		motorSets.add(newSet);
+		candidates.add(newSet);
+	}
+
+	private static List<Object> getIndexKey(Manufacturer manufacturer, String designation) {
+		return List.of(manufacturer, designation.toUpperCase(Locale.ROOT));
 	}
 
 }
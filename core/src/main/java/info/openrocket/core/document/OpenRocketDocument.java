@@ -6,11 +6,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EventObject;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import info.openrocket.core.file.wavefrontobj.export.OBJExportOptions;
 import info.openrocket.core.material.Material;
@@ -36,6 +39,7 @@ import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.InsideColorComponent;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.RocketSnapshot;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -90,11 +94,20 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  The snapshots
+	 * share the state of unmodified components with the previous snapshot.
 	 */
-	private final LinkedList<Rocket> undoHistory = new LinkedList<>();
+	private final LinkedList<RocketSnapshot> undoHistory = new LinkedList<>();
 	private final LinkedList<String> undoDescription = new LinkedList<>();
 	
+	/**
+	 * The IDs of the components modified since the rocket was last equal to the snapshot at
+	 * undoPosition.  If the structure of the rocket has been modified, all components are
+	 * considered modified.
+	 */
+	private final Set<UUID> modifiedComponents = new HashSet<>();
+	private boolean structureModified = true;
+	
 	/**
 	 * The position in the undoHistory we are currently at.  If modifications have been
 	 * made to the rocket, the rocket is in "dirty" state and this points to the previous
@@ -548,7 +561,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	 */
 	private void addStateToUndoHistory(String description) {
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(captureSnapshot(undoHistory.get(undoPosition)));
 		undoDescription.add(null);
 		nextDescription = description;
 		undoPosition++;
@@ -637,7 +650,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		undoHistory.clear();
 		undoDescription.clear();
 		
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(captureSnapshot(null));
 		undoDescription.add(null);
 		undoPosition = 0;
 		
@@ -649,6 +662,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	public void componentChanged(ComponentChangeEvent e) {
 		
 		if (!e.isUndoChange()) {
+			markModified(e);
 			if (undoPosition < undoHistory.size() - 1) {
 				log.info("Rocket changed while in undo history, removing redo information for " + this +
 						" undoPosition=" + undoPosition + " undoHistory.size=" + undoHistory.size() +
@@ -758,12 +772,12 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
+			undoHistory.add(captureSnapshot(undoHistory.get(undoPosition)));
 			undoDescription.add(null);
 		}
 		
 		rocket.checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition));
+		loadSnapshot(undoHistory.get(undoPosition));
 		rocket.checkComponentStructure();
 	}
 	
@@ -785,7 +799,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		loadSnapshot(undoHistory.get(undoPosition));
 	}
 	
 	
@@ -793,6 +807,65 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		return rocket.getModID() == undoHistory.get(undoPosition).getModID();
 	}
 	
+	/**
+	 * Capture a snapshot of the rocket, sharing the unmodified components with the given
+	 * snapshot, and reset the modification tracking.
+	 * 
+	 * @param previous	the snapshot the rocket was last equal to, or <code>null</code> to copy all components.
+	 */
+	private RocketSnapshot captureSnapshot(RocketSnapshot previous) {
+		RocketSnapshot snapshot = RocketSnapshot.capture(rocket, structureModified ? null : previous,
+				modifiedComponents);
+		log.debug("Captured " + snapshot + " for " + this);
+		clearModified();
+		return snapshot;
+	}
+	
+	/**
+	 * Load the state of a snapshot into the rocket and reset the modification tracking.
+	 */
+	private void loadSnapshot(RocketSnapshot snapshot) {
+		rocket.loadFrom(snapshot.toRocket());
+		clearModified();
+	}
+	
+	/**
+	 * Record the components modified by a change event.  Changes of the rocket itself and
+	 * of the component tree mark all components modified.  Other changes mark the source
+	 * component, its ancestors and descendants, and the components that mirror the changes
+	 * of the source as config listeners.
+	 */
+	private void markModified(ComponentChangeEvent e) {
+		if (structureModified) {
+			return;
+		}
+		RocketComponent source = e.getSource();
+		if (e.isTreeChange() || source == null || source instanceof Rocket) {
+			structureModified = true;
+			modifiedComponents.clear();
+			return;
+		}
+		markModified(source);
+		for (RocketComponent listener : source.getConfigListeners()) {
+			markModified(listener);
+		}
+	}
+	
+	private void markModified(RocketComponent component) {
+		for (RocketComponent c = component.getParent(); c != null; c = c.getParent()) {
+			modifiedComponents.add(c.getID());
+		}
+		Iterator<RocketComponent> iterator = component.iterator(true);
+		while (iterator.hasNext()) {
+			modifiedComponents.add(iterator.next().getID());
+		}
+	}
+	
+	private void clearModified() {
+		modifiedComponents.clear();
+		structureModified = false;
+	}
+	
 	
 	/**
 	 * Log a non-fatal undo/redo error or inconsistency.  Reports it to the user the first 
@@ -22,6 +22,7 @@ import info.openrocket.core.simulation.BasicEventSimulationEngine;
 import info.openrocket.core.simulation.DefaultSimulationOptionFactory;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.SharedRocket;
 import info.openrocket.core.simulation.SimulationConditions;
 import info.openrocket.core.simulation.SimulationEngine;
 import info.openrocket.core.simulation.SimulationOptions;
@@ -213,6 +214,9 @@ public class Simulation implements ChangeSource, Cloneable {
 		this.status = status;
 		this.simulatedConditions = options.clone();
 		this.simulatedData = data;
+		if (data != null) {
+			data.storeData();
+		}
 		this.document = document;
 		addChangeListener(this.document);
 
@@ -468,6 +472,25 @@ public class Simulation implements ChangeSource, Cloneable {
 	 */
 	public void simulate(SimulationListener... additionalListeners)
 			throws SimulationException {
+		simulate(null, additionalListeners);
+	}
+
+	/**
+	 * Simulate the flight using a rocket snapshot shared with other simulations, instead
+	 * of a private copy of the rocket.  This allows simulating several simulations of the
+	 * same rocket concurrently while copying the rocket only once.
+	 *
+	 * @param sharedRocket			a snapshot of the current state of the rocket of this simulation,
+	 * 								or <code>null</code> to simulate a private copy of the rocket.
+	 * @param additionalListeners	additional simulation listeners (those defined by the simulation are used in any case)
+	 * @throws SimulationException	if a problem occurs during simulation
+	 * @throws IllegalArgumentException	if the snapshot is not of the current state of the rocket.
+	 */
+	public void simulate(SharedRocket sharedRocket, SimulationListener... additionalListeners)
+			throws SimulationException {
+		if (sharedRocket != null && !sharedRocket.isSnapshotOf(rocket)) {
+			throw new IllegalArgumentException("Shared rocket " + sharedRocket + " is not a snapshot of the current rocket");
+		}
 		mutex.lock("simulate");
 		SimulationEngine simulator = null;
 		simulatedData = null;
@@ -489,6 +512,7 @@ public class Simulation implements ChangeSource, Cloneable {
 
 			SimulationConditions simulationConditions = options.toSimulationConditions();
 			simulationConditions.setSimulation(this);
+			simulationConditions.setSharedRocket(sharedRocket);
 			
 			for (SimulationExtension extension : simulationExtensions) {
 				extension.initialize(simulationConditions);
@@ -514,6 +538,9 @@ public class Simulation implements ChangeSource, Cloneable {
 			simulatedConfigurationModID = getActiveConfiguration().getModID();
 			if (simulator != null) {
 				simulatedData = simulator.getFlightData();
+				if (simulatedData != null) {
+					simulatedData.storeData();
+				}
 			}
 			
 			status = Status.UPTODATE;
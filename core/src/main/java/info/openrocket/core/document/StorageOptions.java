@@ -14,6 +14,7 @@ public class StorageOptions implements Cloneable {
 	private FileType fileType = FileType.OPENROCKET;
 
 	private boolean saveSimulationData = false;
+	private boolean saveSimulationDataBinary = false;
 
 	private boolean explicitlySet = false;
 	private byte[] previewImage;		// File preview image data
@@ -34,6 +35,18 @@ public class StorageOptions implements Cloneable {
 		saveSimulationData = s;
 	}
 
+	/**
+	 * Return whether simulation data is stored as compact binary entries of the .ork
+	 * container instead of XML.  Files with binary data require file version 1.12.
+	 */
+	public boolean getSaveSimulationDataBinary() {
+		return saveSimulationDataBinary;
+	}
+
+	public void setSaveSimulationDataBinary(boolean s) {
+		saveSimulationDataBinary = s;
+	}
+
 	public boolean isExplicitlySet() {
 		return explicitlySet;
 	}
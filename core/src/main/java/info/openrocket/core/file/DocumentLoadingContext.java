@@ -1,13 +1,46 @@
 package info.openrocket.core.file;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.logging.WarningSet;
 
 public class DocumentLoadingContext {
 
+	/**
+	 * A reader of an entry of the container file that is read after the main document.
+	 * When the document is loaded in the background, the entries may be read concurrently
+	 * on different threads.
+	 */
+	public interface EntryReader {
+		/**
+		 * Read the contents of the entry.
+		 *
+		 * @param in	the entry contents, must not be closed.
+		 * @throws IOException	if the contents cannot be read.
+		 */
+		void read(InputStream in) throws IOException;
+
+		/**
+		 * Called once the entry has been read, or when it could not be read.
+		 *
+		 * @param warnings	the warnings of reading the entry, for example if it was not found.
+		 */
+		void finish(WarningSet warnings);
+	}
+
 	private int fileVersion;
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private Executor dataExecutor;
+	private final Map<String, EntryReader> entryReaders = new LinkedHashMap<>();
 
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +74,108 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 
+	/**
+	 * Return the executor used for loading simulation data in the background, or
+	 * <code>null</code> if the data is loaded along with the document.
+	 */
+	public Executor getDataExecutor() {
+		return dataExecutor;
+	}
+
+	public void setDataExecutor(Executor dataExecutor) {
+		this.dataExecutor = dataExecutor;
+	}
+
+	/**
+	 * Register a reader for an entry of the container file.  The entry is read after the
+	 * main document has been loaded.
+	 *
+	 * @param name		the name of the entry.
+	 * @param reader	the reader of the entry.
+	 */
+	public synchronized void addEntryReader(String name, EntryReader reader) {
+		entryReaders.put(name, reader);
+	}
+
+	/**
+	 * Return whether there are entries left to read.
+	 */
+	public synchronized boolean hasEntryReaders() {
+		return !entryReaders.isEmpty();
+	}
+
+	/**
+	 * Return the names of the entries left to read, in the order they were registered.
+	 */
+	public synchronized List<String> getEntryNames() {
+		return new ArrayList<>(entryReaders.keySet());
+	}
+
+	/**
+	 * Read an entry of the container file if a reader has been registered for it.
+	 *
+	 * @param name		the name of the entry.
+	 * @param in		the entry contents.
+	 * @param warnings	the warning set to add a warning to if the entry cannot be read.
+	 */
+	public void readEntry(String name, InputStream in, WarningSet warnings) {
+		EntryReader reader;
+		synchronized (this) {
+			reader = entryReaders.remove(name);
+		}
+		if (reader == null) {
+			return;
+		}
+		WarningSet entryWarnings = new WarningSet();
+		try {
+			reader.read(in);
+		} catch (IOException | IllegalArgumentException | IllegalStateException e) {
+			entryWarnings.add("Unable to read " + name + ": " + e.getMessage());
+		} finally {
+			warnings.addAll(entryWarnings);
+			reader.finish(entryWarnings);
+		}
+	}
+
+	/**
+	 * Report that an entry of the container file could not be opened.
+	 *
+	 * @param name		the name of the entry.
+	 * @param message	the reason the entry could not be opened.
+	 * @param warnings	the warning set to add a warning to.
+	 */
+	public void failEntry(String name, String message, WarningSet warnings) {
+		EntryReader reader;
+		synchronized (this) {
+			reader = entryReaders.remove(name);
+		}
+		if (reader != null) {
+			finish(reader, "Unable to read " + name + ": " + message, warnings);
+		}
+	}
+
+	/**
+	 * Finish reading the container file.  A warning is added for each registered entry
+	 * that was not found.
+	 *
+	 * @param warnings	the warning set to add the warnings to.
+	 */
+	public void finishEntries(WarningSet warnings) {
+		Map<String, EntryReader> missing;
+		synchronized (this) {
+			missing = new LinkedHashMap<>(entryReaders);
+			entryReaders.clear();
+		}
+		for (Map.Entry<String, EntryReader> entry : missing.entrySet()) {
+			finish(entry.getValue(), "File entry " + entry.getKey() + " not found, data ignored.", warnings);
+		}
+	}
+
+	private static void finish(EntryReader reader, String warning, WarningSet warnings) {
+		WarningSet entryWarnings = new WarningSet();
+		entryWarnings.add(warning);
+		warnings.addAll(entryWarnings);
+		reader.finish(entryWarnings);
+	}
+
 }
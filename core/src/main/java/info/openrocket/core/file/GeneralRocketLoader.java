@@ -7,12 +7,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
@@ -23,6 +34,7 @@ import info.openrocket.core.material.Material;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.ArrayUtils;
 import info.openrocket.core.util.TextUtil;
+import info.openrocket.core.util.UncloseableInputStream;
 
 /**
  * A rocket loader that auto-detects the document type and uses the appropriate
@@ -32,6 +44,7 @@ import info.openrocket.core.util.TextUtil;
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class GeneralRocketLoader {
+	private static final Logger log = LoggerFactory.getLogger(GeneralRocketLoader.class);
 
 	protected final WarningSet warnings = new WarningSet();
 
@@ -54,8 +67,13 @@ public class GeneralRocketLoader {
 
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
+	private DocumentLoadingContext context;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
 
+	/** Executor for loading simulation data in the background, shared by all loaders */
+	private static ExecutorService dataExecutor = null;
+	private boolean backgroundDataLoading = false;
+
 	public GeneralRocketLoader(File file) {
 		this.baseFile = file;
 		this.jarURL = null;
@@ -68,6 +86,25 @@ public class GeneralRocketLoader {
 		this.motorFinder = new DatabaseMotorFinder();
 	}
 
+	/**
+	 * Set whether the stored simulation data is loaded in the background.  The document
+	 * is then returned as soon as the rocket and the simulation definitions have been read,
+	 * and the data points of the simulations are decoded on background threads.  The
+	 * summary values of the simulations are available immediately, while accessing the
+	 * data branches waits until the data of the simulation has been loaded.
+	 * <p>
+	 * Binary simulation data entries are read in the background only when loading a file.
+	 * 
+	 * @param backgroundDataLoading	whether to load simulation data in the background.
+	 */
+	public void setBackgroundDataLoading(boolean backgroundDataLoading) {
+		this.backgroundDataLoading = backgroundDataLoading;
+	}
+
+	public boolean isBackgroundDataLoading() {
+		return backgroundDataLoading;
+	}
+
 	/**
 	 * Loads a rocket from the File object used in the constructor
 	 */
@@ -119,7 +156,8 @@ public class GeneralRocketLoader {
 	 * and the rocket loaded.
 	 * 
 	 * If the stream is a zip container, the first zip entry with name ending in
-	 * .ork or .rkt is loaded as the rocket.
+	 * .ork or .rkt is loaded as the rocket.  The following entries that the rocket
+	 * refers to, such as binary simulation data, are read afterwards.
 	 * 
 	 * If the stream is neither, then it is assumed to be an xml file containing
 	 * either an ork or rkt format rocket.
@@ -153,6 +191,7 @@ public class GeneralRocketLoader {
 			isContainer = false;
 			setAttachmentFactory();
 			loadRocket(new GZIPInputStream(source), fileName);
+			finishEntries();
 			return;
 		}
 
@@ -167,19 +206,101 @@ public class GeneralRocketLoader {
 				throw new RocketLoadException("Unsupported or corrupt file.");
 			}
 			if (entry.getName().matches(".*\\.[oO][rR][kK]$")) {
-				loadRocket(in, fileName);
+				// The XML parser closes the stream, but the rest of the entries are still needed
+				loadRocket(new UncloseableInputStream(in), fileName);
+				if (backgroundDataLoading && baseFile != null && context != null && context.hasEntryReaders()) {
+					in.close();
+					readEntriesInBackground(context, baseFile);
+					return;
+				}
+				readEntries(in);
 			} else if (entry.getName().matches(".*\\.[rR][kK][tT]$")) {
 				loadRocket(in, fileName);
 			} else if (entry.getName().matches(".*\\.[cC][dD][xX]1$")) {
 				loadRocket(in, fileName);
 			}
 			in.close();
+			finishEntries();
 			return;
 		}
 
 		isContainer = false;
 		setAttachmentFactory();
 		loadRocket(source, fileName);
+		finishEntries();
+	}
+
+	/**
+	 * Read the rest of the container entries that the loaded rocket refers to.
+	 */
+	private void readEntries(ZipInputStream in) throws IOException {
+		if (context == null) {
+			return;
+		}
+		ZipEntry entry;
+		while (context.hasEntryReaders() && (entry = in.getNextEntry()) != null) {
+			context.readEntry(entry.getName(), in, warnings);
+		}
+	}
+
+	private void finishEntries() {
+		if (context != null) {
+			context.finishEntries(warnings);
+		}
+	}
+
+	/**
+	 * Read the container entries that the loaded rocket refers to on background threads.
+	 * The file is reopened for random access, so that the entries can be read in parallel.
+	 */
+	private static void readEntriesInBackground(final DocumentLoadingContext context, File file) throws IOException {
+		final ZipFile zip = new ZipFile(file);
+		final ExecutorService executor = getDataExecutor();
+
+		List<CompletableFuture<Void>> reads = new ArrayList<>();
+		for (String name : context.getEntryNames()) {
+			final ZipEntry entry = zip.getEntry(name);
+			if (entry != null) {
+				reads.add(CompletableFuture.runAsync(() -> readEntry(context, zip, entry), executor));
+			}
+		}
+
+		// Missing entries are reported when finishing.  The warnings are also added to the
+		// warnings of the simulations whose data is in the entries.
+		CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).whenComplete((result, error) -> {
+			WarningSet finishWarnings = new WarningSet();
+			context.finishEntries(finishWarnings);
+			logWarnings(finishWarnings);
+			try {
+				zip.close();
+			} catch (IOException e) {
+				log.warn("Unable to close " + file, e);
+			}
+		});
+	}
+
+	private static void readEntry(DocumentLoadingContext context, ZipFile zip, ZipEntry entry) {
+		WarningSet entryWarnings = new WarningSet();
+		try (InputStream in = zip.getInputStream(entry)) {
+			context.readEntry(entry.getName(), in, entryWarnings);
+		} catch (IOException e) {
+			context.failEntry(entry.getName(), e.getMessage(), entryWarnings);
+		}
+		logWarnings(entryWarnings);
+	}
+
+	private static void logWarnings(WarningSet warningSet) {
+		for (Warning w : warningSet) {
+			log.warn("Loading simulation data: " + w);
+		}
+	}
+
+	private static synchronized ExecutorService getDataExecutor() {
+		if (dataExecutor == null) {
+			dataExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+					new DataLoaderThreadFactory());
+		}
+		return dataExecutor;
 	}
 
 	private void loadRocket(InputStream source, String fileName) throws IOException, RocketLoadException {
@@ -249,8 +370,9 @@ public class GeneralRocketLoader {
 
 	private void loadUsing(RocketLoader loader, InputStream source, String fileName) throws RocketLoadException {
 		warnings.clear();
-		DocumentLoadingContext context = new DocumentLoadingContext();
+		context = new DocumentLoadingContext();
 		context.setOpenRocketDocument(doc);
+		context.setDataExecutor(backgroundDataLoading ? getDataExecutor() : null);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
 		loader.load(context, source, fileName);
@@ -259,4 +381,15 @@ public class GeneralRocketLoader {
 		// Check for custom materials that need to be added to the document material database
 		doc.reloadDocumentMaterials();
 	}
+
+	private static class DataLoaderThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "DataLoader-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
 }
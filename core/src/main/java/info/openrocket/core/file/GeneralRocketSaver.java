@@ -224,9 +224,15 @@ public class GeneralRocketSaver {
 
 			ZipEntry mainFile = new ZipEntry("rocket.ork");
 			zos.putNextEntry(mainFile);
-			saveInternal(zos, document, options);
+			RocketSaver saver = saveInternal(zos, document, options);
 			zos.closeEntry();
 
+			// Save the binary simulation data, if any.  These follow the main file, since
+			// older versions only read the first entry.
+			if (saver instanceof OpenRocketSaver) {
+				((OpenRocketSaver) saver).saveDataEntries(zos);
+			}
+
 			// Save the file preview image, if any.
 			byte[] previewImage = options.getPreviewImage();
 			if (previewImage != null && previewImage.length > 0) {
@@ -264,18 +270,21 @@ public class GeneralRocketSaver {
 
 	// package scope for testing.
 
-	private void saveInternal(OutputStream output, OpenRocketDocument document, StorageOptions options)
+	private RocketSaver saveInternal(OutputStream output, OpenRocketDocument document, StorageOptions options)
 			throws IOException {
 		warnings.clear();
 		errors.clear();
 
+		RocketSaver saver;
 		if (options.getFileType() == FileType.ROCKSIM) {
-			new RockSimSaver().save(output, document, options, warnings, errors);
+			saver = new RockSimSaver();
 		} else if (options.getFileType() == FileType.RASAERO) {
-			new RASAeroSaver().save(output, document, options, warnings, errors);
+			saver = new RASAeroSaver();
 		} else {
-			new OpenRocketSaver().save(output, document, options, warnings, errors);
+			saver = new OpenRocketSaver();
 		}
+		saver.save(output, document, options, warnings, errors);
+		return saver;
 	}
 
 	/**
@@ -0,0 +1,265 @@
+package info.openrocket.core.file.motor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+
+/**
+ * Reads and writes the compact binary motor database that is shipped with OpenRocket.
+ * <p>
+ * All strings are stored once in a string pool and referenced by index, the motors are
+ * stored as fixed-size records, and the delays and thrust curve samples of all motors are
+ * stored contiguously, one column at a time.  The file can therefore be read from a
+ * memory-mapped buffer with a few bulk reads and without Java object deserialization.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int      magic, version
+ * int      string count, motor count, delay count, sample count
+ * strings  int UTF-8 byte length followed by the bytes
+ * motors   int manufacturer, digest, code, common name, designation, description,
+ *          case info, propellant info and type (string indices, -1 for null),
+ *          byte available, double diameter, length, initial mass,
+ *          int delay count, sample count
+ * double   delays of all motors
+ * double   time, thrust, CG x, CG y, CG z and mass of all samples, one column after another
+ * </pre>
+ */
+public final class BinaryMotorDatabase {
+
+	/** The file name extension of binary motor databases */
+	public static final String EXTENSION = "bin";
+
+	private static final int MAGIC = 0x4F524D44; // "ORMD"
+	private static final int VERSION = 1;
+
+	private BinaryMotorDatabase() {
+	}
+
+	/**
+	 * Write motors in the binary database format.  The stream is not closed.
+	 *
+	 * @param motors	the motors to write, all of which must be thrust curve motors.
+	 * @param stream	the stream to write to.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(Collection<? extends Motor> motors, OutputStream stream) throws IOException {
+		List<ThrustCurveMotor> list = new ArrayList<>(motors.size());
+		for (Motor m : motors) {
+			if (!(m instanceof ThrustCurveMotor)) {
+				throw new IllegalArgumentException("Unsupported motor " + m);
+			}
+			list.add((ThrustCurveMotor) m);
+		}
+
+		// Build the string pool
+		List<String> strings = new ArrayList<>();
+		Map<String, Integer> pool = new HashMap<>();
+		int delayCount = 0;
+		int sampleCount = 0;
+		for (ThrustCurveMotor m : list) {
+			for (String s : getStrings(m)) {
+				if (s != null && !pool.containsKey(s)) {
+					pool.put(s, strings.size());
+					strings.add(s);
+				}
+			}
+			delayCount += m.getStandardDelays().length;
+			sampleCount += m.getSampleSize();
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(strings.size());
+		out.writeInt(list.size());
+		out.writeInt(delayCount);
+		out.writeInt(sampleCount);
+
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		for (ThrustCurveMotor m : list) {
+			for (String s : getStrings(m)) {
+				out.writeInt(s == null ? -1 : pool.get(s));
+			}
+			out.writeBoolean(m.isAvailable());
+			out.writeDouble(m.getDiameter());
+			out.writeDouble(m.getLength());
+			out.writeDouble(m.getInitialMass());
+			out.writeInt(m.getStandardDelays().length);
+			out.writeInt(m.getSampleSize());
+		}
+
+		for (ThrustCurveMotor m : list) {
+			for (double d : m.getStandardDelays()) {
+				out.writeDouble(d);
+			}
+		}
+
+		for (ThrustCurveMotor m : list) {
+			for (double t : m.getTimePoints()) {
+				out.writeDouble(t);
+			}
+		}
+		for (ThrustCurveMotor m : list) {
+			for (double t : m.getThrustPoints()) {
+				out.writeDouble(t);
+			}
+		}
+		for (int column = 0; column < 4; column++) {
+			for (ThrustCurveMotor m : list) {
+				for (CoordinateIF c : m.getCGPoints()) {
+					out.writeDouble(switch (column) {
+						case 0 -> c.getX();
+						case 1 -> c.getY();
+						case 2 -> c.getZ();
+						default -> c.getWeight();
+					});
+				}
+			}
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Read the motors of a binary database.  The buffer is read from its current position.
+	 *
+	 * @param buffer	the buffer containing the database, e.g. a memory-mapped file.
+	 * @return			the motors in the database, in the order they were written.
+	 * @throws IOException	if the buffer does not contain a valid database.
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) throws IOException {
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a binary motor database");
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported motor database version " + version);
+			}
+
+			final int stringCount = buffer.getInt();
+			final int motorCount = buffer.getInt();
+			final int delayCount = buffer.getInt();
+			final int sampleCount = buffer.getInt();
+
+			String[] strings = new String[stringCount];
+			for (int i = 0; i < stringCount; i++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			// Manufacturer lookups are relatively slow, so resolve each name only once
+			Manufacturer[] manufacturers = new Manufacturer[stringCount];
+
+			List<ThrustCurveMotor.Builder> builders = new ArrayList<>(motorCount);
+			int[] delayCounts = new int[motorCount];
+			int[] sampleCounts = new int[motorCount];
+			for (int i = 0; i < motorCount; i++) {
+				ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder();
+				int manufacturer = buffer.getInt();
+				if (manufacturers[manufacturer] == null) {
+					manufacturers[manufacturer] = Manufacturer.getManufacturer(strings[manufacturer]);
+				}
+				builder.setManufacturer(manufacturers[manufacturer]);
+				builder.setDigest(getString(strings, buffer.getInt()));
+				builder.setCode(getString(strings, buffer.getInt()));
+				builder.setCommonName(getString(strings, buffer.getInt()));
+				builder.setDesignation(getString(strings, buffer.getInt()));
+				builder.setDescription(getString(strings, buffer.getInt()));
+				builder.setCaseInfo(getString(strings, buffer.getInt()));
+				builder.setPropellantInfo(getString(strings, buffer.getInt()));
+				builder.setMotorType(Motor.Type.valueOf(getString(strings, buffer.getInt())));
+				builder.setAvailability(buffer.get() != 0);
+				builder.setDiameter(buffer.getDouble());
+				builder.setLength(buffer.getDouble());
+				builder.setInitialMass(buffer.getDouble());
+				delayCounts[i] = buffer.getInt();
+				sampleCounts[i] = buffer.getInt();
+				builders.add(builder);
+			}
+
+			double[] delays = readColumn(buffer, delayCount);
+			double[] time = readColumn(buffer, sampleCount);
+			double[] thrust = readColumn(buffer, sampleCount);
+			double[] cgX = readColumn(buffer, sampleCount);
+			double[] cgY = readColumn(buffer, sampleCount);
+			double[] cgZ = readColumn(buffer, sampleCount);
+			double[] mass = readColumn(buffer, sampleCount);
+
+			List<ThrustCurveMotor> motors = new ArrayList<>(motorCount);
+			int delayOffset = 0;
+			int sampleOffset = 0;
+			for (int i = 0; i < motorCount; i++) {
+				ThrustCurveMotor.Builder builder = builders.get(i);
+				builder.setStandardDelays(Arrays.copyOfRange(delays, delayOffset, delayOffset + delayCounts[i]));
+				delayOffset += delayCounts[i];
+
+				final int n = sampleCounts[i];
+				CoordinateIF[] cg = new CoordinateIF[n];
+				for (int j = 0; j < n; j++) {
+					int k = sampleOffset + j;
+					cg[j] = new Coordinate(cgX[k], cgY[k], cgZ[k], mass[k]);
+				}
+				builder.setTimePoints(Arrays.copyOfRange(time, sampleOffset, sampleOffset + n));
+				builder.setThrustPoints(Arrays.copyOfRange(thrust, sampleOffset, sampleOffset + n));
+				builder.setCGPoints(cg);
+				sampleOffset += n;
+
+				motors.add(builder.build());
+			}
+			return motors;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Invalid binary motor database", e);
+		}
+	}
+
+	private static String[] getStrings(ThrustCurveMotor m) {
+		return new String[] {
+				m.getManufacturer().getDisplayName(),
+				m.getDigest(),
+				m.getCode(),
+				m.getCommonName(),
+				m.getDesignation(),
+				m.getDescription(),
+				m.getCaseInfo(),
+				m.getPropellantInfo(),
+				m.getMotorType().name()
+		};
+	}
+
+	private static String getString(String[] strings, int index) {
+		return (index < 0) ? null : strings[index];
+	}
+
+	private static double[] readColumn(ByteBuffer buffer, int count) {
+		double[] column = new double[count];
+		DoubleBuffer doubles = buffer.asDoubleBuffer();
+		doubles.get(column);
+		buffer.position(buffer.position() + count * Double.BYTES);
+		return column;
+	}
+}
@@ -0,0 +1,157 @@
+package info.openrocket.core.file.openrocket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * Binary encoding of the data points of flight data branches, stored as a separate entry
+ * of the .ork container instead of <code>&lt;datapoint&gt;</code> elements.
+ * <p>
+ * An entry contains the branches of a single simulation in the order of the
+ * <code>&lt;databranch&gt;</code> elements that refer to it.  All values are little-endian:
+ * <pre>
+ *   "ORFD" (4 bytes)  int version  int branchCount
+ *   for each branch:  int typeCount  int length  double[typeCount][length]
+ * </pre>
+ * The values of each type are stored contiguously in the order of the <code>types</code>
+ * attribute of the branch.  The compression of the entry is left to the container.
+ */
+public final class BinaryFlightData {
+
+	/** Directory of the flight data entries within the .ork container */
+	public static final String ENTRY_DIRECTORY = "simdata/";
+
+	/** Suffix of the flight data entries */
+	public static final String ENTRY_SUFFIX = ".bin";
+
+	private static final byte[] MAGIC = { 'O', 'R', 'F', 'D' };
+	private static final int VERSION = 1;
+
+	private static final int BUFFER_SIZE = 8192;
+
+
+	private BinaryFlightData() {
+	}
+
+
+	/**
+	 * Write the data points of the branches.  The branch events and other metadata are
+	 * not stored.
+	 *
+	 * @param out		the stream to write to.
+	 * @param branches	the branches to write.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(OutputStream out, List<FlightDataBranch> branches) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.put(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(branches.size());
+		for (FlightDataBranch branch : branches) {
+			FlightDataType[] types = branch.getTypes();
+			int length = branch.getLength();
+			if (buffer.remaining() < 8) {
+				flush(out, buffer);
+			}
+			buffer.putInt(types.length);
+			buffer.putInt(length);
+
+			for (FlightDataType type : types) {
+				double[] values = branch.toArray(type);
+				int pos = 0;
+				while (pos < length) {
+					if (buffer.remaining() < Double.BYTES) {
+						flush(out, buffer);
+					}
+					int n = Math.min(length - pos, buffer.remaining() / Double.BYTES);
+					buffer.asDoubleBuffer().put(values, pos, n);
+					buffer.position(buffer.position() + n * Double.BYTES);
+					pos += n;
+				}
+			}
+		}
+		flush(out, buffer);
+	}
+
+	/**
+	 * Read data points into branches.  The branches must have been created with the types
+	 * given in the XML file, and the number of types stored for each branch must match them.
+	 *
+	 * @param in		the stream to read from.
+	 * @param branches	the branches to add the data points to, in the order they were written.
+	 * @throws IOException	if an I/O error occurs or the data does not match the branches.
+	 */
+	public static void read(InputStream in, List<FlightDataBranch> branches) throws IOException {
+		byte[] bytes = new byte[BUFFER_SIZE];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+		readFully(in, bytes, 12);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (bytes[i] != MAGIC[i]) {
+				throw new IOException("Invalid flight data entry");
+			}
+		}
+		int version = buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported flight data version " + version);
+		}
+		int branchCount = buffer.getInt(8);
+		if (branchCount != branches.size()) {
+			throw new IOException("Flight data entry contains " + branchCount + " branches, expected "
+					+ branches.size());
+		}
+
+		for (FlightDataBranch branch : branches) {
+			FlightDataType[] types = branch.getTypes();
+			readFully(in, bytes, 8);
+			int typeCount = buffer.getInt(0);
+			int length = buffer.getInt(4);
+			if (typeCount != types.length || length < 0) {
+				throw new IOException("Invalid flight data for branch " + branch.getName());
+			}
+
+			double[][] values = new double[typeCount][length];
+			for (double[] column : values) {
+				int pos = 0;
+				while (pos < length) {
+					int n = Math.min(length - pos, BUFFER_SIZE / Double.BYTES);
+					readFully(in, bytes, n * Double.BYTES);
+					DoubleBuffer doubles = ByteBuffer.wrap(bytes, 0, n * Double.BYTES)
+							.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+					doubles.get(column, pos, n);
+					pos += n;
+				}
+			}
+			branch.addPoints(types, values, length);
+		}
+	}
+
+	/**
+	 * Return the name of the container entry of the n:th simulation with binary data.
+	 */
+	public static String getEntryName(int n) {
+		return ENTRY_DIRECTORY + n + ENTRY_SUFFIX;
+	}
+
+
+	private static void flush(OutputStream out, ByteBuffer buffer) throws IOException {
+		out.write(buffer.array(), 0, buffer.position());
+		buffer.clear();
+	}
+
+	private static void readFully(InputStream in, byte[] bytes, int length) throws IOException {
+		if (in.readNBytes(bytes, 0, length) != length) {
+			throw new EOFException("Unexpected end of flight data");
+		}
+	}
+}
@@ -7,10 +7,13 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import info.openrocket.core.file.openrocket.savers.PhotoStudioSaver;
 import info.openrocket.core.logging.ErrorSet;
@@ -35,6 +38,7 @@ import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.FlightEvent;
 import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.extension.SimulationExtension;
 import info.openrocket.core.util.BugException;
@@ -66,17 +70,32 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final int BYTES_PER_COMPONENT_COMPRESSED = 80;
 	private static final int BYTES_PER_SIMULATION_COMPRESSED = 100;
 	private static final int BYTES_PER_DATAPOINT_COMPRESSED = 100;
+	private static final int BYTES_PER_DATAVALUE_BINARY = 8;
 	
 	
 	private int indent;
 	private Writer dest;
 	
+	/** Whether flight data is written as binary entries instead of datapoint elements */
+	private boolean binaryData;
+	/** The flight data branches of the binary entries, by entry name */
+	private final Map<String, List<FlightDataBranch>> dataEntries = new LinkedHashMap<>();
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If binary simulation data is selected in the storage options, the data points are not
+	 * written to the output.  The caller must then store the document as the first entry of
+	 * a zip container and call {@link #saveDataEntries(ZipOutputStream)} afterwards.
+	 */
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options, WarningSet warnings, ErrorSet errors) throws IOException {
 		
 		log.info("Saving .ork file");
 		
 		dest = new BufferedWriter(new OutputStreamWriter(output, OPENROCKET_CHARSET));
+		binaryData = options.getSaveSimulationDataBinary();
+		dataEntries.clear();
 		
 		// Select file version number
 		final int fileVersion = calculateNecessaryFileVersion(document, options);
@@ -127,6 +146,48 @@ public class OpenRocketSaver extends RocketSaver {
 		dest.flush();
 	}
 	
+	/**
+	 * Write the binary flight data of the last saved document as entries of the zip
+	 * container.  Does nothing unless binary simulation data was selected in the storage
+	 * options.
+	 *
+	 * @param zos			the container the document was saved to.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public void saveDataEntries(ZipOutputStream zos) throws IOException {
+		for (Map.Entry<String, List<FlightDataBranch>> entry : dataEntries.entrySet()) {
+			zos.putNextEntry(new ZipEntry(entry.getKey()));
+			BinaryFlightData.write(zos, entry.getValue());
+			zos.closeEntry();
+		}
+		dataEntries.clear();
+	}
+	
+	/**
+	 * Write the rocket of a simulation and the simulation conditions in the .ork format,
+	 * without simulation data.  The output identifies the simulated design, for example
+	 * for caching simulation results, and is not a loadable .ork file.
+	 *
+	 * @param output		the stream to write to.
+	 * @param simulation	the simulation to write.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public void saveSimulationDesign(OutputStream output, Simulation simulation) throws IOException {
+		dest = new BufferedWriter(new OutputStreamWriter(output, OPENROCKET_CHARSET));
+		binaryData = false;
+		dataEntries.clear();
+		this.indent = 0;
+
+		writeln("<design creator=\"OpenRocket " + BuildProperties.getVersion() + "\">");
+		indent++;
+		saveComponent(simulation.getRocket());
+		saveSimulation(simulation, false);
+		indent--;
+		writeln("</design>");
+
+		dest.flush();
+	}
+
 	/*
 	 * Save all the custom expressions
 	 */
@@ -188,18 +249,28 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		// Size per flight data point
 		int pointCount = 0;
+		long valueCount = 0;
 		if (options.getSaveSimulationData()) {
 			for (Simulation s : doc.getSimulations()) {
 				FlightData data = s.getSimulatedData();
 				if (data != null) {
 					for (int i = 0; i < data.getBranchCount(); i++) {
-						pointCount += countFlightDataBranchPoints(data.getBranch(i));
+						FlightDataBranch branch = data.getBranch(i);
+						int points = countFlightDataBranchPoints(branch);
+						pointCount += points;
+						if (points > 0) {
+							valueCount += (long) points * branch.getTypes().length;
+						}
 					}
 				}
 			}
 		}
 		
-		size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		if (options.getSaveSimulationDataBinary()) {
+			size += valueCount * BYTES_PER_DATAVALUE_BINARY;
+		} else {
+			size += pointCount * BYTES_PER_DATAPOINT_COMPRESSED;
+		}
 		
 		return size;
 	}
@@ -229,10 +300,40 @@ public class OpenRocketSaver extends RocketSaver {
 		/*
 		 * NOTE:  Remember to update the supported versions in DocumentConfig as well!
 		 */
+		
+		/*
+		 * File version 1.12 is required for:
+		 *  - simulation data stored as binary entries of the container
+		 *  - simulations using the adaptive DP45 stepper and its tolerance
+		 */
+		if (opts != null && opts.getSaveSimulationDataBinary() && isSimulationDataStored(document, opts)) {
+			return FILE_VERSION_DIVISOR + 12;
+		}
+		for (Simulation s : document.getSimulations()) {
+			if (s.getOptions().getSimulationStepperMethodChoice() == SimulationStepperMethod.DP45) {
+				return FILE_VERSION_DIVISOR + 12;
+			}
+		}
+		
 		return FILE_VERSION_DIVISOR + 11;
 		
 	}
 	
+	/**
+	 * Return whether any simulation data points are stored with the given options.
+	 */
+	private static boolean isSimulationDataStored(OpenRocketDocument document, StorageOptions opts) {
+		for (Simulation s : document.getSimulations()) {
+			if (s.getSimulatedData() == null) {
+				continue;
+			}
+			if (opts.getSaveSimulationData() || s.getStatus() == Simulation.Status.EXTERNAL) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	
 	/**
 	 * Finds a getElements method somewhere in the *saver class hierarchy corresponding to the given component.
@@ -388,6 +489,9 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		writeElement("timestep", cond.getTimeStep());
+		if (cond.getSimulationStepperMethodChoice() == SimulationStepperMethod.DP45) {
+			writeElement("tolerance", cond.getTolerance());
+		}
 		writeElement("maxtime", cond.getMaxSimulationTime());
 		
 		indent--;
@@ -470,9 +574,20 @@ public class OpenRocketSaver extends RocketSaver {
 			// Check whether to store data
 			if ((simulation.getStatus() == Simulation.Status.EXTERNAL) || // Always store external data
 				saveSimulationData) {
+				String dataEntry = null;
+				List<FlightDataBranch> binaryBranches = null;
+				if (binaryData) {
+					dataEntry = BinaryFlightData.getEntryName(dataEntries.size() + 1);
+					binaryBranches = new ArrayList<>();
+				}
 				for (int i = 0; i < data.getBranchCount(); i++) {
 					FlightDataBranch branch = data.getBranch(i);
-					saveFlightDataBranch(branch);
+					if (saveFlightDataBranch(branch, dataEntry) && binaryBranches != null) {
+						binaryBranches.add(branch);
+					}
+				}
+				if (binaryBranches != null && !binaryBranches.isEmpty()) {
+					dataEntries.put(dataEntry, binaryBranches);
 				}
 			}
 			
@@ -581,23 +696,26 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 	}
 	
-	private void saveFlightDataBranch(FlightDataBranch branch)
+	/**
+	 * Save a flight data branch.  If a binary data entry is given, the data points are
+	 * not written, but the branch refers to the entry instead.
+	 * 
+	 * @param branch		the branch to save.
+	 * @param dataEntry		the name of the binary data entry, or <code>null</code> to write the data points.
+	 * @return				whether the branch was saved.
+	 */
+	private boolean saveFlightDataBranch(FlightDataBranch branch, String dataEntry)
 			throws IOException {
 		
 		if (branch == null)
-			return;
+			return false;
 		
 		// Retrieve the types from the branch
 		FlightDataType[] types = branch.getTypes();
 		
 		if (types.length == 0)
-			return;
+			return false;
 		
-		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<>(types.length);
-		for (FlightDataType type : types) {
-			data.add(branch.getClone(type));
-		}
 		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
@@ -627,6 +745,12 @@ public class OpenRocketSaver extends RocketSaver {
 			sb.append("\" ");
 		}
 		
+		if (dataEntry != null) {
+			sb.append("datafile=\"");
+			sb.append(TextUtil.escapeXML(dataEntry));
+			sb.append("\" ");
+		}
+		
 		sb.append("types=\"");
 		for (int i = 0; i < types.length; i++) {
 			if (i > 0)
@@ -666,13 +790,20 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		// Write the data
-		int length = branch.getLength();
-		for (int i = 0; i < length; i++) {
-			writeDataPointString(data, i, sb);
+		if (dataEntry == null) {
+			List<List<Double>> data = new ArrayList<>(types.length);
+			for (FlightDataType type : types) {
+				data.add(branch.get(type));
+			}
+			int length = branch.getLength();
+			for (int i = 0; i < length; i++) {
+				writeDataPointString(data, i, sb);
+			}
 		}
 		
 		indent--;
 		writeln("</databranch>");
+		return true;
 	}
 	
 	/* TODO: LOW: This is largely duplicated from above! */
@@ -1,6 +1,8 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
 
 import info.openrocket.core.logging.Message;
@@ -31,6 +33,9 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
+	private String dataFile = null;
+	/** The contents of the datapoint elements when their decoding is deferred, otherwise null */
+	private List<String> points = null;
 	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
@@ -51,6 +56,11 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+		
+		// When loading in the background, the data points are decoded later
+		if (context.getDataExecutor() != null) {
+			points = new ArrayList<>();
+		}
 	}
 	
 	/**
@@ -108,11 +118,57 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		return FlightDataType.getType(name, "Unknown", UnitGroup.UNITS_NONE);
 	}
 	
+	/**
+	 * Set the name of the container entry holding the data points of this branch.
+	 * The branch is then left mutable, so that the data points can be added when the
+	 * entry is read.
+	 */
+	public void setDataFile(String dataFile) {
+		this.dataFile = dataFile;
+	}
+	
+	public String getDataFile() {
+		return dataFile;
+	}
+	
 	public FlightDataBranch getBranch() {
-		branch.immute();
+		if (dataFile == null && points == null) {
+			branch.immute();
+		}
 		return branch;
 	}
 	
+	/**
+	 * Return whether the branch has data points whose decoding has been deferred.
+	 */
+	public boolean hasDeferredPoints() {
+		return points != null && !points.isEmpty();
+	}
+	
+	/**
+	 * Decode the data points whose decoding has been deferred and add them to the branch.
+	 * 
+	 * @param warnings	the warning set to add warnings of invalid data points to.
+	 */
+	public void decodePoints(WarningSet warnings) {
+		if (points == null) {
+			return;
+		}
+		double[][] values = new double[types.length][points.size()];
+		int count = 0;
+		for (String content : points) {
+			double[] point = parsePoint(content, warnings);
+			if (point != null) {
+				for (int i = 0; i < types.length; i++) {
+					values[i][count] = point[i];
+				}
+				count++;
+			}
+		}
+		points = null;
+		branch.addPoints(types, values, count);
+	}
+	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
@@ -205,12 +261,33 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// element == "datapoint"
 		
+		if (points != null) {
+			points.add(content);
+			return;
+		}
+		
+		double[] values = parsePoint(content, warnings);
+		if (values == null) {
+			return;
+		}
+		
+		// Add point to branch
+		branch.addPoint();
+		for (int i = 0; i < types.length; i++) {
+			branch.setValue(types[i], values[i]);
+		}
+	}
+	
+	/**
+	 * Parse the values of a data point, or return <code>null</code> if the point is invalid.
+	 */
+	private double[] parsePoint(String content, WarningSet warnings) {
 		
 		// Check line format
 		String[] split = content.split(",");
 		if (split.length != types.length) {
 			warnings.add("Data point did not contain correct amount of values, ignoring point.");
-			return;
+			return null;
 		}
 		
 		// Parse the doubles
@@ -220,14 +297,9 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 				values[i] = DocumentConfig.stringToDouble(split[i]);
 			} catch (NumberFormatException e) {
 				warnings.add("Data point format error, ignoring point.");
-				return;
+				return null;
 			}
 		}
-		
-		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
-		}
+		return values;
 	}
 }
@@ -1,25 +1,37 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import info.openrocket.core.logging.MessagePriority;
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.file.DocumentLoadingContext;
+import info.openrocket.core.file.openrocket.BinaryFlightData;
 import info.openrocket.core.file.simplesax.AbstractElementHandler;
 import info.openrocket.core.file.simplesax.ElementHandler;
 import info.openrocket.core.file.simplesax.PlainTextHandler;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
 
+
 class FlightDataHandler extends AbstractElementHandler {
+	
 	private final DocumentLoadingContext context;
 	
 	private FlightDataBranchHandler dataHandler;
 	private final WarningSet warningSet = new WarningSet();
 	private final List<FlightDataBranch> branches = new ArrayList<>();
+	/** Branches whose data points are stored in binary container entries, by entry name */
+	private final Map<String, List<FlightDataBranch>> dataFiles = new LinkedHashMap<>();
+	/** Handlers of the branches whose data points are decoded in the background */
+	private final List<FlightDataBranchHandler> deferredHandlers = new ArrayList<>();
 	
 	private final SingleSimulationHandler simHandler;
 	private FlightData data;
@@ -50,6 +62,13 @@ class FlightDataHandler extends AbstractElementHandler {
 					attributes.get("types"),
 					simHandler, context);
 			
+			String dataFile = attributes.get("datafile");
+			if (dataFile != null) {
+				dataHandler.setDataFile(dataFile);
+				// Keep the format when the document is saved again
+				context.getOpenRocketDocument().getDefaultStorageOptions().setSaveSimulationDataBinary(true);
+			}
+			
 			if (attributes.get("optimumAltitude") != null) {
 				double optimumAltitude = Double.NaN;
 				try {
@@ -80,7 +99,15 @@ class FlightDataHandler extends AbstractElementHandler {
 		
 		if (element.equals("databranch")) {
 			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
+			String dataFile = dataHandler.getDataFile();
+			if (dataFile != null) {
+				// The data points are read after the document
+				dataFiles.computeIfAbsent(dataFile, k -> new ArrayList<>()).add(branch);
+				branches.add(branch);
+			} else if (dataHandler.hasDeferredPoints()) {
+				deferredHandlers.add(dataHandler);
+				branches.add(branch);
+			} else if (branch.getLength() > 0) {
 				branches.add(branch);
 			}
 			//		} else if (element.equals("warning")) {
@@ -95,7 +122,10 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 
-		if (branches.size() > 0) {
+		// Data points that are loaded later are not available for calculating the summary
+		boolean deferred = !dataFiles.isEmpty() || !deferredHandlers.isEmpty();
+		
+		if (branches.size() > 0 && !deferred) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -152,10 +182,75 @@ class FlightDataHandler extends AbstractElementHandler {
 
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
+			for (FlightDataBranch branch : branches) {
+				data.addBranch(branch);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
-		data.immute();
+		if (deferred) {
+			// Files without the stored summary values have them calculated once loaded
+			loadDeferredData(data, attributes.get("maxaltitude") == null);
+		} else {
+			data.immute();
+		}
+	}
+	
+	/**
+	 * Start loading the data points that are not contained in the XML or whose decoding
+	 * has been deferred.  Binary data entries are read by the loader after the document,
+	 * and deferred data points are decoded by the data executor.  Once all data points have
+	 * been loaded, the flight data adds the warnings of loading them, calculates the summary
+	 * values if requested and becomes immutable when it is first accessed.
+	 * 
+	 * @param flightData	the flight data.
+	 * @param calculate		whether to calculate the summary values from the loaded data.
+	 */
+	private void loadDeferredData(final FlightData flightData, final boolean calculate) {
+		List<CompletableFuture<?>> loading = new ArrayList<>();
+		final WarningSet loadWarnings = new WarningSet();
+		
+		if (!deferredHandlers.isEmpty()) {
+			final List<FlightDataBranchHandler> handlers = new ArrayList<>(deferredHandlers);
+			loading.add(CompletableFuture.runAsync(() -> {
+				WarningSet decodeWarnings = new WarningSet();
+				for (FlightDataBranchHandler handler : handlers) {
+					handler.decodePoints(decodeWarnings);
+				}
+				addWarnings(loadWarnings, decodeWarnings);
+			}, context.getDataExecutor()));
+		}
+		
+		for (Map.Entry<String, List<FlightDataBranch>> entry : dataFiles.entrySet()) {
+			final List<FlightDataBranch> dataBranches = entry.getValue();
+			final CompletableFuture<Void> read = new CompletableFuture<>();
+			loading.add(read);
+			context.addEntryReader(entry.getKey(), new DocumentLoadingContext.EntryReader() {
+				@Override
+				public void read(InputStream in) throws IOException {
+					BinaryFlightData.read(in, dataBranches);
+				}
+				
+				@Override
+				public void finish(WarningSet warnings) {
+					addWarnings(loadWarnings, warnings);
+					read.complete(null);
+				}
+			});
+		}
+		
+		flightData.setPendingData(CompletableFuture.allOf(loading.toArray(new CompletableFuture<?>[0])),
+				loadWarnings, calculate);
+	}
+	
+	/**
+	 * Add warnings to the warnings of loading the data points, which may be added to
+	 * concurrently by the threads loading the data.
+	 */
+	private static void addWarnings(WarningSet loadWarnings, WarningSet warnings) {
+		synchronized (loadWarnings) {
+			loadWarnings.addAll(warnings);
+		}
 	}
 
 
@@ -70,12 +70,15 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 				continue;
 			if (s.getSimulatedData().getBranchCount() == 0)
 				continue;
-			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
-			if (branch == null)
-				continue;
-			List<Double> list = branch.getClone(FlightDataType.TYPE_TIME);
-			if (list == null)
-				continue;
+			// Data that is still being loaded in the background was stored in the file
+			if (s.getSimulatedData().isDataAvailable()) {
+				FlightDataBranch branch = s.getSimulatedData().getBranch(0);
+				if (branch == null)
+					continue;
+				List<Double> list = branch.getClone(FlightDataType.TYPE_TIME);
+				if (list == null)
+					continue;
+			}
 
 			doc.getDefaultStorageOptions().setSaveSimulationData(true);
 		}
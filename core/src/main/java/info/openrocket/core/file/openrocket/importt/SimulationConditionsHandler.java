@@ -157,6 +157,13 @@ class SimulationConditionsHandler extends AbstractElementHandler {
 					options.setTimeStep(d);
 				}
 			}
+			case "tolerance" -> {
+				if (Double.isNaN(d) || d <= 0) {
+					warnings.add("Illegal tolerance defined, ignoring.");
+				} else {
+					options.setTolerance(d);
+				}
+			}
 			case "maxtime" -> {
 				if (Double.isNaN(d) || d <= 0) {
 					warnings.add("Illegal max simulation time defined, ignoring.");
@@ -1,13 +1,23 @@
 package info.openrocket.core.masscalc;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.MotorMount;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
@@ -16,14 +26,21 @@ public class MassCalculator implements Monitorable {
 
 	public static final double MIN_MASS = MathUtil.EPSILON;
 
+	/** Maximum number of configurations kept in each cache */
+	private static final int MAX_CACHE_SIZE = 16;
+
 	/*
 	 * Cached data. All CG data is in absolute coordinates. All moments of inertia
 	 * are relative to their respective CG.
+	 *
+	 * The structure mass is keyed by the mass and tree modification IDs of the rocket
+	 * and the active stages.  The motor placements are keyed by the modification ID of
+	 * the rocket, the flight configuration and the active stages.  The caches may be
+	 * accessed concurrently, since simulation conditions (and thus the calculator) may
+	 * be shared between threads.
 	 */
-	// private HashMap< Integer, MassData> stageMassCache = new HashMap<Integer,
-	// MassData >();
-	// private MassData rocketSpentMassCache;
-	// private MassData motorMassCache;
+	private final Map<List<Object>, RigidBody> structureCache = new ConcurrentHashMap<>();
+	private final Map<List<Object>, List<MotorPlacement>> motorCache = new ConcurrentHashMap<>();
 
 	private final ModID modID = ModID.ZERO;
 
@@ -99,6 +116,110 @@ public class MassCalculator implements Monitorable {
 		return calculate(MassCalculation.Type.MOTOR, status);
 	}
 
+	/**
+	 * Return the mass data of the rocket's structure, see {@link #calculateStructure(FlightConfiguration)}.
+	 * The result is cached until the mass or the structure of the rocket or the active stages
+	 * of the configuration change.
+	 *
+	 * @param config the rocket configuration to calculate for
+	 * @return the MassData struct of the rocket
+	 */
+	public RigidBody getStructure(final FlightConfiguration config) {
+		final List<Object> key = createKey(config, config.getRocket().getMassModID(),
+				config.getRocket().getTreeModID());
+		RigidBody structure = structureCache.get(key);
+		if (structure == null) {
+			structure = calculateStructure(config);
+			store(structureCache, key, structure);
+		}
+		return structure;
+	}
+
+	/**
+	 * Return the mass data of all motors given the simulation status, see
+	 * {@link #calculateMotor(SimulationStatus)}.
+	 * <p>
+	 * The mounts and positions of the motors are cached per configuration, so only the
+	 * mass and CG of the motors at the current time are evaluated.
+	 *
+	 * @param status CurrentSimulation status to calculate data with
+	 * @return combined mass data for all motors
+	 */
+	public RigidBody getMotor(final SimulationStatus status) {
+		final FlightConfiguration config = status.getConfiguration();
+		final List<Object> key = createKey(config, config.getRocket().getModID(), config.getId());
+		List<MotorPlacement> placements = motorCache.get(key);
+		if (placements == null) {
+			List<MotorPlacement> list = new ArrayList<>();
+			findMotors(config, config.getRocket(), Transformation.IDENTITY, list);
+			placements = Collections.unmodifiableList(list);
+			store(motorCache, key, placements);
+		}
+
+		final double time = status.getSimulationTime();
+		final Collection<MotorClusterState> activeMotorList = status.getActiveMotors();
+
+		CoordinateIF centerOfMass = Coordinate.ZERO;
+		final List<RigidBody> bodies = new ArrayList<>(placements.size());
+		for (MotorPlacement placement : placements) {
+			final RigidBody cluster = placement.calculate(time, activeMotorList);
+			if (MIN_MASS > centerOfMass.getWeight()) {
+				centerOfMass = cluster.cm;
+			} else {
+				centerOfMass = centerOfMass.average(cluster.cm);
+			}
+			bodies.add(cluster);
+		}
+
+		double Ir = 0, It = 0;
+		for (RigidBody eachLocal : bodies) {
+			final RigidBody eachGlobal = eachLocal.rebase(centerOfMass);
+			Ir += eachGlobal.Ixx;
+			It += eachGlobal.Iyy;
+		}
+		return new RigidBody(centerOfMass, Ir, It, It);
+	}
+
+	private static List<Object> createKey(FlightConfiguration config, Object... ids) {
+		List<Object> key = new ArrayList<>();
+		Collections.addAll(key, ids);
+		for (AxialStage stage : config.getActiveStages()) {
+			key.add(stage.getStageNumber());
+		}
+		return key;
+	}
+
+	private static <T> void store(Map<List<Object>, T> cache, List<Object> key, T value) {
+		// Old entries are never used again once the rocket has been modified
+		if (cache.size() >= MAX_CACHE_SIZE) {
+			cache.clear();
+		}
+		cache.put(key, value);
+	}
+
+	/**
+	 * Find the active motor mounts with a motor, using the same traversal and transformations
+	 * as {@link MassCalculation#calculateMotors()}.
+	 */
+	private static void findMotors(final FlightConfiguration config, final RocketComponent component,
+			final Transformation parentTransform, final List<MotorPlacement> placements) {
+		if (component.isMotorMount() && config.isComponentActive(component)) {
+			final MotorConfiguration motorConfig = ((MotorMount) component).getMotorConfig(config.getId());
+			if (!motorConfig.isEmpty()) {
+				placements.add(new MotorPlacement(component, motorConfig, parentTransform));
+			}
+		}
+
+		final CoordinateIF[] instanceLocations = component.getInstanceLocations();
+		for (CoordinateIF location : instanceLocations) {
+			final Transformation currentTransform = parentTransform.applyTransformation(
+					Transformation.getTranslationTransform(location));
+			for (RocketComponent child : component.getChildren()) {
+				findMotors(config, child, currentTransform, placements);
+			}
+		}
+	}
+
 	////////////////// Mass property Wrappers ///////////////////
 	// all mass calculation calls should probably call through one of these two
 	////////////////// wrappers.
@@ -181,4 +302,70 @@ public class MassCalculator implements Monitorable {
 		return modID;
 	}
 
+	/**
+	 * The position of a motor cluster in the rocket, see {@link MassCalculation}.
+	 */
+	private static class MotorPlacement {
+		private final MotorConfiguration motorConfig;
+		private final Motor motor;
+		private final Transformation transform;
+		private final double motorX;
+		private final int instanceCount;
+		private final double[] radialDistances;
+
+		MotorPlacement(RocketComponent mount, MotorConfiguration motorConfig, Transformation transform) {
+			this.motorConfig = motorConfig;
+			this.motor = motorConfig.getMotor();
+			this.transform = transform;
+			this.motorX = mount.getPosition().getX() + motorConfig.getX();
+			this.instanceCount = mount.getInstanceCount();
+
+			// if more than 1 motor => motors are not at the centerline => adjust via parallel-axis theorem
+			if (1 < instanceCount) {
+				final CoordinateIF[] offsets = mount.getInstanceOffsets();
+				radialDistances = new double[offsets.length];
+				for (int i = 0; i < offsets.length; i++) {
+					radialDistances[i] = Math.hypot(offsets[i].getY(), offsets[i].getZ());
+				}
+			} else {
+				radialDistances = new double[0];
+			}
+		}
+
+		/**
+		 * Calculate the mass data of the cluster, including casing and propellant, at the given time.
+		 */
+		RigidBody calculate(double simulationTime, Collection<MotorClusterState> activeMotorList) {
+			MotorClusterState motorState = null;
+			if (activeMotorList != null) {
+				for (MotorClusterState currentMotorState : activeMotorList) {
+					if (currentMotorState.getMotor() == motor) {
+						motorState = currentMotorState;
+						break;
+					}
+				}
+			}
+
+			final double eachMass;
+			final double eachCMx;
+			if (motorState != null) {
+				final double motorTime = motorState.getMotorTime(simulationTime);
+				eachMass = motorState.getMotorTotalMass(motorTime);
+				eachCMx = motorState.getMotorCMx(motorTime);
+			} else {
+				eachMass = motor.getTotalMass(simulationTime);
+				eachCMx = motor.getCMx(simulationTime);
+			}
+
+			final CoordinateIF clusterLocalCM = new Coordinate(motorX + eachCMx, 0, 0, eachMass * instanceCount);
+			double clusterIr = motorConfig.getUnitRotationalInertia() * instanceCount * eachMass;
+			final double clusterIt = motorConfig.getUnitLongitudinalInertia() * instanceCount * eachMass;
+			for (double distance : radialDistances) {
+				clusterIr += eachMass * Math.pow(distance, 2);
+			}
+
+			return new RigidBody(transform.transform(clusterLocalCM), clusterIr, clusterIt, clusterIt);
+		}
+	}
+
 }
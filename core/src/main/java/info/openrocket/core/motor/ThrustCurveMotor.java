@@ -304,15 +304,58 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return ((double) lowerIndex) + fraction;
 	}
 
+	/*
+	 * As getPseudoIndex(double), but starts the search at the position of the given cursor
+	 * and moves the cursor to the found index.
+	 */
+	private double getPseudoIndex(final double motorTime, final Cursor cursor) {
+		if ((time.length == 0) || (0 > motorTime)) {
+			return Double.NaN;
+		}
+
+		final int lowerIndex = getIndex(motorTime, cursor.index);
+		cursor.index = lowerIndex;
+		final double fraction = getIndexFraction(motorTime, lowerIndex);
+		return ((double) lowerIndex) + fraction;
+	}
+
+	/*
+	 * Return the last index whose time is not after the given time, or 0 if there is none.
+	 */
 	private int getIndex(final double motorTime) {
-		int lowerBoundIndex = 0;
-		int upperBoundIndex = 0;
-		while ((upperBoundIndex < time.length) && (motorTime >= time[upperBoundIndex])) {
-			lowerBoundIndex = upperBoundIndex;
-			++upperBoundIndex;
+		if (!(motorTime >= time[0])) {
+			// also covers NaN
+			return 0;
+		}
+
+		// invariant: time[low] <= motorTime < time[high]
+		int low = 0;
+		int high = time.length;
+		while (high - low > 1) {
+			final int mid = (low + high) >>> 1;
+			if (motorTime >= time[mid]) {
+				low = mid;
+			} else {
+				high = mid;
+			}
 		}
+		return low;
+	}
 
-		return lowerBoundIndex;
+	/*
+	 * As getIndex(double), but first checks the hinted index and the one after it, so that
+	 * queries with slowly increasing times need no search.
+	 */
+	private int getIndex(final double motorTime, final int hint) {
+		if ((hint >= 0) && (hint < time.length) && (motorTime >= time[hint])) {
+			if ((hint + 1 == time.length) || (motorTime < time[hint + 1])) {
+				return hint;
+			}
+			if ((hint + 2 == time.length) || (motorTime < time[hint + 2])) {
+				return hint + 1;
+			}
+		}
+		return getIndex(motorTime);
 	}
 
 	private double getIndexFraction(final double motorTime, final int index) {
@@ -357,6 +400,45 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return this.interpolateCenterOfMassAtIndex(pseudoIndex).getX();
 	}
 
+	/**
+	 * Return the thrust at the given time, using a cursor to speed up the lookup.
+	 * The result is identical to {@link #getThrust(double)}.
+	 *
+	 * @param motorTime	time since motor ignition, in seconds.
+	 * @param cursor	the cursor of the caller, updated to the given time.
+	 * @return			the thrust at the given time.
+	 */
+	public double getThrust(final double motorTime, final Cursor cursor) {
+		double pseudoIndex = getPseudoIndex(motorTime, cursor);
+		return ThrustCurveMotor.interpolateAtIndex(thrust, pseudoIndex);
+	}
+
+	/**
+	 * Return the CG position at the given time, using a cursor to speed up the lookup.
+	 * The result is identical to {@link #getCMx(double)}.
+	 *
+	 * @param motorTime	time since motor ignition, in seconds.
+	 * @param cursor	the cursor of the caller, updated to the given time.
+	 * @return			the CG position at the given time.
+	 */
+	public double getCMx(final double motorTime, final Cursor cursor) {
+		double pseudoIndex = getPseudoIndex(motorTime, cursor);
+		return this.interpolateCenterOfMassAtIndex(pseudoIndex).getX();
+	}
+
+	/**
+	 * Return the total mass at the given time, using a cursor to speed up the lookup.
+	 * The result is identical to {@link #getTotalMass(double)}.
+	 *
+	 * @param motorTime	time since motor ignition, in seconds.
+	 * @param cursor	the cursor of the caller, updated to the given time.
+	 * @return			the total mass at the given time.
+	 */
+	public double getTotalMass(final double motorTime, final Cursor cursor) {
+		final double pseudoIndex = getPseudoIndex(motorTime, cursor);
+		return interpolateCenterOfMassAtIndex(pseudoIndex).getWeight();
+	}
+
 	public String getCaseInfo() {
 		return caseInfo;
 	}
@@ -794,4 +876,14 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	}
 
+	/**
+	 * A position in the thrust curve of a motor.  Lookups starting from a cursor take constant
+	 * time when the queried times increase in small steps, as they do during a simulation,
+	 * and fall back to a binary search otherwise.  The cursor never affects the results.
+	 * <p>
+	 * A cursor may be used with any motor, but is not thread-safe.
+	 */
+	public static final class Cursor {
+		private int index = 0;
+	}
 }
@@ -0,0 +1,171 @@
+package info.openrocket.core.optimization.general;
+
+import java.util.List;
+
+/**
+ * A Gaussian process regression model with a squared exponential kernel.
+ * <p>
+ * The function values are standardized before fitting, and the length scale of the kernel
+ * is selected from a fixed set of candidates by maximizing the marginal likelihood of the
+ * training data.
+ */
+final class GaussianProcess {
+
+	private static final double[] LENGTH_SCALES = { 0.03, 0.06, 0.1, 0.17, 0.25, 0.4, 0.6, 1.0 };
+	/** The noise variance added to the diagonal, relative to the variance of the values */
+	private static final double NUGGET = 1e-10;
+
+	private final Point[] points;
+	private final double mean;
+	private final double scale;
+
+	private double lengthScale;
+	private double[][] cholesky;
+	private double[] alpha;
+
+
+	/**
+	 * Fit a model to the given samples.
+	 *
+	 * @param points	the sample points.
+	 * @param values	the function values at the sample points.
+	 */
+	GaussianProcess(List<Point> points, List<Double> values) {
+		final int n = points.size();
+		if (n == 0 || values.size() != n) {
+			throw new IllegalArgumentException("Invalid sample count " + n + " / " + values.size());
+		}
+		this.points = points.toArray(new Point[0]);
+
+		double sum = 0;
+		for (double v : values) {
+			sum += v;
+		}
+		mean = sum / n;
+		double var = 0;
+		for (double v : values) {
+			var += (v - mean) * (v - mean);
+		}
+		double sd = Math.sqrt(var / n);
+		scale = (sd > 0) ? sd : 1;
+
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			y[i] = (values.get(i) - mean) / scale;
+		}
+
+		double bestLikelihood = Double.NEGATIVE_INFINITY;
+		for (double l : LENGTH_SCALES) {
+			double[][] chol = decompose(l);
+			if (chol == null) {
+				continue;
+			}
+			double[] a = solve(chol, y);
+			double likelihood = 0;
+			for (int i = 0; i < n; i++) {
+				likelihood -= 0.5 * y[i] * a[i] + Math.log(chol[i][i]);
+			}
+			if (likelihood > bestLikelihood) {
+				bestLikelihood = likelihood;
+				lengthScale = l;
+				cholesky = chol;
+				alpha = a;
+			}
+		}
+		if (cholesky == null) {
+			throw new IllegalArgumentException("Unable to fit model to " + n + " samples");
+		}
+	}
+
+	/**
+	 * Return the predicted mean and standard deviation of the function at a point.
+	 *
+	 * @param point	the point.
+	 * @return		an array containing the mean and the standard deviation.
+	 */
+	double[] predict(Point point) {
+		final int n = points.length;
+		double[] k = new double[n];
+		double m = 0;
+		for (int i = 0; i < n; i++) {
+			k[i] = kernel(point, points[i], lengthScale);
+			m += k[i] * alpha[i];
+		}
+
+		// v = L^-1 k, var = k(x,x) - v.v
+		double vv = 0;
+		for (int i = 0; i < n; i++) {
+			double s = k[i];
+			for (int j = 0; j < i; j++) {
+				s -= cholesky[i][j] * k[j];
+			}
+			k[i] = s / cholesky[i][i];
+			vv += k[i] * k[i];
+		}
+		double var = Math.max(1 + NUGGET - vv, 0);
+		return new double[] { mean + scale * m, scale * Math.sqrt(var) };
+	}
+
+	double getLengthScale() {
+		return lengthScale;
+	}
+
+
+	private static double kernel(Point a, Point b, double lengthScale) {
+		double d2 = a.sub(b).length2();
+		return Math.exp(-d2 / (2 * lengthScale * lengthScale));
+	}
+
+	/**
+	 * Return the Cholesky decomposition of the kernel matrix, or <code>null</code> if it is
+	 * numerically not positive definite.
+	 */
+	private double[][] decompose(double lengthScale) {
+		final int n = points.length;
+		double[][] l = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double s = kernel(points[i], points[j], lengthScale);
+				if (i == j) {
+					s += NUGGET;
+				}
+				for (int k = 0; k < j; k++) {
+					s -= l[i][k] * l[j][k];
+				}
+				if (i == j) {
+					if (!(s > 0)) {
+						return null;
+					}
+					l[i][i] = Math.sqrt(s);
+				} else {
+					l[i][j] = s / l[j][j];
+				}
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * Solve L L^T x = y.
+	 */
+	private static double[] solve(double[][] l, double[] y) {
+		final int n = y.length;
+		double[] z = new double[n];
+		for (int i = 0; i < n; i++) {
+			double s = y[i];
+			for (int k = 0; k < i; k++) {
+				s -= l[i][k] * z[k];
+			}
+			z[i] = s / l[i][i];
+		}
+		double[] x = new double[n];
+		for (int i = n - 1; i >= 0; i--) {
+			double s = z[i];
+			for (int k = i + 1; k < n; k++) {
+				s -= l[k][i] * x[k];
+			}
+			x[i] = s / l[i][i];
+		}
+		return x;
+	}
+}
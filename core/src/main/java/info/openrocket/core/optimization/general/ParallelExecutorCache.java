@@ -36,6 +36,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	private final Map<Point, Future<Double>> futureMap = new HashMap<>();
 
 	private final ExecutorService executor;
+	private final int parallelism;
 
 	private Function function;
 
@@ -76,6 +77,11 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	 */
 	public ParallelExecutorCache(ExecutorService executor) {
 		this.executor = executor;
+		if (executor instanceof ThreadPoolExecutor) {
+			this.parallelism = Math.max(((ThreadPoolExecutor) executor).getMaximumPoolSize(), 1);
+		} else {
+			this.parallelism = 1;
+		}
 	}
 
 	@Override
@@ -249,6 +255,17 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		functionCache.clear();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This is the maximum pool size of the executor if it is a ThreadPoolExecutor,
+	 * and one otherwise.
+	 */
+	@Override
+	public int getParallelism() {
+		return parallelism;
+	}
+
 	public ExecutorService getExecutor() {
 		return executor;
 	}
@@ -77,4 +77,12 @@ public interface ParallelFunctionCache extends FunctionCache {
 	 * Abort the computation of all still unexecuted points.
 	 */
 	public void abortAll();
+
+	/**
+	 * Return the number of function evaluations that are computed concurrently.
+	 * Optimizers use this to decide how many points are worth computing speculatively.
+	 * 
+	 * @return the number of concurrent evaluations, at least one.
+	 */
+	public int getParallelism();
 }
@@ -0,0 +1,268 @@
+package info.openrocket.core.optimization.general;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.arch.SystemInfo;
+
+/**
+ * A persistent cache of function values keyed by a digest of everything the value depends on.
+ * <p>
+ * The cache keeps all entries in memory in least-recently-used order and evicts the least
+ * recently used entries when the maximum number of entries is exceeded.  New entries are
+ * appended to the cache file immediately, so they survive an abnormal exit.  The file is
+ * rewritten in LRU order when it contains too many obsolete records and when the cache is
+ * closed.
+ * <p>
+ * The file consists of a header followed by fixed-size records of a
+ * {@link #KEY_LENGTH}-byte key and a double value.  Later records supersede earlier ones,
+ * and a truncated last record is ignored.
+ * <p>
+ * This class is thread-safe.
+ */
+public class PersistentEvaluationCache implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(PersistentEvaluationCache.class);
+
+	/** The length of the keys, which is the length of a SHA-256 digest */
+	public static final int KEY_LENGTH = 32;
+
+	/** The default maximum number of entries */
+	public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+	private static final String DEFAULT_FILE_NAME = "OptimizationCache.bin";
+
+	private static final int MAGIC = 0x4F52454B; // "OREK"
+	private static final int VERSION = 1;
+	private static final int HEADER_LENGTH = 8;
+	private static final int RECORD_LENGTH = KEY_LENGTH + Double.BYTES;
+
+	private final File file;
+	private final int maxEntries;
+	private final LinkedHashMap<Key, Double> entries;
+
+	private OutputStream output = null;
+	private int recordCount = 0;
+	private int hits = 0;
+	private int misses = 0;
+
+
+	/**
+	 * Open a cache file, creating it if it does not exist.  A file that is not a valid
+	 * cache file is replaced.
+	 *
+	 * @param file			the cache file.
+	 * @param maxEntries	the maximum number of entries to keep.
+	 * @throws IOException	if the file cannot be read or written.
+	 */
+	public PersistentEvaluationCache(File file, int maxEntries) throws IOException {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries=" + maxEntries);
+		}
+		this.file = file;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+				return size() > PersistentEvaluationCache.this.maxEntries;
+			}
+		};
+		load();
+	}
+
+	/**
+	 * Return the default location of the cache file in the user application directory.
+	 */
+	public static File getDefaultFile() {
+		return new File(SystemInfo.getUserApplicationDirectory(), DEFAULT_FILE_NAME);
+	}
+
+
+	/**
+	 * Return the cached value of a key.
+	 *
+	 * @param key	the key, {@link #KEY_LENGTH} bytes long.
+	 * @return		the cached value, or <code>null</code> if the key is not cached.
+	 */
+	public synchronized Double get(byte[] key) {
+		Double value = entries.get(new Key(key));
+		if (value == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return value;
+	}
+
+	/**
+	 * Store a value in the cache and append it to the cache file.  I/O errors are logged
+	 * and otherwise ignored, since the cache is only an optimization.
+	 *
+	 * @param key	the key, {@link #KEY_LENGTH} bytes long.
+	 * @param value	the value.
+	 */
+	public synchronized void put(byte[] key, double value) {
+		Key k = new Key(key);
+		entries.put(k, value);
+		try {
+			if (recordCount >= 2 * maxEntries) {
+				compact();
+			} else {
+				if (output == null) {
+					output = new FileOutputStream(file, true);
+				}
+				ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+				record.put(k.bytes).putDouble(value);
+				output.write(record.array());
+				output.flush();
+				recordCount++;
+			}
+		} catch (IOException e) {
+			log.warn("Unable to write optimization cache " + file, e);
+		}
+	}
+
+	/**
+	 * Return the number of entries in the cache.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Remove all entries from the cache and the cache file.
+	 *
+	 * @throws IOException	if the file cannot be written.
+	 */
+	public synchronized void clear() throws IOException {
+		entries.clear();
+		compact();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Return a description of the cache usage, for logging.
+	 */
+	public synchronized String getStatistics() {
+		return "PersistentEvaluationCache[entries=" + entries.size() + ", hits=" + hits + ", misses=" + misses + "]";
+	}
+
+	/**
+	 * Rewrite the cache file in LRU order and close it.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		compact();
+		if (output != null) {
+			output.close();
+			output = null;
+		}
+	}
+
+
+	private void load() throws IOException {
+		if (!file.isFile()) {
+			compact();
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (file.length() < HEADER_LENGTH || in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.info("Replacing invalid optimization cache " + file);
+				in.close();
+				compact();
+				return;
+			}
+
+			int count = (int) ((file.length() - HEADER_LENGTH) / RECORD_LENGTH);
+			for (int i = 0; i < count; i++) {
+				byte[] key = new byte[KEY_LENGTH];
+				in.readFully(key);
+				entries.put(new Key(key), in.readDouble());
+			}
+			recordCount = count;
+		} catch (EOFException e) {
+			log.warn("Optimization cache " + file + " was truncated", e);
+		}
+		log.debug("Loaded " + entries.size() + " entries from optimization cache " + file);
+	}
+
+	/**
+	 * Rewrite the cache file with the current entries in LRU order.  The file is written
+	 * to a temporary file first, so that the cache is never lost.
+	 */
+	private void compact() throws IOException {
+		if (output != null) {
+			output.close();
+			output = null;
+		}
+
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+		File tmp = new File(dir, file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			for (Map.Entry<Key, Double> e : entries.entrySet()) {
+				out.write(e.getKey().bytes);
+				out.writeDouble(e.getValue());
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		recordCount = entries.size();
+	}
+
+
+	private static final class Key {
+		private final byte[] bytes;
+		private final int hashCode;
+
+		Key(byte[] bytes) {
+			if (bytes.length != KEY_LENGTH) {
+				throw new IllegalArgumentException("Key length " + bytes.length + " != " + KEY_LENGTH);
+			}
+			this.bytes = bytes.clone();
+			this.hashCode = Arrays.hashCode(bytes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			return Arrays.equals(bytes, ((Key) obj).bytes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package info.openrocket.core.optimization.general;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.util.Statistics;
+
+/**
+ * A ParallelFunctionCache that screens points using a surrogate model before evaluating
+ * the actual function.
+ * <p>
+ * A Gaussian process model is fitted to the function values computed so far.  When a point
+ * is scheduled for computation and the model predicts with high confidence that the function
+ * value is worse than the best value found so far, the point is not evaluated, and the
+ * predicted value is used as its function value instead.  All other points are evaluated by
+ * the underlying cache.  The screened values are always worse than the best actual function
+ * value, so optimization algorithms that compare candidate points against their current best
+ * point reject them as they would reject an actual evaluation.
+ * <p>
+ * Screening starts when the number of actual function values reaches the minimum sample
+ * count.  Function values that indicate points outside of the optimization domain
+ * (very large values) are not used for fitting.
+ * <p>
+ * Like the wrapped cache, this class should be called from only one thread at a time.
+ */
+public class SurrogateFunctionCache implements ParallelFunctionCache, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(SurrogateFunctionCache.class);
+
+	/** The default number of standard deviations of the screening confidence bound */
+	public static final double DEFAULT_CONFIDENCE = 2.0;
+
+	/** Function values above this are not used for fitting the model */
+	private static final double MAX_MODEL_VALUE = 1e100;
+	/** The maximum number of samples used for fitting the model, the ones with the smallest values */
+	private static final int MAX_MODEL_SAMPLES = 60;
+
+	private final ParallelFunctionCache delegate;
+
+	private double confidence = DEFAULT_CONFIDENCE;
+	private int minSamples = 0;
+
+	private final Map<Point, Double> samples = new LinkedHashMap<>();
+	private final Map<Point, Double> screened = new HashMap<>();
+	private double bestValue = Double.POSITIVE_INFINITY;
+	private GaussianProcess model = null;
+	private boolean modelOutdated = false;
+
+	private int screenedCount = 0;
+	private int evaluatedCount = 0;
+
+
+	/**
+	 * Construct a surrogate cache.
+	 *
+	 * @param delegate	the cache that evaluates the actual function.
+	 */
+	public SurrogateFunctionCache(ParallelFunctionCache delegate) {
+		this.delegate = delegate;
+	}
+
+
+	@Override
+	public void compute(Collection<Point> points) {
+		for (Point p : points) {
+			compute(p);
+		}
+	}
+
+	@Override
+	public void compute(Point point) {
+		if (screened.containsKey(point) || samples.containsKey(point)) {
+			return;
+		}
+
+		if (isInsideRange(point)) {
+			GaussianProcess gp = getModel(point.dim());
+			if (gp != null) {
+				double[] prediction = gp.predict(point);
+				if (prediction[0] - confidence * prediction[1] > bestValue) {
+					log.debug("Screening " + point + ", predicted " + prediction[0] + " +- " + prediction[1] +
+							" best " + bestValue);
+					screened.put(point, prediction[0]);
+					screenedCount++;
+					return;
+				}
+			}
+		}
+
+		delegate.compute(point);
+	}
+
+	@Override
+	public void waitFor(Collection<Point> points) throws InterruptedException, OptimizationException {
+		for (Point p : points) {
+			waitFor(p);
+		}
+	}
+
+	@Override
+	public void waitFor(Point point) throws InterruptedException, OptimizationException {
+		if (screened.containsKey(point)) {
+			return;
+		}
+		delegate.waitFor(point);
+		addSample(point);
+	}
+
+	@Override
+	public List<Point> abort(Collection<Point> points) {
+		List<Point> computed = new ArrayList<>();
+		for (Point p : points) {
+			if (abort(p)) {
+				computed.add(p);
+			}
+		}
+		return computed;
+	}
+
+	@Override
+	public boolean abort(Point point) {
+		if (screened.containsKey(point)) {
+			return true;
+		}
+		if (delegate.abort(point)) {
+			addSample(point);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void abortAll() {
+		delegate.abortAll();
+	}
+
+	@Override
+	public double getValue(Point point) {
+		Double value = screened.get(point);
+		if (value != null) {
+			return value;
+		}
+		return delegate.getValue(point);
+	}
+
+	@Override
+	public Function getFunction() {
+		return delegate.getFunction();
+	}
+
+	@Override
+	public void setFunction(Function function) {
+		delegate.setFunction(function);
+		reset();
+	}
+
+	@Override
+	public void clearCache() {
+		delegate.clearCache();
+		reset();
+	}
+
+	@Override
+	public int getParallelism() {
+		return delegate.getParallelism();
+	}
+
+	/**
+	 * Set the confidence bound of the screening in standard deviations of the prediction.
+	 * A point is screened only if its predicted value minus this many standard deviations is
+	 * worse than the best value.  Larger values screen fewer points.
+	 */
+	public void setConfidence(double confidence) {
+		if (!(confidence >= 0)) {
+			throw new IllegalArgumentException("confidence=" + confidence);
+		}
+		this.confidence = confidence;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	/**
+	 * Set the number of function values required before points are screened.  Zero selects
+	 * a count based on the dimensionality of the function.
+	 */
+	public void setMinSamples(int minSamples) {
+		if (minSamples < 0) {
+			throw new IllegalArgumentException("minSamples=" + minSamples);
+		}
+		this.minSamples = minSamples;
+	}
+
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	public ParallelFunctionCache getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "SurrogateFunctionCache[evaluated=" + evaluatedCount + ", screened=" + screenedCount +
+				(model != null ? ", lengthScale=" + model.getLengthScale() : "") + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		evaluatedCount = 0;
+		screenedCount = 0;
+	}
+
+
+	private void addSample(Point point) {
+		if (samples.containsKey(point) || !isInsideRange(point)) {
+			return;
+		}
+		double value = delegate.getValue(point);
+		samples.put(point, value);
+		evaluatedCount++;
+		bestValue = Math.min(bestValue, value);
+		if (value < MAX_MODEL_VALUE) {
+			modelOutdated = true;
+		}
+	}
+
+	/**
+	 * Return the surrogate model fitted to the current samples, or <code>null</code> if
+	 * there are not enough samples.
+	 */
+	private GaussianProcess getModel(int dim) {
+		if (!modelOutdated) {
+			return model;
+		}
+		modelOutdated = false;
+
+		List<Map.Entry<Point, Double>> entries = new ArrayList<>();
+		for (Map.Entry<Point, Double> e : samples.entrySet()) {
+			if (e.getValue() < MAX_MODEL_VALUE) {
+				entries.add(e);
+			}
+		}
+		int required = (minSamples > 0) ? minSamples : Math.max(6, 3 * dim + 2);
+		if (entries.size() < required) {
+			model = null;
+			return null;
+		}
+
+		entries.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+		if (entries.size() > MAX_MODEL_SAMPLES) {
+			entries = entries.subList(0, MAX_MODEL_SAMPLES);
+		}
+		List<Point> points = new ArrayList<>(entries.size());
+		List<Double> values = new ArrayList<>(entries.size());
+		for (Map.Entry<Point, Double> e : entries) {
+			points.add(e.getKey());
+			values.add(e.getValue());
+		}
+
+		try {
+			model = new GaussianProcess(points, values);
+		} catch (IllegalArgumentException e) {
+			log.debug("Unable to fit surrogate model", e);
+			model = null;
+		}
+		return model;
+	}
+
+	private void reset() {
+		samples.clear();
+		screened.clear();
+		bestValue = Double.POSITIVE_INFINITY;
+		model = null;
+		modelOutdated = false;
+	}
+
+	private static boolean isInsideRange(Point p) {
+		for (int i = 0; i < p.dim(); i++) {
+			double d = p.get(i);
+			if (!(d >= 0.0 && d <= 1.0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
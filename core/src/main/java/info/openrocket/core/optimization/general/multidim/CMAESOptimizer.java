@@ -0,0 +1,404 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * An implementation of the covariance matrix adaptation evolution strategy (CMA-ES) by Hansen,
+ * with weighted recombination, cumulative step size adaptation and rank-one and rank-mu
+ * covariance updates (see N. Hansen, "The CMA Evolution Strategy: A Tutorial").
+ * <p>
+ * Each generation samples a population from a multivariate normal distribution, and all
+ * points of a generation are evaluated in parallel using the function cache.  Unless set
+ * explicitly, the population size is at least the parallelism of the function cache, since
+ * the additional samples do not cost any wall-clock time.  The optimization is limited to
+ * the unit hypercube; samples outside of it are clamped to the bounds.
+ * <p>
+ * The random numbers are generated from a fixed seed, so repeated optimizations of the same
+ * function from the same initial point produce the same result.  The step size reported to
+ * the optimization controller is the standard deviation of the distribution along its
+ * longest axis.
+ * <p>
+ * The optimization can be aborted by interrupting the current thread.
+ */
+public class CMAESOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(CMAESOptimizer.class);
+
+	/** The seed used when none is specified */
+	public static final long DEFAULT_SEED = 0x4F524F50L;
+
+	/** The initial standard deviation, relative to the unit hypercube */
+	private static final double INITIAL_SIGMA = 0.3;
+	/** The maximum standard deviation along any axis */
+	private static final double MAX_STEP = 1.0;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private final long seed;
+	private int populationSize = 0;
+
+	private Point best = null;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int bestImprovement = 0;
+	private double sigma = Double.NaN;
+	private double axisRatio = Double.NaN;
+
+	public CMAESOptimizer() {
+		this(null, DEFAULT_SEED);
+	}
+
+	public CMAESOptimizer(ParallelFunctionCache functionCache) {
+		this(functionCache, DEFAULT_SEED);
+	}
+
+	/**
+	 * Construct an optimizer.
+	 *
+	 * @param functionCache	the function cache used for evaluating the function.
+	 * @param seed			the seed of the random number generator.
+	 */
+	public CMAESOptimizer(ParallelFunctionCache functionCache, long seed) {
+		this.functionExecutor = functionCache;
+		this.seed = seed;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int n = initial.dim();
+		final Random random = new Random(seed);
+
+		// Strategy parameters
+		final int lambda = getPopulationSize(n);
+		final int mu = lambda / 2;
+		final double[] weights = new double[mu];
+		double sum = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		double sum2 = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] /= sum;
+			sum2 += weights[i] * weights[i];
+		}
+		final double mueff = 1 / sum2;
+		final double cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+		final double cs = (mueff + 2) / (n + mueff + 5);
+		final double c1 = 2 / ((n + 1.3) * (n + 1.3) + mueff);
+		final double cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((n + 2) * (n + 2) + mueff));
+		final double damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (n + 1)) - 1) + cs;
+		final double chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+
+		log.info("Starting CMA-ES optimization at " + initial + " with population size " + lambda);
+
+		// Dynamic state
+		double[] mean = initial.asArray();
+		double[] pc = new double[n];
+		double[] ps = new double[n];
+		double[][] b = identity(n);
+		double[] d = new double[n];
+		Arrays.fill(d, 1);
+		double[][] c = identity(n);
+		sigma = INITIAL_SIGMA;
+		axisRatio = 1;
+		// The generation count is used in the evolution path bias correction
+		generationCount = 0;
+
+		best = initial;
+		try {
+
+			functionExecutor.compute(initial);
+			functionExecutor.waitFor(initial);
+			evaluationCount++;
+
+			List<Point> points = new ArrayList<>(lambda);
+			double[][] y = new double[lambda][];
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generationCount++;
+
+				// Sample the population
+				points.clear();
+				for (int k = 0; k < lambda; k++) {
+					double[] z = new double[n];
+					for (int i = 0; i < n; i++) {
+						z[i] = d[i] * random.nextGaussian();
+					}
+					double[] x = new double[n];
+					y[k] = new double[n];
+					for (int i = 0; i < n; i++) {
+						double v = 0;
+						for (int j = 0; j < n; j++) {
+							v += b[i][j] * z[j];
+						}
+						x[i] = Math.min(Math.max(mean[i] + sigma * v, 0), 1);
+						y[k][i] = (x[i] - mean[i]) / sigma;
+					}
+					points.add(new Point(x));
+				}
+
+				functionExecutor.compute(points);
+				functionExecutor.waitFor(points);
+				evaluationCount += lambda;
+
+				Integer[] order = new Integer[lambda];
+				for (int k = 0; k < lambda; k++) {
+					order[k] = k;
+				}
+				Arrays.sort(order, Comparator.comparingDouble(k -> functionExecutor.getValue(points.get(k))));
+
+				Point previous = best;
+				double previousValue = functionExecutor.getValue(previous);
+				Point generationBest = points.get(order[0]);
+				if (functionExecutor.getValue(generationBest) < previousValue) {
+					best = generationBest;
+					bestImprovement++;
+				}
+
+				// Recombination:  yw is the weighted mean step of the selected points
+				double[] yw = new double[n];
+				for (int k = 0; k < mu; k++) {
+					for (int i = 0; i < n; i++) {
+						yw[i] += weights[k] * y[order[k]][i];
+					}
+				}
+				for (int i = 0; i < n; i++) {
+					mean[i] += sigma * yw[i];
+				}
+
+				// Cumulation, using C^(-1/2) = B D^-1 B^T
+				double[] bty = new double[n];
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < n; j++) {
+						bty[i] += b[j][i] * yw[j];
+					}
+					bty[i] /= d[i];
+				}
+				double psNorm2 = 0;
+				for (int i = 0; i < n; i++) {
+					double v = 0;
+					for (int j = 0; j < n; j++) {
+						v += b[i][j] * bty[j];
+					}
+					ps[i] = (1 - cs) * ps[i] + Math.sqrt(cs * (2 - cs) * mueff) * v;
+					psNorm2 += ps[i] * ps[i];
+				}
+				final double psNorm = Math.sqrt(psNorm2);
+				final boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - cs, 2.0 * generationCount)) / chiN <
+						1.4 + 2.0 / (n + 1);
+				for (int i = 0; i < n; i++) {
+					pc[i] = (1 - cc) * pc[i] + (hsig ? Math.sqrt(cc * (2 - cc) * mueff) * yw[i] : 0);
+				}
+
+				// Covariance matrix adaptation
+				final double oldWeight = 1 - c1 - cmu + (hsig ? 0 : c1 * cc * (2 - cc));
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j <= i; j++) {
+						double rankMu = 0;
+						for (int k = 0; k < mu; k++) {
+							rankMu += weights[k] * y[order[k]][i] * y[order[k]][j];
+						}
+						double v = oldWeight * c[i][j] + c1 * pc[i] * pc[j] + cmu * rankMu;
+						c[i][j] = v;
+						c[j][i] = v;
+					}
+				}
+
+				// Step size adaptation
+				sigma *= Math.exp((cs / damps) * (psNorm / chiN - 1));
+
+				// Decompose C = B D^2 B^T
+				double[] eigenvalues = new double[n];
+				b = eigen(c, eigenvalues);
+				double maxD = 0;
+				double minD = Double.POSITIVE_INFINITY;
+				for (int i = 0; i < n; i++) {
+					d[i] = Math.sqrt(Math.max(eigenvalues[i], 1e-20));
+					maxD = Math.max(maxD, d[i]);
+					minD = Math.min(minD, d[i]);
+				}
+				axisRatio = maxD / minD;
+				sigma = Math.min(sigma, MAX_STEP / maxD);
+
+				double bestValue = functionExecutor.getValue(best);
+				log.debug("Generation " + generationCount + " best " + best + " value " + bestValue +
+						" sigma " + sigma + " axis ratio " + axisRatio);
+
+				continueOptimization = control.stepTaken(previous, previousValue, best, bestValue, sigma * maxD);
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		}
+
+		functionExecutor.abortAll();
+
+		log.info("Finishing optimization at point " + best + " value = " + getOptimumValue());
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	private static double[][] identity(int n) {
+		double[][] m = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			m[i][i] = 1;
+		}
+		return m;
+	}
+
+	/**
+	 * Compute the eigendecomposition of a symmetric matrix using cyclic Jacobi rotations.
+	 *
+	 * @param matrix		the symmetric matrix, which is not modified.
+	 * @param eigenvalues	the array in which to store the eigenvalues.
+	 * @return				the matrix whose columns are the corresponding eigenvectors.
+	 */
+	static double[][] eigen(double[][] matrix, double[] eigenvalues) {
+		final int n = matrix.length;
+		double[][] a = new double[n][];
+		for (int i = 0; i < n; i++) {
+			a[i] = matrix[i].clone();
+		}
+		double[][] v = identity(n);
+
+		for (int sweep = 0; sweep < 50; sweep++) {
+			double off = 0;
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					off += a[p][q] * a[p][q];
+				}
+			}
+			if (off < 1e-30) {
+				break;
+			}
+
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					if (a[p][q] == 0) {
+						continue;
+					}
+					double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					if (theta == 0) {
+						t = 1;
+					}
+					double cos = 1 / Math.sqrt(t * t + 1);
+					double sin = t * cos;
+
+					for (int k = 0; k < n; k++) {
+						double akp = a[k][p];
+						double akq = a[k][q];
+						a[k][p] = cos * akp - sin * akq;
+						a[k][q] = sin * akp + cos * akq;
+					}
+					for (int k = 0; k < n; k++) {
+						double apk = a[p][k];
+						double aqk = a[q][k];
+						a[p][k] = cos * apk - sin * aqk;
+						a[q][k] = sin * apk + cos * aqk;
+					}
+					for (int k = 0; k < n; k++) {
+						double vkp = v[k][p];
+						double vkq = v[k][q];
+						v[k][p] = cos * vkp - sin * vkq;
+						v[k][q] = sin * vkp + cos * vkq;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			eigenvalues[i] = a[i][i];
+		}
+		return v;
+	}
+
+	private int getPopulationSize(int dim) {
+		if (populationSize > 0) {
+			return populationSize;
+		}
+		int size = 4 + (int) (3 * Math.log(dim));
+		return Math.max(size, functionExecutor.getParallelism());
+	}
+
+	/**
+	 * Set the population size.  Zero selects the default size based on the dimensionality
+	 * of the function and the parallelism of the function cache.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 0 || populationSize == 1) {
+			throw new IllegalArgumentException("populationSize=" + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (best == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return best;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "CMAESOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", bestImprovement=" + bestImprovement +
+				", sigma=" + sigma +
+				", axisRatio=" + axisRatio + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		bestImprovement = 0;
+	}
+
+}
@@ -0,0 +1,311 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * A differential evolution optimizer (the DE/rand/1/bin variant by Storn and Price).
+ * <p>
+ * This is a population-based global optimization algorithm.  Each generation creates one
+ * trial point for every member of the population, and all trial points of a generation are
+ * evaluated in parallel using the function cache.  A trial point replaces its parent if its
+ * function value is not worse.  The optimization is limited to the unit hypercube; trial
+ * coordinates outside of it are moved halfway between the parent and the violated bound.
+ * <p>
+ * The random numbers are generated from a fixed seed, so repeated optimizations of the same
+ * function from the same initial point produce the same result.  The step size reported to
+ * the optimization controller is the largest extent of the population along any axis.
+ * <p>
+ * The optimization can be aborted by interrupting the current thread.
+ */
+public class DifferentialEvolutionOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(DifferentialEvolutionOptimizer.class);
+
+	/** The seed used when none is specified */
+	public static final long DEFAULT_SEED = 0x4F524F50L;
+
+	private static final int MIN_POPULATION_SIZE = 8;
+	private static final int POPULATION_PER_DIMENSION = 10;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private final long seed;
+	private int populationSize = 0;
+	private double differentialWeight = 0.5;
+	private double crossoverProbability = 0.9;
+
+	private final List<Point> population = new ArrayList<>();
+	private Point best = null;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int trialAcceptance = 0;
+	private int bestImprovement = 0;
+
+	public DifferentialEvolutionOptimizer() {
+		this(null, DEFAULT_SEED);
+	}
+
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this(functionCache, DEFAULT_SEED);
+	}
+
+	/**
+	 * Construct an optimizer.
+	 *
+	 * @param functionCache	the function cache used for evaluating the function.
+	 * @param seed			the seed of the random number generator.
+	 */
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache, long seed) {
+		this.functionExecutor = functionCache;
+		this.seed = seed;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int dim = initial.dim();
+		final int size = Math.max(getPopulationSize(dim), 4);
+		final Random random = new Random(seed);
+
+		log.info("Starting differential evolution at " + initial + " with population size " + size);
+
+		// The initial point and uniformly distributed points in the unit hypercube
+		population.clear();
+		population.add(initial);
+		while (population.size() < size) {
+			double[] p = new double[dim];
+			for (int j = 0; j < dim; j++) {
+				p[j] = random.nextDouble();
+			}
+			population.add(new Point(p));
+		}
+		best = initial;
+
+		try {
+
+			evaluate(population);
+			best = findBest(population);
+
+			List<Point> trials = new ArrayList<>(size);
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generationCount++;
+
+				trials.clear();
+				for (int i = 0; i < size; i++) {
+					trials.add(createTrial(i, random));
+				}
+				evaluate(trials);
+
+				Point previous = best;
+				double previousValue = functionExecutor.getValue(previous);
+				for (int i = 0; i < size; i++) {
+					Point trial = trials.get(i);
+					if (functionExecutor.getValue(trial) <= functionExecutor.getValue(population.get(i))) {
+						population.set(i, trial);
+						trialAcceptance++;
+					}
+				}
+				best = findBest(population);
+				double bestValue = functionExecutor.getValue(best);
+				if (bestValue < previousValue) {
+					bestImprovement++;
+				}
+
+				log.debug("Generation " + generationCount + " best " + best + " value " + bestValue);
+
+				continueOptimization = control.stepTaken(previous, previousValue, best, bestValue,
+						getExtent(population));
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		}
+
+		functionExecutor.abortAll();
+
+		log.info("Finishing optimization at point " + best + " value = " + getOptimumValue());
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Create the trial point of population member <code>target</code>.
+	 */
+	private Point createTrial(int target, Random random) {
+		final int size = population.size();
+		int r1, r2, r3;
+		do {
+			r1 = random.nextInt(size);
+		} while (r1 == target);
+		do {
+			r2 = random.nextInt(size);
+		} while (r2 == target || r2 == r1);
+		do {
+			r3 = random.nextInt(size);
+		} while (r3 == target || r3 == r1 || r3 == r2);
+
+		Point x = population.get(target);
+		Point a = population.get(r1);
+		Point b = population.get(r2);
+		Point c = population.get(r3);
+
+		final int dim = x.dim();
+		final int forced = random.nextInt(dim);
+		double[] trial = x.asArray();
+		for (int j = 0; j < dim; j++) {
+			if (j == forced || random.nextDouble() < crossoverProbability) {
+				double v = a.get(j) + differentialWeight * (b.get(j) - c.get(j));
+				if (v < 0) {
+					v = x.get(j) / 2;
+				} else if (v > 1) {
+					v = (x.get(j) + 1) / 2;
+				}
+				trial[j] = v;
+			}
+		}
+		return new Point(trial);
+	}
+
+	private void evaluate(List<Point> points) throws InterruptedException, OptimizationException {
+		functionExecutor.compute(points);
+		functionExecutor.waitFor(points);
+		evaluationCount += points.size();
+	}
+
+	private Point findBest(List<Point> points) {
+		Point min = points.get(0);
+		for (Point p : points) {
+			if (functionExecutor.getValue(p) < functionExecutor.getValue(min)) {
+				min = p;
+			}
+		}
+		return min;
+	}
+
+	private static double getExtent(List<Point> points) {
+		double extent = 0;
+		for (int j = 0; j < points.get(0).dim(); j++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (Point p : points) {
+				min = Math.min(min, p.get(j));
+				max = Math.max(max, p.get(j));
+			}
+			extent = Math.max(extent, max - min);
+		}
+		return extent;
+	}
+
+	private int getPopulationSize(int dim) {
+		if (populationSize > 0) {
+			return populationSize;
+		}
+		return Math.max(MIN_POPULATION_SIZE, POPULATION_PER_DIMENSION * dim);
+	}
+
+	/**
+	 * Set the population size.  Zero selects a size based on the dimensionality of the
+	 * function.  The population contains at least four points.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 0) {
+			throw new IllegalArgumentException("populationSize=" + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * Set the weight of the difference vector (the parameter F), typically between 0.4 and 1.
+	 */
+	public void setDifferentialWeight(double differentialWeight) {
+		if (!(differentialWeight > 0 && differentialWeight <= 2)) {
+			throw new IllegalArgumentException("differentialWeight=" + differentialWeight);
+		}
+		this.differentialWeight = differentialWeight;
+	}
+
+	public double getDifferentialWeight() {
+		return differentialWeight;
+	}
+
+	/**
+	 * Set the probability of taking a coordinate from the mutated point (the parameter CR).
+	 */
+	public void setCrossoverProbability(double crossoverProbability) {
+		if (!(crossoverProbability >= 0 && crossoverProbability <= 1)) {
+			throw new IllegalArgumentException("crossoverProbability=" + crossoverProbability);
+		}
+		this.crossoverProbability = crossoverProbability;
+	}
+
+	public double getCrossoverProbability() {
+		return crossoverProbability;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (best == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return best;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "DifferentialEvolutionOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", trialAcceptance=" + trialAcceptance +
+				", bestImprovement=" + bestImprovement + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		trialAcceptance = 0;
+		bestImprovement = 0;
+	}
+
+}
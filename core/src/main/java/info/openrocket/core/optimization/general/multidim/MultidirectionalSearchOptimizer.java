@@ -1,9 +1,11 @@
 package info.openrocket.core.optimization.general.multidim;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +28,12 @@ import info.openrocket.core.util.Statistics;
  * many thread defined
  * as the system has processors.
  * <p>
+ * Threads that are not needed for the points of the current step are used to compute
+ * the points of the possible next steps speculatively:  the contracted simplex in case
+ * the reflection fails, and the reflections about each reflected point in case it
+ * succeeds.  The speculative computations that turn out to be unnecessary are aborted
+ * as soon as the outcome of the step is known.
+ * <p>
  * The optimization can be aborted by interrupting the current thread.
  */
 public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Statistics {
@@ -75,6 +83,8 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 			List<Point> reflection = new ArrayList<>(simplex.size());
 			List<Point> expansion = new ArrayList<>(simplex.size());
 			List<Point> coordinateSearch = new ArrayList<>(simplex.size());
+			List<Point> lookahead = new ArrayList<>(simplex.size());
+			Set<Point> speculative = new LinkedHashSet<>();
 			Point current;
 			double currentValue;
 			boolean continueOptimization = true;
@@ -111,6 +121,24 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 				if (useExpansion)
 					functionExecutor.compute(expansion);
 
+				/*
+				 * Use the remaining threads for speculative computation of the next step,
+				 * the contraction first as it is likely when approaching the optimum.
+				 */
+				int queued = reflection.size() + (useCoordinateSearch ? coordinateSearch.size() : 0) +
+						(useExpansion ? expansion.size() : 0);
+				int parallelism = functionExecutor.getParallelism();
+				if (queued < parallelism) {
+					createContraction(simplex, lookahead);
+					queued += speculate(lookahead, speculative, reflection, coordinateSearch, expansion);
+				}
+				if (queued < parallelism) {
+					for (Point p : reflection) {
+						createLookahead(current, p, reflection, lookahead);
+						queued += speculate(lookahead, speculative, reflection, coordinateSearch, expansion);
+					}
+				}
+
 				// Check reflection acceptance
 				log.debug("Computing reflection");
 				functionExecutor.waitFor(reflection);
@@ -128,14 +156,16 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 					simplex.addAll(reflection);
 					simplex.sort(comparator);
 
+					// The next reflection has been computed speculatively, abort the rest
+					createReflection(simplex, reflection);
+					abortSpeculation(speculative, reflection);
+
 					if (useExpansion) {
 
 						/*
 						 * Assume expansion to be unsuccessful, queue next reflection while computing
 						 * expansion.
 						 */
-						createReflection(simplex, reflection);
-
 						functionExecutor.compute(reflection);
 						functionExecutor.waitFor(expansion);
 
@@ -169,6 +199,7 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 					 * computing.
 					 */
 					halveStep(simplex);
+					abortSpeculation(speculative, simplex);
 					functionExecutor.compute(simplex);
 
 					if (useCoordinateSearch) {
@@ -218,6 +249,9 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 			log.info("Optimization was interrupted with InterruptedException");
 		}
 
+		// Abort any remaining speculative computations
+		functionExecutor.abortAll();
+
 		log.info("Finishing optimization at point " + simplex.get(0) + " value = " +
 				functionExecutor.getValue(simplex.get(0)));
 		log.info("Optimization statistics: " + getStatistics());
@@ -235,6 +269,62 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 		}
 	}
 
+	/**
+	 * Create the reflection of the step following a successful reflection in which
+	 * <code>best</code> was the best reflected point.
+	 */
+	private void createLookahead(Point current, Point best, List<Point> reflection, List<Point> lookahead) {
+		List<Point> base = new ArrayList<>(reflection.size() + 1);
+		base.add(best);
+		base.add(current);
+		for (Point p : reflection) {
+			if (p != best) {
+				base.add(p);
+			}
+		}
+		createReflection(base, lookahead);
+	}
+
+	private void createContraction(List<Point> base, List<Point> contraction) {
+		contraction.clear();
+		contraction.addAll(base);
+		halveStep(contraction);
+		contraction.remove(0);
+	}
+
+	/**
+	 * Queue speculative computation of points that are not yet otherwise used in the current step.
+	 * 
+	 * @return the number of points that were queued.
+	 */
+	@SafeVarargs
+	private int speculate(List<Point> points, Set<Point> speculative, Collection<Point>... inUse) {
+		int count = 0;
+		outer: for (Point p : points) {
+			if (simplex.contains(p) || speculative.contains(p)) {
+				continue;
+			}
+			for (Collection<Point> c : inUse) {
+				if (c.contains(p)) {
+					continue outer;
+				}
+			}
+			speculative.add(p);
+			functionExecutor.compute(p);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Abort the speculative computations that are not needed for the points to keep.
+	 */
+	private void abortSpeculation(Set<Point> speculative, Collection<Point> keep) {
+		speculative.removeAll(keep);
+		functionExecutor.abort(speculative);
+		speculative.clear();
+	}
+
 	private void createExpansion(List<Point> base, List<Point> expansion) {
 		Point current = base.get(0);
 		expansion.clear();
@@ -1,5 +1,8 @@
 package info.openrocket.core.optimization.general.onedim;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,7 +22,8 @@ import info.openrocket.core.util.Statistics;
  * <p>
  * This implementation attempts to guess future evaluations and computes them in
  * parallel
- * with the next point.
+ * with the next point.  If enough threads are available, the four possible
+ * points of the step after that are computed speculatively as well.
  * <p>
  * The optimization can be aborted by interrupting the current thread.
  */
@@ -64,6 +68,8 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 
 		Point guessAC = null;
 		Point guessBD = null;
+		List<Point> lookaheadAC = new ArrayList<>(2);
+		List<Point> lookaheadBD = new ArrayList<>(2);
 
 		try {
 			boolean guessedAC;
@@ -117,6 +123,24 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					functionExecutor.compute(guessAC);
 				}
 
+				/*
+				 * Compute the guesses of the following step, which depend on which
+				 * region is selected, if there are threads available for them.
+				 */
+				if (functionExecutor.getParallelism() > 2) {
+					lookaheadAC.add(section1(a, b));
+					lookaheadAC.add(section2(guessAC, c));
+					lookaheadBD.add(section1(b, guessBD));
+					lookaheadBD.add(section2(c, d));
+					if (guessedAC) {
+						functionExecutor.compute(lookaheadAC);
+						functionExecutor.compute(lookaheadBD);
+					} else {
+						functionExecutor.compute(lookaheadBD);
+						functionExecutor.compute(lookaheadAC);
+					}
+				}
+
 				/*
 				 * Get values at B and C.
 				 */
@@ -156,6 +180,7 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					c = b;
 					b = guessAC;
 					functionExecutor.abort(guessBD);
+					functionExecutor.abort(lookaheadBD);
 					guessBD = null;
 					log.debug("Selecting A-C region, a=" + a.get(0) + " c=" + c.get(0));
 					if (guessedAC) {
@@ -168,6 +193,7 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					b = c;
 					c = guessBD;
 					functionExecutor.abort(guessAC);
+					functionExecutor.abort(lookaheadAC);
 					guessAC = null;
 					log.debug("Selecting B-D region, b=" + b.get(0) + " d=" + d.get(0));
 					if (!guessedAC) {
@@ -177,6 +203,9 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 					}
 				}
 
+				lookaheadAC.clear();
+				lookaheadBD.clear();
+
 				/*
 				 * Check optimization control.
 				 */
@@ -199,6 +228,8 @@ public class GoldenSectionSearchOptimizer implements FunctionOptimizer, Statisti
 		if (guessBD != null) {
 			functionExecutor.abort(guessBD);
 		}
+		functionExecutor.abort(lookaheadAC);
+		functionExecutor.abort(lookaheadBD);
 
 		log.info("Finishing optimization at point " + getOptimumPoint() + " value " + getOptimumValue());
 		log.info("Optimization statistics: " + getStatistics());
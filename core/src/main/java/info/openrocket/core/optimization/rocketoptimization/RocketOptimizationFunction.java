@@ -1,5 +1,11 @@
 package info.openrocket.core.optimization.rocketoptimization;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -8,9 +14,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
 import info.openrocket.core.optimization.general.Function;
 import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.PersistentEvaluationCache;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.parameters.SimulationBasedParameter;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
@@ -38,6 +47,8 @@ public class RocketOptimizationFunction implements Function {
 
 	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
 
+	private volatile PersistentEvaluationCache evaluationCache = null;
+
 	/**
 	 * Sole constructor.
 	 * <p>
@@ -104,7 +115,7 @@ public class RocketOptimizationFunction implements Function {
 		}
 
 		// Compute the optimization value
-		parameterValue = parameter.computeValue(simulation);
+		parameterValue = computeParameterValue(simulation);
 		goalValue = goal.getMinimizationParameter(parameterValue);
 
 		if (Double.isNaN(goalValue)) {
@@ -121,6 +132,69 @@ public class RocketOptimizationFunction implements Function {
 		return goalValue;
 	}
 
+	/**
+	 * Compute the parameter value of a modified simulation.  Simulated parameter values are
+	 * looked up from and stored in the evaluation cache, if one is set.
+	 */
+	private double computeParameterValue(Simulation simulation) throws OptimizationException, InterruptedException {
+		final PersistentEvaluationCache cache = evaluationCache;
+		if (cache == null || !(parameter instanceof SimulationBasedParameter)) {
+			return parameter.computeValue(simulation);
+		}
+
+		byte[] key = getCacheKey(simulation);
+		if (key == null) {
+			return parameter.computeValue(simulation);
+		}
+
+		Double cached = cache.get(key);
+		if (cached != null) {
+			log.debug("Using cached parameter value " + cached);
+			return cached;
+		}
+
+		double value = parameter.computeValue(simulation);
+		cache.put(key, value);
+		return value;
+	}
+
+	/**
+	 * Return the evaluation cache key of a modified simulation, which is a digest of the
+	 * parameter and the rocket and simulation conditions as stored in a .ork file.
+	 *
+	 * @return the key, or <code>null</code> if the simulation cannot be digested.
+	 */
+	private byte[] getCacheKey(Simulation simulation) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(parameter.getClass().getName().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(parameter.getName().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			new OpenRocketSaver().saveSimulationDesign(
+					new DigestOutputStream(OutputStream.nullOutputStream(), digest), simulation);
+			return digest.digest();
+		} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+			log.warn("Unable to compute evaluation cache key, not using cache", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Set the persistent cache used for simulated parameter values.  The values are keyed
+	 * by the parameter and the modified rocket and simulation conditions, so the cache can
+	 * be shared between optimizations and sessions.
+	 *
+	 * @param evaluationCache the cache to use, or <code>null</code> to always simulate.
+	 */
+	public void setEvaluationCache(PersistentEvaluationCache evaluationCache) {
+		this.evaluationCache = evaluationCache;
+	}
+
+	public PersistentEvaluationCache getEvaluationCache() {
+		return evaluationCache;
+	}
+
 	/**
 	 * Returns a new deep copy of the simulation and rocket.
 	 * <p>
@@ -1,24 +1,151 @@
 package info.openrocket.core.plugin;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 
 /**
- * An AnnotationFinder that uses annotation-detector library to scan
- * the class path. Compatible with the JIJ loader.
+ * An AnnotationFinder that reads the annotated types from indexes generated at build time,
+ * and uses the ClassGraph library to scan the class path where no index is available.
+ * Compatible with the JIJ loader.
+ * <p>
+ * The indexes are resources <code>META-INF/openrocket/index/&lt;annotation name&gt;</code>
+ * listing the binary names of the annotated types, one per line.  They are generated by
+ * the <code>PluginIndexProcessor</code> annotation processor.  If no index is found on the
+ * class path at all (for example when the processor was not run), the whole class path is
+ * scanned.  Otherwise only the plugin JARs that do not contain an index are scanned.
  */
 public class AnnotationFinderImpl implements AnnotationFinder {
+	private static final Logger log = LoggerFactory.getLogger(AnnotationFinderImpl.class);
+
+	/** The directory of the index resources, must match PluginIndexProcessor */
+	public static final String INDEX_DIRECTORY = "META-INF/openrocket/index/";
 
 	@Override
 	public List<Class<?>> findAnnotatedTypes(Class<? extends Annotation> annotation) {
-		List<Class<?>> classes;
-		try (ScanResult scanResult = new ClassGraph().enableAllInfo().scan()) {
-			classes = new ArrayList<>(scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses());
+		final String indexName = INDEX_DIRECTORY + annotation.getName();
+		final ClassLoader loader = getClassLoader();
+		Set<Class<?>> classes = new LinkedHashSet<>();
+
+		if (readIndexes(loader, indexName, annotation, classes)) {
+			List<File> unindexed = getUnindexedPluginFiles(indexName);
+			if (!unindexed.isEmpty()) {
+				log.info("Scanning unindexed plugins " + unindexed + " for " + annotation.getSimpleName() + " types");
+				classes.addAll(scan(new ClassGraph().overrideClasspath(unindexed), annotation));
+			}
+		} else {
+			log.info("No index of " + annotation.getSimpleName() + " types found, scanning the class path");
+			classes.addAll(scan(new ClassGraph(), annotation));
+		}
+
+		return new ArrayList<>(classes);
+	}
+
+	/**
+	 * Read the annotated types from all indexes on the class path.
+	 *
+	 * @return	whether any index was found.
+	 */
+	private static boolean readIndexes(ClassLoader loader, String indexName, Class<? extends Annotation> annotation,
+			Set<Class<?>> classes) {
+		boolean found = false;
+		try {
+			Enumeration<URL> indexes = loader.getResources(indexName);
+			while (indexes.hasMoreElements()) {
+				URL index = indexes.nextElement();
+				found = true;
+				log.debug("Reading index " + index);
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						line = line.trim();
+						if (!line.isEmpty()) {
+							Class<?> c = loadIndexedClass(loader, line, annotation);
+							if (c != null) {
+								classes.add(c);
+							}
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Unable to read index " + indexName + ", scanning the class path", e);
+			classes.clear();
+			return false;
+		}
+		return found;
+	}
+
+	/**
+	 * Load a class listed in an index, or return <code>null</code> if the index entry is stale.
+	 */
+	private static Class<?> loadIndexedClass(ClassLoader loader, String name, Class<? extends Annotation> annotation) {
+		try {
+			Class<?> c = Class.forName(name, false, loader);
+			if (c.isAnnotationPresent(annotation)) {
+				return c;
+			}
+			log.warn("Indexed class " + name + " is not annotated with " + annotation.getSimpleName());
+		} catch (ClassNotFoundException | LinkageError e) {
+			log.warn("Unable to load indexed class " + name, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Return the plugin JARs and directories that do not contain the given index.
+	 */
+	private static List<File> getUnindexedPluginFiles(String indexName) {
+		List<File> candidates = new ArrayList<>(PluginHelper.getPluginJars());
+		candidates.addAll(PluginHelper.getCustomPlugins());
+
+		List<File> unindexed = new ArrayList<>();
+		for (File f : candidates) {
+			if (f.isDirectory()) {
+				if (!new File(f, indexName).isFile()) {
+					unindexed.add(f);
+				}
+			} else if (f.isFile()) {
+				try (JarFile jar = new JarFile(f)) {
+					if (jar.getEntry(indexName) == null) {
+						unindexed.add(f);
+					}
+				} catch (IOException e) {
+					log.warn("Unable to open plugin " + f, e);
+				}
+			}
+		}
+		return unindexed;
+	}
+
+	private static List<Class<?>> scan(ClassGraph classGraph, Class<? extends Annotation> annotation) {
+		try (ScanResult scanResult = classGraph.enableClassInfo().enableAnnotationInfo().ignoreClassVisibility().scan()) {
+			return new ArrayList<>(scanResult.getClassesWithAnnotation(annotation.getName()).loadClasses());
+		}
+	}
+
+	private static ClassLoader getClassLoader() {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = AnnotationFinderImpl.class.getClassLoader();
 		}
-		return classes;
+		return loader;
 	}
 }
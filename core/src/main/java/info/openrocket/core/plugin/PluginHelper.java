@@ -2,6 +2,7 @@ package info.openrocket.core.plugin;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -12,6 +13,9 @@ public class PluginHelper {
 
 	private static final String PLUGIN_DIRECTORY = "Plugins";
 	private static final String PLUGIN_EXTENSION = ".jar";
+	
+	/** System property containing additional plugin JARs or directories, separated by the path separator */
+	public static final String CUSTOM_PLUGIN_PROPERTY = "openrocket.plugins";
 
 	public static List<File> getPluginJars() {
 		File userDir = SystemInfo.getUserApplicationDirectory();
@@ -34,4 +38,24 @@ public class PluginHelper {
 		}
 	}
 
+	/**
+	 * Return the plugin JARs and directories specified by the
+	 * {@value #CUSTOM_PLUGIN_PROPERTY} system property.
+	 */
+	public static List<File> getCustomPlugins() {
+		String prop = System.getProperty(CUSTOM_PLUGIN_PROPERTY);
+		if (prop == null) {
+			return Collections.emptyList();
+		}
+
+		List<File> files = new ArrayList<>();
+		for (String s : prop.split(File.pathSeparator)) {
+			s = s.trim();
+			if (!s.isEmpty()) {
+				files.add(new File(s));
+			}
+		}
+		return files;
+	}
+
 }
@@ -20,11 +20,14 @@ import info.openrocket.core.material.Material;
 import info.openrocket.core.models.atmosphere.AtmosphericModel;
 import info.openrocket.core.models.atmosphere.ExtendedISAModel;
 import info.openrocket.core.models.wind.PinkNoiseWindModel;
+import info.openrocket.core.optimization.general.PersistentEvaluationCache;
 import info.openrocket.core.preset.ComponentPreset;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.MassObject;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.FlightDataStore;
+import info.openrocket.core.simulation.DormandPrinceSimulationStepper;
 import info.openrocket.core.simulation.RK4SimulationStepper;
 import info.openrocket.core.simulation.SimulationOptionsInterface;
 import info.openrocket.core.startup.Application;
@@ -145,9 +148,15 @@ public abstract class ApplicationPreferences implements ChangeSource, ORPreferen
 	public static final String LAUNCH_PRESSURE = "LaunchPressure";
 	public static final String LAUNCH_USE_ISA = "LaunchUseISA";
 	public static final String SIMULATION_TIME_STEP = "SimulationTimeStep";
+	public static final String SIMULATION_TOLERANCE = "SimulationTolerance";
 	public static final String SIMULATION_MAX_TIME = "SimulationMaxTime";
 	public static final String GEODETIC_COMPUTATION = "GeodeticComputationStrategy";
 	public static final String SIMULATION_STEPPER_METHOD = "SimulationStepperMethod";
+	public static final String SIMULATION_AERODYNAMIC_TABLE = "SimulationAerodynamicTable";
+	public static final String OPTIMIZATION_THREAD_COUNT = "OptimizationThreadCount";
+	public static final String OPTIMIZATION_CACHE_SIZE = "OptimizationCacheSize";
+	public static final String OPTIMIZATION_SURROGATE = "OptimizationSurrogate";
+	public static final String FLIGHT_DATA_MEMORY_BUDGET = "FlightDataMemoryBudget";
 
 	public static final String UI_THEME = "UITheme";
 
@@ -604,6 +613,96 @@ public abstract class ApplicationPreferences implements ChangeSource, ORPreferen
 		fireChangeEvent();
 	}
 
+	public double getTolerance() {
+		return this.getDouble(SIMULATION_TOLERANCE, DormandPrinceSimulationStepper.RECOMMENDED_TOLERANCE);
+	}
+
+	public void setTolerance(double tolerance) {
+		if (MathUtil.equals(this.getDouble(SIMULATION_TOLERANCE, DormandPrinceSimulationStepper.RECOMMENDED_TOLERANCE), tolerance))
+			return;
+		this.putDouble(SIMULATION_TOLERANCE, tolerance);
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether simulations use tabulated aerodynamic coefficients, see
+	 * {@link info.openrocket.core.aerodynamics.BarrowmanCalculator#BarrowmanCalculator(boolean)}.
+	 */
+	public boolean isAerodynamicTableEnabled() {
+		return this.getBoolean(SIMULATION_AERODYNAMIC_TABLE, false);
+	}
+
+	public void setAerodynamicTableEnabled(boolean enabled) {
+		if (this.getBoolean(SIMULATION_AERODYNAMIC_TABLE, false) == enabled)
+			return;
+		this.putBoolean(SIMULATION_AERODYNAMIC_TABLE, enabled);
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the number of simulations run concurrently by the optimizer.  Defaults to the
+	 * number of available processors.
+	 */
+	public int getOptimizationThreadCount() {
+		int count = this.getInt(OPTIMIZATION_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+		return Math.max(count, 1);
+	}
+
+	public void setOptimizationThreadCount(int count) {
+		if (this.getOptimizationThreadCount() == count)
+			return;
+		this.putInt(OPTIMIZATION_THREAD_COUNT, count);
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the maximum number of simulation results kept in the persistent optimization
+	 * cache, see {@link info.openrocket.core.optimization.general.PersistentEvaluationCache}.
+	 * Zero disables the cache.
+	 */
+	public int getOptimizationCacheSize() {
+		int size = this.getInt(OPTIMIZATION_CACHE_SIZE, PersistentEvaluationCache.DEFAULT_MAX_ENTRIES);
+		return Math.max(size, 0);
+	}
+
+	public void setOptimizationCacheSize(int size) {
+		if (this.getOptimizationCacheSize() == size)
+			return;
+		this.putInt(OPTIMIZATION_CACHE_SIZE, size);
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether optimizations screen candidate points using a surrogate model, see
+	 * {@link info.openrocket.core.optimization.general.SurrogateFunctionCache}.
+	 */
+	public boolean isOptimizationSurrogateEnabled() {
+		return this.getBoolean(OPTIMIZATION_SURROGATE, false);
+	}
+
+	public void setOptimizationSurrogateEnabled(boolean enabled) {
+		if (this.getBoolean(OPTIMIZATION_SURROGATE, false) == enabled)
+			return;
+		this.putBoolean(OPTIMIZATION_SURROGATE, enabled);
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the memory budget for the data points of stored simulations in megabytes, see
+	 * {@link info.openrocket.core.simulation.FlightDataStore}.  Zero uses the default budget.
+	 */
+	public int getFlightDataMemoryBudget() {
+		return Math.max(this.getInt(FLIGHT_DATA_MEMORY_BUDGET, 0), 0);
+	}
+
+	public void setFlightDataMemoryBudget(int megabytes) {
+		if (this.getFlightDataMemoryBudget() == megabytes)
+			return;
+		this.putInt(FLIGHT_DATA_MEMORY_BUDGET, megabytes);
+		FlightDataStore.getInstance().setBudget((long) megabytes << 20);
+		fireChangeEvent();
+	}
+
 	public double getMaxSimulationTime() {
 		double maxTime = this.getDouble(SIMULATION_MAX_TIME, RK4SimulationStepper.RECOMMENDED_MAX_TIME);
 		return maxTime == 0 ? RK4SimulationStepper.RECOMMENDED_MAX_TIME : maxTime;
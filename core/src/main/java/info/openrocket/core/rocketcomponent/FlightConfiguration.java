@@ -159,6 +159,21 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		updateActiveInstances();
 	}
 
+	/**
+	 * Copy the stage flags from another configuration without updating the motors and
+	 * active instances.  This is used for rocket snapshots, whose rocket does not contain
+	 * the stages until it is assembled.  {@link #update()} must be called once the stages
+	 * are available.
+	 *
+	 * @param other the configuration to copy the stage flags from.
+	 */
+	void copyStageFlags(FlightConfiguration other) {
+		stages.clear();
+		for (StageFlags cur : other.stages.values()) {
+			stages.put(cur.stageNumber, new StageFlags(cur.stageNumber, cur.stageId, cur.active));
+		}
+	}
+
 	/**
 	 * This method flags a stage inactive. Other stages are unaffected.
 	 * 
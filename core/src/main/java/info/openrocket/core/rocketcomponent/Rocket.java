@@ -479,12 +479,15 @@ public class Rocket extends ComponentAssembly {
 
 		// Rocket copy is cloned, so non-trivial members must be cloned as well:
 		copyRocket.stageMap = new ConcurrentHashMap<>();
-		for (Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
-			final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
-			if (stage == null) {
-				throw new IllegalStateException("Stage not found in copy");
+		// A copy without children has no stages, see copyNodeWithOriginalID()
+		if (!isCopyingNode()) {
+			for (Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
+				final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
+				if (stage == null) {
+					throw new IllegalStateException("Stage not found in copy");
+				}
+				copyRocket.stageMap.put(entry.getKey(), stage);
 			}
-			copyRocket.stageMap.put(entry.getKey(), stage);
 		}
 
 		// these flight configurations need to reference the _new_ Rocket copy
@@ -500,9 +503,40 @@ public class Rocket extends ComponentAssembly {
 
 		copyRocket.selectedConfiguration = copyRocket.configSet.get( this.getSelectedConfiguration().getId());
 		copyRocket.listenerList = new HashSet<>();
-		
+
+		return copyRocket;
+	}
+
+	/**
+	 * Make a copy of the rocket without its children.  The stage map of the copy is empty
+	 * and the stage flags of the flight configurations are copied by value, since the copy
+	 * does not contain the stages.  {@link #updateStructure()} restores them once the
+	 * children have been added.
+	 */
+	@Override
+	Rocket copyNodeWithOriginalID() {
+		final Rocket copyRocket = (Rocket) super.copyNodeWithOriginalID();
+
+		for (FlightConfigurationId configID : this.configSet.getIds()) {
+			copyRocket.configSet.get(configID).copyStageFlags(this.configSet.get(configID));
+		}
 		return copyRocket;
 	}
+
+	/**
+	 * Rebuild the stage map and update the flight configurations after the children of a
+	 * copy made by {@link #copyNodeWithOriginalID()} have been added.  Does not fire events.
+	 */
+	void updateStructure() {
+		this.stageMap = new ConcurrentHashMap<>();
+		for (AxialStage stage : getSubStages()) {
+			this.stageMap.put(stage.getStageNumber(), stage);
+		}
+		for (FlightConfigurationId configID : this.configSet.getIds()) {
+			this.configSet.get(configID).update();
+		}
+		this.configSet.getDefault().update();
+	}
 	
 	public int getFlightConfigurationCount() {
 		checkState();
@@ -53,6 +53,9 @@ import info.openrocket.core.util.StateChangeListener;
 public abstract class RocketComponent implements ChangeSource, Cloneable, Iterable<RocketComponent> {
 	@SuppressWarnings("unused")
 	private static final Logger log = LoggerFactory.getLogger(RocketComponent.class);
+
+	/** Set while {@link #copyNodeWithOriginalID()} copies a component without its children */
+	private static final ThreadLocal<Boolean> copyingNode = ThreadLocal.withInitial(() -> false);
 	
 	// Because of changes to Java 1.7.0-45's mechanism to construct DataFlavor objects (used in Drag and Drop)
 	// We cannot access static members of the Application object in this class.  Instead of holding
@@ -441,11 +444,13 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 			clone.children = new ArrayList<>();
 			
 			// Add copied children to the structure without firing events.
-			for (RocketComponent child : this.children) {
-				RocketComponent childCopy = child.copyWithOriginalID();
-				// Don't use addChild(...) method since it fires events
-				clone.children.add(childCopy);
-				childCopy.parent = clone;
+			if (!isCopyingNode()) {
+				for (RocketComponent child : this.children) {
+					RocketComponent childCopy = child.copyWithOriginalID();
+					// Don't use addChild(...) method since it fires events
+					clone.children.add(childCopy);
+					childCopy.parent = clone;
+				}
 			}
 			
 			this.checkComponentStructure();
@@ -457,6 +462,32 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		}
 	}
 
+	/**
+	 * Make a copy of this component alone, without its children, while maintaining the
+	 * component ID.  The copy is made using {@link #copyWithOriginalID()}, so the mutable
+	 * objects of the component are copied as in a deep copy.  This is used by
+	 * {@link RocketSnapshot} to store the state of individual components.
+	 *
+	 * @return A copy of this component with no parent or children.
+	 */
+	RocketComponent copyNodeWithOriginalID() {
+		copyingNode.set(true);
+		try {
+			return copyWithOriginalID();
+		} finally {
+			copyingNode.set(false);
+		}
+	}
+
+	/**
+	 * Return whether {@link #copyWithOriginalID()} is called by {@link #copyNodeWithOriginalID()}
+	 * in this thread, in which case the children are not copied.  The component being copied is
+	 * never modified, as other threads may be reading it.
+	 */
+	static boolean isCopyingNode() {
+		return copyingNode.get();
+	}
+
 	@Override
 	public RocketComponent clone() throws CloneNotSupportedException {
 		RocketComponent clone = (RocketComponent) super.clone();
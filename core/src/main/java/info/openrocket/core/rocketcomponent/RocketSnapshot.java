@@ -0,0 +1,165 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import info.openrocket.core.util.ModID;
+
+/**
+ * An immutable snapshot of the state of a rocket, used for the undo history.
+ * <p>
+ * The snapshot is a tree of nodes that mirrors the component tree.  Each node holds a
+ * copy of a single component without its children.  When a snapshot is captured based
+ * on a previous snapshot, the component copies and the subtrees of the components that
+ * have not been modified are shared with the previous snapshot, so that capturing a
+ * snapshot copies only the modified components and the nodes on the path to them.
+ * <p>
+ * The component copies held by a snapshot are never handed out; {@link #toRocket()}
+ * assembles a new rocket from further copies of them.
+ */
+public final class RocketSnapshot {
+
+	private final Node root;
+	private final ModID modID;
+	private final int componentCount;
+	private final int copiedComponentCount;
+
+
+	private RocketSnapshot(Node root, ModID modID, int componentCount, int copiedComponentCount) {
+		this.root = root;
+		this.modID = modID;
+		this.componentCount = componentCount;
+		this.copiedComponentCount = copiedComponentCount;
+	}
+
+
+	/**
+	 * Capture a snapshot of the rocket.
+	 * <p>
+	 * If a previous snapshot is given, the rocket must have been equal to it except for the
+	 * components whose IDs are in <code>modified</code>.  The state of all other components
+	 * is shared with the previous snapshot.  If <code>previous</code> is <code>null</code>,
+	 * all components are copied.
+	 *
+	 * @param rocket	the rocket.
+	 * @param previous	the snapshot the rocket was last equal to, or <code>null</code>.
+	 * @param modified	the IDs of the components modified since the previous snapshot.
+	 * @return			a snapshot of the current state of the rocket.
+	 */
+	public static RocketSnapshot capture(Rocket rocket, RocketSnapshot previous, Set<UUID> modified) {
+		Map<UUID, Node> previousNodes = new HashMap<>();
+		if (previous != null) {
+			previous.root.index(previousNodes);
+		}
+		int[] counts = new int[2];
+		Node root = capture(rocket, previousNodes, modified, counts);
+		return new RocketSnapshot(root, rocket.getModID(), counts[0], counts[1]);
+	}
+
+	private static Node capture(RocketComponent component, Map<UUID, Node> previousNodes, Set<UUID> modified,
+			int[] counts) {
+		Node previous = previousNodes.get(component.getID());
+		boolean unchanged = (previous != null) && !modified.contains(component.getID());
+
+		List<RocketComponent> children = component.getChildren();
+		Node[] childNodes = new Node[children.size()];
+		boolean shared = unchanged && (previous.children.length == childNodes.length);
+		for (int i = 0; i < childNodes.length; i++) {
+			childNodes[i] = capture(children.get(i), previousNodes, modified, counts);
+			shared = shared && (childNodes[i] == previous.children[i]);
+		}
+
+		counts[0]++;
+		if (shared) {
+			return previous;
+		}
+		RocketComponent state;
+		if (unchanged) {
+			state = previous.state;
+		} else {
+			state = component.copyNodeWithOriginalID();
+			counts[1]++;
+		}
+		return new Node(state, childNodes);
+	}
+
+
+	/**
+	 * Assemble a new rocket from this snapshot.  The components of the returned rocket
+	 * have the original component IDs and are independent of this snapshot.
+	 *
+	 * @return	a new rocket equal to the captured state.
+	 */
+	public Rocket toRocket() {
+		Rocket rocket = (Rocket) root.state.copyNodeWithOriginalID();
+		for (Node child : root.children) {
+			addChild(rocket, child.assemble());
+		}
+		rocket.updateStructure();
+		rocket.checkComponentStructure();
+		return rocket;
+	}
+
+	/**
+	 * Return the modification ID of the rocket when the snapshot was captured.
+	 */
+	public ModID getModID() {
+		return modID;
+	}
+
+	/**
+	 * Return the number of components in the snapshot, including the rocket.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Return the number of components that were copied when the snapshot was captured.
+	 * The state of the rest of the components is shared with the previous snapshot.
+	 */
+	public int getCopiedComponentCount() {
+		return copiedComponentCount;
+	}
+
+	@Override
+	public String toString() {
+		return "RocketSnapshot[components=" + componentCount + ", copied=" + copiedComponentCount + "]";
+	}
+
+
+	private static void addChild(RocketComponent parent, RocketComponent child) {
+		// Don't use addChild(...) method since it fires events
+		parent.children.add(child);
+		child.parent = parent;
+	}
+
+
+	private static final class Node {
+		private final RocketComponent state;
+		private final Node[] children;
+
+		Node(RocketComponent state, Node[] children) {
+			this.state = state;
+			this.children = children;
+		}
+
+		RocketComponent assemble() {
+			RocketComponent component = state.copyNodeWithOriginalID();
+			for (Node child : children) {
+				addChild(component, child.assemble());
+			}
+			return component;
+		}
+
+		void index(Map<UUID, Node> nodes) {
+			nodes.put(state.getID(), this);
+			for (Node child : children) {
+				child.index(nodes);
+			}
+		}
+	}
+}
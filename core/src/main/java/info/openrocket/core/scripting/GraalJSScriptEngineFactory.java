@@ -7,11 +7,16 @@ import javax.script.ScriptException;
 import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String ENGINE_NAME = "Graal.js";
@@ -27,13 +32,29 @@ public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final List mimeTypes;
     private static final List extensions;
 
+    /** The number of script sources kept for reuse */
+    private static final int MAX_CACHED_SOURCES = 16;
+
+    /**
+     * The polyglot engine shared by all script engines.  Sharing the engine lets the contexts of
+     * the script engines share the parsed and compiled code of equal sources.
+     */
+    private static Engine polyglotEngine;
+
+    private static final Map<String, Source> sources = new LinkedHashMap<>(MAX_CACHED_SOURCES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Source> eldest) {
+            return size() > MAX_CACHED_SOURCES;
+        }
+    };
+
     public GraalJSScriptEngineFactory() {
     }
 
     public ScriptEngine getScriptEngine() {
         // https://github.com/oracle/graaljs/blob/master/docs/user/RunOnJDK.md
         // https://github.com/oracle/graaljs/blob/master/docs/user/ScriptEngine.md#setting-options-via-bindings
-        ScriptEngine engine = GraalJSScriptEngine.create(null,
+        ScriptEngine engine = GraalJSScriptEngine.create(getPolyglotEngine(),
                 Context.newBuilder("js")
                         .allowHostAccess(HostAccess.ALL)
                         .allowHostClassLookup(s -> true)
@@ -47,6 +68,41 @@ public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 		return engine;
     }
 
+    private static synchronized Engine getPolyglotEngine() {
+        if (polyglotEngine == null) {
+            polyglotEngine = Engine.create();
+        }
+        return polyglotEngine;
+    }
+
+    private static synchronized Source getSource(String script) {
+        return sources.computeIfAbsent(script,
+                s -> Source.newBuilder("js", s, "script").cached(true).buildLiteral());
+    }
+
+    /**
+     * Evaluate a script in a script engine.  The sources of the scripts evaluated in engines
+     * created by this factory are reused, so that a script is parsed only once for all engines.
+     * Other engines evaluate the script directly.
+     *
+     * @param engine the script engine
+     * @param script the script to evaluate
+     * @throws ScriptException if the script fails
+     */
+    public static void eval(ScriptEngine engine, String script) throws ScriptException {
+        if (!(engine instanceof GraalJSScriptEngine graalEngine)) {
+            engine.eval(script);
+            return;
+        }
+        try {
+            graalEngine.getPolyglotContext().eval(getSource(script));
+        } catch (PolyglotException e) {
+            ScriptException exception = new ScriptException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
     public String getEngineName() {
         return ENGINE_NAME;
     }
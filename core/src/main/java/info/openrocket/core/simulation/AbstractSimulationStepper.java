@@ -215,7 +215,12 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 
-		structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		MassCalculator massCalculator = status.getSimulationConditions().getMassCalculator();
+		if (massCalculator != null) {
+			structureMass = massCalculator.getStructure(status.getConfiguration());
+		} else {
+			structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		}
 
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
@@ -236,7 +241,12 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return motorMass;
 		}
 
-		motorMass = MassCalculator.calculateMotor(status);
+		MassCalculator massCalculator = status.getSimulationConditions().getMassCalculator();
+		if (massCalculator != null) {
+			motorMass = massCalculator.getMotor(status);
+		} else {
+			motorMass = MassCalculator.calculateMotor(status);
+		}
 
 				
 		// Call post-listener
@@ -2,6 +2,7 @@ package info.openrocket.core.simulation;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.function.ToDoubleFunction;
 
 import info.openrocket.core.logging.SimulationAbort;
 import info.openrocket.core.motor.ThrustCurveMotor;
@@ -23,6 +24,7 @@ import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RecoveryDevice;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
@@ -46,10 +48,17 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	// The thrust must be below this value for the transition to tumbling.
 	// TODO HIGH: this is an arbitrary value
 	private final static double THRUST_TUMBLE_CONDITION = 0.01;
+
+	// Events within a step are located to this accuracy (in seconds)
+	private final static double EVENT_TIME_TOLERANCE = 1e-6;
+	private final static int MAX_EVENT_ITERATIONS = 50;
 	
 	private SimulationStepper currentStepper;
 	
 	private SimulationStatus currentStatus;
+
+	// Copy of the status at the start of the current step, reused for every step
+	private SimulationStatus stepStart;
 	
 	private FlightConfigurationId fcid;
 
@@ -69,14 +78,18 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		switch (stepperMethod) {
 			case RK4 -> flightStepper = new RK4SimulationStepper();
 			case RK6 -> flightStepper = new RK6SimulationStepper();
+			case DP45 -> flightStepper = new DormandPrinceSimulationStepper();
 			default -> throw new SimulationException("Unsupported simulation stepper method: " + stepperMethod);
 		}
 
 		try {
 			// Set up rocket configuration
 			this.fcid = simulationConditions.getFlightConfigurationID();
-			FlightConfiguration origConfig = simulationConditions.getRocket().getFlightConfiguration(this.fcid);
-			FlightConfiguration simulationConfig = origConfig.clone(simulationConditions.getRocket().copyWithOriginalID());
+			// A shared rocket snapshot is never modified, so only the configuration needs a private copy
+			Rocket rocket = simulationConditions.getRocket();
+			FlightConfiguration origConfig = rocket.getFlightConfiguration(this.fcid);
+			FlightConfiguration simulationConfig = origConfig.clone(
+					(simulationConditions.getSharedRocket() != null) ? rocket : rocket.copyWithOriginalID());
 			simulationConfig.copyStages(origConfig); // Clone the stage activation configuration
 			
 			currentStatus = new SimulationStatus(simulationConfig, simulationConditions);
@@ -189,6 +202,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			while (handleEvents(simulationConditions)) {
 				// Take the step
 				double oldAlt = currentStatus.getRocketPosition().getZ();
+				boolean apogeeLocated = false;
 				
 				if (SimulationListenerHelper.firePreStep(currentStatus)) {
 					// Step at most to the next event
@@ -204,7 +218,11 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 					if (maxStepTime > MathUtil.EPSILON) {
 						log.trace(
 								  "Taking simulation step at t=" + currentStatus.getSimulationTime() + " altitude " + oldAlt);
+						SimulationStatus start = copyStepStart();
 						currentStepper.step(currentStatus, maxStepTime);
+						if (currentStatus.isLiftoff() && !currentStatus.isLanded()) {
+							apogeeLocated = locateEvent(start);
+						}
 					}
 				}
 				SimulationListenerHelper.firePostStep(currentStatus);
@@ -259,10 +277,12 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 				}
 				
 				
-				// Check for apogee
-				if (!currentStatus.isApogeeReached() && currentStatus.getRocketPosition().getZ() < currentStatus.getMaxAlt() - 0.01) {
-					currentStatus.setMaxAltTime(previousSimulationTime);
-					currentStatus.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, previousSimulationTime,
+				// Check for apogee, either located exactly at the end of this step or passed during it
+				if (!currentStatus.isApogeeReached() && (apogeeLocated ||
+						currentStatus.getRocketPosition().getZ() < currentStatus.getMaxAlt() - 0.01)) {
+					double apogeeTime = apogeeLocated ? currentStatus.getSimulationTime() : previousSimulationTime;
+					currentStatus.setMaxAltTime(apogeeTime);
+					currentStatus.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, apogeeTime,
 							currentStatus.getConfiguration().getRocket()));
 				}
 				
@@ -323,6 +343,123 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		}
 	}	
 	
+	/**
+	 * Return a copy of the current status to keep the state at the start of the step about
+	 * to be taken.  A single copy is reused for all steps, so that taking a step does not
+	 * allocate a new status.
+	 */
+	private SimulationStatus copyStepStart() {
+		if (stepStart == null || stepStart.getEventQueue() != currentStatus.getEventQueue()) {
+			stepStart = currentStatus.clone();
+		} else {
+			currentStatus.refreshCopy(stepStart);
+		}
+		return stepStart;
+	}
+
+	/**
+	 * Locate the earliest apogee or altitude-triggered recovery device deployment within
+	 * the step just taken.  If one is found, the step is ended at the event by interpolating
+	 * the status within the step, so that the event occurs at its exact time and altitude
+	 * regardless of the step length.  The time step stored for the step is shortened
+	 * accordingly.
+	 *
+	 * @param start		a copy of the status taken before the step.
+	 * @return			whether the step was ended at apogee.
+	 */
+	private boolean locateEvent(SimulationStatus start) {
+		if (!(currentStatus.getSimulationTime() > start.getSimulationTime())) {
+			return false;
+		}
+
+		// The status at the end of the step is only copied once an event is found in it
+		SimulationStatus end = null;
+		double eventTime = Double.NaN;
+		boolean apogee = false;
+
+		// Apogee, where the vertical velocity changes sign
+		if (!currentStatus.isApogeeReached() &&
+				(start.getRocketVelocity().getZ() > 0) && (currentStatus.getRocketVelocity().getZ() < 0)) {
+			end = currentStatus.clone();
+			eventTime = findEventTime(start, end, status -> status.getRocketVelocity().getZ());
+			apogee = true;
+		}
+
+		// Recovery devices deployed when descending past an altitude
+		for (RocketComponent c : currentStatus.getConfiguration().getActiveComponents()) {
+			if (!(c instanceof RecoveryDevice) || currentStatus.getDeployedRecoveryDevices().contains(c))
+				continue;
+			DeploymentConfiguration deployConfig = ((RecoveryDevice) c).getDeploymentConfigurations().get(this.fcid);
+			if (deployConfig.getDeployEvent() != DeploymentConfiguration.DeployEvent.ALTITUDE)
+				continue;
+
+			final double altitude = deployConfig.getDeployAltitude();
+			if ((start.getRocketPosition().getZ() > altitude) && (currentStatus.getRocketPosition().getZ() < altitude)) {
+				if (end == null) {
+					end = currentStatus.clone();
+				}
+				double time = findEventTime(start, end, status -> status.getRocketPosition().getZ() - altitude);
+				if (Double.isNaN(eventTime) || time < eventTime) {
+					eventTime = time;
+					apogee = false;
+				}
+			}
+		}
+
+		if (Double.isNaN(eventTime)) {
+			return false;
+		}
+		log.trace("Ending step at event time " + eventTime + " instead of " + end.getSimulationTime());
+		currentStepper.interpolate(start, end, eventTime, currentStatus);
+		currentStatus.getFlightDataBranch().setValue(FlightDataType.TYPE_TIME_STEP,
+				eventTime - start.getSimulationTime());
+		return apogee;
+	}
+
+	/**
+	 * Find the time within a step at which a function of the interpolated status changes
+	 * from positive to non-positive, using the Illinois variant of the regula falsi method.
+	 * The function must be positive at the start of the step and non-positive at its end.
+	 * The returned time is no earlier than the change, and at most
+	 * {@link #EVENT_TIME_TOLERANCE} after it.
+	 */
+	private double findEventTime(SimulationStatus start, SimulationStatus end,
+			ToDoubleFunction<SimulationStatus> function) {
+		final SimulationStatus probe = end.clone();
+		double a = start.getSimulationTime();
+		double b = end.getSimulationTime();
+		double fa = function.applyAsDouble(start);
+		double fb = function.applyAsDouble(end);
+		int retained = 0;
+
+		for (int i = 0; (i < MAX_EVENT_ITERATIONS) && (b - a > EVENT_TIME_TOLERANCE); i++) {
+			double t = (a * fb - b * fa) / (fb - fa);
+			if (!(t > a && t < b)) {
+				t = (a + b) / 2;
+			}
+			currentStepper.interpolate(start, end, t, probe);
+			double ft = function.applyAsDouble(probe);
+
+			// Halve the function value at an end point retained twice in a row
+			if (ft > 0) {
+				a = t;
+				fa = ft;
+				if (retained > 0) {
+					fb /= 2;
+				}
+				retained = 1;
+			} else {
+				b = t;
+				fb = ft;
+				if (retained < 0) {
+					fa /= 2;
+				}
+				retained = -1;
+			}
+		}
+		return b;
+	}
+
 	/**
 	 * Handles events occurring during the flight from the event queue.
 	 * Each event that has occurred before or at the current simulation time is
@@ -6,26 +6,50 @@ import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Mutable;
 
 import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.RandomAccess;
 
 /**
  * A branch of data / collection of data points for a specific type of data.
+ * <p>
+ * The values are stored column-wise in primitive <code>double[]</code> arrays.  Each data
+ * type is assigned a dense column index when it is added to the branch, and all columns
+ * grow together when points are added.  Adding points and setting values does not
+ * allocate any objects except when the columns need to grow.
+ * <p>
+ * The columns of an immutable branch registered with the {@link FlightDataStore} may be
+ * released to stay within its memory budget.  They are reloaded from the store
+ * transparently when the values are accessed.
+ *
  * @param <T> the type of data in this branch
  */
 public abstract class DataBranch<T extends DataType> implements Monitorable {
+	private static final int INITIAL_CAPACITY = 16;
+
 	protected final String name;
-	protected final Map<T, ArrayList<Double>> values = new LinkedHashMap<>();
-	protected final Map<T, Double> maxValues = new HashMap<>();
-	protected final Map<T, Double> minValues = new HashMap<>();
+
+	/** Column index of each data type, in order of addition */
+	private final Map<T, Integer> columnIndex = new HashMap<>();
+	/** Data types in order of their column index */
+	private final List<T> columnTypes = new ArrayList<>();
+
+	/** The value columns, or <code>null</code> if released to the FlightDataStore */
+	private volatile double[][] columns = new double[0][];
+	private double[] minValues = new double[0];
+	private double[] maxValues = new double[0];
+	private int length = 0;
+	private int capacity = INITIAL_CAPACITY;
 
 	protected final Mutable mutable = new Mutable();
 	protected ModID modID = ModID.INVALID;
+	private boolean modified = false;
+
+	/** The entry of this branch in the FlightDataStore, or <code>null</code> if not registered */
+	volatile FlightDataStore.Entry storeEntry = null;
 
 	/**
 	 * Sole constructor.  Defines the name of the DataBranch and at least one variable type.
@@ -51,13 +75,41 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	}
 
 	public void addType(T type) {
-		if (values.containsKey(type)) {
+		if (columnIndex.containsKey(type)) {
 			throw new IllegalArgumentException("Value type " + type + " already exists.");
 		}
 
-		values.put(type, new ArrayList<>());
-		minValues.put(type, Double.NaN);
-		maxValues.put(type, Double.NaN);
+		addColumn(type);
+	}
+
+	/**
+	 * Add a new column for the type, filled with NaN for all existing points.
+	 *
+	 * @return	the column index of the new type.
+	 */
+	private int addColumn(T type) {
+		int index = columnTypes.size();
+		columnTypes.add(type);
+		columnIndex.put(type, index);
+
+		double[] column = new double[capacity];
+		Arrays.fill(column, 0, length, Double.NaN);
+
+		columns = Arrays.copyOf(columns, index + 1);
+		columns[index] = column;
+		minValues = Arrays.copyOf(minValues, index + 1);
+		minValues[index] = Double.NaN;
+		maxValues = Arrays.copyOf(maxValues, index + 1);
+		maxValues[index] = Double.NaN;
+		return index;
+	}
+
+	/**
+	 * Return the column index of a type, or -1 if the type has not been added to this branch.
+	 */
+	private int indexOf(T type) {
+		Integer index = columnIndex.get(type);
+		return (index == null) ? -1 : index;
 	}
 
 	/**
@@ -67,26 +119,21 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 */
 	public void addPoint() {
 		mutable.check();
-		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
-			sanityCheckValues(entry.getKey(), Double.NaN);
-			entry.getValue().add(Double.NaN);
+		markModified();
+		if (columns.length == 0) {
+			// Without any types there is nothing to store
+			return;
 		}
-		modID = new ModID();
-	}
-
-	private void sanityCheckValues(T type, Double value) {
-		ArrayList<Double> list = values.get(type);
-
-		if (list == null) {
-			list = new info.openrocket.core.util.ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
+		if (length == capacity) {
+			capacity = capacity + (capacity >> 1);
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], capacity);
 			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
 		}
+		for (double[] column : columns) {
+			column[length] = Double.NaN;
+		}
+		length++;
 	}
 
 	/**
@@ -100,31 +147,136 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void setValue(T type, double value) {
 		mutable.check();
 
-		ArrayList<Double> list = values.computeIfAbsent(type, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			minValues.put(k, Double.NaN);
-			maxValues.put(k, Double.NaN);
-			return newList;
-		});
+		int index = indexOf(type);
+		if (index < 0) {
+			index = addColumn(type);
+		}
 
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		if (length > 0) {
+			columns[index][length - 1] = value;
 		}
 
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
+		double min = minValues[index];
+		double max = maxValues[index];
 
 		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+			minValues[index] = value;
 		}
 		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+			maxValues[index] = value;
 		}
-		modID = new ModID();
+		markModified();
+	}
+
+	/**
+	 * Add a number of points with their values into the data branch at once.  The values of
+	 * types that are not given are set to NaN, and new types are added transparently.
+	 *
+	 * @param types		the variables to set.
+	 * @param values	the values of each variable, each containing at least <code>count</code> values.
+	 * @param count		the number of points to add.
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void addPoints(T[] types, double[][] values, int count) {
+		mutable.check();
+		if (types.length != values.length) {
+			throw new IllegalArgumentException("Number of types " + types.length
+					+ " does not match number of value arrays " + values.length);
+		}
+
+		int[] indices = new int[types.length];
+		for (int i = 0; i < types.length; i++) {
+			int index = indexOf(types[i]);
+			indices[i] = (index < 0) ? addColumn(types[i]) : index;
+		}
+		markModified();
+		if (count == 0 || columns.length == 0) {
+			return;
+		}
+
+		if (length + count > capacity) {
+			capacity = Math.max(length + count, capacity + (capacity >> 1));
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], capacity);
+			}
+		}
+		for (double[] column : columns) {
+			Arrays.fill(column, length, length + count, Double.NaN);
+		}
+
+		for (int i = 0; i < indices.length; i++) {
+			int index = indices[i];
+			System.arraycopy(values[i], 0, columns[index], length, count);
+
+			double min = minValues[index];
+			double max = maxValues[index];
+			for (int j = 0; j < count; j++) {
+				double value = values[i][j];
+				if (Double.isNaN(min) || (value < min)) {
+					min = value;
+				}
+				if (Double.isNaN(max) || (value > max)) {
+					max = value;
+				}
+			}
+			minValues[index] = min;
+			maxValues[index] = max;
+		}
+		length += count;
+	}
+
+	/**
+	 * Mark this branch as modified.  A new modification ID is generated lazily the next
+	 * time {@link #getModID()} is called, so that adding data does not allocate.
+	 */
+	protected void markModified() {
+		modified = true;
+	}
+
+	/**
+	 * Set the modification ID of this branch, used when copying a branch.
+	 */
+	protected void setModID(ModID modID) {
+		this.modID = modID;
+		this.modified = false;
+	}
+
+	/**
+	 * Clear all data and data types from this branch.
+	 */
+	protected void clearData() {
+		columnIndex.clear();
+		columnTypes.clear();
+		columns = new double[0][];
+		minValues = new double[0];
+		maxValues = new double[0];
+		length = 0;
+		capacity = INITIAL_CAPACITY;
+		markModified();
+	}
+
+	/**
+	 * Replace the data of this branch with a copy of the data of another branch.
+	 *
+	 * @param source	the branch to copy from.
+	 */
+	protected void copyDataFrom(DataBranch<T> source) {
+		clearData();
+		for (T type : source.columnTypes) {
+			columnTypes.add(type);
+			columnIndex.put(type, columnIndex.size());
+		}
+		capacity = Math.max(source.length, INITIAL_CAPACITY);
+		length = source.length;
+		double[][] sourceColumns = source.values();
+		double[][] copy = new double[sourceColumns.length][];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = Arrays.copyOf(sourceColumns[i], capacity);
+		}
+		columns = copy;
+		minValues = source.minValues.clone();
+		maxValues = source.maxValues.clone();
+		markModified();
 	}
 
 
@@ -136,10 +288,15 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> getClone(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		int index = indexOf(type);
+		if (index < 0)
 			return null;
-		return list.clone();
+		ArrayList<Double> list = new ArrayList<>(length);
+		double[] column = values()[index];
+		for (int i = 0; i < length; i++) {
+			list.add(column[i]);
+		}
+		return list;
 	}
 
 	/**
@@ -150,11 +307,26 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		int index = indexOf(type);
+		if (index < 0) {
+			return null;
+		}
+		return new ColumnView(index);
+	}
+
+	/**
+	 * Return a copy of the values of the specified type as a primitive array.
+	 *
+	 * @param type	the variable type.
+	 * @return		the variable values, or <code>null</code> if the variable type hasn't been
+	 * 				added to this branch.
+	 */
+	public double[] toArray(T type) {
+		int index = indexOf(type);
+		if (index < 0) {
 			return null;
 		}
-		return Collections.unmodifiableList(list);
+		return Arrays.copyOf(values()[index], length);
 	}
 
 	/**
@@ -167,11 +339,28 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (index < 0 || index >= getLength()) {
 			throw new IllegalArgumentException("Index out of bounds");
 		}
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		int column = indexOf(type);
+		if (column < 0) {
 			return null;
 		}
-		return list.get(index);
+		return values()[column][index];
+	}
+
+	/**
+	 * Return the value of the specified type at the specified index without boxing.
+	 * @param type the variable type
+	 * @param index the data index of the value
+	 * @return the value at the specified index, or NaN if the type is unavailable
+	 */
+	public double getValue(T type, int index) {
+		if (index < 0 || index >= getLength()) {
+			throw new IllegalArgumentException("Index out of bounds");
+		}
+		int column = indexOf(type);
+		if (column < 0) {
+			return Double.NaN;
+		}
+		return values()[column][index];
 	}
 
 	/**
@@ -182,10 +371,77 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		int index = indexOf(type);
+		if (index < 0 || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return values()[index][length - 1];
+	}
+
+	/**
+	 * Return the column index of the specified type, or -1 if the type has not been added
+	 * to this branch.  The column of a type does not change once it has been added, so
+	 * the index can be looked up once and used with {@link #getLastInColumn(int)}.
+	 *
+	 * @param type	the parameter type.
+	 * @return		the column index of the type, or -1.
+	 */
+	public int getColumnIndex(T type) {
+		return indexOf(type);
+	}
+
+	/**
+	 * Return the last value in the specified column, or NaN if the branch has no data points.
+	 *
+	 * @param column	the column index, as returned by {@link #getColumnIndex(DataType)}.
+	 * @return			the last value in the column, or NaN.
+	 */
+	public double getLastInColumn(int column) {
+		if (length == 0)
+			return Double.NaN;
+		return values()[column][length - 1];
+	}
+
+	/**
+	 * Return the value in a column at a position of a column with non-decreasing values,
+	 * such as the time, interpolating linearly between the data points.  Positions before
+	 * the first or after the last data point return the first or last value.  Of data points
+	 * at the same position, the last one is used.  The data points are found by binary search.
+	 *
+	 * @param keyColumn		the index of the column with non-decreasing values.
+	 * @param valueColumn	the index of the column to interpolate.
+	 * @param key			the position in the key column.
+	 * @return				the interpolated value, or NaN if the branch has no data points.
+	 */
+	public double interpolateInColumn(int keyColumn, int valueColumn, double key) {
+		if (length == 0 || Double.isNaN(key))
+			return Double.NaN;
+		final double[][] values = values();
+		final double[] keys = values[keyColumn];
+		final double[] column = values[valueColumn];
+		if (key < keys[0]) {
+			key = keys[0];
+		}
+
+		// invariant: keys[low] <= key < keys[high]
+		int low = 0;
+		int high = length;
+		while (high - low > 1) {
+			final int mid = (low + high) >>> 1;
+			if (key >= keys[mid]) {
+				low = mid;
+			} else {
+				high = mid;
+			}
+		}
+		if (key == keys[low] || low == length - 1) {
+			return column[low];
+		}
+
+		int next = low + 1;
+		while (next + 1 < length && keys[next + 1] == keys[next]) {
+			next++;
+		}
+		return (key - keys[low]) / (keys[next] - keys[low]) * (column[next] - column[low]) + column[low];
 	}
 
 	/**
@@ -196,10 +452,10 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(T type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		int index = indexOf(type);
+		if (index < 0)
 			return Double.NaN;
-		return v;
+		return minValues[index];
 	}
 
 	/**
@@ -210,20 +466,17 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(T type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		int index = indexOf(type);
+		if (index < 0)
 			return Double.NaN;
-		return v;
+		return maxValues[index];
 	}
 
 	/**
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (ArrayList<Double> doubles : values.values()) {
-			return doubles.size();
-		}
-		return 0;
+		return length;
 	}
 
 	/**
@@ -232,9 +485,8 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 */
 	@SuppressWarnings("unchecked")
 	public T[] getTypes() {
-		Set<T> keySet = values.keySet();
-		T[] array = (T[]) Array.newInstance(keySet.iterator().next().getClass(), keySet.size());
-		keySet.toArray(array);
+		T[] array = (T[]) Array.newInstance(columnTypes.get(0).getClass(), columnTypes.size());
+		columnTypes.toArray(array);
 		Arrays.sort(array);
 		return array;
 	}
@@ -261,7 +513,107 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		return mutable.isMutable();
 	}
 
+	/**
+	 * Return the value columns, reloading them from the FlightDataStore if they have been
+	 * released.
+	 */
+	private double[][] values() {
+		double[][] values = columns;
+		if (values == null) {
+			values = reloadColumns();
+		}
+		FlightDataStore.Entry entry = storeEntry;
+		if (entry != null) {
+			entry.referenced = true;
+		}
+		return values;
+	}
+
+	private double[][] reloadColumns() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		double[][] values;
+		synchronized (this) {
+			values = columns;
+			if (values != null) {
+				return values;
+			}
+			values = store.read(this);
+			storeEntry.referenced = true;
+			columns = values;
+		}
+		store.reloaded(this);
+		return values;
+	}
+
+	/**
+	 * Return the value columns if they are in memory, or <code>null</code> if released.
+	 */
+	double[][] getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Return whether the value columns are in memory.
+	 */
+	boolean isResident() {
+		return columns != null;
+	}
+
+	/**
+	 * Release the value columns of an immutable branch after they have been stored.
+	 */
+	void releaseColumns() {
+		if (isMutable()) {
+			throw new IllegalStateException("Cannot release the values of a mutable branch");
+		}
+		columns = null;
+	}
+
+	/**
+	 * Return the number of bytes of the value columns in memory.
+	 */
+	long getValueSize() {
+		double[][] values = columns;
+		if (values == null) {
+			return 0;
+		}
+		long size = 0;
+		for (double[] column : values) {
+			size += (long) column.length * Double.BYTES;
+		}
+		return size;
+	}
+
 	public ModID getModID() {
+		if (modified) {
+			modID = new ModID();
+			modified = false;
+		}
 		return modID;
 	}
+
+	/**
+	 * Unmodifiable list view of a single column.  The view reads the current column
+	 * array on every access, so it reflects points added after it was created.
+	 */
+	private class ColumnView extends AbstractList<Double> implements RandomAccess {
+		private final int column;
+
+		ColumnView(int column) {
+			this.column = column;
+		}
+
+		@Override
+		public Double get(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+			}
+			return values()[column][index];
+		}
+
+		@Override
+		public int size() {
+			return length;
+		}
+	}
 }
@@ -0,0 +1,146 @@
+package info.openrocket.core.simulation;
+
+import java.util.Random;
+
+/**
+ * An immutable probability distribution used to perturb a single simulation input
+ * between the trials of a {@link MonteCarloRunner}.
+ * <p>
+ * Instances are thread-safe; all randomness is drawn from the {@link Random} passed
+ * to {@link #sample(Random)}, so a trial that uses its own seeded random source
+ * is reproducible regardless of which thread executes it.
+ */
+public abstract class Dispersion {
+
+	/**
+	 * Draw a single value from this distribution.
+	 *
+	 * @param random	the random source to use.
+	 * @return			the sampled value.
+	 */
+	public abstract double sample(Random random);
+
+	/**
+	 * Return the mean (expected value) of this distribution.
+	 */
+	public abstract double getMean();
+
+
+	/**
+	 * Return a distribution that always returns the same value.
+	 *
+	 * @param value		the constant value.
+	 */
+	public static Dispersion fixed(final double value) {
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return value;
+			}
+
+			@Override
+			public double getMean() {
+				return value;
+			}
+
+			@Override
+			public String toString() {
+				return "Fixed[" + value + "]";
+			}
+		};
+	}
+
+	/**
+	 * Return a uniform distribution over the range [min, max).
+	 *
+	 * @param min	the lower bound.
+	 * @param max	the upper bound.
+	 */
+	public static Dispersion uniform(final double min, final double max) {
+		if (!(min <= max)) {
+			throw new IllegalArgumentException("min=" + min + " is larger than max=" + max);
+		}
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return min + random.nextDouble() * (max - min);
+			}
+
+			@Override
+			public double getMean() {
+				return (min + max) / 2;
+			}
+
+			@Override
+			public String toString() {
+				return "Uniform[" + min + "," + max + "]";
+			}
+		};
+	}
+
+	/**
+	 * Return a normal (Gaussian) distribution.
+	 *
+	 * @param mean		the mean value.
+	 * @param stddev	the standard deviation, must be non-negative.
+	 */
+	public static Dispersion normal(final double mean, final double stddev) {
+		if (!(stddev >= 0)) {
+			throw new IllegalArgumentException("stddev must be non-negative, stddev=" + stddev);
+		}
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				return mean + random.nextGaussian() * stddev;
+			}
+
+			@Override
+			public double getMean() {
+				return mean;
+			}
+
+			@Override
+			public String toString() {
+				return "Normal[" + mean + "," + stddev + "]";
+			}
+		};
+	}
+
+	/**
+	 * Return a normal distribution that is truncated at the given number of
+	 * standard deviations from the mean.  Samples outside the range are redrawn.
+	 *
+	 * @param mean		the mean value.
+	 * @param stddev	the standard deviation, must be non-negative.
+	 * @param sigmas	the truncation limit in standard deviations, must be positive.
+	 */
+	public static Dispersion truncatedNormal(final double mean, final double stddev, final double sigmas) {
+		if (!(stddev >= 0)) {
+			throw new IllegalArgumentException("stddev must be non-negative, stddev=" + stddev);
+		}
+		if (!(sigmas > 0)) {
+			throw new IllegalArgumentException("sigmas must be positive, sigmas=" + sigmas);
+		}
+		return new Dispersion() {
+			@Override
+			public double sample(Random random) {
+				double g;
+				do {
+					g = random.nextGaussian();
+				} while (Math.abs(g) > sigmas);
+				return mean + g * stddev;
+			}
+
+			@Override
+			public double getMean() {
+				return mean;
+			}
+
+			@Override
+			public String toString() {
+				return "TruncatedNormal[" + mean + "," + stddev + "," + sigmas + "]";
+			}
+		};
+	}
+
+}
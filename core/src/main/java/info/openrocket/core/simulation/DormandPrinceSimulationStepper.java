@@ -0,0 +1,327 @@
+package info.openrocket.core.simulation;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.WorldCoordinate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An adaptive flight stepper using the embedded Dormand-Prince 5(4) Runge-Kutta method.
+ * <p>
+ * The rocket dynamics are computed exactly as in {@link RK4SimulationStepper}, but the
+ * time step is selected from an estimate of the local truncation error instead of
+ * heuristic limits.  Each step computes both a fifth and a fourth order solution; their
+ * difference estimates the error of the step, which is compared to the tolerance
+ * {@link SimulationConditions#getTolerance()} relative to the magnitude of the state.
+ * Steps exceeding the tolerance are repeated with a shorter time step, and the length
+ * of the next step is chosen so that its error is expected to just meet the tolerance.
+ * The simulation therefore takes long steps during coast and descent, and short steps
+ * only where the dynamics change quickly.
+ * <p>
+ * The user-selected time step is used as the first step, and steps are limited to
+ * {@link #MAX_TIME_STEP_MULTIPLIER} times it so that the flight data stays reasonably dense.
+ * The state within the last step is interpolated using the fourth order continuous
+ * extension of the method, so that events within long steps are located accurately.
+ */
+public class DormandPrinceSimulationStepper extends RK4SimulationStepper {
+
+	private static final Logger log = LoggerFactory.getLogger(DormandPrinceSimulationStepper.class);
+
+	/**
+	 * A recommended relative error tolerance of a single step.
+	 */
+	public static final double RECOMMENDED_TOLERANCE = 1e-4;
+
+	/** The smallest allowed tolerance */
+	public static final double MIN_TOLERANCE = 1e-8;
+
+	/** The largest allowed tolerance */
+	public static final double MAX_TOLERANCE = 1e-2;
+
+	/** The maximum time step as a multiple of the user-selected time step */
+	public static final double MAX_TIME_STEP_MULTIPLIER = 20;
+
+	/*
+	 * Step size control:  the step is scaled by SAFETY * error^(-1/5), but by no less
+	 * than MIN_FACTOR and no more than MAX_FACTOR.
+	 */
+	private static final double SAFETY = 0.9;
+	private static final double MIN_FACTOR = 0.2;
+	private static final double MAX_FACTOR = 5;
+
+	/*
+	 * The Dormand-Prince tableau:  the stage times, the weights of the stages, the weights
+	 * of the fifth order solution (which equal the weights of the last stage) and the
+	 * difference of the fifth and fourth order weights.
+	 */
+	private static final double[] NODES = { 0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1 };
+	private static final double[][] STAGE_WEIGHTS = {
+			{},
+			{ 1.0 / 5 },
+			{ 3.0 / 40, 9.0 / 40 },
+			{ 44.0 / 45, -56.0 / 15, 32.0 / 9 },
+			{ 19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729 },
+			{ 9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656 },
+			{ 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84 }
+	};
+	private static final double[] SOLUTION_WEIGHTS = STAGE_WEIGHTS[6];
+	private static final double[] ERROR_WEIGHTS = { 71.0 / 57600, 0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200,
+			22.0 / 525, -1.0 / 40 };
+	private static final int STAGES = NODES.length;
+
+	/*
+	 * The continuous extension of the method:  the weights of the stages for the state at a
+	 * fraction theta of the step are the polynomials sum(DENSE_OUTPUT[j][m] * theta^(m+1)).
+	 */
+	private static final double[][] DENSE_OUTPUT = {
+			{ 1, -8048581381.0 / 2820520608.0, 8663915743.0 / 2820520608.0, -12715105075.0 / 11282082432.0 },
+			{ 0, 0, 0, 0 },
+			{ 0, 131558114200.0 / 32700410799.0, -68118460800.0 / 10900136933.0, 87487479700.0 / 32700410799.0 },
+			{ 0, -1754552775.0 / 470086768.0, 14199869525.0 / 1410260304.0, -10690763975.0 / 1880347072.0 },
+			{ 0, 127303824393.0 / 49829197408.0, -318862633887.0 / 49829197408.0, 701980252875.0 / 199316789632.0 },
+			{ 0, -282668133.0 / 205662961.0, 2019193451.0 / 616988883.0, -1453857185.0 / 822651844.0 },
+			{ 0, 40617522.0 / 29380423.0, -110615467.0 / 29380423.0, 69997945.0 / 29380423.0 }
+	};
+
+	/** The state derivatives of the stages */
+	private final double[][] k = new double[STAGES][STATE_SIZE];
+	/** Weighted sum of the stage derivatives */
+	private final double[] slope = new double[STATE_SIZE];
+	private final double[] delta = new double[STATE_SIZE];
+	private final double[] error = new double[STATE_SIZE];
+	private final double[] denseWeights = new double[STAGES];
+
+	/** The start time and length of the last step, NaN if it cannot be interpolated */
+	private double stepStartTime = Double.NaN;
+	private double stepLength = Double.NaN;
+
+	/** The time step the error control proposes for the next step */
+	private double proposedTimeStep = Double.NaN;
+
+	/** Moment coefficient randomization, constant over a step so as not to disturb the error estimate */
+	private double cmRandom;
+	private double cyawRandom;
+
+
+	@Override
+	public SimulationStatus initialize(SimulationStatus original) {
+		proposedTimeStep = Double.NaN;
+		return super.initialize(original);
+	}
+
+	@Override
+	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException {
+
+		status.storeData();
+		stepLength = Double.NaN;
+
+		cmRandom = randomMomentCoefficient();
+		cyawRandom = randomMomentCoefficient();
+
+		calculateFlightConditions(status, store);
+
+		/*
+		 * First stage, k1 = f(t, y).  The method has the first-same-as-last property, but
+		 * the last stage of the previous step is not reused:  between steps the engine
+		 * handles events and listeners that may change the configuration, motors and
+		 * state, the moment randomization is drawn anew, and the forces and flight
+		 * conditions of this stage are the ones stored as the data point of the step.
+		 */
+		computeParameters(status, store, k[0]);
+
+		// If maxTimeStep is NaN we'll just record sim params and leave
+		if (Double.isNaN(maxTimeStep)) {
+			store.timeStep = maxTimeStep;
+			store.storeData(status);
+
+			landedValues(status, store);
+			return;
+		}
+
+		SimulationConditions conditions = status.getSimulationConditions();
+		final double tolerance = conditions.getTolerance();
+		final double minTimeStep = MathUtil.min(MIN_TIME_STEP, conditions.getTimeStep() / 20);
+
+		/*
+		 * The time step proposed by the error control is additionally limited by
+		 *  - the maximum time step
+		 *  - the maximum pitch step angle
+		 *  - 1/5th of the user-selected time step and 1/10th of the launch rod length
+		 *    if still on the launch rod
+		 *  - the time to the next scheduled event, maxTimeStep
+		 */
+		double maxStep = MAX_TIME_STEP_MULTIPLIER * conditions.getTimeStep();
+		maxStep = MathUtil.min(maxStep, conditions.getMaximumAngleStep() / store.lateralPitchRate);
+		if (!status.isLaunchRodCleared()) {
+			maxStep = MathUtil.min(maxStep, conditions.getTimeStep() / 5,
+					conditions.getLaunchRodLength() / status.getRocketVelocity().length() / 10);
+		}
+		double timeStep = Double.isNaN(proposedTimeStep) ? conditions.getTimeStep() : proposedTimeStep;
+		timeStep = MathUtil.max(MathUtil.min(timeStep, maxStep), minTimeStep);
+
+		// Land exactly on the next event if the step would end close to or beyond it
+		if (maxTimeStep - timeStep < minTimeStep) {
+			timeStep = maxTimeStep;
+		}
+		final boolean limited = timeStep < proposedTimeStep;
+
+		// Store the data of the first stage, the time step is updated once it is accepted
+		store.timeStep = timeStep;
+		store.storeData(status);
+		checkNaN(store.timeStep, "store.timeStep");
+
+		SimulationStatus intermediate = startStep(status);
+		int rejected = 0;
+		double errorNorm;
+		while (true) {
+			computeStages(status, intermediate, timeStep);
+			errorNorm = errorNorm(y0, delta, error, tolerance);
+			if (errorNorm <= 1 || timeStep <= minTimeStep) {
+				break;
+			}
+			rejected++;
+			timeStep = MathUtil.max(timeStep * stepFactor(errorNorm), minTimeStep);
+		}
+
+		if (log.isTraceEnabled()) {
+			log.trace("Took time step " + timeStep + " with error " + errorNorm + " after " + rejected
+					+ " rejected steps");
+		}
+
+		// A step shortened by the limits does not reduce the following steps
+		double nextTimeStep = timeStep * stepFactor(errorNorm);
+		if (rejected > 0) {
+			nextTimeStep = MathUtil.min(nextTimeStep, timeStep);
+		} else if (limited) {
+			nextTimeStep = MathUtil.max(nextTimeStep, proposedTimeStep);
+		}
+		proposedTimeStep = nextTimeStep;
+
+		store.timeStep = timeStep;
+		status.getFlightDataBranch().setValue(FlightDataType.TYPE_TIME_STEP, timeStep);
+
+		stepStartTime = status.getSimulationTime();
+		advance(status, delta, timeStep);
+		stepLength = timeStep;
+	}
+
+	/**
+	 * Interpolate within the last step using the continuous extension of the Dormand-Prince
+	 * method, which is of fourth order and requires no further force calculations.
+	 */
+	@Override
+	public void interpolate(SimulationStatus start, SimulationStatus end, double time, SimulationStatus result) {
+		if (Double.isNaN(stepLength) || start.getSimulationTime() != stepStartTime) {
+			super.interpolate(start, end, time, result);
+			return;
+		}
+
+		final double theta = (time - stepStartTime) / stepLength;
+		for (int j = 0; j < STAGES; j++) {
+			double weight = 0;
+			double power = 1;
+			for (double coefficient : DENSE_OUTPUT[j]) {
+				power *= theta;
+				weight += coefficient * power;
+			}
+			denseWeights[j] = weight;
+		}
+		weightedSum(denseWeights, stepLength, slope);
+		result.setRocketPosition(offset(start.getRocketPosition(), slope, V, 1));
+		result.setRocketVelocity(offset(start.getRocketVelocity(), slope, A, 1));
+		result.setRocketRotationVelocity(offset(start.getRocketRotationVelocity(), slope, RA, 1));
+		result.setRocketOrientationQuaternion(start.getRocketOrientationQuaternion()
+				.multiplyLeft(Quaternion.rotation(new Coordinate(slope[RV], slope[RV + 1], slope[RV + 2])))
+				.normalizeIfNecessary());
+
+		WorldCoordinate w = start.getSimulationConditions().getLaunchSite();
+		w = start.getSimulationConditions().getGeodeticComputation().addCoordinate(w, result.getRocketPosition());
+		result.setRocketWorldPosition(w);
+		result.setSimulationTime(time);
+	}
+
+	/**
+	 * Compute the stages of a step of length h, the state increment into <code>delta</code>
+	 * and the error estimate into <code>error</code>.
+	 */
+	private void computeStages(SimulationStatus status, SimulationStatus intermediate, double h)
+			throws SimulationException {
+		for (int stage = 1; stage < STAGES; stage++) {
+			//// y(stage) = y + h * sum(a(stage, j) * k(j)) at time t + c(stage) * h
+			weightedSum(STAGE_WEIGHTS[stage], h, slope);
+			setIntermediateState(status, slope, 1, NODES[stage] * h);
+			computeParameters(intermediate, store, k[stage]);
+		}
+
+		weightedSum(SOLUTION_WEIGHTS, h, delta);
+		weightedSum(ERROR_WEIGHTS, h, error);
+	}
+
+	/**
+	 * Compute h times the weighted sum of the stage derivatives into <code>result</code>.
+	 */
+	private void weightedSum(double[] weights, double h, double[] result) {
+		for (int i = 0; i < STATE_SIZE; i++) {
+			double sum = 0;
+			for (int j = 0; j < weights.length; j++) {
+				sum += weights[j] * k[j][i];
+			}
+			result[i] = sum * h;
+		}
+	}
+
+	/**
+	 * Return the error estimate of a step relative to the tolerance; the step is accepted
+	 * if the result is at most one.  The position, velocity, orientation and rotation
+	 * velocity are compared separately, each relative to the larger of one unit and its
+	 * magnitude at the start and end of the step.
+	 *
+	 * @param y0		the state at the start of the step.  The orientation is ignored.
+	 * @param delta		the state increment over the step.
+	 * @param error		the estimated error of the state increment.
+	 * @param tolerance	the relative tolerance.
+	 * @return			the largest error of the quantities relative to their tolerance.
+	 */
+	static double errorNorm(double[] y0, double[] delta, double[] error, double tolerance) {
+		double norm = 0;
+		for (int offset = 0; offset < STATE_SIZE; offset += 3) {
+			double magnitude = 1;
+			if (offset != RV) {
+				magnitude = MathUtil.max(magnitude, length(y0, null, offset), length(y0, delta, offset));
+			}
+			norm = MathUtil.max(norm, length(error, null, offset) / (tolerance * magnitude));
+		}
+		return norm;
+	}
+
+	private static double length(double[] v, double[] add, int offset) {
+		double x = v[offset], y = v[offset + 1], z = v[offset + 2];
+		if (add != null) {
+			x += add[offset];
+			y += add[offset + 1];
+			z += add[offset + 2];
+		}
+		return Math.sqrt(x * x + y * y + z * z);
+	}
+
+	/**
+	 * Return the factor by which to scale a time step whose relative error was the given
+	 * value, so that the error of the next step just meets the tolerance.
+	 */
+	static double stepFactor(double errorNorm) {
+		if (errorNorm <= 0) {
+			return MAX_FACTOR;
+		}
+		return MathUtil.clamp(SAFETY * Math.pow(errorNorm, -0.2), MIN_FACTOR, MAX_FACTOR);
+	}
+
+	@Override
+	void addMomentRandomization(AerodynamicForces forces) {
+		forces.setCm(forces.getCm() + cmRandom);
+		forces.setCyaw(forces.getCyaw() + cyawRandom);
+	}
+}
@@ -2,6 +2,8 @@ package info.openrocket.core.simulation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +24,14 @@ import info.openrocket.core.util.Mutable;
  * </ul>
  * <p>
  * A FlightData object can be made immutable by calling {@link #immute()}.
+ * <p>
+ * When a document is loaded in the background, the data points of the branches may still
+ * be loading when the object is returned.  The methods returning branches or warnings wait
+ * until the data points have been loaded.  The summary values stored in the document are
+ * available immediately, while summary values calculated from the data points are waited for.
+ * Once the data points have been loaded, the warnings of loading them are added and the
+ * object is made immutable by the first thread waiting for them, so the values are never
+ * modified concurrently with reading them.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -42,6 +52,13 @@ public class FlightData {
 	
 	private final ArrayList<FlightDataBranch> branches = new ArrayList<>();
 	
+	/** The loading of the data points of the branches, or null if they are available */
+	private volatile CompletableFuture<?> pendingData = null;
+	/** The warnings of loading the data points, added once they have been loaded */
+	private WarningSet pendingWarnings = null;
+	/** Whether the summary values are calculated once the data points have been loaded */
+	private volatile boolean pendingSummary = false;
+	
 	private final WarningSet warnings = new WarningSet();
 	
 	private double maxAltitude = Double.NaN;
@@ -119,6 +136,7 @@ public class FlightData {
 	 * @return	the warnings generated during this simulation.
 	 */
 	public WarningSet getWarningSet() {
+		awaitData();
 		return warnings;
 	}
 	
@@ -134,6 +152,7 @@ public class FlightData {
 	}
 	
 	public FlightDataBranch getBranch(int stageNr) {
+		awaitData();
 		return branches.get(stageNr);
 	}
 
@@ -142,16 +161,114 @@ public class FlightData {
 	}
 
 	public List<FlightDataBranch> getBranches() {
+		awaitData();
 		return branches;
 	}
 	
+	/**
+	 * Set the pending loading of the data points of the branches.  The branches and the
+	 * warnings are not returned before the loading has completed.  The loading must not
+	 * modify this object; once it has completed, the load warnings are added to the warnings,
+	 * the summary values are calculated if requested, and this object is made immutable.
+	 * 
+	 * @param pendingData	the loading of the data points.
+	 * @param loadWarnings	the warnings of loading the data points, complete once the loading
+	 * 						has completed.
+	 * @param calculate		whether to calculate the summary values from the loaded data points.
+	 */
+	public void setPendingData(CompletableFuture<?> pendingData, WarningSet loadWarnings, boolean calculate) {
+		synchronized (this) {
+			this.pendingWarnings = loadWarnings;
+			this.pendingSummary = calculate;
+			this.pendingData = pendingData;
+		}
+	}
+	
+	/**
+	 * Register the immutable branches with the {@link FlightDataStore}, which may release
+	 * their data points from memory until they are needed again.  This is called for the
+	 * flight data stored by a simulation.  Branches whose data points are still being loaded
+	 * are registered once the loading has completed.
+	 */
+	public void storeData() {
+		CompletableFuture<?> pending = pendingData;
+		if (pending == null) {
+			registerBranches();
+		} else {
+			pending.whenComplete((result, error) -> {
+				awaitData();
+				registerBranches();
+			});
+		}
+	}
+
+	private void registerBranches() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		for (FlightDataBranch branch : branches) {
+			if (!branch.isMutable() && branch.getLength() > 0) {
+				store.register(branch);
+			}
+		}
+	}
+
+	/**
+	 * Return whether the data points of the branches are available without waiting.
+	 */
+	public boolean isDataAvailable() {
+		CompletableFuture<?> pending = pendingData;
+		return pending == null || pending.isDone();
+	}
+	
+	/**
+	 * Wait until the data points of the branches have been loaded, and complete this object
+	 * with the results of loading them.  If the loading fails, the branches contain the data
+	 * points loaded so far.
+	 */
+	private void awaitData() {
+		if (pendingData == null) {
+			return;
+		}
+		synchronized (this) {
+			CompletableFuture<?> pending = pendingData;
+			if (pending == null) {
+				return;
+			}
+			try {
+				pending.join();
+			} catch (CompletionException e) {
+				log.warn("Loading flight data failed", e.getCause());
+				pendingWarnings.add("Unable to load simulation data: " + e.getCause().getMessage());
+			}
+			warnings.addAll(pendingWarnings);
+			if (pendingSummary) {
+				calculateInterestingValues();
+			}
+			immute();
+			pendingWarnings = null;
+			pendingSummary = false;
+			pendingData = null;
+		}
+	}
+
+	/**
+	 * Wait until the summary values are available, if they are calculated from data points
+	 * still being loaded.
+	 */
+	private void awaitSummary() {
+		if (pendingSummary) {
+			awaitData();
+		}
+	}
+	
 	
 
 	public double getMaxAltitude() {
+		awaitSummary();
 		return maxAltitude;
 	}
 	
 	public double getMaxVelocity() {
+		awaitSummary();
 		return maxVelocity;
 	}
 	
@@ -159,35 +276,43 @@ public class FlightData {
 	 * NOTE:  This value only takes into account flight phase.
 	 */
 	public double getMaxAcceleration() {
+		awaitSummary();
 		return maxAcceleration;
 	}
 	
 	public double getMaxMachNumber() {
+		awaitSummary();
 		return maxMachNumber;
 	}
 	
 	public double getTimeToApogee() {
+		awaitSummary();
 		return timeToApogee;
 	}
 	
 	public double getFlightTime() {
+		awaitSummary();
 		return flightTime;
 	}
 	
 	public double getGroundHitVelocity() {
+		awaitSummary();
 		return groundHitVelocity;
 	}
 	
 	public double getLaunchRodVelocity() {
+		awaitSummary();
 		return launchRodVelocity;
 	}
 	
 
 	public double getDeploymentVelocity() {
+		awaitSummary();
 		return deploymentVelocity;
 	}
 
 	public double getOptimumDelay() {
+		awaitSummary();
 		return optimumDelay;
 	}
 
@@ -278,10 +403,12 @@ public class FlightData {
 	
 	
 	public boolean isMutable() {
+		awaitData();
 		return mutable.isMutable();
 	}
 	
 	public FlightData clone() {
+		awaitData();
 		FlightData clone = new FlightData();
 		clone.warnings.addAll(warnings);
 		for (FlightDataBranch b : branches) {
@@ -307,7 +434,7 @@ public class FlightData {
 		// End check at first recovery device deployment
 		double endTime = Double.MAX_VALUE;
 		
-		FlightDataBranch branch = this.getBranch(0);
+		FlightDataBranch branch = branches.get(0);
 		for (FlightEvent event : branch.getEvents()) {
 			if (event.getType() == FlightEvent.Type.RECOVERY_DEVICE_DEPLOYMENT) {
 				if (event.getTime() < endTime) {
@@ -1,7 +1,6 @@
 package info.openrocket.core.simulation;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import info.openrocket.core.rocketcomponent.AxialStage;
@@ -75,23 +74,17 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	 * @param srcComponent 	the component that is the source of this branch (used for copying events)
 	 */
 	private void copyValuesFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
-		this.values.clear();
-
-		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
-		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-
 		if (srcBranch == null) {
+			// Need to have at least one type to set up values
+			clearData();
+			addType(FlightDataType.TYPE_TIME);
 			return;
 		}
 
 		// Copy flight data
-		for (int i = 0; i < srcBranch.getLength(); i++) {
-			this.addPoint();
-			for (FlightDataType type : srcBranch.getTypes()) {
-				this.setValue(type, srcBranch.getByIndex(type, i));
-			}
+		copyDataFrom(srcBranch);
+		if (get(FlightDataType.TYPE_TIME) == null) {
+			addType(FlightDataType.TYPE_TIME);
 		}
 
 		// Copy flight events belonging to this branch
@@ -275,17 +268,12 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	}
 
 	public FlightDataBranch clone() {
-		FlightDataType[] types = getTypes();
-		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (Map.Entry<FlightDataType, ArrayList<Double>> entry : values.entrySet()) {
-			clone.values.put(entry.getKey(), entry.getValue().clone());
-		}
-		clone.minValues.putAll(minValues);
-		clone.maxValues.putAll(maxValues);
+		FlightDataBranch clone = new FlightDataBranch(name, FlightDataType.TYPE_TIME);
+		clone.copyDataFrom(this);
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
-		clone.modID = modID;
+		clone.setModID(getModID());
 		return clone;
 	}
 	
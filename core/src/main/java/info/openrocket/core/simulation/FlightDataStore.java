@@ -0,0 +1,379 @@
+package info.openrocket.core.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.util.BugException;
+
+/**
+ * A memory-bounded store of the data points of immutable flight data branches.
+ * <p>
+ * The branches of the flight data stored by simulations are registered with the store,
+ * see {@link FlightData#storeData()}.  Temporary flight data, such as that of Monte Carlo
+ * trials, is not registered and does not count toward the budget.  When the data points
+ * of the registered branches exceed the heap budget, the data points of the least
+ * recently used branches are written to a temporary file and released from memory.
+ * They are read back transparently the next time the branch values are accessed, for
+ * example when the data is plotted or exported.  The metadata of the branches, such as
+ * the data types, events and minimum and maximum values, always stays in memory.
+ * <p>
+ * The files are written by a single background thread, so that registering a branch
+ * never waits for disk I/O.  The released branches are no longer counted as resident
+ * once they have been selected for writing.
+ * <p>
+ * The recency of use is approximated with the clock algorithm:  accessing the values
+ * of a branch only sets a flag, and a branch whose flag is set is passed over once
+ * when selecting branches to release.
+ * <p>
+ * The store refers to the branches weakly, so registering a branch does not keep it
+ * alive.  The temporary file of a branch is deleted when its data points are read back or
+ * the branch is garbage collected.  The files are written to a temporary directory of the
+ * session, which is deleted when the application exits.
+ */
+public final class FlightDataStore {
+	private static final Logger log = LoggerFactory.getLogger(FlightDataStore.class);
+
+	/** The fraction of the maximum heap size used as the default budget */
+	public static final double DEFAULT_BUDGET_FRACTION = 0.25;
+
+	/** Branches smaller than this are kept in memory */
+	private static final long MIN_RELEASE_SIZE = 64 * 1024;
+
+	private static final FlightDataStore instance = new FlightDataStore();
+
+	/** Registered branches in the order of the clock algorithm */
+	private final LinkedHashSet<Entry> entries = new LinkedHashSet<>();
+	private final ReferenceQueue<DataBranch<?>> collected = new ReferenceQueue<>();
+
+	private long budget = getDefaultBudget();
+	private long residentSize = 0;
+
+	/** The thread writing the data points of the released branches, created when first needed */
+	private ExecutorService spillExecutor = null;
+
+	/** The directory of the files of the released branches, created when first needed */
+	private static File spillDirectory = null;
+
+
+	/**
+	 * Return the store used for all flight data branches.
+	 */
+	public static FlightDataStore getInstance() {
+		return instance;
+	}
+
+	FlightDataStore() {
+	}
+
+
+	/**
+	 * Return the default heap budget, a fraction of the maximum heap size.
+	 */
+	public static long getDefaultBudget() {
+		return (long) (Runtime.getRuntime().maxMemory() * DEFAULT_BUDGET_FRACTION);
+	}
+
+	/**
+	 * Return the number of bytes of data points that are kept in memory.
+	 */
+	public synchronized long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Set the number of bytes of data points that are kept in memory.  Branches are released
+	 * immediately if the current data exceeds the new budget.
+	 *
+	 * @param budget	the budget in bytes, or zero or a negative value to use the default budget.
+	 */
+	public synchronized void setBudget(long budget) {
+		this.budget = (budget > 0) ? budget : getDefaultBudget();
+		enforceBudget(null);
+	}
+
+	/**
+	 * Return the number of bytes of data points of the registered branches currently in memory.
+	 */
+	public synchronized long getResidentSize() {
+		expungeCollected();
+		return residentSize;
+	}
+
+
+	/**
+	 * Wait until the data points of the branches selected for release have been written.
+	 */
+	void awaitReleases() {
+		ExecutorService executor;
+		synchronized (this) {
+			executor = spillExecutor;
+		}
+		if (executor == null) {
+			return;
+		}
+		try {
+			executor.submit(() -> {
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new BugException("Unable to wait for flight data to be stored", e);
+		}
+	}
+
+
+	/**
+	 * Register an immutable branch whose data points may be released.
+	 */
+	void register(DataBranch<?> branch) {
+		if (branch.isMutable()) {
+			throw new IllegalStateException("Branch " + branch.getName() + " is mutable");
+		}
+		synchronized (this) {
+			expungeCollected();
+			if (branch.storeEntry != null) {
+				return;
+			}
+			Entry entry = new Entry(branch, collected);
+			branch.storeEntry = entry;
+			entry.size = branch.getValueSize();
+			entries.add(entry);
+			residentSize += entry.size;
+			enforceBudget(entry);
+		}
+	}
+
+	/**
+	 * Read the released data points of a branch from its file.
+	 *
+	 * @param branch	the branch to read.
+	 * @return			the data point columns of the branch.
+	 */
+	double[][] read(DataBranch<?> branch) {
+		Entry entry = branch.storeEntry;
+		if (entry == null || entry.file == null) {
+			throw new BugException("Values of branch " + branch.getName() + " have not been stored");
+		}
+
+		double[][] columns = new double[entry.columnCount][entry.length];
+		try (FileChannel channel = FileChannel.open(entry.file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(entry.length * Double.BYTES).order(ByteOrder.nativeOrder());
+			for (double[] column : columns) {
+				buffer.clear();
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) {
+						throw new IOException("Unexpected end of file " + entry.file);
+					}
+				}
+				buffer.flip();
+				buffer.asDoubleBuffer().get(column);
+			}
+		} catch (IOException e) {
+			throw new BugException("Unable to reload flight data of branch " + branch.getName(), e);
+		}
+		return columns;
+	}
+
+	/**
+	 * Account for the data points of a branch that have been read back into memory.  Other
+	 * branches may be released to stay within the budget.
+	 */
+	synchronized void reloaded(DataBranch<?> branch) {
+		expungeCollected();
+		Entry entry = branch.storeEntry;
+		if (entry == null || entry.size > 0 || !branch.isResident()) {
+			return;
+		}
+		entry.size = branch.getValueSize();
+		if (entries.remove(entry)) {
+			entries.add(entry);
+		}
+		residentSize += entry.size;
+
+		// The data points are written again if the branch is released again
+		File file = entry.file;
+		entry.file = null;
+		delete(file);
+
+		enforceBudget(entry);
+	}
+
+
+	/**
+	 * Release branches until the resident data is within the budget.
+	 *
+	 * @param keep	a branch that is not released, or <code>null</code>.
+	 */
+	private void enforceBudget(Entry keep) {
+		// Every entry is passed over at most twice, once to clear its reference flag
+		int remaining = 2 * entries.size();
+		while (residentSize > budget && remaining-- > 0) {
+			Iterator<Entry> iterator = entries.iterator();
+			if (!iterator.hasNext()) {
+				return;
+			}
+			Entry entry = iterator.next();
+			iterator.remove();
+			entries.add(entry);
+
+			DataBranch<?> branch = entry.get();
+			if (entry == keep || branch == null || entry.size < MIN_RELEASE_SIZE) {
+				continue;
+			}
+			if (entry.referenced && branch.isResident()) {
+				entry.referenced = false;
+				continue;
+			}
+			if (branch.isResident()) {
+				if (spillExecutor == null) {
+					spillExecutor = Executors.newSingleThreadExecutor(new SpillThreadFactory());
+				}
+				spillExecutor.execute(() -> release(entry));
+			}
+			// A branch that could not be stored is kept in memory without accounting for it
+			residentSize -= entry.size;
+			entry.size = 0;
+		}
+	}
+
+	/**
+	 * Write the data points of a branch to a new file and release them.  Called on the spill
+	 * thread without holding the lock of the store.  The entry is not selected again before
+	 * its data points have been released and reloaded.
+	 */
+	private static void release(Entry entry) {
+		DataBranch<?> branch = entry.get();
+		if (branch == null) {
+			return;
+		}
+		double[][] columns = branch.getColumns();
+		if (columns == null) {
+			return;
+		}
+		File file = null;
+		try {
+			file = File.createTempFile("flightdata", ".bin", getSpillDirectory());
+			write(file, columns, branch.getLength());
+		} catch (IOException e) {
+			log.warn("Unable to store flight data of branch " + branch.getName() + ", keeping it in memory", e);
+			delete(file);
+			return;
+		}
+		// The columns are reloaded while holding the lock of the branch
+		synchronized (branch) {
+			entry.columnCount = columns.length;
+			entry.length = branch.getLength();
+			entry.file = file;
+			branch.releaseColumns();
+		}
+		log.debug("Released flight data of branch " + branch.getName());
+	}
+
+	/**
+	 * Return the directory of the spill files, creating it if necessary.  The directory and
+	 * the files remaining in it are deleted when the application exits.
+	 */
+	private static synchronized File getSpillDirectory() throws IOException {
+		if (spillDirectory == null) {
+			File directory = Files.createTempDirectory("openrocket-flightdata").toFile();
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteDirectory(directory),
+					"FlightDataCleanup"));
+			spillDirectory = directory;
+		}
+		return spillDirectory;
+	}
+
+	private static void deleteDirectory(File directory) {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				delete(file);
+			}
+		}
+		delete(directory);
+	}
+
+	private static void delete(File file) {
+		if (file != null && !file.delete()) {
+			log.debug("Unable to delete " + file);
+		}
+	}
+
+	private static void write(File file, double[][] columns, int length) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocate(length * Double.BYTES).order(ByteOrder.nativeOrder());
+			for (double[] column : columns) {
+				buffer.clear();
+				buffer.asDoubleBuffer().put(column, 0, length);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the entries of garbage collected branches and delete their files.
+	 */
+	private void expungeCollected() {
+		Entry entry;
+		while ((entry = (Entry) collected.poll()) != null) {
+			if (entries.remove(entry)) {
+				residentSize -= entry.size;
+			}
+			delete(entry.file);
+		}
+	}
+
+
+	/**
+	 * The store information of a single branch.  Entries are compared by identity.
+	 */
+	static final class Entry extends WeakReference<DataBranch<?>> {
+		/** Bytes of the branch data points currently in memory */
+		private long size;
+		/** Whether the branch values have been accessed since the flag was last cleared */
+		volatile boolean referenced = true;
+		/** The file containing the data points, or <code>null</code> if not yet written */
+		private volatile File file;
+		private int columnCount;
+		private int length;
+
+		private Entry(DataBranch<?> branch, ReferenceQueue<DataBranch<?>> queue) {
+			super(branch, queue);
+		}
+
+		/**
+		 * Return the file containing the data points, or <code>null</code> if not written.
+		 */
+		File getFile() {
+			return file;
+		}
+	}
+
+	private static class SpillThreadFactory implements ThreadFactory {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "FlightDataSpill");
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package info.openrocket.core.simulation;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import info.openrocket.core.simulation.MonteCarloRunner.Parameter;
+
+/**
+ * Per-trial summary values of a Monte Carlo run.  Instead of keeping the full
+ * {@link FlightData} of every trial, only a few summary values are stored in
+ * primitive arrays indexed by the trial number.
+ * <p>
+ * The arrays are written concurrently by the worker threads of a
+ * {@link MonteCarloRunner}, each trial only writing its own index.  The contents
+ * should only be read after {@link MonteCarloRunner#run()} has returned.
+ * Trials that failed (or were cancelled) have all summary values set to NaN.
+ */
+public class MonteCarloResults {
+
+	/**
+	 * The summary values recorded for each trial.
+	 */
+	public enum Value {
+		/** Maximum altitude of the sustainer (m) */
+		APOGEE,
+		/** Time to apogee (s) */
+		TIME_TO_APOGEE,
+		/** Maximum velocity (m/s) */
+		MAX_VELOCITY,
+		/** Total flight time (s) */
+		FLIGHT_TIME,
+		/** Ground hit velocity (m/s) */
+		GROUND_HIT_VELOCITY,
+		/** Landing position of the sustainer, east of the launch site (m) */
+		LANDING_X,
+		/** Landing position of the sustainer, north of the launch site (m) */
+		LANDING_Y
+	}
+
+	private final int trialCount;
+	private final double[][] values;
+	private final Map<Parameter, double[]> samples = new EnumMap<>(Parameter.class);
+	private final boolean[] failed;
+
+	MonteCarloResults(int trialCount) {
+		this.trialCount = trialCount;
+		this.values = new double[Value.values().length][trialCount];
+		for (double[] array : values) {
+			Arrays.fill(array, Double.NaN);
+		}
+		for (Parameter p : Parameter.values()) {
+			double[] array = new double[trialCount];
+			Arrays.fill(array, Double.NaN);
+			samples.put(p, array);
+		}
+		this.failed = new boolean[trialCount];
+	}
+
+	/**
+	 * Store the summary values of a finished trial.
+	 */
+	void store(int trial, FlightData data) {
+		values[Value.APOGEE.ordinal()][trial] = data.getMaxAltitude();
+		values[Value.TIME_TO_APOGEE.ordinal()][trial] = data.getTimeToApogee();
+		values[Value.MAX_VELOCITY.ordinal()][trial] = data.getMaxVelocity();
+		values[Value.FLIGHT_TIME.ordinal()][trial] = data.getFlightTime();
+		values[Value.GROUND_HIT_VELOCITY.ordinal()][trial] = data.getGroundHitVelocity();
+		if (data.getBranchCount() > 0) {
+			FlightDataBranch sustainer = data.getBranch(0);
+			values[Value.LANDING_X.ordinal()][trial] = sustainer.getLast(FlightDataType.TYPE_POSITION_X);
+			values[Value.LANDING_Y.ordinal()][trial] = sustainer.getLast(FlightDataType.TYPE_POSITION_Y);
+		}
+	}
+
+	/**
+	 * Store the value sampled for a dispersed parameter of a trial.
+	 */
+	void storeSample(int trial, Parameter parameter, double value) {
+		samples.get(parameter)[trial] = value;
+	}
+
+	/**
+	 * Mark a trial as failed.
+	 */
+	void setFailed(int trial) {
+		failed[trial] = true;
+	}
+
+
+	/**
+	 * Return the number of trials in this result set.
+	 */
+	public int getTrialCount() {
+		return trialCount;
+	}
+
+	/**
+	 * Return a summary value of a single trial.
+	 *
+	 * @param value		the summary value to return.
+	 * @param trial		the trial number.
+	 * @return			the value, or NaN if the trial failed or was not run.
+	 */
+	public double get(Value value, int trial) {
+		return values[value.ordinal()][trial];
+	}
+
+	/**
+	 * Return a copy of the summary values of all trials.
+	 */
+	public double[] getValues(Value value) {
+		return values[value.ordinal()].clone();
+	}
+
+	/**
+	 * Return the value that was sampled for a dispersed parameter in a trial.
+	 * For additive parameters this is the offset from the nominal value, for
+	 * scaling parameters the scaling factor.
+	 */
+	public double getSample(Parameter parameter, int trial) {
+		return samples.get(parameter)[trial];
+	}
+
+	/**
+	 * Return a copy of the values sampled for a dispersed parameter in all trials.
+	 */
+	public double[] getSamples(Parameter parameter) {
+		return samples.get(parameter).clone();
+	}
+
+	/**
+	 * Return whether a trial failed with an exception or was cancelled.
+	 */
+	public boolean isFailed(int trial) {
+		return failed[trial];
+	}
+
+	/**
+	 * Return the number of trials that failed or were cancelled.
+	 */
+	public int getFailedCount() {
+		int count = 0;
+		for (boolean b : failed) {
+			if (b) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return the mean of a summary value over all successful trials.
+	 *
+	 * @return the mean, or NaN if no trial produced a value.
+	 */
+	public double getMean(Value value) {
+		double sum = 0;
+		int n = 0;
+		for (double d : values[value.ordinal()]) {
+			if (!Double.isNaN(d)) {
+				sum += d;
+				n++;
+			}
+		}
+		return (n > 0) ? sum / n : Double.NaN;
+	}
+
+	/**
+	 * Return the sample standard deviation of a summary value over all successful trials.
+	 *
+	 * @return the standard deviation, or NaN if fewer than two trials produced a value.
+	 */
+	public double getStandardDeviation(Value value) {
+		double mean = getMean(value);
+		double sum = 0;
+		int n = 0;
+		for (double d : values[value.ordinal()]) {
+			if (!Double.isNaN(d)) {
+				sum += (d - mean) * (d - mean);
+				n++;
+			}
+		}
+		return (n > 1) ? Math.sqrt(sum / (n - 1)) : Double.NaN;
+	}
+
+	/**
+	 * Return a percentile of a summary value over all successful trials.
+	 *
+	 * @param percentile	the percentile, between 0 and 100.
+	 * @return				the linearly interpolated percentile, or NaN if no trial produced a value.
+	 */
+	public double getPercentile(Value value, double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100, percentile=" + percentile);
+		}
+		double[] sorted = Arrays.stream(values[value.ordinal()]).filter(d -> !Double.isNaN(d)).sorted().toArray();
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		double pos = percentile / 100 * (sorted.length - 1);
+		int lower = (int) Math.floor(pos);
+		int upper = Math.min(lower + 1, sorted.length - 1);
+		return sorted[lower] + (pos - lower) * (sorted[upper] - sorted[lower]);
+	}
+
+}
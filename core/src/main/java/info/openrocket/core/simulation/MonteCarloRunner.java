@@ -0,0 +1,456 @@
+package info.openrocket.core.simulation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.models.gravity.WGSGravityModel;
+import info.openrocket.core.models.wind.PinkNoiseWindModel;
+import info.openrocket.core.models.wind.WindModel;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.extension.SimulationExtension;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * Runs a Monte Carlo dispersion analysis of a simulation.
+ * <p>
+ * Each trial clones the {@link SimulationConditions} of the base simulation, perturbs
+ * the launch conditions, wind, thrust, drag and mass according to the declared
+ * {@link Dispersion}s and simulates the flight using a {@link BasicEventSimulationEngine}.
+ * Trials are distributed over a work-stealing {@link ForkJoinPool}.  Only a few
+ * summary values of every trial are kept in a {@link MonteCarloResults}, the full
+ * flight data is discarded as soon as the trial finishes.
+ * <p>
+ * Every trial uses its own random source derived from the runner seed and the trial
+ * number, so the results are reproducible independent of the number of threads used.
+ * <p>
+ * The base simulation and its rocket must not be modified while the runner is active.
+ * The public methods of this class are not thread-safe, with the exception of
+ * {@link #cancel()} and {@link #getCompletedTrials()}.
+ */
+public class MonteCarloRunner {
+	private static final Logger log = LoggerFactory.getLogger(MonteCarloRunner.class);
+
+	/**
+	 * The simulation inputs that can be dispersed.  Additive parameters are offsets
+	 * added to the nominal value of the simulation, scaling parameters are factors
+	 * the nominal value is multiplied with.
+	 */
+	public enum Parameter {
+		/** Offset added to the horizontal wind speed (m/s) */
+		WIND_SPEED(false),
+		/** Offset added to the wind direction (rad) */
+		WIND_DIRECTION(false),
+		/** Offset added to the launch rod angle from vertical (rad) */
+		LAUNCH_ROD_ANGLE(false),
+		/** Offset added to the launch rod direction (rad) */
+		LAUNCH_ROD_DIRECTION(false),
+		/** Factor applied to the total motor thrust */
+		THRUST_SCALE(true),
+		/** Factor applied to the drag coefficients */
+		DRAG_SCALE(true),
+		/** Factor applied to the mass and inertia of the rocket (structure and motors) */
+		MASS_SCALE(true);
+
+		private final boolean scaling;
+
+		Parameter(boolean scaling) {
+			this.scaling = scaling;
+		}
+
+		/**
+		 * Return whether this parameter is a scaling factor (nominal value 1)
+		 * rather than an additive offset (nominal value 0).
+		 */
+		public boolean isScaling() {
+			return scaling;
+		}
+
+		/**
+		 * Return the dispersion that leaves this parameter at its nominal value.
+		 */
+		public Dispersion getNominal() {
+			return Dispersion.fixed(scaling ? 1.0 : 0.0);
+		}
+	}
+
+	private final Simulation simulation;
+	private final int trialCount;
+	private final Map<Parameter, Dispersion> dispersions = new EnumMap<>(Parameter.class);
+	private long seed;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/** The rocket snapshot shared by the trials of the current run */
+	private SharedRocket sharedRocket = null;
+
+	private final AtomicBoolean cancelled = new AtomicBoolean(false);
+	private final AtomicInteger completedTrials = new AtomicInteger(0);
+
+	/**
+	 * Create a Monte Carlo runner.
+	 *
+	 * @param simulation	the base simulation whose options, extensions and flight configuration are dispersed.
+	 * @param trialCount	the number of trials to run.
+	 */
+	public MonteCarloRunner(Simulation simulation, int trialCount) {
+		if (simulation == null) {
+			throw new IllegalArgumentException("simulation cannot be null");
+		}
+		if (trialCount < 0) {
+			throw new IllegalArgumentException("trialCount must be non-negative, trialCount=" + trialCount);
+		}
+		this.simulation = simulation;
+		this.trialCount = trialCount;
+		this.seed = simulation.getOptions().getRandomSeed();
+		for (Parameter p : Parameter.values()) {
+			dispersions.put(p, p.getNominal());
+		}
+	}
+
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	public int getTrialCount() {
+		return trialCount;
+	}
+
+	public Dispersion getDispersion(Parameter parameter) {
+		return dispersions.get(parameter);
+	}
+
+	/**
+	 * Set the dispersion of a simulation input.
+	 *
+	 * @param parameter		the parameter to disperse.
+	 * @param dispersion	the distribution of the parameter, or <code>null</code> to use the nominal value.
+	 */
+	public void setDispersion(Parameter parameter, Dispersion dispersion) {
+		if (dispersion == null) {
+			dispersion = parameter.getNominal();
+		}
+		dispersions.put(parameter, dispersion);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Set the number of worker threads used to run the trials.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive, parallelism=" + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the number of trials that have finished (successfully or not) during the
+	 * current or latest run.  This method may be called from any thread.
+	 */
+	public int getCompletedTrials() {
+		return completedTrials.get();
+	}
+
+	/**
+	 * Cancel a running analysis.  Trials that are in progress are aborted and the
+	 * remaining trials are skipped; they are marked as failed in the results.
+	 * This method may be called from any thread.
+	 */
+	public void cancel() {
+		cancelled.set(true);
+	}
+
+	public boolean isCancelled() {
+		return cancelled.get();
+	}
+
+	/**
+	 * Run all trials and block until they have finished.
+	 *
+	 * @return	the per-trial summary values.
+	 */
+	public MonteCarloResults run() {
+		cancelled.set(false);
+		completedTrials.set(0);
+
+		final MonteCarloResults results = new MonteCarloResults(trialCount);
+		if (trialCount == 0) {
+			return results;
+		}
+
+		final int threads = Math.min(parallelism, trialCount);
+		createSharedRocket();
+		final Queue<TrialContext> contexts = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < threads; i++) {
+			contexts.add(createContext());
+		}
+
+		long t1 = System.currentTimeMillis();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.invoke(new TrialTask(0, trialCount, results, contexts));
+		} finally {
+			pool.shutdownNow();
+			sharedRocket = null;
+		}
+		long t2 = System.currentTimeMillis();
+		log.info("Monte Carlo analysis of " + trialCount + " trials using " + threads + " threads took " + (t2 - t1)
+				+ "ms, " + results.getFailedCount() + " trials failed");
+
+		return results;
+	}
+
+	/**
+	 * Create the rocket snapshot shared by all trials of a run.  The dispersions are applied through
+	 * the simulation conditions and listeners, so the trials never modify the rocket.
+	 * <p>
+	 * This is synchronized since the base simulation may only be accessed by a single
+	 * thread at a time.
+	 */
+	private synchronized void createSharedRocket() {
+		sharedRocket = SharedRocket.of(simulation.getRocket());
+	}
+
+	/**
+	 * Create a private copy of the simulation for a worker, together with the simulation
+	 * conditions that the trials of that worker are cloned from.
+	 * <p>
+	 * This is synchronized since the base simulation may only be accessed by a single
+	 * thread at a time.
+	 */
+	private synchronized TrialContext createContext() {
+		Simulation workerSimulation = simulation.duplicateSimulation(sharedRocket.getRocket());
+		SimulationConditions conditions = workerSimulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(workerSimulation);
+		conditions.setSharedRocket(sharedRocket);
+		for (SimulationExtension extension : workerSimulation.getSimulationExtensions()) {
+			try {
+				extension.initialize(conditions);
+			} catch (SimulationException e) {
+				throw new IllegalStateException("Unable to initialize simulation extension " + extension.getName(), e);
+			}
+		}
+		return new TrialContext(conditions);
+	}
+
+	/**
+	 * Run a single trial using the conditions of the given context.
+	 */
+	private void runTrial(int trial, TrialContext context, MonteCarloResults results) {
+		try {
+			if (cancelled.get()) {
+				results.setFailed(trial);
+				return;
+			}
+
+			Random random = new Random(mix(seed + mix(trial)));
+			SimulationConditions base = context.conditions;
+			SimulationConditions conditions = base.clone();
+
+			// The models keep internal state, so each trial needs its own instances
+			conditions.setAerodynamicCalculator(base.getAerodynamicCalculator().newInstance());
+			conditions.setGravityModel(new WGSGravityModel());
+			conditions.setRandomSeed(random.nextInt());
+			WindModel windModel = base.getWindModel();
+			if (windModel instanceof PinkNoiseWindModel) {
+				PinkNoiseWindModel trialWind = new PinkNoiseWindModel(random.nextInt());
+				trialWind.loadFrom((PinkNoiseWindModel) windModel);
+				conditions.setWindModel(trialWind);
+			} else {
+				conditions.setWindModel(windModel.clone());
+			}
+
+			DispersionListener listener = new DispersionListener();
+			for (Parameter p : Parameter.values()) {
+				double value = dispersions.get(p).sample(random);
+				results.storeSample(trial, p, value);
+				listener.set(p, value);
+			}
+
+			conditions.setLaunchRodAngle(MathUtil.clamp(base.getLaunchRodAngle() + listener.launchRodAngle,
+					0, SimulationOptions.MAX_LAUNCH_ROD_ANGLE));
+			conditions.setLaunchRodDirection(MathUtil.reduce2Pi(base.getLaunchRodDirection() + listener.launchRodDirection));
+			conditions.getSimulationListenerList().add(listener);
+
+			BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+			engine.simulate(conditions);
+			results.store(trial, engine.getFlightData());
+
+		} catch (SimulationCancelledException e) {
+			results.setFailed(trial);
+		} catch (SimulationException e) {
+			log.debug("Monte Carlo trial " + trial + " failed: " + e.getMessage());
+			results.setFailed(trial);
+		} catch (RuntimeException e) {
+			log.warn("Monte Carlo trial " + trial + " threw an exception", e);
+			results.setFailed(trial);
+		} finally {
+			completedTrials.incrementAndGet();
+		}
+	}
+
+	/**
+	 * The SplitMix64 finalizer, used to derive well-distributed per-trial seeds.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+
+	/**
+	 * Worker-private simulation copy and conditions template.
+	 */
+	private static class TrialContext {
+		private final SimulationConditions conditions;
+
+		TrialContext(SimulationConditions conditions) {
+			this.conditions = conditions;
+		}
+	}
+
+	/**
+	 * Recursively splits a range of trials so that idle workers can steal work.
+	 */
+	private class TrialTask extends RecursiveAction {
+		private final int from;
+		private final int to;
+		private final MonteCarloResults results;
+		private final Queue<TrialContext> contexts;
+
+		TrialTask(int from, int to, MonteCarloResults results, Queue<TrialContext> contexts) {
+			this.from = from;
+			this.to = to;
+			this.results = results;
+			this.contexts = contexts;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new TrialTask(from, mid, results, contexts),
+						new TrialTask(mid, to, results, contexts));
+				return;
+			}
+
+			TrialContext context = contexts.poll();
+			if (context == null) {
+				// The pool may add compensation threads, give them a context of their own
+				context = createContext();
+			}
+			try {
+				runTrial(from, context, results);
+			} finally {
+				contexts.add(context);
+			}
+		}
+	}
+
+	/**
+	 * Simulation listener that applies the sampled dispersions of a single trial.
+	 */
+	private class DispersionListener extends AbstractSimulationListener {
+		private double windSpeed = 0;
+		private double windDirection = 0;
+		private double launchRodAngle = 0;
+		private double launchRodDirection = 0;
+		private double thrustScale = 1;
+		private double dragScale = 1;
+		private double massScale = 1;
+
+		void set(Parameter parameter, double value) {
+			switch (parameter) {
+				case WIND_SPEED -> windSpeed = value;
+				case WIND_DIRECTION -> windDirection = value;
+				case LAUNCH_ROD_ANGLE -> launchRodAngle = value;
+				case LAUNCH_ROD_DIRECTION -> launchRodDirection = value;
+				case THRUST_SCALE -> thrustScale = value;
+				case DRAG_SCALE -> dragScale = value;
+				case MASS_SCALE -> massScale = value;
+			}
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			if (cancelled.get()) {
+				throw new SimulationCancelledException("The Monte Carlo analysis was cancelled.");
+			}
+		}
+
+		@Override
+		public CoordinateIF postWindModel(SimulationStatus status, CoordinateIF wind) {
+			if (windSpeed == 0 && windDirection == 0) {
+				return wind;
+			}
+			double speed = MathUtil.hypot(wind.getX(), wind.getY());
+			// Direction 0 is north (positive Y), pi/2 is east (positive X)
+			double direction = (speed > 0) ? Math.atan2(wind.getX(), wind.getY()) : 0;
+			speed = Math.max(0, speed + windSpeed);
+			direction += windDirection;
+			return new Coordinate(speed * Math.sin(direction), speed * Math.cos(direction), wind.getZ());
+		}
+
+		@Override
+		public double postSimpleThrustCalculation(SimulationStatus status, double thrust) {
+			return thrust * thrustScale;
+		}
+
+		@Override
+		public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces) {
+			if (dragScale == 1) {
+				return forces;
+			}
+			forces.setCD(forces.getCD() * dragScale);
+			forces.setCDaxial(forces.getCDaxial() * dragScale);
+			forces.setFrictionCD(forces.getFrictionCD() * dragScale);
+			forces.setPressureCD(forces.getPressureCD() * dragScale);
+			forces.setBaseCD(forces.getBaseCD() * dragScale);
+			return forces;
+		}
+
+		@Override
+		public RigidBody postMassCalculation(SimulationStatus status, RigidBody massData) {
+			if (massScale == 1) {
+				return massData;
+			}
+			CoordinateIF cm = massData.getCenterOfMass();
+			return new RigidBody(cm.setWeight(cm.getWeight() * massScale),
+					massData.getIxx() * massScale, massData.getIyy() * massScale, massData.getIzz() * massScale);
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+
+}
@@ -4,6 +4,7 @@ import info.openrocket.core.motor.IgnitionEvent;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.MotorConfigurationId;
+import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -16,6 +17,9 @@ public class MotorClusterState {
 	final protected int motorCount;
 	final protected double thrustDuration;
 
+	// speeds up the thrust curve lookups of successive simulation steps
+	private final ThrustCurveMotor.Cursor cursor = new ThrustCurveMotor.Cursor();
+
 	// for state:
 	protected double ignitionTime = Double.NaN;
 	protected double cutoffTime = Double.NaN;
@@ -106,6 +110,26 @@ public class MotorClusterState {
 		return (motor.getPropellantMass(motorTime) - motor.getBurnoutMass());
 	}
 
+	/**
+	 * Return the total mass of a single motor of the cluster at the given motor time.
+	 */
+	public double getMotorTotalMass(final double motorTime) {
+		if (motor instanceof ThrustCurveMotor) {
+			return ((ThrustCurveMotor) motor).getTotalMass(motorTime, cursor);
+		}
+		return motor.getTotalMass(motorTime);
+	}
+
+	/**
+	 * Return the CG position of a single motor of the cluster at the given motor time.
+	 */
+	public double getMotorCMx(final double motorTime) {
+		if (motor instanceof ThrustCurveMotor) {
+			return ((ThrustCurveMotor) motor).getCMx(motorTime, cursor);
+		}
+		return motor.getCMx(motorTime);
+	}
+
 	public MotorMount getMount() {
 		return config.getMount();
 	}
@@ -131,6 +155,9 @@ public class MotorClusterState {
 	public double getThrust(final double simulationTime) {
 		if (this.currentState.isThrusting()) {
 			double motorTime = this.getMotorTime(simulationTime);
+			if (motor instanceof ThrustCurveMotor) {
+				return this.motorCount * ((ThrustCurveMotor) motor).getThrust(motorTime, cursor);
+			}
 			return this.motorCount * motor.getThrust(motorTime);
 
 		} else {
@@ -10,6 +10,7 @@ import info.openrocket.core.util.CoordinateIF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.l10n.Translator;
@@ -20,6 +21,7 @@ import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.MutableCoordinate;
+import info.openrocket.core.util.MutableQuaternion;
 import info.openrocket.core.util.Quaternion;
 import info.openrocket.core.util.WorldCoordinate;
 
@@ -67,8 +69,46 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
     DataStore store = new DataStore();
 
     private final MutableCoordinate mutableCoordA = new MutableCoordinate();
-    private final MutableCoordinate mutableCoordB = new MutableCoordinate();
-    private final MutableCoordinate mutableCoordC = new MutableCoordinate();
+
+	/*
+	 * The state derivatives of the RK4 stages are stored in flat arrays that are reused
+	 * between steps.  Each array contains the linear velocity, linear acceleration,
+	 * rotational velocity and rotational acceleration in world coordinates.
+	 */
+	static final int V = 0;
+	static final int A = 3;
+	static final int RV = 6;
+	static final int RA = 9;
+	static final int STATE_SIZE = 12;
+
+	private final double[] k1 = new double[STATE_SIZE];
+	private final double[] k2 = new double[STATE_SIZE];
+	private final double[] k3 = new double[STATE_SIZE];
+	private final double[] k4 = new double[STATE_SIZE];
+	private final double[] delta = new double[STATE_SIZE];
+
+	/** Time step limits, see {@link #step(SimulationStatus, double)} */
+	private final double[] dt = new double[8];
+
+	/*
+	 * The intermediate states of a step are computed into the flat state vector y from the
+	 * state y0 at the start of the step.  The state vectors use the layout of the derivatives,
+	 * with the position at V, the velocity at A and the rotational velocity at RA; the
+	 * orientation is rotated from the orientation at the start of the step.  The states are
+	 * set into a single copy of the status reused for all steps.  Unless computation listeners,
+	 * which may keep the values they are given, are subscribed, the coordinates of the state
+	 * are held in mutable objects owned by the stepper.  The orientation is always a new
+	 * immutable quaternion, as it is also kept by the acceleration data.
+	 */
+	final double[] y0 = new double[STATE_SIZE];
+	private final double[] y = new double[STATE_SIZE];
+
+	private SimulationStatus intermediate = null;
+	private SimulationStatus intermediateSource = null;
+	private final MutableCoordinate intermediatePosition = new MutableCoordinate();
+	private final MutableCoordinate intermediateVelocity = new MutableCoordinate();
+	private final MutableCoordinate intermediateRotationVelocity = new MutableCoordinate();
+	private final MutableQuaternion intermediateOrientation = new MutableQuaternion();
 	
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
@@ -98,9 +138,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		status.storeData();
 
 		////////  Perform RK4 integration:  ////////
-		
-		SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
 
 		/*
 		 * Get the current atmospheric conditions
@@ -113,7 +150,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		computeParameters(status, store, k1);
 
 		// If maxTimeStep is NaN we'll just record sim params and leave
 		if (Double.isNaN(maxTimeStep)) {
@@ -140,7 +177,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -154,7 +190,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 									  Math.abs(store.accelerationData.getRotationalAccelerationRC().getY())));
 		if (!status.isLaunchRodCleared()) {
 			dt[0] /= 5.0;
-			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.v.length() / 10;
+			dt[6] = status.getSimulationConditions().getLaunchRodLength() / status.getRocketVelocity().length() / 10;
 		}
 		dt[7] = 1.5 * store.timeStep;
 		
@@ -167,7 +203,9 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			}
 		}
 
-		log.trace("Selected time step " + store.timeStep + " (limiting factor " + limitingValue + ")");
+		if (log.isTraceEnabled()) {
+			log.trace("Selected time step " + store.timeStep + " (limiting factor " + limitingValue + ")");
+		}
 
 		// If our selected time step is too close to our next scheduled event,
 		// (passed in as maxTimeStep) adjust
@@ -175,14 +213,18 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		if (Math.abs(maxTimeStep - store.timeStep) < minTimeStep) {
 			store.timeStep = maxTimeStep;
-			log.trace("selected time step too close to maxTimeStep; adjusted to " + store.timeStep);
+			if (log.isTraceEnabled()) {
+				log.trace("selected time step too close to maxTimeStep; adjusted to " + store.timeStep);
+			}
 		}
 
 		// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
 		// cost of not being *quite* on an event
 		if (store.timeStep < minTimeStep) {
-			log.trace("Too small time step " + store.timeStep + " (limiting factor " + limitingValue + "), using " +
-					minTimeStep + " instead.");
+			if (log.isTraceEnabled()) {
+				log.trace("Too small time step " + store.timeStep + " (limiting factor " + limitingValue + "), using " +
+						minTimeStep + " instead.");
+			}
 			store.timeStep = minTimeStep;
 		}
 
@@ -190,121 +232,60 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		store.storeData(status);
 		checkNaN(store.timeStep, "store.timeStep");
 
+		SimulationStatus status2 = startStep(status);
+
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
 		
-	status2 = status.clone();
-	status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-	status2.setRocketPosition(mutableCoordA.set(status.getRocketPosition())
-		.addScaled(k1.v, store.timeStep / 2)
-		.toImmutable());
-	status2.setRocketVelocity(mutableCoordA.set(status.getRocketVelocity())
-		.addScaled(k1.a, store.timeStep / 2)
-		.toImmutable());
-	status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
-		.multiplyLeft(Quaternion.rotation(mutableCoordB.set(k1.rv)
-			.multiply(store.timeStep / 2)
-			.toImmutable())));
-	status2.setRocketRotationVelocity(mutableCoordA.set(status.getRocketRotationVelocity())
-		.addScaled(k1.ra, store.timeStep / 2)
-		.toImmutable());
-		
-		k2 = computeParameters(status2, store);
+		setIntermediateState(status, k1, store.timeStep / 2, store.timeStep / 2);
+		computeParameters(status2, store, k2);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
 		
-	status2 = status.clone();
-	status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-	status2.setRocketPosition(mutableCoordA.set(status.getRocketPosition())
-		.addScaled(k2.v, store.timeStep / 2)
-		.toImmutable());
-	status2.setRocketVelocity(mutableCoordA.set(status.getRocketVelocity())
-		.addScaled(k2.a, store.timeStep / 2)
-		.toImmutable());
-	status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion()
-		.multiplyLeft(Quaternion.rotation(mutableCoordB.set(k2.rv)
-			.multiply(store.timeStep / 2)
-			.toImmutable())));
-	status2.setRocketRotationVelocity(mutableCoordA.set(status.getRocketRotationVelocity())
-		.addScaled(k2.ra, store.timeStep / 2)
-		.toImmutable());
-		
-		k3 = computeParameters(status2, store);
+		setIntermediateState(status, k2, store.timeStep / 2, store.timeStep / 2);
+		computeParameters(status2, store, k3);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
 		
-	status2 = status.clone();
-	status2.setSimulationTime(status.getSimulationTime() + store.timeStep);
-	status2.setRocketPosition(mutableCoordA.set(status.getRocketPosition())
-		.addScaled(k3.v, store.timeStep)
-		.toImmutable());
-	status2.setRocketVelocity(mutableCoordA.set(status.getRocketVelocity())
-		.addScaled(k3.a, store.timeStep)
-		.toImmutable());
-	status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion()
-		.multiplyLeft(Quaternion.rotation(mutableCoordB.set(k3.rv)
-			.multiply(store.timeStep)
-			.toImmutable())));
-	status2.setRocketRotationVelocity(mutableCoordA.set(status.getRocketRotationVelocity())
-		.addScaled(k3.ra, store.timeStep)
-		.toImmutable());
-		
-		k4 = computeParameters(status2, store);
+		setIntermediateState(status, k3, store.timeStep, store.timeStep);
+		computeParameters(status2, store, k4);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
-	CoordinateIF deltaO;
-	CoordinateIF deltaVCoord = mutableCoordA.clear()
-		.addScaled(k2.a, 2)
-		.addScaled(k3.a, 2)
-		.add(k1.a)
-		.add(k4.a)
-		.multiply(store.timeStep / 6)
-		.toImmutable();
-	CoordinateIF deltaPCoord = mutableCoordB.clear()
-		.addScaled(k2.v, 2)
-		.addScaled(k3.v, 2)
-		.add(k1.v)
-		.add(k4.v)
-		.multiply(store.timeStep / 6)
-		.toImmutable();
-	CoordinateIF deltaRCoord = mutableCoordC.clear()
-		.addScaled(k2.ra, 2)
-		.addScaled(k3.ra, 2)
-		.add(k1.ra)
-		.add(k4.ra)
-		.multiply(store.timeStep / 6)
-		.toImmutable();
-	deltaO = mutableCoordA.clear()
-		.addScaled(k2.rv, 2)
-		.addScaled(k3.rv, 2)
-		.add(k1.rv)
-		.add(k4.rv)
-		.multiply(store.timeStep / 6)
-		.toImmutable();
-
-	status.setRocketVelocity(mutableCoordB.set(status.getRocketVelocity())
-		.add(deltaVCoord)
-		.toImmutable());
-	status.setRocketPosition(mutableCoordA.set(status.getRocketPosition())
-		.add(deltaPCoord)
-		.toImmutable());
-	status.setRocketRotationVelocity(mutableCoordC.set(status.getRocketRotationVelocity())
-		.add(deltaRCoord)
-		.toImmutable());
-	status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
-		.multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+		final double h6 = store.timeStep / 6;
+		for (int i = 0; i < STATE_SIZE; i++) {
+			delta[i] = (2 * k2[i] + 2 * k3[i] + k1[i] + k4[i]) * h6;
+		}
+
+		advance(status, delta, store.timeStep);
+	}
+
+	/**
+	 * Advance the status by a time step, adding the state increment <code>delta</code>
+	 * to the kinematic state.
+	 *
+	 * @param status	the status to advance.
+	 * @param delta		the increment of the state over the time step.
+	 * @param timeStep	the length of the time step.
+	 */
+	void advance(SimulationStatus status, double[] delta, double timeStep) throws SimulationException {
+		status.setRocketVelocity(offset(status.getRocketVelocity(), delta, A, 1));
+		status.setRocketPosition(offset(status.getRocketPosition(), delta, V, 1));
+		status.setRocketRotationVelocity(offset(status.getRocketRotationVelocity(), delta, RA, 1));
+		mutableCoordA.set(delta[RV], delta[RV + 1], delta[RV + 2]);
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeft(Quaternion.rotation(mutableCoordA)).normalizeIfNecessary());
 		
 		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
 		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
 		status.setRocketWorldPosition(w);
 		
-		if (!(0 <= store.timeStep)) {
+		if (!(0 <= timeStep)) {
 			// Also catches NaN
-			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + store.timeStep);
+			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + timeStep);
 		}
-		status.setSimulationTime(status.getSimulationTime() + store.timeStep);
+		status.setSimulationTime(status.getSimulationTime() + timeStep);
 		
 		// Verify that values don't run out of range
 		if (status.getRocketVelocity().length2() > 1.0e18 ||
@@ -314,23 +295,94 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		}
 	}
 
-	private RK4Parameters computeParameters(SimulationStatus status, DataStore store)
-			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
+	/**
+	 * Start computing the intermediate states of a step.  The state at the start of the
+	 * step is stored into <code>y0</code>.
+	 *
+	 * @param status	the status at the start of the step.
+	 * @return			the status holding the intermediate states of the step, a copy of
+	 * 					<code>status</code> until the first intermediate state is set.
+	 */
+	SimulationStatus startStep(SimulationStatus status) {
+		if (intermediateSource != status) {
+			intermediate = status.clone();
+			intermediateSource = status;
+		} else {
+			status.refreshCopy(intermediate);
+		}
+		put(y0, V, status.getRocketPosition());
+		put(y0, A, status.getRocketVelocity());
+		put(y0, RA, status.getRocketRotationVelocity());
+		return intermediate;
+	}
 
+	/**
+	 * Set the intermediate status of the step started by {@link #startStep(SimulationStatus)}
+	 * to the state y0 + k*h at time t + dt, where t is the time at the start of the step.
+	 *
+	 * @param status	the status at the start of the step.
+	 * @param k			the state derivative.
+	 * @param h			the step length by which to multiply the derivative.
+	 * @param dt		the time offset from the start of the step.
+	 */
+	void setIntermediateState(SimulationStatus status, double[] k, double h, double dt) {
+		for (int i = 0; i < STATE_SIZE; i++) {
+			y[i] = y0[i] + k[i] * h;
+		}
+		Quaternion orientation = intermediateOrientation.setRotated(status.getRocketOrientationQuaternion(),
+				k[RV] * h, k[RV + 1] * h, k[RV + 2] * h).toQuaternion();
+		if (status.getSimulationConditions().getListenerSubscriptions().hasComputationListeners()) {
+			intermediate.setIntermediateState(status.getSimulationTime() + dt,
+					new Coordinate(y[V], y[V + 1], y[V + 2]),
+					new Coordinate(y[A], y[A + 1], y[A + 2]),
+					orientation,
+					new Coordinate(y[RA], y[RA + 1], y[RA + 2]));
+		} else {
+			intermediate.setIntermediateState(status.getSimulationTime() + dt,
+					intermediatePosition.set(y[V], y[V + 1], y[V + 2]),
+					intermediateVelocity.set(y[A], y[A + 1], y[A + 2]),
+					orientation,
+					intermediateRotationVelocity.set(y[RA], y[RA + 1], y[RA + 2]));
+		}
+	}
+
+	/**
+	 * Return the coordinate c + h * (k[offset], k[offset+1], k[offset+2]).
+	 */
+	static Coordinate offset(CoordinateIF c, double[] k, int offset, double h) {
+		return new Coordinate(c.getX() + k[offset] * h,
+				c.getY() + k[offset + 1] * h,
+				c.getZ() + k[offset + 2] * h,
+				c.getWeight());
+	}
+
+	/**
+	 * Compute the state derivative at the given status into the array <code>k</code>.
+	 */
+	void computeParameters(SimulationStatus status, DataStore store, double[] k)
+			throws SimulationException {
 		calculateAcceleration(status, store);
 
-		params.a = store.accelerationData.getLinearAccelerationWC();
-		params.ra = store.accelerationData.getRotationalAccelerationWC();
-		params.v = status.getRocketVelocity();
-		params.rv = status.getRocketRotationVelocity();
+		CoordinateIF a = store.accelerationData.getLinearAccelerationWC();
+		CoordinateIF ra = store.accelerationData.getRotationalAccelerationWC();
+		CoordinateIF v = status.getRocketVelocity();
+		CoordinateIF rv = status.getRocketRotationVelocity();
 		
-		checkNaN(params.a, "params.a");
-		checkNaN(params.ra, "params.ra");
-		checkNaN(params.v, "params.v");
-		checkNaN(params.rv, "params.rv");
-		
-		return params;
+		checkNaN(a, "params.a");
+		checkNaN(ra, "params.ra");
+		checkNaN(v, "params.v");
+		checkNaN(rv, "params.rv");
+
+		put(k, V, v);
+		put(k, A, a);
+		put(k, RV, rv);
+		put(k, RA, ra);
+	}
+
+	private static void put(double[] k, int offset, CoordinateIF c) {
+		k[offset] = c.getX();
+		k[offset + 1] = c.getY();
+		k[offset + 2] = c.getZ();
 	}
 	
 	@Override
@@ -485,6 +537,22 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 	
 	
+	/**
+	 * Add a small random amount to the pitch and yaw moment coefficients.  By default
+	 * new random values are used for every force calculation.
+	 */
+	void addMomentRandomization(AerodynamicForces forces) {
+		forces.setCm(forces.getCm() + randomMomentCoefficient());
+		forces.setCyaw(forces.getCyaw() + randomMomentCoefficient());
+	}
+
+	/**
+	 * Return a random pitch or yaw moment coefficient of at most {@link #PITCH_YAW_RANDOM}.
+	 */
+	double randomMomentCoefficient() {
+		return PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5);
+	}
+
 	/**
 	 * Calculate the aerodynamic forces into the data store.  This method also handles
 	 * whether to include aerodynamic computation warnings or not.
@@ -533,24 +601,10 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		// Add very small randomization to yaw & pitch moments to prevent over-perfect flight
 		// TODO: HIGH: This should rather be performed as a listener
-		store.forces.setCm(store.forces.getCm() + (PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5)));
-		store.forces.setCyaw(store.forces.getCyaw() + (PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5)));
+		addMomentRandomization(store.forces);
 		
 
 		// Call post-listeners
 		store.forces = SimulationListenerHelper.firePostAerodynamicCalculation(status, store.forces);
 	}
-	
-	
-
-	private static class RK4Parameters {
-		/** Linear acceleration */
-		public CoordinateIF a;
-		/** Linear velocity */
-		public CoordinateIF v;
-		/** Rotational acceleration */
-		public CoordinateIF ra;
-		/** Rotational velocity */
-		public CoordinateIF rv;
-	}
 }
@@ -0,0 +1,97 @@
+package info.openrocket.core.simulation;
+
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.SymmetricComponent;
+import info.openrocket.core.util.ModID;
+
+/**
+ * An immutable snapshot of a rocket that can be shared read-only by concurrently running
+ * simulations.
+ * <p>
+ * Normally each simulation run copies the rocket, so that the simulation is not affected
+ * by changes made to the design while it runs.  When several simulations of the same
+ * design are run together, for example all flight configurations of a document, they can
+ * instead share a single snapshot.  Each simulation still uses its own flight configuration
+ * of the snapshot rocket, since the configuration changes as stages separate.
+ * <p>
+ * The snapshot rocket must never be modified.  The lazily calculated properties of the
+ * components (volumes, areas, CG and inertia) are calculated when the snapshot is created,
+ * so that reading the components from several threads does not write to them.
+ *
+ * @see SimulationConditions#setSharedRocket(SharedRocket)
+ */
+public final class SharedRocket {
+
+	private final Rocket source;
+	private final ModID sourceModID;
+	private final Rocket rocket;
+
+
+	private SharedRocket(Rocket source, ModID sourceModID, Rocket rocket) {
+		this.source = source;
+		this.sourceModID = sourceModID;
+		this.rocket = rocket;
+	}
+
+
+	/**
+	 * Create a snapshot of the current state of a rocket.  This must be called from a thread
+	 * that may access the rocket, and the rocket must not be modified during the call.
+	 *
+	 * @param rocket	the rocket to take a snapshot of.
+	 * @return			a snapshot of the rocket.
+	 */
+	public static SharedRocket of(Rocket rocket) {
+		ModID modID = rocket.getModID();
+		Rocket copy = rocket.copyWithOriginalID();
+		for (RocketComponent component : copy) {
+			calculateProperties(component);
+		}
+		return new SharedRocket(rocket, modID, copy);
+	}
+
+	/**
+	 * Calculate the cached properties of a component, so that they are only read afterwards.
+	 */
+	private static void calculateProperties(RocketComponent component) {
+		component.getComponentMass();
+		component.getComponentCG();
+		component.getLongitudinalUnitInertia();
+		component.getRotationalUnitInertia();
+		if (component instanceof SymmetricComponent symmetric) {
+			symmetric.getComponentVolume();
+			symmetric.getFullVolume();
+			symmetric.getComponentWetArea();
+			symmetric.getComponentPlanformArea();
+			symmetric.getComponentPlanformCenter();
+		}
+		if (component instanceof FinSet finSet) {
+			finSet.getComponentVolume();
+			finSet.getPlanformArea();
+			finSet.getCantRotation();
+		}
+	}
+
+
+	/**
+	 * Return the snapshot rocket.  The returned rocket must not be modified.
+	 */
+	public Rocket getRocket() {
+		return rocket;
+	}
+
+	/**
+	 * Return whether this is a snapshot of the current state of the given rocket, or whether
+	 * the rocket is the snapshot rocket itself.
+	 */
+	public boolean isSnapshotOf(Rocket rocket) {
+		return rocket == this.rocket || (rocket == source && rocket.getModID() == sourceModID);
+	}
+
+	@Override
+	public String toString() {
+		return "SharedRocket[" + rocket.getName() + "]";
+	}
+}
@@ -12,6 +12,7 @@ import info.openrocket.core.models.wind.WindModel;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListenerSubscriptions;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.CoordinateIF;
@@ -30,6 +31,7 @@ import info.openrocket.core.util.WorldCoordinate;
 public class SimulationConditions implements Monitorable, Cloneable {
 	
 	private Simulation simulation; // The parent simulation 
+	private SharedRocket sharedRocket = null;
 	
 	private double launchRodLength = 1;
 	
@@ -59,9 +61,11 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maxSimulationTime = RK4SimulationStepper.RECOMMENDED_MAX_TIME;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private double tolerance = DormandPrinceSimulationStepper.RECOMMENDED_TOLERANCE;
 
 
 	private List<SimulationListener> simulationListeners = new ArrayList<>();
+	private SimulationListenerSubscriptions listenerSubscriptions = null;
 
 	private int randomSeed = 0;
 
@@ -88,10 +92,33 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		this.massCalculator = massCalculator;
 	}
 
+	/**
+	 * Return the rocket to simulate.  This is the shared snapshot rocket if one has been set,
+	 * otherwise the rocket of the simulation.
+	 */
 	public Rocket getRocket() {
+		if (sharedRocket != null) {
+			return sharedRocket.getRocket();
+		}
 		return simulation.getRocket();
 	}
 
+	public SharedRocket getSharedRocket() {
+		return sharedRocket;
+	}
+
+	/**
+	 * Set a rocket snapshot that is simulated without copying it.  The snapshot can be
+	 * shared with other simulations running concurrently.
+	 *
+	 * @param sharedRocket	the snapshot to simulate, or <code>null</code> to simulate a
+	 * 						private copy of the rocket of the simulation.
+	 */
+	public void setSharedRocket(SharedRocket sharedRocket) {
+		this.sharedRocket = sharedRocket;
+		this.modID = new ModID();
+	}
+
 	public FlightConfigurationId getMotorConfigurationID() {
 		return simulation.getId();
 	}
@@ -230,6 +257,18 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		this.modID = new ModID();
 	}
 
+	/**
+	 * Return the relative error tolerance of a single step of an adaptive stepper.
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+		this.modID = new ModID();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -252,6 +291,17 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		return simulationListeners;
 	}
 
+	/**
+	 * Return the methods each simulation listener is subscribed to.  The subscriptions are
+	 * determined when first needed, and again after listeners have been added.
+	 */
+	public SimulationListenerSubscriptions getListenerSubscriptions() {
+		if (listenerSubscriptions == null || !listenerSubscriptions.isValidFor(simulationListeners)) {
+			listenerSubscriptions = SimulationListenerSubscriptions.of(simulationListeners);
+		}
+		return listenerSubscriptions;
+	}
+
 	@Override
 	public ModID getModID() {
 		return modID;
@@ -266,6 +316,7 @@ public class SimulationConditions implements Monitorable, Cloneable {
 			for (SimulationListener listener : this.simulationListeners) {
 				clone.simulationListeners.add(listener.clone());
 			}
+			clone.listenerSubscriptions = null;
 
 			return clone;
 		} catch (CloneNotSupportedException e) {
@@ -76,6 +76,7 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 	private double timeStep = preferences.getTimeStep();
 	private double maxSimulationTime = preferences.getMaxSimulationTime();
 	private double maximumAngle = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private double tolerance = preferences.getTolerance();
 	
 	private int randomSeed = new Random().nextInt();
 
@@ -384,6 +385,23 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		fireChangeEvent();
 	}
 
+	/**
+	 * Return the relative error tolerance of a single step, used by the adaptive
+	 * {@link SimulationStepperMethod#DP45} stepper.
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	public void setTolerance(double tolerance) {
+		tolerance = MathUtil.clamp(tolerance, DormandPrinceSimulationStepper.MIN_TOLERANCE,
+				DormandPrinceSimulationStepper.MAX_TOLERANCE);
+		if (MathUtil.equals(this.tolerance, tolerance))
+			return;
+		this.tolerance = tolerance;
+		fireChangeEvent();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -499,6 +517,10 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 			isChanged = true;
 			this.timeStep = src.timeStep;
 		}
+		if (this.tolerance != src.tolerance) {
+			isChanged = true;
+			this.tolerance = src.tolerance;
+		}
 		if (this.maxSimulationTime != src.maxSimulationTime) {
 			isChanged = true;
 			this.maxSimulationTime = src.maxSimulationTime;
@@ -536,6 +558,7 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				MathUtil.equals(this.launchTemperature, o.launchTemperature) &&
 				MathUtil.equals(this.maximumAngle, o.maximumAngle) &&
 				MathUtil.equals(this.timeStep, o.timeStep) &&
+				MathUtil.equals(this.tolerance, o.tolerance) &&
 				MathUtil.equals(this.maxSimulationTime, o.maxSimulationTime)) &&
 				this.windModelType == o.windModelType &&
 				this.averageWindModel.equals(o.averageWindModel) &&
@@ -594,12 +617,13 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		GravityModel gravityModel = new WGSGravityModel();
 		conditions.setGravityModel(gravityModel);
 
-		conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		conditions.setAerodynamicCalculator(new BarrowmanCalculator(preferences.isAerodynamicTableEnabled()));
 		conditions.setMassCalculator(new MassCalculator());
 
 		conditions.setTimeStep(getTimeStep());
 		conditions.setMaxSimulationTime(getMaxSimulationTime());
 		conditions.setMaximumAngleStep(getMaximumStepAngle());
+		conditions.setTolerance(getTolerance());
 
 		return conditions;
 	}
@@ -624,6 +648,7 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				.concat(String.format("    timeStep:  %f\n", timeStep))
 				.concat(String.format("    maxTime:  %f\n", maxSimulationTime))
 				.concat(String.format("    maximumAngle:  %f\n", maximumAngle))
+				.concat(String.format("    tolerance:  %g\n", tolerance))
 				.concat("]\n");
 	}
 
@@ -556,6 +556,58 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		}
 	}
 
+	/**
+	 * Make a copy of this status made by {@link #clone()} equal to this status again.  This
+	 * allows the steppers to reuse a single copy for the intermediate states of every step
+	 * instead of cloning the status for each step.
+	 *
+	 * @param copy	a copy of this status made by {@link #clone()}.
+	 */
+	void refreshCopy(SimulationStatus copy) {
+		if (copy.eventQueue != this.eventQueue) {
+			throw new BugException("Status is not a copy of this status");
+		}
+		copy.simulationConditions = this.simulationConditions;
+		copy.configuration = this.configuration;
+		copy.flightDataBranch = this.flightDataBranch;
+		copy.time = this.time;
+		copy.position = this.position;
+		copy.worldPosition = this.worldPosition;
+		copy.velocity = this.velocity;
+		copy.orientation = this.orientation;
+		copy.rotationVelocity = this.rotationVelocity;
+		copy.maxZVelocity = this.maxZVelocity;
+		copy.startWarningsTime = this.startWarningsTime;
+		copy.effectiveLaunchRodLength = this.effectiveLaunchRodLength;
+		copy.simulationStartWallTime = this.simulationStartWallTime;
+		copy.motorIgnited = this.motorIgnited;
+		copy.liftoff = this.liftoff;
+		copy.launchRodCleared = this.launchRodCleared;
+		copy.apogeeReached = this.apogeeReached;
+		copy.tumbling = this.tumbling;
+		copy.landed = this.landed;
+		copy.warnings = this.warnings;
+		copy.maxAlt = this.maxAlt;
+		copy.maxAltTime = this.maxAltTime;
+		copy.modID = this.modID;
+		copy.modIDadd = this.modIDadd;
+	}
+
+	/**
+	 * Set the time and kinematic state of an intermediate status of a step.  Unlike the
+	 * individual setters, this does not allocate a new modification ID, as the intermediate
+	 * state is only modified by the stepper between listener calls.  The coordinates may be
+	 * mutable objects owned by the stepper.
+	 */
+	void setIntermediateState(double time, CoordinateIF position, CoordinateIF velocity,
+			Quaternion orientation, CoordinateIF rotationVelocity) {
+		this.time = time;
+		this.position = position;
+		this.velocity = velocity;
+		this.orientation = orientation;
+		this.rotationVelocity = rotationVelocity;
+	}
+
 
 	/**
 	 * Copies simulation status data from the specified {@code SimulationStatus} object <code>orig</code>
@@ -1,6 +1,10 @@
 package info.openrocket.core.simulation;
 
 import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.WorldCoordinate;
 
 public interface SimulationStepper {
 
@@ -38,4 +42,64 @@ public interface SimulationStepper {
 	 */
 	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException;
 
+	/**
+	 * Set the time and kinematic state of a status to their values at a time within
+	 * the step just taken.  This allows events that occur during a step to be located
+	 * precisely, and the step to be ended at the event.
+	 *
+	 * The default implementation interpolates the position with a cubic Hermite polynomial
+	 * matching the position and velocity at both ends of the step, and the velocity with
+	 * its derivative.  The rotation velocity is interpolated linearly, and the orientation
+	 * follows from it.  Steppers that compute a more accurate interpolation as part of the
+	 * step may override this.
+	 *
+	 * @param start		a copy of the status taken before the step, see {@link SimulationStatus#clone()}.
+	 * @param end		the status after the step.
+	 * @param time		the time within the step.
+	 * @param result	the status to modify, may be <code>end</code> itself.
+	 */
+	public default void interpolate(SimulationStatus start, SimulationStatus end, double time,
+			SimulationStatus result) {
+		final double h = end.getSimulationTime() - start.getSimulationTime();
+		final double s = (time - start.getSimulationTime()) / h;
+
+		final CoordinateIF p0 = start.getRocketPosition();
+		final CoordinateIF p1 = end.getRocketPosition();
+		final CoordinateIF v0 = start.getRocketVelocity();
+		final CoordinateIF v1 = end.getRocketVelocity();
+		final CoordinateIF w0 = start.getRocketRotationVelocity();
+		final CoordinateIF w1 = end.getRocketRotationVelocity();
+
+		// Hermite basis functions and their derivatives with respect to s
+		final double h00 = (1 + 2 * s) * (1 - s) * (1 - s);
+		final double h10 = s * (1 - s) * (1 - s);
+		final double h01 = s * s * (3 - 2 * s);
+		final double h11 = s * s * (s - 1);
+		final double d00 = 6 * s * (s - 1);
+		final double d10 = (1 - s) * (1 - 3 * s);
+		final double d11 = s * (3 * s - 2);
+
+		result.setRocketPosition(combine(p0, h00, v0, h * h10, p1, h01, v1, h * h11));
+		result.setRocketVelocity(combine(p0, d00 / h, v0, d10, p1, -d00 / h, v1, d11));
+		result.setRocketRotationVelocity(combine(w0, 1 - s, w1, s, Coordinate.ZERO, 0, Coordinate.ZERO, 0));
+		CoordinateIF rotation = combine(w0, h * s * (1 - s / 2), w1, h * s * s / 2, Coordinate.ZERO, 0, Coordinate.ZERO, 0);
+		result.setRocketOrientationQuaternion(start.getRocketOrientationQuaternion()
+				.multiplyLeft(Quaternion.rotation(rotation)).normalizeIfNecessary());
+
+		WorldCoordinate w = start.getSimulationConditions().getLaunchSite();
+		w = start.getSimulationConditions().getGeodeticComputation().addCoordinate(w, result.getRocketPosition());
+		result.setRocketWorldPosition(w);
+		result.setSimulationTime(time);
+	}
+
+	/**
+	 * Return the linear combination a*wa + b*wb + c*wc + d*wd as a new coordinate.
+	 */
+	private static Coordinate combine(CoordinateIF a, double wa, CoordinateIF b, double wb,
+			CoordinateIF c, double wc, CoordinateIF d, double wd) {
+		return new Coordinate(a.getX() * wa + b.getX() * wb + c.getX() * wc + d.getX() * wd,
+				a.getY() * wa + b.getY() * wb + c.getY() * wc + d.getY() * wd,
+				a.getZ() * wa + b.getZ() * wb + c.getZ() * wc + d.getZ() * wd);
+	}
+
 }
@@ -449,6 +449,37 @@ public class CustomExpression implements Cloneable {
 		return new Variable(name, result);
 	}
 
+	/**
+	 * Prepare this expression for repeated evaluation during a single simulation.  The
+	 * expression is built once and, when possible, compiled to bytecode.  The returned
+	 * evaluator must only be used by one simulation at a time.
+	 *
+	 * @return an evaluator of this expression.
+	 */
+	public ExpressionEvaluator compile() {
+		return compile(builder, subExpressions, getType());
+	}
+
+	/**
+	 * Prepare the time index of this sub-expression for repeated evaluation.  The values of
+	 * the time index do not have a flight data type.
+	 */
+	ExpressionEvaluator compileIndex() {
+		return compile(builder, subExpressions, null);
+	}
+
+	/*
+	 * Prepare an expression built by the given builder, with the given sub-expressions, for
+	 * repeated evaluation.
+	 */
+	ExpressionEvaluator compile(ExpressionBuilder b, List<CustomExpression> subs, FlightDataType type) {
+		Calculable calc;
+		synchronized (b) {
+			calc = buildExpression(b);
+		}
+		return new ExpressionEvaluator(this, type, calc, subs, doc.getFlightDataTypes());
+	}
+
 	/*
 	 * Returns the new flight data type corresponding to this calculated data
 	 * If the unit matches a SI unit string then the datatype will have the
@@ -1,5 +1,6 @@
 package info.openrocket.core.simulation.customexpression;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import info.openrocket.core.simulation.FlightDataBranch;
@@ -14,27 +15,61 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
+	private List<ExpressionEvaluator> evaluators = null;
 
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		evaluators = compile();
+	}
+
+	/**
+	 * Build the expressions once for the simulation, resolving the flight data they reference.
+	 */
+	private List<ExpressionEvaluator> compile() {
+		List<ExpressionEvaluator> list = new ArrayList<>();
+		if (expressions != null) {
+			for (CustomExpression expression : expressions) {
+				list.add(expression.compile());
+			}
+		}
+		return list;
+	}
+
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (evaluators == null) {
+			evaluators = compile();
+		}
 		// Calculate values for custom expressions
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (ExpressionEvaluator evaluator : evaluators) {
+			double value = evaluator.evaluate(status);
 			// log.debug("Setting value of custom expression "+expression.toString()+" =
 			// "+value);
-			dataBranch.setValue(expression.getType(), value);
+			dataBranch.setValue(evaluator.getType(), value);
 		}
 	}
 
+	@Override
+	public void endSimulation(SimulationStatus status, SimulationException exception) {
+		evaluators = null;
+	}
+
+	@Override
+	public CustomExpressionSimulationListener clone() {
+		CustomExpressionSimulationListener clone = (CustomExpressionSimulationListener) super.clone();
+		clone.evaluators = null;
+		return clone;
+	}
+
 	@Override
 	public boolean isSystemListener() {
 		return true;
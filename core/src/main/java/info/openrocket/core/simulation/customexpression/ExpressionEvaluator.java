@@ -0,0 +1,224 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.logging.Markers;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.Variable;
+
+/**
+ * A custom expression prepared for repeated evaluation during a single simulation.
+ * <p>
+ * The expression is built once, and only the variables actually referenced by it are
+ * bound at each evaluation.  The flight data types of the variables are resolved when the
+ * evaluator is created, and their column indexes once per flight data branch.  Expressions
+ * consisting only of operators and built-in functions are compiled to bytecode; expressions
+ * using the custom functions, such as mean or trapz, are calculated by the interpreter.
+ * <p>
+ * The time expressions of time-indexed variables, such as <code>a[t-0.5]</code>, and of
+ * ranges, such as <code>a[0:t]</code>, are prepared the same way.  Their values are
+ * interpolated directly from the columns of the flight data branch.
+ * <p>
+ * An evaluator is not thread-safe, concurrently running simulations must each use their
+ * own evaluators.
+ *
+ * @see CustomExpression#compile()
+ */
+public final class ExpressionEvaluator {
+
+	private static final Logger log = LoggerFactory.getLogger(ExpressionEvaluator.class);
+
+	private final CustomExpression expression;
+	private final FlightDataType type;
+
+	/** The built expression, or <code>null</code> if it could not be built */
+	private final Calculable calc;
+	/** The compiled expression, or <code>null</code> if it must be interpreted */
+	private final CompiledExpression compiled;
+
+	/** Names of the referenced variables */
+	private final String[] names;
+	/** The time of each time-indexed variable or the start time of each range, otherwise <code>null</code> */
+	private final ExpressionEvaluator[] startTimes;
+	/** The end time of each range, otherwise <code>null</code> */
+	private final ExpressionEvaluator[] endTimes;
+	/** The flight data type of each variable, or <code>null</code> if unavailable */
+	private final FlightDataType[] types;
+	/** Column indexes of the flight data types in the current branch */
+	private final int[] columns;
+	private final double[] values;
+
+	private FlightDataBranch branch = null;
+
+	/**
+	 * @param expression		the expression being evaluated.
+	 * @param type				the flight data type of the values, or <code>null</code> for a time expression.
+	 * @param calc				the built expression, or <code>null</code> if it could not be built.
+	 * @param subExpressions	the time-indexed variables and ranges used by the expression.
+	 * @param availableTypes	the flight data types available to the expression.
+	 */
+	ExpressionEvaluator(CustomExpression expression, FlightDataType type, Calculable calc,
+			List<CustomExpression> subExpressions, Collection<FlightDataType> availableTypes) {
+		this.expression = expression;
+		this.type = type;
+		this.calc = calc;
+		this.compiled = (calc != null) ? calc.compile() : null;
+
+		names = (calc != null) ? calc.getUsedVariableNames() : new String[0];
+		startTimes = new ExpressionEvaluator[names.length];
+		endTimes = new ExpressionEvaluator[names.length];
+		types = new FlightDataType[names.length];
+		columns = new int[names.length];
+		values = new double[names.length];
+
+		Map<String, FlightDataType> symbols = new HashMap<>();
+		for (FlightDataType t : availableTypes) {
+			symbols.putIfAbsent(t.getSymbol(), t);
+		}
+		for (int i = 0; i < names.length; i++) {
+			CustomExpression subExpression = null;
+			for (CustomExpression sub : subExpressions) {
+				if (sub.hash().equals(names[i])) {
+					subExpression = sub;
+					break;
+				}
+			}
+			if (subExpression instanceof RangeExpression) {
+				startTimes[i] = ((RangeExpression) subExpression).compileStart();
+				endTimes[i] = ((RangeExpression) subExpression).compileEnd();
+				types[i] = symbols.get(subExpression.getSymbol());
+			} else if (subExpression != null) {
+				startTimes[i] = subExpression.compileIndex();
+				types[i] = symbols.get(subExpression.getSymbol());
+			} else {
+				types[i] = symbols.get(names[i]);
+			}
+		}
+	}
+
+	/**
+	 * Return the flight data type of the expression values.
+	 */
+	public FlightDataType getType() {
+		return type;
+	}
+
+	/**
+	 * Return whether the expression has been compiled to bytecode.
+	 */
+	public boolean isCompiled() {
+		return compiled != null;
+	}
+
+	/**
+	 * Evaluate the expression using the last variable values from the simulation status.
+	 * Returns NaN on any error or an infinite result.
+	 */
+	public double evaluate(SimulationStatus status) {
+		if (calc == null) {
+			return Double.NaN;
+		}
+
+		FlightDataBranch dataBranch = status.getFlightDataBranch();
+		if (dataBranch != branch) {
+			branch = dataBranch;
+			for (int i = 0; i < names.length; i++) {
+				columns[i] = -1;
+			}
+		}
+
+		for (int i = 0; i < names.length; i++) {
+			if (endTimes[i] != null) {
+				Variable value = getRange(status, dataBranch, i);
+				// A failed range returns an unnamed variable
+				if (!names[i].equals(value.getName())) {
+					value = new Variable(names[i]);
+				}
+				if (compiled != null) {
+					values[i] = value.getDoubleValue();
+				} else {
+					calc.setVariable(value);
+				}
+			} else {
+				double value;
+				if (startTimes[i] != null) {
+					value = IndexExpression.getValueAt(dataBranch, getColumn(dataBranch, i),
+							startTimes[i].evaluate(status));
+				} else {
+					value = getValue(dataBranch, i);
+				}
+				if (compiled != null) {
+					values[i] = value;
+				} else {
+					calc.setVariable(new Variable(names[i], value));
+				}
+			}
+		}
+
+		double result;
+		if (compiled != null) {
+			result = compiled.calculate(values);
+		} else {
+			try {
+				result = calc.calculate().getDoubleValue();
+			} catch (java.util.EmptyStackException e) {
+				log.info(Markers.USER_MARKER, "Unable to calculate expression " + expression.getExpressionString()
+						+ " due to empty stack exception");
+				return Double.NaN;
+			}
+		}
+
+		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY) {
+			result = Double.NaN;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the last value of a flight data variable in the branch, or NaN if unavailable.
+	 */
+	private double getValue(FlightDataBranch dataBranch, int i) {
+		int column = getColumn(dataBranch, i);
+		if (column < 0) {
+			return Double.NaN;
+		}
+		return dataBranch.getLastInColumn(column);
+	}
+
+	/**
+	 * Return the values of a range variable in the branch, at intervals of the simulation
+	 * time step.
+	 */
+	private Variable getRange(SimulationStatus status, FlightDataBranch dataBranch, int i) {
+		double startTime = startTimes[i].evaluate(status);
+		double endTime = endTimes[i].evaluate(status);
+		double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
+		return RangeExpression.getRange(names[i], dataBranch, getColumn(dataBranch, i), startTime, endTime, step);
+	}
+
+	/**
+	 * Return the column of the flight data type of a variable in the branch, looking it up
+	 * if it has not been found yet, or -1 if unavailable.  Types may be added to the branch
+	 * during the simulation.
+	 */
+	private int getColumn(FlightDataBranch dataBranch, int i) {
+		if (types[i] == null) {
+			return -1;
+		}
+		if (columns[i] < 0) {
+			columns[i] = dataBranch.getColumnIndex(types[i]);
+		}
+		return columns[i];
+	}
+}
@@ -1,7 +1,5 @@
 package info.openrocket.core.simulation.customexpression;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,7 +10,6 @@ import info.openrocket.core.logging.Markers;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
-import info.openrocket.core.util.LinearInterpolator;
 
 public class IndexExpression extends CustomExpression {
 
@@ -34,17 +31,11 @@ public class IndexExpression extends CustomExpression {
 			return new Variable("Unknown");
 		}
 
-		// From the given datatype, get the time and function values and make an
-		// interpolator
-
 		// Note: must get in a way that flight data system will figure out units.
 		// Otherwise there will be a type conflict when we get the new data.
 		FlightDataType myType = FlightDataType.getType(null, getSymbol(), null);
 
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		List<Double> data = dataBranch.getClone(myType);
-		List<Double> time = dataBranch.getClone(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data);
 
 		// Set the variables in the expression to evaluate
 		for (FlightDataType etype : dataBranch.getTypes()) {
@@ -58,11 +49,28 @@ public class IndexExpression extends CustomExpression {
 		try {
 			double tvalue = calc.calculate().getDoubleValue();
 			// System.out.println("t = "+tvalue);
-			return new Variable(hash(), interp.getValue(tvalue));
+			return new Variable(hash(), getValueAt(dataBranch, dataBranch.getColumnIndex(myType), tvalue));
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER, "Unable to calculate time index for indexed expression "
 					+ getExpressionString() + " due to empty stack exception");
 			return new Variable("Unknown");
 		}
 	}
+
+	/**
+	 * Return the value in a column of the branch at the given time, interpolating between
+	 * the data points, or NaN if the column is unavailable.
+	 *
+	 * @param dataBranch	the flight data branch.
+	 * @param column		the column index of the data type, or -1 if unavailable.
+	 * @param time			the time.
+	 * @return				the value at the given time, or NaN.
+	 */
+	static double getValueAt(FlightDataBranch dataBranch, int column, double time) {
+		int timeColumn = dataBranch.getColumnIndex(FlightDataType.TYPE_TIME);
+		if (column < 0 || timeColumn < 0) {
+			return Double.NaN;
+		}
+		return dataBranch.interpolateInColumn(timeColumn, column, time);
+	}
 }
@@ -4,7 +4,7 @@
 
 package info.openrocket.core.simulation.customexpression;
 
-import java.util.List;
+import java.util.Collections;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +17,6 @@ import info.openrocket.core.logging.Markers;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
-import info.openrocket.core.util.ArrayUtils;
-import info.openrocket.core.util.LinearInterpolator;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.StringUtils;
 
@@ -75,48 +73,72 @@ public class RangeExpression extends CustomExpression {
 			endCalc.setVariable(new Variable(type.getSymbol(), value));
 		}
 
-		// From the given datatype, get the time and function values and make an
-		// interpolator
-
 		// Note: must get in a way that flight data system will figure out units.
 		// Otherwise there will be a type conflict when we get the new data.
 		FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
 
-		List<Double> data = dataBranch.getClone(type);
-		List<Double> time = dataBranch.getClone(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data);
-
 		// Evaluate the expression to get the start and end of the range
 		double startTime, endTime;
 		try {
 			startTime = startCalc.calculate().getDoubleValue();
-			startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
-
 			endTime = endCalc.calculate().getDoubleValue();
-			endTime = MathUtil.clamp(endTime, 0, time.get(time.size() - 1));
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression " + getSymbol()
 					+ " due to empty stack exception");
 			return new Variable("Unknown");
 		}
 
-		// generate an array representing the range
 		double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
-		double[] t = ArrayUtils.range(startTime, endTime, step);
-		double[] y = new double[t.length];
-		int i = 0;
-		for (double tval : t) {
-			y[i] = interp.getValue(tval);
-			i++;
-		}
+		return getRange(hash(), dataBranch, dataBranch.getColumnIndex(type), startTime, endTime, step);
+	}
+
+	/**
+	 * Prepare the start time of the range for repeated evaluation.
+	 */
+	ExpressionEvaluator compileStart() {
+		return compile(startBuilder, Collections.emptyList(), null);
+	}
 
-		Variable result;
-		if (y.length == 0) {
-			result = new Variable("Unknown");
-		} else {
-			result = new Variable(hash(), y, startTime, step);
+	/**
+	 * Prepare the end time of the range for repeated evaluation.
+	 */
+	ExpressionEvaluator compileEnd() {
+		return compile(endBuilder, Collections.emptyList(), null);
+	}
+
+	/**
+	 * Return the values in a column of the branch over a time range, at intervals of the
+	 * time step, interpolating between the data points.  The range is limited to the times
+	 * of the branch.
+	 *
+	 * @param name			the name of the returned variable.
+	 * @param dataBranch	the flight data branch.
+	 * @param column		the column index of the data type, or -1 if unavailable.
+	 * @param startTime		the start of the range.
+	 * @param endTime		the end of the range.
+	 * @param step			the interval between the values.
+	 * @return				an array variable of the values, or an unnamed variable if the range is empty.
+	 */
+	static Variable getRange(String name, FlightDataBranch dataBranch, int column, double startTime, double endTime,
+			double step) {
+		int timeColumn = dataBranch.getColumnIndex(FlightDataType.TYPE_TIME);
+		if (column < 0 || timeColumn < 0 || dataBranch.getLength() == 0) {
+			return new Variable("Unknown");
 		}
+		startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
+		endTime = MathUtil.clamp(endTime, 0, dataBranch.getLastInColumn(timeColumn));
 
-		return result;
+		// generate an array representing the range
+		int size = (int) Math.floor(((endTime - startTime) / step)) + 1;
+		if (size <= 0) {
+			return new Variable("Unknown");
+		}
+		double[] y = new double[size];
+		double t = startTime;
+		for (int i = 0; i < size; i++) {
+			y[i] = dataBranch.interpolateInColumn(timeColumn, column, t);
+			t = t + step;
+		}
+		return new Variable(name, y, startTime, step);
 	}
 }
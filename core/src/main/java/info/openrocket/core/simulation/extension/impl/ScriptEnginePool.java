@@ -0,0 +1,238 @@
+package info.openrocket.core.simulation.extension.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.scripting.GraalJSScriptEngineFactory;
+
+/**
+ * A pool of script engines that have evaluated the script of a scripting extension and are
+ * ready to be used by a simulation.
+ * <p>
+ * Each simulation needs its own engine, since scripts keep their state in global variables.
+ * Creating the engine and evaluating the script is expensive compared to a short simulation,
+ * so whenever an engine is taken from the pool, a replacement is prepared in a background
+ * thread for the next simulation of the same script.  The JavaScript engines share a single
+ * polyglot engine and the parsed script sources, so that preparing further engines for a
+ * script reuses its code.
+ * <p>
+ * Once a script has been evaluated, the listener hooks it implements are determined.  A
+ * script can declare them explicitly by listing their names in a global variable named
+ * {@value #HOOKS_VARIABLE}, for example <code>var listenerHooks = ["preStep"];</code>.
+ * Otherwise all hooks defined as global variables are used.
+ */
+final class ScriptEnginePool {
+	private static final Logger log = LoggerFactory.getLogger(ScriptEnginePool.class);
+
+	/** The name of the script variable that lists the implemented hooks */
+	static final String HOOKS_VARIABLE = "listenerHooks";
+
+	/** The number of scripts for which prepared engines are kept */
+	private static final int MAX_SCRIPTS = 8;
+
+	private final Function<String, ScriptEngine> engineFactory;
+	private final int maxPrepared = Runtime.getRuntime().availableProcessors();
+
+	/** Prepared engines of the recently used scripts, in access order */
+	private final LinkedHashMap<Key, Deque<PreparedScript>> prepared = new LinkedHashMap<>(16, 0.75f, true);
+
+	private ExecutorService executor = null;
+
+
+	/**
+	 * @param engineFactory	returns a new script engine for a language name, or <code>null</code>
+	 * 						if the language is not supported.
+	 */
+	ScriptEnginePool(Function<String, ScriptEngine> engineFactory) {
+		this.engineFactory = engineFactory;
+	}
+
+
+	/**
+	 * Return an engine that has evaluated the script, for use by a single simulation.
+	 *
+	 * @param language	the script language.
+	 * @param script	the script.
+	 * @return			the prepared script, or <code>null</code> if the language is not supported.
+	 * @throws ScriptException	if the script fails.
+	 */
+	PreparedScript acquire(String language, String script) throws ScriptException {
+		Key key = new Key(language, script);
+		PreparedScript result;
+		synchronized (this) {
+			Deque<PreparedScript> queue = prepared.get(key);
+			result = (queue != null) ? queue.pollFirst() : null;
+		}
+		if (result == null) {
+			result = prepare(key);
+			if (result == null) {
+				return null;
+			}
+		}
+		prepareInBackground(key);
+		return result;
+	}
+
+	/**
+	 * Create a new engine and evaluate the script.
+	 */
+	private PreparedScript prepare(Key key) throws ScriptException {
+		ScriptEngine engine = engineFactory.apply(key.language);
+		if (engine == null) {
+			return null;
+		}
+		GraalJSScriptEngineFactory.eval(engine, key.script);
+		return new PreparedScript(engine, findHooks(engine));
+	}
+
+	private synchronized void prepareInBackground(Key key) {
+		Deque<PreparedScript> queue = prepared.computeIfAbsent(key, k -> new ArrayDeque<>());
+		if (queue.size() >= maxPrepared) {
+			return;
+		}
+		evictScripts();
+
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(new PreparerThreadFactory());
+		}
+		executor.execute(() -> {
+			try {
+				PreparedScript script = prepare(key);
+				if (script != null) {
+					add(key, script);
+				}
+			} catch (Exception e) {
+				// The error is reported when the script is next prepared for a simulation
+				log.debug("Unable to prepare script engine", e);
+			}
+		});
+	}
+
+	private synchronized void add(Key key, PreparedScript script) {
+		Deque<PreparedScript> queue = prepared.computeIfAbsent(key, k -> new ArrayDeque<>());
+		if (queue.size() < maxPrepared) {
+			queue.addLast(script);
+		} else {
+			close(script);
+		}
+		evictScripts();
+	}
+
+	/**
+	 * Close the prepared engines of the least recently used scripts beyond the limit.
+	 */
+	private void evictScripts() {
+		Iterator<Deque<PreparedScript>> iterator = prepared.values().iterator();
+		while (prepared.size() > MAX_SCRIPTS && iterator.hasNext()) {
+			for (PreparedScript script : iterator.next()) {
+				close(script);
+			}
+			iterator.remove();
+		}
+	}
+
+	private static void close(PreparedScript script) {
+		if (script.getEngine() instanceof AutoCloseable closeable) {
+			try {
+				closeable.close();
+			} catch (Exception e) {
+				log.debug("Unable to close script engine", e);
+			}
+		}
+	}
+
+	/**
+	 * Return the listener hooks implemented by an evaluated script.
+	 */
+	static Set<String> findHooks(ScriptEngine engine) {
+		Object declared = engine.get(HOOKS_VARIABLE);
+		Set<String> hooks = new HashSet<>();
+		if (declared instanceof Collection<?> names) {
+			for (Object name : names) {
+				hooks.add(String.valueOf(name));
+			}
+		} else if (declared instanceof String names) {
+			for (String name : names.split(",")) {
+				hooks.add(name.trim());
+			}
+		} else {
+			for (String hook : ScriptingSimulationListener.HOOKS) {
+				if (engine.get(hook) != null) {
+					hooks.add(hook);
+				}
+			}
+		}
+		return Collections.unmodifiableSet(hooks);
+	}
+
+
+	/**
+	 * A script engine that has evaluated a script, and the hooks implemented by the script.
+	 */
+	static final class PreparedScript {
+		private final ScriptEngine engine;
+		private final Set<String> hooks;
+
+		PreparedScript(ScriptEngine engine, Set<String> hooks) {
+			this.engine = engine;
+			this.hooks = hooks;
+		}
+
+		ScriptEngine getEngine() {
+			return engine;
+		}
+
+		Set<String> getHooks() {
+			return hooks;
+		}
+	}
+
+	private static final class Key {
+		private final String language;
+		private final String script;
+
+		Key(String language, String script) {
+			this.language = language;
+			this.script = script;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return language.equals(other.language) && script.equals(other.script);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(language, script);
+		}
+	}
+
+	private static class PreparerThreadFactory implements ThreadFactory {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "ScriptPreparer");
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -87,22 +87,22 @@ public class ScriptingExtension extends AbstractSimulationExtension {
 	}
 
 	SimulationListener getListener() throws SimulationException {
-		ScriptEngine engine = util.getEngineByName(getLanguage());
-		if (engine == null) {
-			throw new SimulationException("Your JRE does not support the scripting language '" + getLanguage() + "'");
-		}
-
+		ScriptEnginePool.PreparedScript script;
 		try {
-			engine.eval(getScript());
+			script = util.prepareScript(getLanguage(), getScript());
 		} catch (ScriptException e) {
 			throw new SimulationException("Invalid script: " + e.getMessage());
 		}
+		if (script == null) {
+			throw new SimulationException("Your JRE does not support the scripting language '" + getLanguage() + "'");
+		}
 
+		ScriptEngine engine = script.getEngine();
 		if (!(engine instanceof Invocable)) {
 			throw new SimulationException(
 					"The scripting language '" + getLanguage() + "' does not implement the Invocable interface");
 		}
-		return new ScriptingSimulationListener((Invocable) engine);
+		return new ScriptingSimulationListener((Invocable) engine, script.getHooks());
 	}
 
 }
@@ -1,6 +1,7 @@
 package info.openrocket.core.simulation.extension.impl;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.script.Invocable;
@@ -39,11 +40,33 @@ public class ScriptingSimulationListener
 	 * so that unimplemented script methods are not called unnecessarily.
 	 */
 
+	/** The names of the listener hooks that can be implemented by scripts */
+	static final List<String> HOOKS = List.of(
+			"startSimulation", "endSimulation", "preStep", "postStep",
+			"addFlightEvent", "handleFlightEvent", "motorIgnition", "recoveryDeviceDeployment",
+			"preAccelerationCalculation", "preAerodynamicCalculation", "preAtmosphericModel",
+			"preFlightConditions", "preGravityModel", "preMassCalculation", "preSimpleThrustCalculation",
+			"preWindModel", "postAccelerationCalculation", "postAerodynamicCalculation", "postAtmosphericModel",
+			"postFlightConditions", "postGravityModel", "postMassCalculation", "postSimpleThrustCalculation",
+			"postWindModel");
+
 	private final Invocable invocable;
+	/** The hooks implemented by the script, or <code>null</code> to try all hooks */
+	private final Set<String> hooks;
 	private Set<String> missing = new HashSet<>();
 
 	public ScriptingSimulationListener(Invocable invocable) {
+		this(invocable, null);
+	}
+
+	/**
+	 * @param invocable	the script engine that has evaluated the script.
+	 * @param hooks		the names of the hooks implemented by the script, or <code>null</code> to
+	 * 					try calling all hooks.  Other hooks are not called.
+	 */
+	public ScriptingSimulationListener(Invocable invocable, Set<String> hooks) {
 		this.invocable = invocable;
+		this.hooks = hooks;
 	}
 
 	@Override
@@ -62,6 +85,11 @@ public class ScriptingSimulationListener
 		}
 	}
 
+	@Override
+	public boolean isImplemented(String methodName) {
+		return hooks == null || hooks.contains(methodName);
+	}
+
 	//// SimulationListener ////
 
 	@Override
@@ -200,7 +228,7 @@ public class ScriptingSimulationListener
 	@SuppressWarnings("unchecked")
 	private <T> T invoke(Class<T> retType, T def, String method, Object... args) throws SimulationException {
 		try {
-			if (!missing.contains(method)) {
+			if ((hooks == null || hooks.contains(method)) && !missing.contains(method)) {
 				Object o = invocable.invokeFunction(method, args);
 				if (o == null) {
 					// Use default/null if function returns nothing
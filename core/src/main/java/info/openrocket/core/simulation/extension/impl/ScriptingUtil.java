@@ -9,6 +9,7 @@ import java.util.prefs.BackingStoreException;
 
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
 
 import info.openrocket.core.preferences.ApplicationPreferences;
 import info.openrocket.core.scripting.ScriptEngineManagerRedux;
@@ -35,6 +36,7 @@ public class ScriptingUtil {
 	private static final List<String> PREFERRED_LANGUAGE_NAMES = List.of("JavaScript");
 
 	private static ScriptEngineManagerRedux manager;
+	private static ScriptEnginePool pool;
 
 	@Inject
 	ApplicationPreferences prefs;
@@ -48,6 +50,7 @@ public class ScriptingUtil {
 			manager = new ScriptEngineManagerRedux();
 
 			manager.registerEngineName("Javascript", new GraalJSScriptEngineFactory());
+			pool = new ScriptEnginePool(manager::getEngineByName);
 		}
 	}
 
@@ -55,6 +58,17 @@ public class ScriptingUtil {
 		return manager.getEngineByName(shortName);
 	}
 
+	/**
+	 * Return a script engine that has evaluated the script, for use by a single simulation.
+	 * The engines are prepared in advance for further simulations of the same script.
+	 *
+	 * @return the prepared script, or null if the language is not supported.
+	 * @throws ScriptException if the script fails.
+	 */
+	ScriptEnginePool.PreparedScript prepareScript(String language, String script) throws ScriptException {
+		return pool.acquire(language, script);
+	}
+
 	/**
 	 * Return the preferred internal language name based on a script language name.
 	 * 
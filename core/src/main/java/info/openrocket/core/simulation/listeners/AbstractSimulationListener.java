@@ -1,5 +1,9 @@
 package info.openrocket.core.simulation.listeners;
 
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
 import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.masscalc.RigidBody;
@@ -28,6 +32,30 @@ import info.openrocket.core.util.CoordinateIF;
 public class AbstractSimulationListener implements SimulationListener, SimulationComputationListener,
 		SimulationEventListener, Cloneable {
 
+	/** The listener methods overridden by each listener class */
+	private static final ClassValue<Set<String>> OVERRIDDEN_METHODS = new ClassValue<>() {
+		@Override
+		protected Set<String> computeValue(Class<?> type) {
+			Set<String> methods = new HashSet<>();
+			for (Method m : type.getMethods()) {
+				if (m.getDeclaringClass() != AbstractSimulationListener.class && !m.isBridge()) {
+					methods.add(m.getName());
+				}
+			}
+			return methods;
+		}
+	};
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * <em>This implementation returns whether the listener class overrides the method.</em>
+	 */
+	@Override
+	public boolean isImplemented(String methodName) {
+		return OVERRIDDEN_METHODS.get(getClass()).contains(methodName);
+	}
+
 	//// SimulationListener ////
 
 	@Override
@@ -66,6 +66,21 @@ public interface SimulationListener {
 	 */
 	public boolean isSystemListener();
 
+	/**
+	 * Return whether this listener implements a listener method, including the methods of
+	 * {@link SimulationEventListener} and {@link SimulationComputationListener}.  Methods
+	 * that are not implemented are not called during a simulation.  The result must not
+	 * change during a simulation.
+	 * <p>
+	 * The default implementation returns <code>true</code> for all methods.
+	 * 
+	 * @param methodName the name of the listener method, e.g. <code>"preStep"</code>.
+	 * @return whether the method is implemented
+	 */
+	public default boolean isImplemented(String methodName) {
+		return true;
+	}
+
 	/**
 	 * Return a deep copy of this simulation listener including its state.
 	 */
@@ -17,6 +17,7 @@ import info.openrocket.core.simulation.FlightEvent;
 import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.SimulationListenerSubscriptions.Hook;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
 
@@ -38,7 +39,7 @@ public class SimulationListenerHelper {
 			throws SimulationException {
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.START_SIMULATION)) {
 			l.startSimulation(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -53,7 +54,7 @@ public class SimulationListenerHelper {
 	public static void fireEndSimulation(SimulationStatus status, SimulationException exception) {
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.END_SIMULATION)) {
 			l.endSimulation(status, exception);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -73,7 +74,7 @@ public class SimulationListenerHelper {
 		boolean b;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.PRE_STEP)) {
 			b = l.preStep(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -94,7 +95,7 @@ public class SimulationListenerHelper {
 			throws SimulationException {
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.POST_STEP)) {
 			l.postStep(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -115,17 +116,15 @@ public class SimulationListenerHelper {
 		boolean b;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).addFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.ADD_FLIGHT_EVENT)) {
+			b = ((SimulationEventListener) l).addFlightEvent(status, event);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -141,17 +140,15 @@ public class SimulationListenerHelper {
 		boolean b;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).handleFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.HANDLE_FLIGHT_EVENT)) {
+			b = ((SimulationEventListener) l).handleFlightEvent(status, event);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -168,17 +165,15 @@ public class SimulationListenerHelper {
 		boolean result;
 		ModID modID = status.getModID(); // Contains also motor instance
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (false == result) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.MOTOR_IGNITION)) {
+			result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (false == result) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -195,17 +190,15 @@ public class SimulationListenerHelper {
 		boolean result;
 		ModID modID = status.getModID(); // Contains also motor instance
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (false == result) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.RECOVERY_DEVICE_DEPLOYMENT)) {
+			result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (false == result) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -223,17 +216,15 @@ public class SimulationListenerHelper {
 		AtmosphericConditions conditions;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_ATMOSPHERIC_MODEL)) {
+			conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -248,21 +239,23 @@ public class SimulationListenerHelper {
 			AtmosphericConditions conditions)
 			throws SimulationException {
 		AtmosphericConditions c;
+		SimulationListener[] listeners = getListeners(status, Hook.POST_ATMOSPHERIC_MODEL);
+		if (listeners.length == 0) {
+			return conditions;
+		}
 		AtmosphericConditions clone = conditions.clone();
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : listeners) {
+			c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -278,17 +271,15 @@ public class SimulationListenerHelper {
 		CoordinateIF wind;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				wind = ((SimulationComputationListener) l).preWindModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (wind != null) {
-					warn(status, l);
-					return wind;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_WIND_MODEL)) {
+			wind = ((SimulationComputationListener) l).preWindModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (wind != null) {
+				warn(status, l);
+				return wind;
 			}
 		}
 		return null;
@@ -303,17 +294,15 @@ public class SimulationListenerHelper {
 		CoordinateIF w;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				w = ((SimulationComputationListener) l).postWindModel(status, wind);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (w != null && !w.equals(wind)) {
-					warn(status, l);
-					wind = w;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_WIND_MODEL)) {
+			w = ((SimulationComputationListener) l).postWindModel(status, wind);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (w != null && !w.equals(wind)) {
+				warn(status, l);
+				wind = w;
 			}
 		}
 		return wind;
@@ -329,17 +318,15 @@ public class SimulationListenerHelper {
 		double gravity;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				gravity = ((SimulationComputationListener) l).preGravityModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(gravity)) {
-					warn(status, l);
-					return gravity;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_GRAVITY_MODEL)) {
+			gravity = ((SimulationComputationListener) l).preGravityModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(gravity)) {
+				warn(status, l);
+				return gravity;
 			}
 		}
 		return Double.NaN;
@@ -354,17 +341,15 @@ public class SimulationListenerHelper {
 		double g;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
-					warn(status, l);
-					gravity = g;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_GRAVITY_MODEL)) {
+			g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
+				warn(status, l);
+				gravity = g;
 			}
 		}
 		return gravity;
@@ -380,17 +365,15 @@ public class SimulationListenerHelper {
 		FlightConditions conditions;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preFlightConditions(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_FLIGHT_CONDITIONS)) {
+			conditions = ((SimulationComputationListener) l).preFlightConditions(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -406,21 +389,23 @@ public class SimulationListenerHelper {
 	public static FlightConditions firePostFlightConditions(SimulationStatus status, FlightConditions conditions)
 			throws SimulationException {
 		FlightConditions c;
+		SimulationListener[] listeners = getListeners(status, Hook.POST_FLIGHT_CONDITIONS);
+		if (listeners.length == 0) {
+			return conditions;
+		}
 		FlightConditions clone = conditions.clone();
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : listeners) {
+			c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -436,17 +421,15 @@ public class SimulationListenerHelper {
 		AerodynamicForces forces;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (forces != null) {
-					warn(status, l);
-					return forces;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_AERODYNAMIC_CALCULATION)) {
+			forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (forces != null) {
+				warn(status, l);
+				return forces;
 			}
 		}
 		return null;
@@ -460,21 +443,23 @@ public class SimulationListenerHelper {
 	public static AerodynamicForces firePostAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
 			throws SimulationException {
 		AerodynamicForces f;
+		SimulationListener[] listeners = getListeners(status, Hook.POST_AERODYNAMIC_CALCULATION);
+		if (listeners.length == 0) {
+			return forces;
+		}
 		AerodynamicForces clone = forces.clone();
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (f != null && !f.equals(forces)) {
-					warn(status, l);
-					forces = f;
-					clone = forces.clone();
-				}
+		for (SimulationListener l : listeners) {
+			f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (f != null && !f.equals(forces)) {
+				warn(status, l);
+				forces = f;
+				clone = forces.clone();
 			}
 		}
 		return forces;
@@ -490,17 +475,15 @@ public class SimulationListenerHelper {
 		RigidBody mass;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				mass = ((SimulationComputationListener) l).preMassCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (mass != null) {
-					warn(status, l);
-					return mass;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_MASS_CALCULATION)) {
+			mass = ((SimulationComputationListener) l).preMassCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (mass != null) {
+				warn(status, l);
+				return mass;
 			}
 		}
 		return null;
@@ -516,17 +499,15 @@ public class SimulationListenerHelper {
 		RigidBody m;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (m != null && !m.equals(mass)) {
-					warn(status, l);
-					mass = m;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_MASS_CALCULATION)) {
+			m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (m != null && !m.equals(mass)) {
+				warn(status, l);
+				mass = m;
 			}
 		}
 		return mass;
@@ -542,17 +523,15 @@ public class SimulationListenerHelper {
 		double thrust;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(thrust)) {
-					warn(status, l);
-					return thrust;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_SIMPLE_THRUST_CALCULATION)) {
+			thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(thrust)) {
+				warn(status, l);
+				return thrust;
 			}
 		}
 		return Double.NaN;
@@ -567,17 +546,15 @@ public class SimulationListenerHelper {
 		double t;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
-					warn(status, l);
-					thrust = t;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_SIMPLE_THRUST_CALCULATION)) {
+			t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
+				warn(status, l);
+				thrust = t;
 			}
 		}
 		return thrust;
@@ -592,17 +569,15 @@ public class SimulationListenerHelper {
 		AccelerationData acceleration;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (acceleration != null) {
-					warn(status, l);
-					return acceleration;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_ACCELERATION_CALCULATION)) {
+			acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (acceleration != null) {
+				warn(status, l);
+				return acceleration;
 			}
 		}
 		return null;
@@ -618,22 +593,27 @@ public class SimulationListenerHelper {
 		AccelerationData a;
 		ModID modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (a != null && !a.equals(acceleration)) {
-					warn(status, l);
-					acceleration = a;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_ACCELERATION_CALCULATION)) {
+			a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (a != null && !a.equals(acceleration)) {
+				warn(status, l);
+				acceleration = a;
 			}
 		}
 		return acceleration;
 	}
 
+	/**
+	 * Return the listeners of the simulation subscribed to a listener method.
+	 */
+	private static SimulationListener[] getListeners(SimulationStatus status, Hook hook) {
+		return status.getSimulationConditions().getListenerSubscriptions().get(hook);
+	}
+
 	private static void warn(SimulationStatus status, SimulationListener listener) {
 		if (!listener.isSystemListener()) {
 			log.info("Non-system listener " + listener + " affected the simulation");
@@ -0,0 +1,113 @@
+package info.openrocket.core.simulation.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The simulation listeners subscribed to each listener method of a simulation.
+ * <p>
+ * A listener is subscribed to the methods it implements, as reported by
+ * {@link SimulationListener#isImplemented(String)}.  The subscriptions are determined once
+ * for the listeners of a simulation, so that {@link SimulationListenerHelper} does not call
+ * methods that have no effect, and firing a method no listener implements costs nothing.
+ */
+public final class SimulationListenerSubscriptions {
+
+	/**
+	 * The listener methods, and the listener interface declaring each.
+	 */
+	enum Hook {
+		START_SIMULATION("startSimulation", SimulationListener.class),
+		END_SIMULATION("endSimulation", SimulationListener.class),
+		PRE_STEP("preStep", SimulationListener.class),
+		POST_STEP("postStep", SimulationListener.class),
+
+		ADD_FLIGHT_EVENT("addFlightEvent", SimulationEventListener.class),
+		HANDLE_FLIGHT_EVENT("handleFlightEvent", SimulationEventListener.class),
+		MOTOR_IGNITION("motorIgnition", SimulationEventListener.class),
+		RECOVERY_DEVICE_DEPLOYMENT("recoveryDeviceDeployment", SimulationEventListener.class),
+
+		PRE_ATMOSPHERIC_MODEL("preAtmosphericModel", SimulationComputationListener.class),
+		POST_ATMOSPHERIC_MODEL("postAtmosphericModel", SimulationComputationListener.class),
+		PRE_WIND_MODEL("preWindModel", SimulationComputationListener.class),
+		POST_WIND_MODEL("postWindModel", SimulationComputationListener.class),
+		PRE_GRAVITY_MODEL("preGravityModel", SimulationComputationListener.class),
+		POST_GRAVITY_MODEL("postGravityModel", SimulationComputationListener.class),
+		PRE_FLIGHT_CONDITIONS("preFlightConditions", SimulationComputationListener.class),
+		POST_FLIGHT_CONDITIONS("postFlightConditions", SimulationComputationListener.class),
+		PRE_AERODYNAMIC_CALCULATION("preAerodynamicCalculation", SimulationComputationListener.class),
+		POST_AERODYNAMIC_CALCULATION("postAerodynamicCalculation", SimulationComputationListener.class),
+		PRE_MASS_CALCULATION("preMassCalculation", SimulationComputationListener.class),
+		POST_MASS_CALCULATION("postMassCalculation", SimulationComputationListener.class),
+		PRE_SIMPLE_THRUST_CALCULATION("preSimpleThrustCalculation", SimulationComputationListener.class),
+		POST_SIMPLE_THRUST_CALCULATION("postSimpleThrustCalculation", SimulationComputationListener.class),
+		PRE_ACCELERATION_CALCULATION("preAccelerationCalculation", SimulationComputationListener.class),
+		POST_ACCELERATION_CALCULATION("postAccelerationCalculation", SimulationComputationListener.class);
+
+		private final String methodName;
+		private final Class<?> listenerType;
+
+		Hook(String methodName, Class<?> listenerType) {
+			this.methodName = methodName;
+			this.listenerType = listenerType;
+		}
+	}
+
+	private static final Hook[] HOOKS = Hook.values();
+
+	private final int listenerCount;
+	private final SimulationListener[][] subscribed = new SimulationListener[HOOKS.length][];
+	private final boolean computationListeners;
+
+
+	private SimulationListenerSubscriptions(List<SimulationListener> listeners) {
+		listenerCount = listeners.size();
+		boolean computation = false;
+		for (Hook hook : HOOKS) {
+			List<SimulationListener> list = new ArrayList<>();
+			for (SimulationListener l : listeners) {
+				if (hook.listenerType.isInstance(l) && l.isImplemented(hook.methodName)) {
+					list.add(l);
+				}
+			}
+			subscribed[hook.ordinal()] = list.toArray(new SimulationListener[0]);
+			computation |= hook.listenerType == SimulationComputationListener.class && !list.isEmpty();
+		}
+		computationListeners = computation;
+	}
+
+	/**
+	 * Determine the subscriptions of a list of listeners.
+	 *
+	 * @param listeners		the simulation listeners, in the order they are called.
+	 * @return				the subscriptions of the listeners.
+	 */
+	public static SimulationListenerSubscriptions of(List<SimulationListener> listeners) {
+		return new SimulationListenerSubscriptions(listeners);
+	}
+
+	/**
+	 * Return whether these subscriptions may have been determined for a list of listeners.
+	 * Listeners are only added to the simulation listener list, so a list whose size has
+	 * changed requires new subscriptions.
+	 */
+	public boolean isValidFor(List<SimulationListener> listeners) {
+		return listeners.size() == listenerCount;
+	}
+
+	/**
+	 * Return whether any listener is subscribed to a method of
+	 * {@link SimulationComputationListener}, which receive the intermediate states of a step.
+	 */
+	public boolean hasComputationListeners() {
+		return computationListeners;
+	}
+
+	/**
+	 * Return the listeners subscribed to a method, in the order they are called.  The
+	 * returned array must not be modified.
+	 */
+	SimulationListener[] get(Hook hook) {
+		return subscribed[hook.ordinal()];
+	}
+}
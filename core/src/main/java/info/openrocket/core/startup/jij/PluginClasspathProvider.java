@@ -13,8 +13,6 @@ import info.openrocket.core.util.BugException;
 
 public class PluginClasspathProvider implements ClasspathProvider {
 	
-	private static final String CUSTOM_PLUGIN_PROPERTY = "openrocket.plugins";
-	
 	@Override
 	public List<URL> getUrls() {
 		List<URL> urls = new ArrayList<>();
@@ -65,20 +63,11 @@ public class PluginClasspathProvider implements ClasspathProvider {
 	}
 
 	private void findCustomPlugins(List<URL> urls) {
-		String prop = System.getProperty(CUSTOM_PLUGIN_PROPERTY);
-		if (prop == null) {
-			return;
-		}
-		
-		String[] array = prop.split(File.pathSeparator);
-		for (String s : array) {
-			s = s.trim();
-			if (!s.isEmpty()) {
-				try {
-					urls.add(new File(s).toURI().toURL());
-				} catch (MalformedURLException e) {
-					throw new BugException(e);
-				}
+		for (File f : PluginHelper.getCustomPlugins()) {
+			try {
+				urls.add(f.toURI().toURL());
+			} catch (MalformedURLException e) {
+				throw new BugException(e);
 			}
 		}
 	}
@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +15,7 @@ import java.util.concurrent.Executors;
 
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
+import info.openrocket.core.file.motor.BinaryMotorDatabase;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.motor.Motor;
@@ -66,14 +66,9 @@ public class SerializeThrustcurveMotors {
 
         File outFile = new File(outputFile);
 
-        FileOutputStream ofs = new FileOutputStream(outFile);
-        final ObjectOutputStream oos = new ObjectOutputStream(ofs);
-
-        oos.writeObject(allMotors);
-
-        oos.flush();
-        ofs.flush();
-        ofs.close();
+        try (FileOutputStream ofs = new FileOutputStream(outFile)) {
+            BinaryMotorDatabase.write(allMotors, ofs);
+        }
 
     }
 
@@ -0,0 +1,107 @@
+package info.openrocket.core.util;
+
+/**
+ * A mutable quaternion intended strictly for hot-path computations where reusing quaternion
+ * instances avoids excessive garbage.  Unlike {@link Quaternion}, this class is stateful and
+ * <em>not</em> thread-safe.  Callers must take care never to expose a {@code MutableQuaternion}
+ * outside the scope where it is being mutated, and should convert it to an immutable
+ * {@link Quaternion} using {@link #toQuaternion()} before publishing values to other parts
+ * of the system.
+ */
+public final class MutableQuaternion {
+
+	private double w;
+	private double x;
+	private double y;
+	private double z;
+
+	/**
+	 * Construct a new "one" quaternion.
+	 */
+	public MutableQuaternion() {
+		this(1, 0, 0, 0);
+	}
+
+	public MutableQuaternion(double w, double x, double y, double z) {
+		this.w = w;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * Set the values of this quaternion.
+	 *
+	 * @return this quaternion.
+	 */
+	public MutableQuaternion set(double w, double x, double y, double z) {
+		this.w = w;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	/**
+	 * Set this quaternion to the values of a quaternion.
+	 *
+	 * @return this quaternion.
+	 */
+	public MutableQuaternion set(Quaternion q) {
+		return set(q.getW(), q.getX(), q.getY(), q.getZ());
+	}
+
+	/**
+	 * Set this quaternion to <code>rotation * q</code>, where <code>rotation</code> is the
+	 * rotation quaternion corresponding to the rotation vector (rx, ry, rz).  This is
+	 * equivalent to <code>q.multiplyLeft(Quaternion.rotation(new Coordinate(rx, ry, rz)))</code>.
+	 *
+	 * @param q		the quaternion to rotate.
+	 * @return		this quaternion.
+	 */
+	public MutableQuaternion setRotated(Quaternion q, double rx, double ry, double rz) {
+		double length = MathUtil.safeSqrt(rx * rx + ry * ry + rz * rz);
+		if (length < 0.000001) {
+			return set(q);
+		}
+		double sin = Math.sin(length / 2);
+		double a = Math.cos(length / 2);
+		double b = sin * rx / length;
+		double c = sin * ry / length;
+		double d = sin * rz / length;
+
+		/* (abcd) * q(wxyz) */
+		return set(a * q.getW() - b * q.getX() - c * q.getY() - d * q.getZ(),
+				a * q.getX() + b * q.getW() + c * q.getZ() - d * q.getY(),
+				a * q.getY() + c * q.getW() + d * q.getX() - b * q.getZ(),
+				a * q.getZ() + d * q.getW() + b * q.getY() - c * q.getX());
+	}
+
+	public double getW() {
+		return w;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getZ() {
+		return z;
+	}
+
+	/**
+	 * Return an immutable quaternion with the current values of this quaternion.
+	 */
+	public Quaternion toQuaternion() {
+		return new Quaternion(w, x, y, z);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MutableQuaternion[%f,%f,%f,%f]", w, x, y, z);
+	}
+}
@@ -26,6 +26,7 @@ open module info.openrocket.core {
 	requires com.opencsv;
 	requires org.commonmark;
 	requires org.locationtech.jts;
+	requires org.objectweb.asm;
 	requires org.objectweb.asm.commons;
 	requires java.management;
 
@@ -35,6 +36,7 @@ open module info.openrocket.core {
 	exports info.openrocket.core.appearance;
 	exports info.openrocket.core.appearance.defaults;
 	exports info.openrocket.core.arch;
+	exports info.openrocket.core.batch;
 	exports info.openrocket.core.communication;
 	exports info.openrocket.core.componentanalysis;
 	exports info.openrocket.core.database;
@@ -0,0 +1,85 @@
+package info.openrocket.core.plugin.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of the types annotated with
+ * <code>@Plugin</code> into the compiled output.
+ * <p>
+ * The index is a resource <code>META-INF/openrocket/index/info.openrocket.core.plugin.Plugin</code>
+ * containing the binary names of the annotated types, one per line.  It is read by
+ * <code>AnnotationFinderImpl</code> at startup instead of scanning the whole class path.
+ * Plugin JARs can generate the index by adding this processor to their annotation
+ * processor path.
+ * <p>
+ * This class is compiled separately from the rest of core, since it must be available
+ * when core itself is compiled.
+ */
+@SupportedAnnotationTypes(PluginIndexProcessor.PLUGIN_ANNOTATION)
+public class PluginIndexProcessor extends AbstractProcessor {
+
+	/** The annotation whose types are indexed */
+	public static final String PLUGIN_ANNOTATION = "info.openrocket.core.plugin.Plugin";
+
+	/** The directory of the index resources, must match AnnotationFinderImpl */
+	public static final String INDEX_DIRECTORY = "META-INF/openrocket/index/";
+
+	private final Set<String> types = new TreeSet<>();
+	private final List<Element> originatingElements = new ArrayList<>();
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element instanceof TypeElement) {
+					types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+					originatingElements.add(element);
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !types.isEmpty()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_DIRECTORY + PLUGIN_ANNOTATION, originatingElements.toArray(new Element[0]));
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String type : types) {
+					writer.write(type);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write plugin index: " + e.getMessage());
+		}
+	}
+}
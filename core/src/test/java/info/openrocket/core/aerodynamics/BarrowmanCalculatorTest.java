@@ -213,6 +213,61 @@ public class BarrowmanCalculatorTest {
 		}
 	}
 
+	/**
+	 * Test that the tabulated coefficients match the directly calculated ones, and that
+	 * the table is replaced when the rocket changes.
+	 */
+	@Test
+	public void testTabulatedForces() {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final FlightConfiguration config = rocket.getSelectedConfiguration();
+		final BarrowmanCalculator exact = new BarrowmanCalculator();
+		final BarrowmanCalculator tabulated = new BarrowmanCalculator(true);
+		assertTrue(tabulated.newInstance().isTabulated());
+
+		final double[][] points = { { 0.3, 0 }, { 0.3, 0.05 }, { 0.57, 0.123 }, { 0.95, 0.02 }, { 1.33, 0.4 },
+				{ 2.5, 0.25 } };
+		for (double[] point : points) {
+			final FlightConditions conditions = new FlightConditions(config);
+			conditions.setMach(point[0]);
+			conditions.setAOA(point[1]);
+			conditions.setRollRate(2.0);
+
+			AerodynamicForces expected = exact.getAerodynamicForces(config, conditions, new WarningSet());
+			AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, new WarningSet());
+
+			String msg = " at Mach " + point[0] + " AOA " + point[1];
+			assertEquals(expected.getCN(), actual.getCN(), 0.005 * Math.abs(expected.getCN()) + 1e-6, "CN" + msg);
+			assertEquals(expected.getCm(), actual.getCm(), 0.005 * Math.abs(expected.getCm()) + 1e-6, "Cm" + msg);
+			assertEquals(expected.getCP().getX(), actual.getCP().getX(), 0.001, "CP" + msg);
+			assertEquals(expected.getCD(), actual.getCD(), 0.005 * expected.getCD(), "CD" + msg);
+			assertEquals(expected.getFrictionCD(), actual.getFrictionCD(), 0, "Friction CD" + msg);
+			assertEquals(expected.getCroll(), actual.getCroll(), 0.005 * Math.abs(expected.getCroll()) + 1e-9,
+					"Croll" + msg);
+		}
+
+		// The roll damping of stalled fin tips is not proportional to the roll rate
+		for (double rollRate : new double[] { 5, -60 }) {
+			final FlightConditions conditions = new FlightConditions(config);
+			conditions.setMach(0.03);
+			conditions.setAOA(0.05);
+			conditions.setRollRate(rollRate);
+			assertEquals(exact.getAerodynamicForces(config, conditions, null).getCrollDamp(),
+					tabulated.getAerodynamicForces(config, conditions, null).getCrollDamp(),
+					0.005 * Math.abs(exact.getAerodynamicForces(config, conditions, null).getCrollDamp()),
+					"Roll damping at roll rate " + rollRate);
+		}
+
+		// Changing the fin count must not use the stale table
+		final FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.4);
+		conditions.setAOA(0.1);
+		tabulated.getAerodynamicForces(config, conditions, null);
+		((FinSet) rocket.getChild(0).getChild(1).getChild(0)).setFinCount(4);
+		assertEquals(exact.getAerodynamicForces(config, conditions, null).getCN(),
+				tabulated.getAerodynamicForces(config, conditions, null).getCN(), 0.001);
+	}
+
 	@Test
 	public void testCpSplitTripleFin() {
 		final BarrowmanCalculator calc = new BarrowmanCalculator();
@@ -0,0 +1,139 @@
+package info.openrocket.core.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.GeneralRocketSaver;
+import info.openrocket.core.file.openrocket.OpenRocketSaverTest.EmptyComponentDbProvider;
+import info.openrocket.core.file.openrocket.OpenRocketSaverTest.MotorDbProvider;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.DecalNotFoundException;
+import info.openrocket.core.util.TestRockets;
+
+public class BatchSimulationRunnerTest {
+
+	private Path directory;
+
+	@BeforeAll
+	public static void setup() {
+		Module applicationModule = new ServicesForTesting();
+		Module dbOverrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toProvider(new EmptyComponentDbProvider());
+				bind(MotorDatabase.class).toProvider(new MotorDbProvider());
+			}
+		};
+		Injector injector = Guice.createInjector(Modules.override(applicationModule).with(dbOverrides),
+				new PluginModule());
+		Application.setInjector(injector);
+	}
+
+	@BeforeEach
+	public void createFiles() throws IOException, DecalNotFoundException {
+		directory = Files.createTempDirectory("batch");
+
+		OpenRocketDocument document = TestRockets.makeTestRocket_v104_withSimulationData();
+		document.getSimulations().get(0).setName("First");
+		document.getSimulations().get(1).setName("Second");
+		new GeneralRocketSaver().save(directory.resolve("rocket.ork").toFile(), document);
+
+		Files.write(directory.resolve("broken.ork"), "not a rocket".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("notes.txt"), "ignored".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@AfterEach
+	public void deleteFiles() throws IOException {
+		for (File f : directory.toFile().listFiles()) {
+			Files.delete(f.toPath());
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testRunDirectory() throws InterruptedException {
+		List<File> files = BatchSimulationRunner.findDocuments(List.of(directory.toFile()));
+		assertEquals(2, files.size());
+		assertEquals("broken.ork", files.get(0).getName());
+		assertEquals("rocket.ork", files.get(1).getName());
+
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		runner.setThreadCount(2);
+		List<BatchResult> results = runner.run(files);
+
+		assertEquals(3, results.size());
+		assertEquals(BatchResult.Status.FAILED, results.get(0).getStatus());
+		assertEquals(-1, results.get(0).getSimulationIndex());
+
+		assertEquals("First", results.get(1).getSimulationName());
+		assertEquals(0, results.get(1).getSimulationIndex());
+		assertNotEquals(BatchResult.Status.FAILED, results.get(1).getStatus());
+		assertFalse(Double.isNaN(results.get(1).getValue(BatchResult.Value.MAX_ALTITUDE)));
+
+		assertEquals("Second", results.get(2).getSimulationName());
+		assertEquals(1, results.get(2).getSimulationIndex());
+	}
+
+	@Test
+	public void testSelectSimulation() throws InterruptedException {
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		runner.addSimulationName("Second");
+		List<BatchResult> results = runner.run(List.of(directory.resolve("rocket.ork").toFile()));
+
+		assertEquals(1, results.size());
+		assertEquals("Second", results.get(0).getSimulationName());
+	}
+
+	@Test
+	public void testWriters() throws InterruptedException {
+		BatchSimulationRunner runner = new BatchSimulationRunner();
+		List<BatchResult> results = runner.run(BatchSimulationRunner.findDocuments(List.of(directory.toFile())));
+
+		StringWriter csv = new StringWriter();
+		BatchResultWriter.writeCSV(results, csv);
+		String[] lines = csv.toString().split("\\R");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].startsWith("file,simulation,status,message,warnings,runTime,maxAltitude"));
+		assertEquals(6 + BatchResult.Value.values().length, lines[0].split(",").length);
+
+		StringWriter json = new StringWriter();
+		BatchResultWriter.writeJSON(results, json);
+		JsonArray array = Json.createReader(new StringReader(json.toString())).readArray();
+		assertEquals(3, array.size());
+		JsonObject first = array.getJsonObject(1);
+		assertEquals("First", first.getString("simulation"));
+		assertTrue(first.containsKey("maxAltitude"));
+		assertTrue(array.getJsonObject(0).isNull("simulation"));
+	}
+}
@@ -0,0 +1,127 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+
+public class ThrustCurveMotorSetDatabaseTest {
+
+	private final ThrustCurveMotor f12 = createMotor("Estes", "F12", "F12-3J", Motor.Type.SINGLE, 0.024, 0.070,
+			null, "digestF12");
+	private final ThrustCurveMotor f12b = createMotor("Estes", "F12", "F12-3J", Motor.Type.SINGLE, 0.024, 0.070,
+			null, "digestF12b");
+	private final ThrustCurveMotor g40 = createMotor("AeroTech", "G40", "G40-7W", Motor.Type.RELOAD, 0.029, 0.124,
+			"RMS-29/40-120", "digestG40");
+	private final ThrustCurveMotor h128 = createMotor("AeroTech", "H128", "H128W", Motor.Type.RELOAD, 0.029, 0.194,
+			"RMS-29/180", "digestH128");
+	private final ThrustCurveMotor j350 = createMotor("Cesaroni", "J350", "J350W-L", Motor.Type.RELOAD, 0.038, 0.236,
+			"Pro38-2G", "digestJ350");
+
+	private ThrustCurveMotorSetDatabase db;
+
+	@BeforeEach
+	public void setup() {
+		db = new ThrustCurveMotorSetDatabase();
+		db.addMotor(f12);
+		db.addMotor(g40);
+		db.addMotor(h128);
+		db.addMotor(f12b);
+		db.addMotor(j350);
+	}
+
+	@Test
+	public void testMotorSets() {
+		List<ThrustCurveMotorSet> sets = db.getMotorSets();
+		assertEquals(4, sets.size());
+		assertEquals(2, sets.get(0).getMotorCount());
+		assertEquals(g40.getDesignation(), sets.get(1).getDesignation());
+	}
+
+	@Test
+	public void testFindByDigest() {
+		assertEquals(List.of(g40), db.findMotors("digestG40", null, null, null, Double.NaN, Double.NaN));
+		// full matches are preferred, otherwise the digest matches are returned
+		assertEquals(List.of(g40), db.findMotors("digestG40", null, "AeroTech", "G40", 0.029, 0.124));
+		assertEquals(List.of(g40), db.findMotors("digestG40", null, "Cesaroni", "J350", Double.NaN, Double.NaN));
+		// without a digest match the description matches are returned
+		assertEquals(List.of(j350), db.findMotors("unknown", null, "Cesaroni", null, Double.NaN, Double.NaN));
+	}
+
+	@Test
+	public void testFindByDescription() {
+		// manufacturer abbreviations are matched
+		assertEquals(List.of(g40, h128), db.findMotors(null, null, "AT", null, Double.NaN, Double.NaN));
+
+		// designation substrings and common names contained in the designation
+		assertEquals(List.of(h128), db.findMotors(null, null, null, "h128", Double.NaN, Double.NaN));
+		assertEquals(List.of(f12, f12b), db.findMotors(null, null, null, "F12-3", Double.NaN, Double.NaN));
+		assertEquals(List.of(g40), db.findMotors(null, null, null, "Aerotech G40-10W", Double.NaN, Double.NaN));
+		assertEquals(List.of(g40, h128, j350), db.findMotors(null, null, null, "W", Double.NaN, Double.NaN));
+
+		// diameter and length within 5 mm
+		assertEquals(List.of(g40, h128), db.findMotors(null, null, null, null, 0.031, Double.NaN));
+		assertEquals(List.of(h128), db.findMotors(null, null, null, null, 0.029, 0.190));
+		assertTrue(db.findMotors(null, null, null, null, 0.045, Double.NaN).isEmpty());
+
+		// type and combined criteria
+		assertEquals(List.of(g40, h128, j350), db.findMotors(null, Motor.Type.RELOAD, null, null, Double.NaN, Double.NaN));
+		assertEquals(List.of(j350), db.findMotors(null, Motor.Type.RELOAD, "CTI", "J", 0.038, Double.NaN));
+		assertTrue(db.findMotors(null, Motor.Type.SINGLE, "CTI", null, Double.NaN, Double.NaN).isEmpty());
+
+		// no criteria
+		assertEquals(5, db.findMotors(null, null, null, null, Double.NaN, Double.NaN).size());
+	}
+
+	@Test
+	public void testIndexUpdate() {
+		assertTrue(db.findMotors(null, null, null, "K", Double.NaN, Double.NaN).isEmpty());
+		ThrustCurveMotor k550 = createMotor("AeroTech", "K550", "K550W", Motor.Type.RELOAD, 0.054, 0.410,
+				"RMS-54/1706", "digestK550");
+		db.addMotor(k550);
+		assertEquals(List.of(k550), db.findMotors(null, null, null, "K", Double.NaN, Double.NaN));
+		assertEquals(List.of(k550), db.findMotors("digestK550", null, null, null, Double.NaN, Double.NaN));
+	}
+
+	@Test
+	public void testFindMotorSets() {
+		List<ThrustCurveMotorSet> sets = db.getMotorSets();
+		assertEquals(List.of(sets.get(1), sets.get(2)), db.findMotorSets("aerotech"));
+		assertEquals(List.of(sets.get(1), sets.get(2)), db.findMotorSets("RMS-29"));
+		assertEquals(List.of(sets.get(2)), db.findMotorSets("h1"));
+		assertEquals(List.of(sets.get(3)), db.findMotorSets("pro38"));
+		assertEquals(List.of(sets.get(0)), db.findMotorSets("3j"));
+		assertEquals(sets, db.findMotorSets(""));
+		assertTrue(db.findMotorSets("xyz").isEmpty());
+	}
+
+	private static ThrustCurveMotor createMotor(String manufacturer, String commonName, String designation,
+			Motor.Type type, double diameter, double length, String caseInfo, String digest) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+				.setCommonName(commonName)
+				.setDesignation(designation)
+				.setDescription("Desc")
+				.setMotorType(type)
+				.setStandardDelays(new double[] {})
+				.setDiameter(diameter)
+				.setLength(length)
+				.setCaseInfo(caseInfo)
+				.setTimePoints(new double[] { 0, 1, 2 })
+				.setThrustPoints(new double[] { 0, 1, 0 })
+				.setCGPoints(new CoordinateIF[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+				.setDigest(digest)
+				.build();
+	}
+}
@@ -2,8 +2,10 @@ package info.openrocket.core.document;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import info.openrocket.core.rocketcomponent.DeploymentConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.Parachute;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
@@ -135,6 +137,73 @@ public class SimulationTest extends BaseTestCase {
 		assertEquals(Simulation.Status.UPTODATE, simulation.getStatus());
 	}
 
+	@Test
+	public void testBasicSimulationExecution_DP45() throws SimulationException {
+		simulation.simulate();
+		FlightData reference = simulation.getSimulatedData();
+
+		simulation.getOptions().setSimulationStepperMethodChoice(SimulationStepperMethod.DP45);
+		simulation.simulate();
+
+		FlightData data = simulation.getSimulatedData();
+		assertNotNull(data, "Simulation data should not be null");
+		assertEquals(Simulation.Status.UPTODATE, simulation.getStatus());
+		assertEquals(reference.getMaxAltitude(), data.getMaxAltitude(), 0.01 * reference.getMaxAltitude(),
+				"Adaptive stepper should reach the same apogee");
+		assertTrue(data.getBranch(0).getLength() < reference.getBranch(0).getLength(),
+				"Adaptive stepper should take fewer steps");
+	}
+
+	/**
+	 * Tests that the step containing apogee is ended at apogee, so that the apogee event
+	 * coincides with the highest data point.
+	 */
+	@Test
+	public void testApogeeLocatedWithinStep() throws SimulationException {
+		for (SimulationStepperMethod method : new SimulationStepperMethod[] { SimulationStepperMethod.RK4,
+				SimulationStepperMethod.DP45 }) {
+			simulation.getOptions().setSimulationStepperMethodChoice(method);
+			simulation.simulate();
+
+			FlightData data = simulation.getSimulatedData();
+			FlightEvent apogee = data.getBranch(0).getFirstEvent(FlightEvent.Type.APOGEE);
+			assertNotNull(apogee, method.toString());
+			assertEquals(data.getTimeToApogee(), apogee.getTime(), 1e-3, method.toString());
+		}
+	}
+
+	/**
+	 * Tests that the step containing an altitude-triggered deployment is ended at the
+	 * deployment altitude, and that the time step stored for it is the shortened one.
+	 */
+	@Test
+	public void testAltitudeDeploymentLocatedWithinStep() throws SimulationException {
+		final double deployAltitude = 150;
+		Parachute parachute = (Parachute) rocket.getStage(0).getChild(1).getChild(3);
+		DeploymentConfiguration deployConfig = parachute.getDeploymentConfigurations().get(TestRockets.TEST_FCID_0);
+		deployConfig.setDeployEvent(DeploymentConfiguration.DeployEvent.ALTITUDE);
+		deployConfig.setDeployAltitude(deployAltitude);
+		deployConfig.setDeployDelay(0);
+
+		for (SimulationStepperMethod method : new SimulationStepperMethod[] { SimulationStepperMethod.RK4,
+				SimulationStepperMethod.DP45 }) {
+			simulation.getOptions().setSimulationStepperMethodChoice(method);
+			simulation.simulate();
+
+			FlightDataBranch branch = simulation.getSimulatedData().getBranch(0);
+			FlightEvent deployment = branch.getFirstEvent(FlightEvent.Type.RECOVERY_DEVICE_DEPLOYMENT);
+			assertNotNull(deployment, method.toString());
+
+			List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+			List<Double> altitude = branch.get(FlightDataType.TYPE_ALTITUDE);
+			List<Double> timeStep = branch.get(FlightDataType.TYPE_TIME_STEP);
+			int index = time.indexOf(deployment.getTime());
+			assertTrue(index > 0, method + " has no data point at the deployment");
+			assertEquals(deployAltitude, altitude.get(index), 0.01, method.toString());
+			assertEquals(time.get(index) - time.get(index - 1), timeStep.get(index - 1), 1e-9, method.toString());
+		}
+	}
+
 	@Test
 	public void testConfigurationManagement() {
 		FlightConfigurationId newId = new FlightConfigurationId();
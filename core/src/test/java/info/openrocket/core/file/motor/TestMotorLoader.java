@@ -3,9 +3,14 @@ package info.openrocket.core.file.motor;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -49,6 +54,45 @@ public class TestMotorLoader {
 		test(new ZipFileMotorLoader(), "/file/motor/test.zip", DIGEST2, DIGEST1);
 	}
 
+	@Test
+	public void testBinaryMotorDatabase() throws IOException {
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		for (String file : new String[] { "/file/motor/test1.eng", "/file/motor/test.zip", "/file/motor/test3.rse" }) {
+			try (InputStream is = this.getClass().getResourceAsStream(file)) {
+				assertNotNull(is, "File " + file + " not found");
+				for (ThrustCurveMotor.Builder builder : new GeneralMotorLoader().load(is, file)) {
+					motors.add(builder.build());
+				}
+			}
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryMotorDatabase.write(motors, out);
+		List<ThrustCurveMotor> read = BinaryMotorDatabase.read(ByteBuffer.wrap(out.toByteArray()));
+
+		assertEquals(motors.size(), read.size());
+		for (int i = 0; i < motors.size(); i++) {
+			ThrustCurveMotor expected = motors.get(i);
+			ThrustCurveMotor actual = read.get(i);
+			assertEquals(expected.getDigest(), actual.getDigest());
+			assertSame(expected.getManufacturer(), actual.getManufacturer());
+			assertEquals(expected.getDesignation(), actual.getDesignation());
+			assertEquals(expected.getCommonName(), actual.getCommonName());
+			assertEquals(expected.getDescription(), actual.getDescription());
+			assertEquals(expected.getMotorType(), actual.getMotorType());
+			assertEquals(expected.getDiameter(), actual.getDiameter(), 0);
+			assertEquals(expected.getLength(), actual.getLength(), 0);
+			assertArrayEquals(expected.getStandardDelays(), actual.getStandardDelays(), 0);
+			assertArrayEquals(expected.getTimePoints(), actual.getTimePoints(), 0);
+			assertArrayEquals(expected.getThrustPoints(), actual.getThrustPoints(), 0);
+			assertArrayEquals(expected.getCGPoints(), actual.getCGPoints());
+			assertEquals(expected.getTotalImpulseEstimate(), actual.getTotalImpulseEstimate(), 0);
+		}
+
+		byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() / 2);
+		assertThrows(IOException.class, () -> BinaryMotorDatabase.read(ByteBuffer.wrap(truncated)));
+	}
+
 	private void test(MotorLoader loader, String file, String... digests) throws IOException {
 		List<ThrustCurveMotor.Builder> motors;
 
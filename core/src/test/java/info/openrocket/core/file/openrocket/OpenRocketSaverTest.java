@@ -1,11 +1,13 @@
 package info.openrocket.core.file.openrocket;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileNotFoundException;
@@ -13,7 +15,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import info.openrocket.core.ServicesForTesting;
 import info.openrocket.core.database.ComponentPresetDao;
@@ -25,6 +32,7 @@ import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.document.StorageOptions;
 import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.GeneralRocketSaver;
 import info.openrocket.core.file.RocketLoadException;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.l10n.DebugTranslator;
@@ -38,6 +46,10 @@ import info.openrocket.core.plugin.PluginModule;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStepperMethod;
 import info.openrocket.core.simulation.extension.impl.ScriptingExtension;
 import info.openrocket.core.simulation.extension.impl.ScriptingUtil;
 import info.openrocket.core.startup.Application;
@@ -339,6 +351,176 @@ public class OpenRocketSaverTest {
 	}
 	
 
+	////////////////////////////////
+	// Tests for File Version 1.12 //
+	////////////////////////////////
+	
+	/**
+	 * Test that simulation data stored as binary container entries is loaded exactly.
+	 */
+	@Test
+	public void testFileVersion112_withBinarySimulationData() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.simulate();
+		rocketDoc.addSimulation(sim);
+		
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		options.setSaveSimulationDataBinary(true);
+		assertEquals(112, this.saver.testAccessor_calculateNecessaryFileVersion(rocketDoc, options));
+		
+		File file = File.createTempFile(TMP_DIR.getName(), ".ork");
+		new GeneralRocketSaver().save(file, rocketDoc, options);
+		OpenRocketDocument rocketDocLoaded = loadRocket(file.getPath());
+		file.delete();
+		
+		FlightData original = sim.getSimulatedData();
+		FlightData loaded = rocketDocLoaded.getSimulations().get(0).getSimulatedData();
+		assertEquals(Simulation.Status.LOADED, rocketDocLoaded.getSimulations().get(0).getStatus());
+		assertEquals(original.getBranchCount(), loaded.getBranchCount());
+		for (int i = 0; i < original.getBranchCount(); i++) {
+			FlightDataBranch expected = original.getBranch(i);
+			FlightDataBranch actual = loaded.getBranch(i);
+			assertEquals(expected.getLength(), actual.getLength());
+			assertEquals(expected.getEvents().size(), actual.getEvents().size());
+			for (FlightDataType type : expected.getTypes()) {
+				assertArrayEquals(expected.toArray(type), actual.toArray(type), type.getName());
+			}
+		}
+		assertEquals(original.getMaxAltitude(), loaded.getMaxAltitude(), 0.001);
+		assertFalse(loaded.isMutable());
+		assertTrue(rocketDocLoaded.getDefaultStorageOptions().getSaveSimulationDataBinary());
+	}
+	
+
+	/**
+	 * Test that the tolerance of the adaptive stepper is stored only for simulations using it.
+	 */
+	@Test
+	public void testFileVersion112_withAdaptiveStepper() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation rk4 = new Simulation(rocketDoc, rocket);
+		rk4.getOptions().setSimulationStepperMethodChoice(SimulationStepperMethod.RK4);
+		rocketDoc.addSimulation(rk4);
+		assertEquals(111, getCalculatedFileVersion(rocketDoc));
+		
+		Simulation dp45 = new Simulation(rocketDoc, rocket);
+		dp45.getOptions().setSimulationStepperMethodChoice(SimulationStepperMethod.DP45);
+		dp45.getOptions().setTolerance(1e-6);
+		rocketDoc.addSimulation(dp45);
+		assertEquals(112, getCalculatedFileVersion(rocketDoc));
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.saver.save(out, rocketDoc, new StorageOptions(), new WarningSet(), new ErrorSet());
+		String xml = out.toString(StandardCharsets.UTF_8);
+		assertEquals(1, xml.split("<tolerance>", -1).length - 1, "Tolerance should only be stored for DP45");
+		assertTrue(xml.contains("<simulationsteppermethod>dp45</simulationsteppermethod>"));
+		
+		File file = saveRocket(rocketDoc, new StorageOptions());
+		OpenRocketDocument rocketDocLoaded = loadRocket(file.getPath());
+		assertEquals(SimulationStepperMethod.DP45,
+				rocketDocLoaded.getSimulation(1).getOptions().getSimulationStepperMethodChoice());
+		assertEquals(1e-6, rocketDocLoaded.getSimulation(1).getOptions().getTolerance(), 0);
+	}
+	
+
+	/**
+	 * Test that simulation data loaded in the background equals the data loaded along
+	 * with the document, for both the XML and the binary format.
+	 */
+	@Test
+	public void testBackgroundDataLoading() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.simulate();
+		rocketDoc.addSimulation(sim);
+		
+		for (boolean binary : new boolean[] { false, true }) {
+			StorageOptions options = new StorageOptions();
+			options.setSaveSimulationData(true);
+			options.setSaveSimulationDataBinary(binary);
+			File file = File.createTempFile(TMP_DIR.getName(), ".ork");
+			new GeneralRocketSaver().save(file, rocketDoc, options);
+			
+			OpenRocketDocument expectedDoc = loadRocket(file.getPath());
+			GeneralRocketLoader loader = new GeneralRocketLoader(file);
+			loader.setBackgroundDataLoading(true);
+			OpenRocketDocument actualDoc = loader.load();
+			
+			FlightData expected = expectedDoc.getSimulations().get(0).getSimulatedData();
+			FlightData actual = actualDoc.getSimulations().get(0).getSimulatedData();
+			assertEquals(expected.getMaxAltitude(), actual.getMaxAltitude(), 0.001);
+			assertEquals(expected.getBranchCount(), actual.getBranchCount());
+			for (int i = 0; i < expected.getBranchCount(); i++) {
+				for (FlightDataType type : expected.getBranch(i).getTypes()) {
+					assertArrayEquals(expected.getBranch(i).toArray(type), actual.getBranch(i).toArray(type),
+							type.getName());
+				}
+			}
+			assertTrue(actual.isDataAvailable());
+			assertFalse(actual.isMutable());
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test that a missing binary data entry is reported in the warnings of the simulation,
+	 * also when the data is loaded in the background.
+	 */
+	@Test
+	public void testMissingDataEntryWarning() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.simulate();
+		rocketDoc.addSimulation(sim);
+
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		options.setSaveSimulationDataBinary(true);
+		File saved = File.createTempFile(TMP_DIR.getName(), ".ork");
+		new GeneralRocketSaver().save(saved, rocketDoc, options);
+
+		// Copy the file without the data entries
+		File file = File.createTempFile(TMP_DIR.getName(), ".ork");
+		try (ZipFile zip = new ZipFile(saved);
+				ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			for (ZipEntry entry : Collections.list(zip.entries())) {
+				if (entry.getName().equals("rocket.ork")) {
+					out.putNextEntry(new ZipEntry(entry.getName()));
+					zip.getInputStream(entry).transferTo(out);
+					out.closeEntry();
+				}
+			}
+		}
+
+		for (boolean background : new boolean[] { false, true }) {
+			GeneralRocketLoader loader = new GeneralRocketLoader(file);
+			loader.setBackgroundDataLoading(background);
+			FlightData data = loader.load().getSimulations().get(0).getSimulatedData();
+			// Waits until the data has been loaded
+			assertEquals(0, data.getBranch(0).getLength());
+			assertFalse(data.getWarningSet().isEmpty(), "Missing data entry not reported");
+			assertEquals(sim.getSimulatedData().getMaxAltitude(), data.getMaxAltitude(), 0.001);
+		}
+		saved.delete();
+		file.delete();
+	}
+
+
 	////////////////////////////////
 	/*
 	 * Utility Functions
@@ -1,14 +1,23 @@
 package info.openrocket.core.masscalc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.MotorClusterState;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.util.TestRockets;
 import info.openrocket.core.util.BaseTestCase;
 
 public class MassCacheTest extends BaseTestCase {
+	private static final double EPSILON = 0.00000001;
 
 	@Test
 	public void testCMCache() {
@@ -19,6 +28,57 @@ public class MassCacheTest extends BaseTestCase {
 		// .... soooo we have this waste of space. -DMW
 		assertTrue(true);
 	}
+
+	@Test
+	public void testStructureCache() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		MassCalculator calculator = new MassCalculator();
+
+		RigidBody cached = calculator.getStructure(config);
+		assertBodyEquals(MassCalculator.calculateStructure(config), cached);
+		assertSame(cached, calculator.getStructure(config));
+
+		// Changing the active stages uses a different entry
+		config.setOnlyStage(TestRockets.FALCON_9H_PAYLOAD_STAGE_NUMBER);
+		RigidBody payload = calculator.getStructure(config);
+		assertNotSame(cached, payload);
+		assertBodyEquals(MassCalculator.calculateStructure(config), payload);
+
+		// Changing the rocket invalidates the entry
+		RocketComponent nose = rocket.getChild(0).getChild(0);
+		nose.setMassOverridden(true);
+		nose.setOverrideMass(1.0);
+		RigidBody modified = calculator.getStructure(config);
+		assertNotSame(payload, modified);
+		assertBodyEquals(MassCalculator.calculateStructure(config), modified);
+	}
+
+	@Test
+	public void testMotorCache() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		MassCalculator calculator = new MassCalculator();
+
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		for (MotorClusterState motorState : status.getMotors()) {
+			motorState.ignite(0.5);
+		}
+
+		for (double time : new double[] { 0, 0.6, 1.5, 3.0, 10.0 }) {
+			status.setSimulationTime(time);
+			assertBodyEquals(MassCalculator.calculateMotor(status), calculator.getMotor(status));
+		}
+	}
+
+	private static void assertBodyEquals(RigidBody expected, RigidBody actual) {
+		assertEquals(expected.getMass(), actual.getMass(), EPSILON, "mass");
+		assertEquals(expected.getCM().getX(), actual.getCM().getX(), EPSILON, "CM x");
+		assertEquals(expected.getCM().getY(), actual.getCM().getY(), EPSILON, "CM y");
+		assertEquals(expected.getCM().getZ(), actual.getCM().getZ(), EPSILON, "CM z");
+		assertEquals(expected.getIxx(), actual.getIxx(), EPSILON, "Ixx");
+		assertEquals(expected.getIyy(), actual.getIyy(), EPSILON, "Iyy");
+	}
 	//
 	// FlightConfiguration config = rocket.getEmptyConfiguration();
 	// MassCalculator mc = new MassCalculator();
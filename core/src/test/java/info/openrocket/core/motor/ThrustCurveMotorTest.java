@@ -189,6 +189,27 @@ public class ThrustCurveMotorTest {
 		assertEquals(3.0, motorX6.getThrust(3), 0.001);
 	}
 
+	@Test
+	public void testCursorLookup() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+
+		// sequential queries, as during a simulation
+		ThrustCurveMotor.Cursor cursor = new ThrustCurveMotor.Cursor();
+		for (double t = 0; t < 0.8; t += 0.0005) {
+			assertEquals(mtr.getThrust(t), mtr.getThrust(t, cursor), 0);
+			assertEquals(mtr.getTotalMass(t), mtr.getTotalMass(t, cursor), 0);
+			assertEquals(mtr.getCMx(t), mtr.getCMx(t, cursor), 0);
+		}
+
+		// arbitrary queries, including jumps backwards and outside of the curve
+		final double[] timeList = { 0.5, 0.1, 0.73, 0.0, 2.0, 0.206, 0.205, -1.0, 0.3, 0.31, 0.9, 0.65 };
+		cursor = new ThrustCurveMotor.Cursor();
+		for (double t : timeList) {
+			assertEquals(mtr.getThrust(t), mtr.getThrust(t, cursor), 0);
+			assertEquals(mtr.getTotalMass(t), mtr.getTotalMass(t, cursor), 0);
+		}
+	}
+
 	@Test
 	public void testSimplifyDesignation() {
 		assertEquals(ThrustCurveMotor.Builder.simplifyDesignation("J115"), "J115");
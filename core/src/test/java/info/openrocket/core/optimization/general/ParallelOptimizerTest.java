@@ -0,0 +1,86 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
+
+public class ParallelOptimizerTest {
+
+	private final SlowQuadratic function = new SlowQuadratic(new Point(0.3, 0.7));
+	private ParallelExecutorCache cache;
+
+	@AfterEach
+	public void tearDown() {
+		if (cache != null) {
+			cache.getExecutor().shutdownNow();
+		}
+	}
+
+	@Test
+	public void testMultidirectionalSearchSingleThread() throws OptimizationException {
+		Point optimum = optimizeMultidirectional(1);
+		assertEquals(0.3, optimum.get(0), 0.01);
+		assertEquals(0.7, optimum.get(1), 0.01);
+		assertEquals(1, function.maxConcurrent.get());
+	}
+
+	@Test
+	public void testMultidirectionalSearchParallel() throws OptimizationException {
+		Point optimum = optimizeMultidirectional(8);
+		assertEquals(0.3, optimum.get(0), 0.01);
+		assertEquals(0.7, optimum.get(1), 0.01);
+		// The reflection and the speculative points are evaluated concurrently
+		assertTrue(function.maxConcurrent.get() > 2, "max concurrent " + function.maxConcurrent.get());
+	}
+
+	@Test
+	public void testGoldenSectionSearchParallel() throws OptimizationException {
+		SlowQuadratic f = new SlowQuadratic(new Point(0.35));
+		cache = new ParallelExecutorCache(8);
+		cache.setFunction(f);
+		GoldenSectionSearchOptimizer optimizer = new GoldenSectionSearchOptimizer(cache);
+		optimizer.optimize(new Point(0.5), (oldPoint, oldValue, newPoint, newValue, stepSize) -> stepSize > 0.001);
+		assertEquals(0.35, optimizer.getOptimumPoint().get(0), 0.002);
+		assertTrue(f.maxConcurrent.get() > 2, "max concurrent " + f.maxConcurrent.get());
+	}
+
+	private Point optimizeMultidirectional(int threads) throws OptimizationException {
+		cache = new ParallelExecutorCache(threads);
+		cache.setFunction(function);
+		MultidirectionalSearchOptimizer optimizer = new MultidirectionalSearchOptimizer(cache);
+		optimizer.optimize(new Point(0.5, 0.5), (oldPoint, oldValue, newPoint, newValue, stepSize) -> stepSize > 0.001);
+		return optimizer.getOptimumPoint();
+	}
+
+	/**
+	 * A quadratic function that takes a while to evaluate and records the number of
+	 * concurrent evaluations.
+	 */
+	private static class SlowQuadratic implements Function {
+		private final Point minimum;
+		private final AtomicInteger concurrent = new AtomicInteger();
+		private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+		SlowQuadratic(Point minimum) {
+			this.minimum = minimum;
+		}
+
+		@Override
+		public double evaluate(Point point) throws InterruptedException {
+			maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(2);
+				return point.sub(minimum).length2();
+			} finally {
+				concurrent.decrementAndGet();
+			}
+		}
+	}
+}
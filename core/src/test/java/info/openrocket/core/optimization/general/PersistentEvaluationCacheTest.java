@@ -0,0 +1,104 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PersistentEvaluationCacheTest {
+
+	private File file;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		file = File.createTempFile("evaluation-cache", ".bin");
+		file.delete();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testPersistence() throws IOException {
+		PersistentEvaluationCache cache = new PersistentEvaluationCache(file, 10);
+		assertNull(cache.get(key(1)));
+		cache.put(key(1), 1.5);
+		cache.put(key(2), Double.NaN);
+		assertEquals(1.5, (double) cache.get(key(1)));
+
+		// Entries are appended to the file before the cache is closed
+		PersistentEvaluationCache reopened = new PersistentEvaluationCache(file, 10);
+		assertEquals(2, reopened.size());
+		assertEquals(1.5, (double) reopened.get(key(1)));
+		assertEquals(Double.NaN, (double) reopened.get(key(2)));
+		assertNull(reopened.get(key(3)));
+		reopened.close();
+		cache.close();
+	}
+
+	@Test
+	public void testLRUEviction() throws IOException {
+		PersistentEvaluationCache cache = new PersistentEvaluationCache(file, 3);
+		cache.put(key(1), 1);
+		cache.put(key(2), 2);
+		cache.put(key(3), 3);
+		cache.get(key(1));
+		cache.put(key(4), 4);
+		assertEquals(3, cache.size());
+		assertNull(cache.get(key(2)));
+		cache.close();
+
+		cache = new PersistentEvaluationCache(file, 3);
+		assertNull(cache.get(key(2)));
+		assertEquals(1.0, (double) cache.get(key(1)));
+		assertEquals(3.0, (double) cache.get(key(3)));
+		assertEquals(4.0, (double) cache.get(key(4)));
+		cache.close();
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+		PersistentEvaluationCache cache = new PersistentEvaluationCache(file, 5);
+		for (int i = 0; i < 100; i++) {
+			cache.put(key(i), i);
+		}
+		// The file holds at most twice the maximum number of entries
+		assertTrue(file.length() <= 8 + 10 * 40);
+		cache.close();
+		assertEquals(8 + 5 * 40, file.length());
+
+		cache = new PersistentEvaluationCache(file, 5);
+		assertEquals(5, cache.size());
+		assertEquals(99.0, (double) cache.get(key(99)));
+		cache.close();
+	}
+
+	@Test
+	public void testInvalidFileIsReplaced() throws IOException {
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("not a cache".getBytes());
+		}
+		PersistentEvaluationCache cache = new PersistentEvaluationCache(file, 5);
+		assertEquals(0, cache.size());
+		cache.put(key(1), 1);
+		cache.close();
+		assertEquals(8 + 40, Files.size(file.toPath()));
+	}
+
+	private static byte[] key(int n) {
+		byte[] key = new byte[PersistentEvaluationCache.KEY_LENGTH];
+		key[0] = (byte) n;
+		key[31] = (byte) (n >> 8);
+		return key;
+	}
+}
@@ -0,0 +1,115 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+
+public class PopulationOptimizerTest {
+
+	private static final Point GLOBAL_MINIMUM = new Point(0.7, 0.3);
+
+	/**
+	 * A Rastrigin-type function with many local minima and the global minimum at
+	 * GLOBAL_MINIMUM.
+	 */
+	private static final Function RASTRIGIN = point -> {
+		double value = 0;
+		for (int i = 0; i < point.dim(); i++) {
+			double x = (point.get(i) - GLOBAL_MINIMUM.get(i)) * 10;
+			value += x * x + 10 * (1 - Math.cos(2 * Math.PI * x));
+		}
+		return value;
+	};
+
+	private ParallelExecutorCache cache;
+
+	@BeforeEach
+	public void setup() {
+		cache = new ParallelExecutorCache(4);
+		cache.setFunction(RASTRIGIN);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testDifferentialEvolutionFindsGlobalMinimum() throws OptimizationException {
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(cache, 42);
+		optimizer.optimize(new Point(0.1, 0.9), new StepLimit(1e-4));
+		assertEquals(0.7, optimizer.getOptimumPoint().get(0), 0.001);
+		assertEquals(0.3, optimizer.getOptimumPoint().get(1), 0.001);
+		assertTrue(optimizer.getStatistics().contains("generationCount="));
+	}
+
+	@Test
+	public void testCMAESFindsGlobalMinimum() throws OptimizationException {
+		CMAESOptimizer optimizer = new CMAESOptimizer(cache, 42);
+		optimizer.setPopulationSize(40);
+		optimizer.optimize(new Point(0.1, 0.9), new StepLimit(1e-4));
+		assertEquals(0.7, optimizer.getOptimumPoint().get(0), 0.001);
+		assertEquals(0.3, optimizer.getOptimumPoint().get(1), 0.001);
+		assertTrue(optimizer.getStatistics().contains("sigma="));
+	}
+
+	@Test
+	public void testMultidirectionalSearchStopsInLocalMinimum() throws OptimizationException {
+		MultidirectionalSearchOptimizer optimizer = new MultidirectionalSearchOptimizer(cache);
+		optimizer.optimize(new Point(0.1, 0.9), new StepLimit(1e-4));
+		assertTrue(optimizer.getOptimumValue() > 1);
+	}
+
+	@Test
+	public void testDeterministicSeeding() throws OptimizationException {
+		DifferentialEvolutionOptimizer de1 = new DifferentialEvolutionOptimizer(cache, 7);
+		de1.optimize(new Point(0.5, 0.5), new StepLimit(1e-3));
+		String statistics = de1.getStatistics();
+		Point optimum = de1.getOptimumPoint();
+
+		cache.clearCache();
+		DifferentialEvolutionOptimizer de2 = new DifferentialEvolutionOptimizer(cache, 7);
+		de2.optimize(new Point(0.5, 0.5), new StepLimit(1e-3));
+		assertEquals(statistics, de2.getStatistics());
+		assertEquals(optimum, de2.getOptimumPoint());
+
+		cache.clearCache();
+		CMAESOptimizer cma1 = new CMAESOptimizer(cache, 7);
+		cma1.optimize(new Point(0.5, 0.5), new StepLimit(1e-3));
+		statistics = cma1.getStatistics();
+		optimum = cma1.getOptimumPoint();
+
+		cache.clearCache();
+		CMAESOptimizer cma2 = new CMAESOptimizer(cache, 7);
+		cma2.optimize(new Point(0.5, 0.5), new StepLimit(1e-3));
+		assertEquals(statistics, cma2.getStatistics());
+		assertEquals(optimum, cma2.getOptimumPoint());
+
+		// Optimizing again with the same instance repeats the search
+		cache.clearCache();
+		cma1.optimize(new Point(0.5, 0.5), new StepLimit(1e-3));
+		assertEquals(optimum, cma1.getOptimumPoint());
+	}
+
+	private static class StepLimit implements OptimizationController {
+		private final double limit;
+		private int steps = 0;
+
+		StepLimit(double limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+			steps++;
+			return stepSize > limit && steps < 1000;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+
+public class SurrogateFunctionCacheTest {
+
+	private final AtomicInteger evaluations = new AtomicInteger();
+	private final Function function = point -> {
+		evaluations.incrementAndGet();
+		double x = point.get(0) - 0.6;
+		double y = point.get(1) - 0.3;
+		return x * x + 2 * y * y + 0.5 * x * y;
+	};
+
+	private ParallelExecutorCache executorCache;
+
+	@BeforeEach
+	public void setup() {
+		executorCache = new ParallelExecutorCache(4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executorCache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testGaussianProcessInterpolation() {
+		List<Point> points = new ArrayList<>();
+		List<Double> values = new ArrayList<>();
+		for (int i = 0; i <= 10; i++) {
+			Point p = new Point(i / 10.0);
+			points.add(p);
+			values.add(Math.sin(p.get(0) * 3));
+		}
+		GaussianProcess gp = new GaussianProcess(points, values);
+
+		// Exact at the samples, accurate and confident in between
+		double[] prediction = gp.predict(new Point(0.5));
+		assertEquals(Math.sin(1.5), prediction[0], 1e-4);
+		prediction = gp.predict(new Point(0.45));
+		assertEquals(Math.sin(1.35), prediction[0], 1e-3);
+		assertTrue(prediction[1] < 1e-2);
+
+		// Uncertain far from the samples
+		prediction = gp.predict(new Point(3.0));
+		assertTrue(prediction[1] > 0.1);
+	}
+
+	@Test
+	public void testScreeningReducesEvaluations() throws OptimizationException {
+		executorCache.setFunction(function);
+		CMAESOptimizer reference = new CMAESOptimizer(executorCache, 3);
+		reference.optimize(new Point(0.1, 0.9), (o, ov, n, nv, step) -> step > 1e-3);
+		int referenceEvaluations = evaluations.getAndSet(0);
+
+		SurrogateFunctionCache surrogate = new SurrogateFunctionCache(executorCache);
+		surrogate.setFunction(function);
+		CMAESOptimizer optimizer = new CMAESOptimizer(surrogate, 3);
+		optimizer.optimize(new Point(0.1, 0.9), (o, ov, n, nv, step) -> step > 1e-3);
+		int surrogateEvaluations = evaluations.get();
+
+		assertEquals(0.6, optimizer.getOptimumPoint().get(0), 0.01);
+		assertEquals(0.3, optimizer.getOptimumPoint().get(1), 0.01);
+		assertTrue(surrogateEvaluations < referenceEvaluations / 2,
+				surrogateEvaluations + " vs " + referenceEvaluations + " " + surrogate.getStatistics());
+	}
+
+	@Test
+	public void testScreenedValuesAreWorseThanBest() throws Exception {
+		SurrogateFunctionCache surrogate = new SurrogateFunctionCache(executorCache);
+		surrogate.setFunction(function);
+		List<Point> grid = new ArrayList<>();
+		for (int i = 0; i <= 4; i++) {
+			for (int j = 0; j <= 4; j++) {
+				grid.add(new Point(i / 4.0, j / 4.0));
+			}
+		}
+		surrogate.compute(grid);
+		surrogate.waitFor(grid);
+		assertEquals(25, evaluations.get());
+
+		double best = Double.MAX_VALUE;
+		for (Point p : grid) {
+			best = Math.min(best, surrogate.getValue(p));
+		}
+
+		Point far = new Point(0.05, 0.95);
+		surrogate.compute(far);
+		surrogate.waitFor(far);
+		assertEquals(25, evaluations.get());
+		assertTrue(surrogate.getValue(far) > best);
+		assertTrue(surrogate.abort(far));
+
+		Point near = new Point(0.6, 0.3);
+		surrogate.compute(near);
+		surrogate.waitFor(near);
+		assertEquals(26, evaluations.get());
+		assertEquals(0, surrogate.getValue(near), 1e-12);
+	}
+}
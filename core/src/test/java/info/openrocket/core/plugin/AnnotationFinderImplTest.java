@@ -0,0 +1,50 @@
+package info.openrocket.core.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AnnotationFinderImplTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testIndexedTypes() throws IOException {
+		Path index = tempDir.resolve(AnnotationFinderImpl.INDEX_DIRECTORY + Plugin.class.getName());
+		Files.createDirectories(index.getParent());
+		Files.write(index, List.of(
+				ExamplePluginImpl.class.getName(),
+				NotAnExamplePluginImpl.class.getName(),
+				"info.openrocket.core.plugin.MissingPluginImpl",
+				""), StandardCharsets.UTF_8);
+
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { tempDir.toUri().toURL() },
+				AnnotationFinderImplTest.class.getClassLoader())) {
+			thread.setContextClassLoader(loader);
+			List<Class<?>> classes = new AnnotationFinderImpl().findAnnotatedTypes(Plugin.class);
+
+			assertTrue(classes.contains(ExamplePluginImpl.class));
+			// Stale index entries are ignored
+			assertFalse(classes.contains(NotAnExamplePluginImpl.class));
+			for (Class<?> c : classes) {
+				assertTrue(c.isAnnotationPresent(Plugin.class), c.getName());
+			}
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class RocketSnapshotTest extends BaseTestCase {
+
+	@Test
+	public void testUnmodifiedComponentsAreShared() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		RocketSnapshot first = RocketSnapshot.capture(rocket, null, new HashSet<>());
+		int count = first.getComponentCount();
+		assertEquals(count, first.getCopiedComponentCount());
+
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		nose.setLength(0.2);
+		Set<UUID> modified = new HashSet<>();
+		modified.add(rocket.getID());
+		modified.add(rocket.getChild(0).getID());
+		modified.add(nose.getID());
+		RocketSnapshot second = RocketSnapshot.capture(rocket, first, modified);
+
+		assertEquals(count, second.getComponentCount());
+		assertEquals(3, second.getCopiedComponentCount());
+		assertEquals(rocket.getModID(), second.getModID());
+	}
+
+	@Test
+	public void testSnapshotRestoresState() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfigurationId fcid = rocket.getSelectedConfiguration().getId();
+		double length = ((NoseCone) rocket.getChild(0).getChild(0)).getLength();
+		RocketSnapshot snapshot = RocketSnapshot.capture(rocket, null, new HashSet<>());
+
+		((NoseCone) rocket.getChild(0).getChild(0)).setLength(0.2);
+
+		Rocket restored = snapshot.toRocket();
+		assertNotSame(rocket.getChild(0), restored.getChild(0));
+		assertEquals(rocket.getChild(0).getID(), restored.getChild(0).getID());
+		assertEquals(length, ((NoseCone) restored.getChild(0).getChild(0)).getLength(), 0);
+		assertEquals(rocket.getStageCount(), restored.getStageCount());
+		assertEquals(fcid, restored.getSelectedConfiguration().getId());
+		assertEquals(rocket.getFlightConfigurationCount(), restored.getFlightConfigurationCount());
+		assertTrue(restored.getSelectedConfiguration().isStageActive(0));
+
+		// Assembling does not consume the snapshot
+		Rocket again = snapshot.toRocket();
+		assertNotSame(restored.getChild(0), again.getChild(0));
+		assertEquals(length, ((NoseCone) again.getChild(0).getChild(0)).getLength(), 0);
+	}
+
+	@Test
+	public void testDocumentUndoRedo() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		double length = ((NoseCone) rocket.getChild(0).getChild(0)).getLength();
+
+		document.addUndoPosition("Modify nose cone");
+		((NoseCone) rocket.getChild(0).getChild(0)).setLength(0.2);
+		document.addUndoPosition("Modify body tube");
+		((BodyTube) rocket.getChild(0).getChild(1)).setLength(0.5);
+		document.addUndoPosition("Remove nose cone");
+		rocket.getChild(0).removeChild(0);
+
+		document.undo();
+		assertEquals(2, rocket.getChild(0).getChildCount());
+		assertEquals(0.5, ((BodyTube) rocket.getChild(0).getChild(1)).getLength(), 0);
+		document.undo();
+		assertEquals(0.2, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+		assertEquals("Modify body tube", document.getRedoDescription());
+		document.undo();
+		assertEquals(length, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+		assertFalse(document.isUndoAvailable());
+
+		document.redo();
+		document.redo();
+		assertEquals(0.2, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+		assertEquals(0.5, ((BodyTube) rocket.getChild(0).getChild(1)).getLength(), 0);
+		document.redo();
+		assertEquals(1, rocket.getChild(0).getChildCount());
+		assertFalse(document.isRedoAvailable());
+	}
+}
@@ -1,6 +1,7 @@
 package info.openrocket.core.simulation;
 
 import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.LinearInterpolator;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -45,4 +46,62 @@ class DataBranchViewTest extends BaseTestCase {
 		List<Double> view = branch.get(FlightDataType.TYPE_VELOCITY_TOTAL);
 		assertNull(view);
 	}
+
+	@Test
+	void columnsGrowAndBackfillNewTypes() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 100; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.01);
+		}
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, 5.0);
+
+		assertEquals(100, branch.getLength());
+		assertEquals(0.99, branch.getLast(FlightDataType.TYPE_TIME), 1e-12);
+		assertEquals(0.0, branch.getMinimum(FlightDataType.TYPE_TIME), 0);
+		assertEquals(0.99, branch.getMaximum(FlightDataType.TYPE_TIME), 1e-12);
+
+		double[] altitude = branch.toArray(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(100, altitude.length);
+		assertTrue(Double.isNaN(altitude[0]));
+		assertEquals(5.0, altitude[99]);
+		assertEquals(5.0, branch.getValue(FlightDataType.TYPE_ALTITUDE, 99));
+	}
+
+	@Test
+	void cloneIsIndependentAndKeepsModID() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 1.0);
+
+		FlightDataBranch clone = branch.clone();
+		assertEquals(branch.getModID(), clone.getModID());
+
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 2.0);
+
+		assertEquals(1, clone.getLength());
+		assertEquals(1.0, clone.getLast(FlightDataType.TYPE_TIME));
+		assertNotEquals(branch.getModID(), clone.getModID());
+	}
+
+	@Test
+	void interpolateInColumnMatchesLinearInterpolator() {
+		double[] times = { 0, 0.5, 0.5, 1.0, 2.0, 2.0, 3.5 };
+		double[] values = { 1, 3, 4, -2, 8, 5, 6 };
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < times.length; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, times[i]);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, values[i]);
+		}
+		LinearInterpolator interpolator = new LinearInterpolator(times, values);
+
+		int time = branch.getColumnIndex(FlightDataType.TYPE_TIME);
+		int altitude = branch.getColumnIndex(FlightDataType.TYPE_ALTITUDE);
+		for (double t = -0.5; t <= 4; t += 0.125) {
+			assertEquals(interpolator.getValue(t), branch.interpolateInColumn(time, altitude, t), 1e-12, "t=" + t);
+		}
+		assertTrue(Double.isNaN(branch.interpolateInColumn(time, altitude, Double.NaN)));
+	}
 }
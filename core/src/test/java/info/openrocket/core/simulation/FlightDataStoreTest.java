@@ -0,0 +1,124 @@
+package info.openrocket.core.simulation;
+
+import info.openrocket.core.util.BaseTestCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightDataStoreTest extends BaseTestCase {
+
+	private static final int POINTS = 20000;
+
+	@AfterEach
+	void restoreBudget() {
+		FlightDataStore.getInstance().setBudget(0);
+	}
+
+	@Test
+	void releasedBranchesAreReloadedOnAccess() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		store.setBudget(2L * POINTS * 2 * Double.BYTES);
+
+		List<FlightDataBranch> branches = new ArrayList<>();
+		for (int n = 0; n < 5; n++) {
+			FlightDataBranch branch = createBranch(n);
+			new FlightData(branch).storeData();
+			branches.add(branch);
+		}
+
+		assertTrue(store.getResidentSize() <= store.getBudget());
+		store.awaitReleases();
+		long released = branches.stream().filter(b -> !b.isResident()).count();
+		assertTrue(released >= 3, "Branches beyond the budget should be released");
+
+		for (int n = 0; n < branches.size(); n++) {
+			FlightDataBranch branch = branches.get(n);
+			assertEquals(POINTS, branch.getLength());
+			assertEquals(n, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+			List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+			assertEquals(POINTS, time.size());
+			for (int i = 0; i < POINTS; i += 997) {
+				assertEquals(i * 0.01, time.get(i), 0);
+				assertEquals(n + i, branch.getValue(FlightDataType.TYPE_ALTITUDE, i), 0);
+			}
+			assertTrue(store.getResidentSize() <= store.getBudget());
+			store.awaitReleases();
+		}
+
+		// Copies of a released branch contain all of its data
+		FlightDataBranch released0 = branches.stream().filter(b -> !b.isResident()).findFirst().orElseThrow();
+		FlightDataBranch copy = released0.clone();
+		assertArrayEquals(released0.toArray(FlightDataType.TYPE_ALTITUDE), copy.toArray(FlightDataType.TYPE_ALTITUDE));
+	}
+
+	@Test
+	void filesAreDeletedWhenReloaded() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		store.setBudget(1);
+
+		FlightDataBranch first = createBranch(0);
+		FlightDataBranch second = createBranch(1);
+		new FlightData(first).storeData();
+		new FlightData(second).storeData();
+		store.awaitReleases();
+		assertFalse(first.isResident());
+		assertFalse(second.isResident());
+
+		File file = first.storeEntry.getFile();
+		assertNotNull(file);
+		assertTrue(file.isFile());
+		assertEquals(file.getParentFile(), second.storeEntry.getFile().getParentFile(),
+				"Files should be written to the same directory");
+
+		assertEquals(1, first.getValue(FlightDataType.TYPE_ALTITUDE, 1), 0);
+		assertFalse(file.exists(), "The file of a reloaded branch should be deleted");
+	}
+
+	@Test
+	void mutableBranchesAreNotReleased() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		store.setBudget(1);
+
+		FlightDataBranch branch = new FlightDataBranch("mutable", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < POINTS; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+		assertTrue(branch.isResident());
+		assertThrows(IllegalStateException.class, () -> store.register(branch));
+	}
+
+	@Test
+	void unstoredBranchesAreNotRegistered() {
+		FlightDataStore store = FlightDataStore.getInstance();
+		store.setBudget(1);
+
+		long resident = store.getResidentSize();
+		FlightData data = new FlightData(createBranch(0));
+		data.immute();
+		assertTrue(store.getResidentSize() <= resident, "Unstored branches should not count toward the budget");
+
+		data.storeData();
+		store.awaitReleases();
+		assertFalse(data.getBranch(0).isResident());
+		assertEquals(0, data.getBranch(0).getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(POINTS - 1, data.getBranch(0).getValue(FlightDataType.TYPE_ALTITUDE, POINTS - 1), 0);
+	}
+
+	private static FlightDataBranch createBranch(int n) {
+		FlightDataBranch branch = new FlightDataBranch("branch " + n, FlightDataType.TYPE_TIME,
+				FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < POINTS; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.01);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, n + i);
+		}
+		branch.immute();
+		return branch;
+	}
+}
@@ -1,9 +1,12 @@
 package info.openrocket.core.simulation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.jupiter.api.Test;
 
 import info.openrocket.core.logging.WarningSet;
@@ -100,6 +103,38 @@ public class FlightDataTest {
 		assertEquals(2, data.getBranchCount());
 	}
 
+	/**
+	 * Tests that the warnings and the calculated summary values of flight data whose data
+	 * points are still being loaded are returned once the loading has completed.
+	 */
+	@Test
+	public void testPendingDataAccessedBeforeLoaded() throws InterruptedException {
+		final FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_ALTITUDE);
+		FlightData data = new FlightData();
+		data.addBranch(branch);
+		final WarningSet loadWarnings = new WarningSet();
+		final CompletableFuture<Void> loading = new CompletableFuture<>();
+		data.setPendingData(loading, loadWarnings, true);
+		assertFalse(data.isDataAvailable());
+
+		Thread loader = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException ignore) {
+			}
+			addDataPoints(branch, FlightDataType.TYPE_ALTITUDE, new double[] { 10.5, 42.0, 5.1 });
+			loadWarnings.add("Loading warning");
+			loading.complete(null);
+		});
+		loader.start();
+
+		assertEquals(42.0, data.getMaxAltitude(), 0.000);
+		assertEquals(1, data.getWarningSet().size());
+		assertFalse(data.isMutable());
+		assertTrue(data.isDataAvailable());
+		loader.join();
+	}
+
 	private FlightDataBranch createFlightDataBranch(final String name, final FlightDataType dataType,
 			final double[] values) {
 		final FlightDataBranch branch = new FlightDataBranch(name, dataType);
@@ -0,0 +1,98 @@
+package info.openrocket.core.simulation;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.MonteCarloResults.Value;
+import info.openrocket.core.simulation.MonteCarloRunner.Parameter;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class MonteCarloRunnerTest extends BaseTestCase {
+
+	private static Simulation createSimulation() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation sim = new Simulation(rocket);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		return sim;
+	}
+
+	private static MonteCarloRunner createRunner(Simulation sim, int trials) {
+		MonteCarloRunner runner = new MonteCarloRunner(sim, trials);
+		runner.setSeed(42);
+		runner.setDispersion(Parameter.WIND_SPEED, Dispersion.normal(0, 1));
+		runner.setDispersion(Parameter.LAUNCH_ROD_ANGLE, Dispersion.uniform(0, Math.toRadians(5)));
+		runner.setDispersion(Parameter.THRUST_SCALE, Dispersion.truncatedNormal(1, 0.05, 3));
+		runner.setDispersion(Parameter.DRAG_SCALE, Dispersion.normal(1, 0.05));
+		runner.setDispersion(Parameter.MASS_SCALE, Dispersion.normal(1, 0.02));
+		return runner;
+	}
+
+	/**
+	 * Tests that every trial produces a summary and that the dispersions produce a spread.
+	 */
+	@Test
+	public void testRun() {
+		MonteCarloRunner runner = createRunner(createSimulation(), 8);
+		runner.setParallelism(2);
+		MonteCarloResults results = runner.run();
+
+		assertEquals(8, results.getTrialCount());
+		assertEquals(8, runner.getCompletedTrials());
+		assertEquals(0, results.getFailedCount());
+		for (int i = 0; i < results.getTrialCount(); i++) {
+			assertFalse(results.isFailed(i));
+			assertTrue(results.get(Value.APOGEE, i) > 0);
+			assertTrue(results.get(Value.MAX_VELOCITY, i) > 0);
+			assertFalse(Double.isNaN(results.get(Value.LANDING_X, i)));
+		}
+		assertTrue(results.getStandardDeviation(Value.APOGEE) > 0);
+		assertTrue(results.getPercentile(Value.APOGEE, 0) <= results.getPercentile(Value.APOGEE, 50));
+		assertTrue(results.getPercentile(Value.APOGEE, 50) <= results.getPercentile(Value.APOGEE, 100));
+	}
+
+	/**
+	 * Tests that the results do not depend on the number of threads used.
+	 */
+	@Test
+	public void testReproducible() {
+		Simulation sim = createSimulation();
+
+		MonteCarloRunner serial = createRunner(sim, 4);
+		serial.setParallelism(1);
+		MonteCarloResults serialResults = serial.run();
+
+		MonteCarloRunner parallel = createRunner(sim, 4);
+		parallel.setParallelism(4);
+		MonteCarloResults parallelResults = parallel.run();
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(serialResults.getSample(Parameter.THRUST_SCALE, i),
+					parallelResults.getSample(Parameter.THRUST_SCALE, i), 0);
+			assertEquals(serialResults.get(Value.APOGEE, i), parallelResults.get(Value.APOGEE, i), 1e-9);
+			assertEquals(serialResults.get(Value.LANDING_Y, i), parallelResults.get(Value.LANDING_Y, i), 1e-9);
+		}
+	}
+
+	@Test
+	public void testDispersion() {
+		Random random = new Random(0);
+		Dispersion d = Dispersion.truncatedNormal(10, 2, 1.5);
+		for (int i = 0; i < 1000; i++) {
+			double v = d.sample(random);
+			assertTrue(v >= 7 && v <= 13);
+		}
+		assertEquals(5.0, Dispersion.fixed(5).sample(random), 0);
+		assertEquals(1.5, Dispersion.uniform(1, 2).getMean(), 0);
+	}
+
+}
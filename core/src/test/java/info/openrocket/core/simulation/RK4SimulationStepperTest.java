@@ -0,0 +1,155 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.CoordinateIF;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.TestRockets;
+
+public class RK4SimulationStepperTest extends BaseTestCase {
+	private static final double EPSILON = 1e-12;
+
+	private static final double[] K = { 1, 0.5, 40, -0.2, 0.1, -9.8, 0.01, -0.02, 0.5, 0.3, -0.1, 2 };
+
+	/**
+	 * Tests that the intermediate states are computed into the reused copy of the status.
+	 */
+	@Test
+	public void testIntermediateState() {
+		RK4SimulationStepper stepper = new RK4SimulationStepper();
+		SimulationStatus status = createStatus();
+		CoordinateIF position = status.getRocketPosition();
+		Quaternion orientation = status.getRocketOrientationQuaternion();
+
+		SimulationStatus intermediate = stepper.startStep(status);
+		stepper.setIntermediateState(status, K, 0.1, 0.05);
+
+		assertEquals(10.05, intermediate.getSimulationTime(), EPSILON);
+		assertCoordinate(new Coordinate(5.1, 2.05, 154), intermediate.getRocketPosition());
+		assertCoordinate(new Coordinate(0.98, 0.51, 39.02), intermediate.getRocketVelocity());
+		assertCoordinate(new Coordinate(0.03, 0.01, 0.7), intermediate.getRocketRotationVelocity());
+		Quaternion expected = orientation.multiplyLeft(Quaternion.rotation(new Coordinate(0.001, -0.002, 0.05)));
+		Quaternion actual = intermediate.getRocketOrientationQuaternion();
+		assertEquals(expected.getW(), actual.getW(), EPSILON);
+		assertEquals(expected.getX(), actual.getX(), EPSILON);
+		assertEquals(expected.getY(), actual.getY(), EPSILON);
+		assertEquals(expected.getZ(), actual.getZ(), EPSILON);
+
+		// The status at the start of the step is unchanged, and the copy is reused
+		assertEquals(10, status.getSimulationTime(), 0);
+		assertSame(position, status.getRocketPosition());
+		assertSame(orientation, status.getRocketOrientationQuaternion());
+		assertSame(intermediate, stepper.startStep(status));
+		assertSame(position, intermediate.getRocketPosition());
+	}
+
+	/**
+	 * Tests that the values given to a computation listener are not changed by the later
+	 * intermediate states of a step.
+	 */
+	@Test
+	public void testIntermediateStateKeptByListener() throws SimulationException {
+		List<Quaternion> orientations = new ArrayList<>();
+		List<CoordinateIF> velocities = new ArrayList<>();
+		List<CoordinateIF> copies = new ArrayList<>();
+		RK4SimulationStepper stepper = new RK4SimulationStepper();
+		SimulationStatus status = createStatus();
+		status.getSimulationConditions().getSimulationListenerList().add(new AbstractSimulationListener() {
+			@Override
+			public AccelerationData preAccelerationCalculation(SimulationStatus s) {
+				orientations.add(s.getRocketOrientationQuaternion());
+				velocities.add(s.getRocketVelocity());
+				copies.add(new Coordinate(s.getRocketVelocity().getX(), s.getRocketVelocity().getY(),
+						s.getRocketVelocity().getZ()));
+				return null;
+			}
+		});
+
+		SimulationStatus intermediate = stepper.startStep(status);
+		Quaternion[] expected = new Quaternion[3];
+		double[] h = { 0.05, 0.05, 0.1 };
+		for (int i = 0; i < h.length; i++) {
+			stepper.setIntermediateState(status, K, h[i], h[i]);
+			expected[i] = status.getRocketOrientationQuaternion()
+					.multiplyLeft(Quaternion.rotation(new Coordinate(K[6] * h[i], K[7] * h[i], K[8] * h[i])));
+			SimulationListenerHelper.firePreAccelerationCalculation(intermediate);
+		}
+
+		assertEquals(3, orientations.size());
+		for (int i = 0; i < h.length; i++) {
+			assertEquals(expected[i].getW(), orientations.get(i).getW(), EPSILON);
+			assertEquals(expected[i].getX(), orientations.get(i).getX(), EPSILON);
+			assertEquals(expected[i].getY(), orientations.get(i).getY(), EPSILON);
+			assertEquals(expected[i].getZ(), orientations.get(i).getZ(), EPSILON);
+			assertCoordinate(copies.get(i), velocities.get(i));
+		}
+	}
+
+	/**
+	 * Tests that computing the intermediate states of steps allocates no memory other than
+	 * the immutable orientation of each state.
+	 */
+	@Test
+	public void testIntermediateStateAllocation() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+
+		RK4SimulationStepper stepper = new RK4SimulationStepper();
+		SimulationStatus status = createStatus();
+		final int steps = 100000;
+		for (int i = 0; i < steps; i++) {
+			takeIntermediateSteps(stepper, status);
+		}
+
+		long before = bean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < steps; i++) {
+			takeIntermediateSteps(stepper, status);
+		}
+		long allocated = bean.getCurrentThreadAllocatedBytes() - before;
+
+		// Each of the three states of a step allocates one quaternion of at most 64 bytes
+		assertTrue(allocated < steps * 3 * 64,
+				"Intermediate states allocated " + allocated + " bytes in " + steps + " steps");
+	}
+
+	private static void takeIntermediateSteps(RK4SimulationStepper stepper, SimulationStatus status) {
+		stepper.startStep(status);
+		stepper.setIntermediateState(status, K, 0.005, 0.005);
+		stepper.setIntermediateState(status, K, 0.005, 0.005);
+		stepper.setIntermediateState(status, K, 0.01, 0.01);
+	}
+
+	private static SimulationStatus createStatus() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		status.setSimulationTime(10);
+		status.setRocketPosition(new Coordinate(5, 2, 150));
+		status.setRocketVelocity(new Coordinate(1, 0.5, 40));
+		status.setRocketRotationVelocity(new Coordinate(0, 0.02, 0.5));
+		return status;
+	}
+
+	private static void assertCoordinate(CoordinateIF expected, CoordinateIF actual) {
+		assertEquals(expected.getX(), actual.getX(), EPSILON);
+		assertEquals(expected.getY(), actual.getY(), EPSILON);
+		assertEquals(expected.getZ(), actual.getZ(), EPSILON);
+	}
+}
@@ -0,0 +1,100 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class SharedRocketTest extends BaseTestCase {
+
+	private static Simulation createSimulation(Rocket rocket) {
+		Simulation sim = new Simulation(rocket);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().setRandomSeed(1234);
+		return sim;
+	}
+
+	/**
+	 * Tests that simulating a shared snapshot gives the same result as simulating a private copy.
+	 */
+	@Test
+	public void testSharedRocketSimulation() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation reference = createSimulation(rocket);
+		reference.simulate();
+		double apogee = reference.getSimulatedData().getMaxAltitude();
+
+		SharedRocket shared = SharedRocket.of(rocket);
+		assertNotSame(rocket, shared.getRocket());
+		assertTrue(shared.isSnapshotOf(rocket));
+
+		Simulation sim = createSimulation(rocket);
+		sim.simulate(shared);
+		assertEquals(apogee, sim.getSimulatedData().getMaxAltitude(), 0);
+	}
+
+	/**
+	 * Tests that several simulations can share a snapshot concurrently.
+	 */
+	@Test
+	public void testConcurrentSimulations() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation reference = createSimulation(rocket);
+		reference.simulate();
+		double apogee = reference.getSimulatedData().getMaxAltitude();
+
+		SharedRocket shared = SharedRocket.of(rocket);
+		List<Simulation> simulations = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			simulations.add(reference.duplicateSimulation(shared.getRocket()));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> results = new ArrayList<>();
+			for (Simulation sim : simulations) {
+				results.add(executor.submit(() -> {
+					sim.simulate(shared);
+					return sim.getSimulatedData().getMaxAltitude();
+				}));
+			}
+			for (Future<Double> result : results) {
+				assertEquals(apogee, result.get(), 0);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that a snapshot is rejected after the rocket has been modified.
+	 */
+	@Test
+	public void testStaleSnapshot() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		rocket.enableEvents();
+		SharedRocket shared = SharedRocket.of(rocket);
+
+		rocket.getStage(0).getChild(0).setName("Modified nose cone");
+		assertFalse(shared.isSnapshotOf(rocket));
+
+		Simulation sim = createSimulation(rocket);
+		assertThrows(IllegalArgumentException.class, () -> sim.simulate(shared));
+	}
+}
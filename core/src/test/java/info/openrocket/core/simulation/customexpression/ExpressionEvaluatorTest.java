@@ -0,0 +1,107 @@
+package info.openrocket.core.simulation.customexpression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class ExpressionEvaluatorTest extends BaseTestCase {
+
+	/**
+	 * Tests that compiled expressions give the same results as the interpreter.
+	 */
+	@Test
+	public void testCompiledExpressions() throws Exception {
+		String[] expressions = { "2*x+y^2-3%2", "-x/4+sqrt(y)*round(2.6)", "abs(-x)-cos(y)+log10(100)", "x", "3" };
+		for (String expression : expressions) {
+			Calculable calc = new ExpressionBuilder(expression)
+					.withVariable(new Variable("x", 1.5))
+					.withVariable(new Variable("y", 4))
+					.withVariable(new Variable("z", 9))
+					.build();
+			CompiledExpression compiled = calc.compile();
+
+			// Only the variables used by the expression are bound
+			String[] names = compiled.getVariableNames();
+			assertArrayEquals(calc.getUsedVariableNames(), names);
+			double[] values = new double[names.length];
+			for (int i = 0; i < names.length; i++) {
+				values[i] = names[i].equals("x") ? 1.5 : 4;
+			}
+			assertEquals(calc.calculate().getDoubleValue(), compiled.calculate(values), 0, expression);
+		}
+	}
+
+	/**
+	 * Tests that expressions using custom functions are interpreted.
+	 */
+	@Test
+	public void testInterpretedExpressions() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+
+		CustomExpression kinetic = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2");
+		ExpressionEvaluator evaluator = kinetic.compile();
+		assertTrue(evaluator.isCompiled());
+		assertEquals(kinetic.getType(), evaluator.getType());
+
+		CustomExpression average = new CustomExpression(doc, "Average mass", "Mavg", "kg", "mean(m[0:t])");
+		assertFalse(average.compile().isCompiled());
+	}
+
+	/**
+	 * Tests that time-indexed variables and ranges give the same results as the sub-expressions.
+	 */
+	@Test
+	public void testIndexAndRangeExpressions() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		SimulationConditions conditions = new SimulationConditions();
+		conditions.setSimulation(new Simulation(rocket));
+		SimulationStatus status = new SimulationStatus(rocket.getFlightConfiguration(TestRockets.TEST_FCID_0),
+				conditions);
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		status.setFlightDataBranch(branch);
+
+		CustomExpression index = new CustomExpression(doc, "Delayed altitude", "hd", "m", "2*h[t-0.05]");
+		CustomExpression range = new CustomExpression(doc, "Mean altitude", "hm", "m", "mean(h[0.02:t-0.01])");
+		ExpressionEvaluator indexEvaluator = index.compile();
+		ExpressionEvaluator rangeEvaluator = range.compile();
+		assertTrue(indexEvaluator.isCompiled());
+
+		for (int i = 0; i < 50; i++) {
+			double t = i * 0.01;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 10 * t - t * t);
+
+			double delayed = Math.max(t - 0.05, 0);
+			assertEquals(2 * (10 * delayed - delayed * delayed), indexEvaluator.evaluate(status), 1e-9);
+			assertEquals(index.evaluateDouble(status), indexEvaluator.evaluate(status), 1e-12);
+			assertEquals(range.evaluateDouble(status), rangeEvaluator.evaluate(status), 1e-12);
+		}
+	}
+
+	@Test
+	public void testInvalidExpression() throws Exception {
+		Calculable calc = new ExpressionBuilder("x+").withVariable(new Variable("x", 1)).build();
+		assertNull(calc.compile());
+	}
+}
@@ -2,9 +2,16 @@ package info.openrocket.core.simulation.extension.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import info.openrocket.core.startup.MockPreferences;
 
+import java.util.Set;
+
+import javax.script.ScriptException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -72,6 +79,28 @@ public class TestScriptingUtil {
 		assertFalse(util.isTrustedScript("JavaScript", "foobar"));
 	}
 
+	@Test
+	public void testPrepareScript() throws Exception {
+		String script = "var count = 0;\nfunction preStep(status) { count++; return true; }\nfunction helper() {}";
+		ScriptEnginePool.PreparedScript first = util.prepareScript("JavaScript", script);
+		ScriptEnginePool.PreparedScript second = util.prepareScript("JavaScript", script);
+		assertEquals(Set.of("preStep"), first.getHooks());
+
+		// Each simulation gets its own engine with its own script state
+		assertNotSame(first.getEngine(), second.getEngine());
+		first.getEngine().eval("count = 5;");
+		assertEquals(0, ((Number) second.getEngine().get("count")).intValue());
+
+		assertNull(util.prepareScript("foobar", script));
+		assertThrows(ScriptException.class, () -> util.prepareScript("JavaScript", "function {"));
+	}
+
+	@Test
+	public void testDeclaredHooks() throws Exception {
+		String script = "var listenerHooks = ['postStep'];\nfunction preStep(status) { return true; }\nfunction postStep(status) {}";
+		assertEquals(Set.of("postStep"), util.prepareScript("JavaScript", script).getHooks());
+	}
+
 	@Test
 	public void testNormalize() {
 		assertEquals(ScriptingUtil.normalize("foo"), "foo");
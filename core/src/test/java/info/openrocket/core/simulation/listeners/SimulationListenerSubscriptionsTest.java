@@ -0,0 +1,57 @@
+package info.openrocket.core.simulation.listeners;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.SimulationListenerSubscriptions.Hook;
+
+public class SimulationListenerSubscriptionsTest {
+
+	private static class StepListener extends AbstractSimulationListener {
+		@Override
+		public void postStep(SimulationStatus status) {
+		}
+	}
+
+	private static class SubclassListener extends StepListener {
+		@Override
+		public double preGravityModel(SimulationStatus status) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Tests that listeners are only subscribed to the methods they override.
+	 */
+	@Test
+	public void testOverriddenMethods() {
+		SimulationListener step = new StepListener();
+		SimulationListener subclass = new SubclassListener();
+		SimulationListener empty = new AbstractSimulationListener();
+
+		assertTrue(step.isImplemented("postStep"));
+		assertFalse(step.isImplemented("preStep"));
+		assertFalse(empty.isImplemented("postStep"));
+		assertTrue(subclass.isImplemented("postStep"));
+		assertTrue(subclass.isImplemented("preGravityModel"));
+
+		List<SimulationListener> listeners = new ArrayList<>(List.of(step, empty, subclass));
+		SimulationListenerSubscriptions subscriptions = SimulationListenerSubscriptions.of(listeners);
+		assertArrayEquals(new SimulationListener[] { step, subclass }, subscriptions.get(Hook.POST_STEP));
+		assertArrayEquals(new SimulationListener[] { subclass }, subscriptions.get(Hook.PRE_GRAVITY_MODEL));
+		assertEquals(0, subscriptions.get(Hook.PRE_STEP).length);
+		assertEquals(0, subscriptions.get(Hook.POST_WIND_MODEL).length);
+
+		assertTrue(subscriptions.isValidFor(listeners));
+		listeners.add(new StepListener());
+		assertFalse(subscriptions.isValidFor(listeners));
+	}
+}
@@ -5,6 +5,7 @@ import java.awt.event.ActionListener;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -34,6 +35,8 @@ public class StorageOptionChooser extends JPanel implements OptionChooser {
 	private JRadioButton someButton;
 	private JRadioButton noneButton;
 	
+	private JCheckBox binaryCheck;
+	
 	private JSpinner timeSpinner;
 
 	private JLabel infoLabel;
@@ -71,6 +74,11 @@ public class StorageOptionChooser extends JPanel implements OptionChooser {
 		buttonGroup.add(allButton);
 		allButton.addActionListener(actionUpdater);
 		this.add(allButton, "spanx, wrap rel");
+		
+		//// Compact binary format
+		binaryCheck = new JCheckBox(trans.get("StorageOptChooser.checkbox.Binary"));
+		binaryCheck.setToolTipText(trans.get("StorageOptChooser.checkbox.Binary.ttip"));
+		this.add(binaryCheck, "gapleft para, spanx, wrap rel");
 				
 		//// Only summary data
 		noneButton = new JRadioButton(trans.get("StorageOptChooser.rdbut.Onlysummarydata"));
@@ -106,16 +114,20 @@ public class StorageOptionChooser extends JPanel implements OptionChooser {
 			noneButton.setSelected(true);
 		}
 		
+		binaryCheck.setSelected(opts.getSaveSimulationDataBinary());
+		
 		updateInfoLabel();
 	}
 	
 	
 	public void storeOptions(StorageOptions opts) {
 		opts.setSaveSimulationData(allButton.isSelected());
+		opts.setSaveSimulationDataBinary(binaryCheck.isSelected());
 		opts.setExplicitlySet(true);
 	}
 
 	private void updateInfoLabel() {
+		binaryCheck.setEnabled(allButton.isSelected());
 		if (allButton.isSelected()) {
 			infoLabel.setText(trans.get("StorageOptChooser.lbl.info1"));
 		} else if (noneButton.isSelected()) {
@@ -3,14 +3,17 @@ package info.openrocket.swing.gui.dialogs.motor.thrustcurve;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import javax.swing.RowFilter;
 import javax.swing.table.TableModel;
 
 import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.motor.Manufacturer;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.motor.ThrustCurveMotor;
@@ -46,6 +49,13 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 	// Collection of strings which match text in the motor
 	private List<String> searchTerms = Collections.<String> emptyList();
 
+	// The database used to look up the search terms, or null to check every motor set
+	private final ThrustCurveMotorSetDatabase database;
+	private final Set<ThrustCurveMotorSet> indexedMotorSets;
+
+	// For each search term, the motor sets of the database whose text columns contain it
+	private List<Set<ThrustCurveMotorSet>> searchTermMatches = Collections.emptyList();
+
 	// Boolean which hides motors in the usedMotors list
 	private boolean hideUsedMotors = false;
 
@@ -61,8 +71,22 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 
 	public MotorRowFilter(ThrustCurveMotorDatabaseModel model) {
+		this(model, null);
+	}
+
+	/**
+	 * Construct a filter which uses the index of a motor database to match the search terms.
+	 * The model may contain motor sets that are not in the database.
+	 *
+	 * @param model		the table model.
+	 * @param database	the motor database, or <code>null</code> to check the search terms
+	 * 					against each motor set.
+	 */
+	public MotorRowFilter(ThrustCurveMotorDatabaseModel model, ThrustCurveMotorSetDatabase database) {
 		super();
 		this.model = model;
+		this.database = database;
+		this.indexedMotorSets = (database != null) ? new HashSet<>(database.getMotorSets()) : Collections.emptySet();
 	}
 
 	public void setMotorMount( MotorMount mount ) {
@@ -79,10 +103,14 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 	public void setSearchTerms(final List<String> searchTerms) {
 		this.searchTerms = new ArrayList<>();
+		this.searchTermMatches = new ArrayList<>();
 		for (String s : searchTerms) {
 			s = s.trim().toLowerCase(Locale.getDefault());
 			if (s.length() > 0) {
 				this.searchTerms.add(s);
+				if (database != null) {
+					this.searchTermMatches.add(new HashSet<>(database.findMotorSets(s)));
+				}
 			}
 		}
 	}
@@ -216,14 +244,29 @@ public class MotorRowFilter extends RowFilter<TableModel, Integer> implements Ch
 
 
 	private boolean filterByString(ThrustCurveMotorSet m) {
-		main: for (String s : searchTerms) {
+		// The text columns of the motor sets in the database were looked up from its index,
+		// only the other columns and motor sets not in the database are checked here
+		final boolean indexed = indexedMotorSets.contains(m);
+		main: for (int i = 0; i < searchTerms.size(); i++) {
+			String s = searchTerms.get(i);
+			if (indexed && searchTermMatches.get(i).contains(m)) {
+				continue main;
+			}
+
 			for (ThrustCurveMotorColumns col : ThrustCurveMotorColumns.values()) {
+				if (indexed && col.isTextColumn()) {
+					continue;
+				}
 				String str = col.getValue(m).toString().toLowerCase(Locale.getDefault());
 				if (str.contains(s)) {
 					continue main;
 				}
 			}
 
+			if (indexed) {
+				return false;
+			}
+
 			// Make sure that you can search on both the common name, and designation
 			// Yes, there is some duplication here because the common name or designation is already checked in the previous loop
 			// but it's not worth checking that...
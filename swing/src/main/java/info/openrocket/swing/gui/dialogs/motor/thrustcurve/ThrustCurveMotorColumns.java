@@ -5,6 +5,7 @@ import java.util.Comparator;
 
 import info.openrocket.swing.gui.util.SwingPreferences;
 import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.motor.DesignationComparator;
 import info.openrocket.core.motor.ThrustCurveMotor;
@@ -129,6 +130,14 @@ enum ThrustCurveMotorColumns {
 		return width;
 	}
 	
+	/**
+	 * Return whether the column shows text of the motor set that is indexed by
+	 * {@link ThrustCurveMotorSetDatabase#findMotorSets(String)}.
+	 */
+	public boolean isTextColumn() {
+		return this == MANUFACTURER || this == NAME || this == CASEINFO;
+	}
+	
 	public String getToolTipText(ThrustCurveMotor m) {
 		String tip = "<html>";
 		tip += "<b>" + m.toString() + "</b>";
@@ -53,6 +53,7 @@ import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.util.StateChangeListener;
 import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.logging.Markers;
 import info.openrocket.core.motor.Manufacturer;
@@ -129,10 +130,11 @@ public class ThrustCurveMotorSelectionPanel extends JPanel implements MotorSelec
 		super(new MigLayout("fill", "[grow][]"));
 
 		// Construct the database (adding the current motor if not in the db already)
-		database = Application.getThrustCurveMotorSetDatabase().getMotorSets();
+		ThrustCurveMotorSetDatabase motorSetDatabase = Application.getThrustCurveMotorSetDatabase();
+		database = motorSetDatabase.getMotorSets();
 
 		model = new ThrustCurveMotorDatabaseModel(database);
-		rowFilter = new MotorRowFilter(model);
+		rowFilter = new MotorRowFilter(model, motorSetDatabase);
 		motorInformationPanel = new MotorInformationPanel();
 
 		//// MotorFilter
@@ -1,5 +1,6 @@
 package info.openrocket.swing.gui.dialogs.optimization;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -13,9 +14,13 @@ import info.openrocket.core.document.Simulation;
 import info.openrocket.core.optimization.general.FunctionOptimizer;
 import info.openrocket.core.optimization.general.OptimizationController;
 import info.openrocket.core.optimization.general.OptimizationException;
-import info.openrocket.core.optimization.general.ParallelExecutorCache;
 import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.ParallelExecutorCache;
+import info.openrocket.core.optimization.general.PersistentEvaluationCache;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.SurrogateFunctionCache;
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
 import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
@@ -24,6 +29,7 @@ import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationFu
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationListener;
 import info.openrocket.core.optimization.rocketoptimization.SimulationDomain;
 import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
+import info.openrocket.core.startup.Application;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.BugException;
 
@@ -49,6 +55,20 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 
 	private static final Logger log = LoggerFactory.getLogger(OptimizationWorker.class);
 	
+	/**
+	 * The optimization algorithms that may be selected.
+	 */
+	public enum Algorithm {
+		/** Golden section search for a single parameter, multidirectional search otherwise */
+		AUTOMATIC,
+		/** Multidirectional search, a local pattern search */
+		MULTIDIRECTIONAL_SEARCH,
+		/** Differential evolution, a population-based global search */
+		DIFFERENTIAL_EVOLUTION,
+		/** The covariance matrix adaptation evolution strategy */
+		CMA_ES
+	}
+	
 	/** Notify listeners every this many milliseconds */
 	private static final long PURGE_TIMEOUT = 500;
 	/** End optimization when step size is below this threshold */
@@ -60,7 +80,8 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final ParallelExecutorCache cache;
+	private PersistentEvaluationCache evaluationCache = null;
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue = new LinkedBlockingQueue<>();
 	private final LinkedBlockingQueue<OptimizationStepData> stepQueue = new LinkedBlockingQueue<>();
@@ -75,10 +96,11 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	 * @param parameter			the optimization parameter
 	 * @param goal				the optimization goal
 	 * @param domain			the optimization domain
+	 * @param algorithm			the optimization algorithm
 	 * @param modifiers			the simulation modifiers
 	 */
 	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
-			OptimizationGoal goal, SimulationDomain domain, SimulationModifier... modifiers) {
+			OptimizationGoal goal, SimulationDomain domain, Algorithm algorithm, SimulationModifier... modifiers) {
 		
 		this.simulation = simulation;
 		this.modifiers = modifiers.clone();
@@ -86,13 +108,35 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
+		// The optimization function is thread-safe, so the pattern points are evaluated concurrently
+		cache = new ParallelExecutorCache(Application.getPreferences().getOptimizationThreadCount());
 		cache.setFunction(function);
 		
-		if (modifiers.length == 1) {
-			optimizer = new GoldenSectionSearchOptimizer(cache);
-		} else {
-			optimizer = new MultidirectionalSearchOptimizer(cache);
+		// Optionally skip simulating points that a surrogate model predicts to be worse
+		ParallelFunctionCache functionCache = cache;
+		if (Application.getPreferences().isOptimizationSurrogateEnabled()) {
+			functionCache = new SurrogateFunctionCache(cache);
+		}
+		
+		switch (algorithm) {
+			case AUTOMATIC:
+				if (modifiers.length == 1) {
+					optimizer = new GoldenSectionSearchOptimizer(functionCache);
+				} else {
+					optimizer = new MultidirectionalSearchOptimizer(functionCache);
+				}
+				break;
+			case MULTIDIRECTIONAL_SEARCH:
+				optimizer = new MultidirectionalSearchOptimizer(functionCache);
+				break;
+			case DIFFERENTIAL_EVOLUTION:
+				optimizer = new DifferentialEvolutionOptimizer(functionCache);
+				break;
+			case CMA_ES:
+				optimizer = new CMAESOptimizer(functionCache);
+				break;
+			default:
+				throw new BugException("Unknown optimization algorithm: " + algorithm);
 		}
 	}
 	
@@ -101,6 +145,8 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	public void run() {
 		try {
 			
+			openEvaluationCache();
+			
 			double[] current = new double[modifiers.length];
 			for (int i = 0; i < modifiers.length; i++) {
 				current[i] = modifiers[i].getCurrentScaledValue(simulation);
@@ -112,6 +158,12 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			cache.abortAll();
+			cache.getExecutor().shutdownNow();
+			closeEvaluationCache();
+			if (optimizer.getFunctionCache() instanceof SurrogateFunctionCache surrogate) {
+				log.info("Surrogate model usage: " + surrogate.getStatistics());
+			}
 			SwingUtilities.invokeLater(() -> {
 				lastPurge = System.currentTimeMillis() + 24L * 3600L * 1000L;
 				processQueue();
@@ -120,6 +172,36 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		}
 	}
 	
+	/**
+	 * Open the persistent evaluation cache, so that designs simulated in earlier optimizations
+	 * are not simulated again.  The optimization works without the cache if it cannot be opened.
+	 */
+	private void openEvaluationCache() {
+		int size = Application.getPreferences().getOptimizationCacheSize();
+		if (size <= 0) {
+			return;
+		}
+		try {
+			evaluationCache = new PersistentEvaluationCache(PersistentEvaluationCache.getDefaultFile(), size);
+			function.setEvaluationCache(evaluationCache);
+		} catch (IOException e) {
+			log.warn("Unable to open optimization cache", e);
+		}
+	}
+	
+	private void closeEvaluationCache() {
+		if (evaluationCache == null) {
+			return;
+		}
+		function.setEvaluationCache(null);
+		log.info("Optimization cache usage: " + evaluationCache.getStatistics());
+		try {
+			evaluationCache.close();
+		} catch (IOException e) {
+			log.warn("Unable to write optimization cache", e);
+		}
+	}
+	
 	/**
 	 * This method is called after the optimization has ended, either normally, when interrupted
 	 * or by throwing an exception.  This method is called on the EDT, like the done() method of SwingWorker.
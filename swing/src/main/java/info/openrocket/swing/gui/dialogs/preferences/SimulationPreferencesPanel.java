@@ -69,6 +69,19 @@ public class SimulationPreferencesPanel extends PreferencesPanel {
 		});
 		this.add(automaticallyRunSimsBox, "wrap, growx, sg combos ");
 
+		// Use tabulated aerodynamic coefficients
+		final JCheckBox aerodynamicTableBox = new JCheckBox(
+				trans.get("pref.dlg.checkbox.AerodynamicTable"));
+		aerodynamicTableBox.setToolTipText(trans.get("pref.dlg.checkbox.AerodynamicTable.ttip"));
+		aerodynamicTableBox.setSelected(preferences.isAerodynamicTableEnabled());
+		aerodynamicTableBox.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				preferences.setAerodynamicTableEnabled(aerodynamicTableBox.isSelected());
+			}
+		});
+		this.add(aerodynamicTableBox, "wrap, growx, sg combos ");
+
 		//GeodeticComputationStrategy geodeticComputation = GeodeticComputationStrategy.SPHERICAL;
 
 		JPanel sub, subsub;
@@ -27,6 +27,7 @@ import javax.swing.SwingUtilities;
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.simulation.DormandPrinceSimulationStepper;
 import info.openrocket.core.simulation.RK4SimulationStepper;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -58,6 +59,10 @@ class SimulationOptionsPanel extends JPanel {
 	private static final long serialVersionUID = -5251458539346201239L;
 
 	private static final Translator trans = Application.getTranslator();
+
+	/** The error tolerances selectable for the adaptive stepper, covering its allowed range */
+	private static final double[] TOLERANCES = { DormandPrinceSimulationStepper.MAX_TOLERANCE, 1e-3, 1e-4, 1e-5, 1e-6,
+			1e-7, DormandPrinceSimulationStepper.MIN_TOLERANCE };
 	
 	private OpenRocketDocument document;
 	final Simulation simulation;
@@ -185,6 +190,32 @@ class SimulationOptionsPanel extends JPanel {
 		slider.setToolTipText(tip);
 		subsub.add(slider, "w 100, wrap");
 
+		// // Error tolerance:
+		label = new JLabel(trans.get("simedtdlg.lbl.Tolerance"));
+		tip = trans.get("simedtdlg.lbl.ttip.Tolerance");
+		label.setToolTipText(tip);
+		subsub.add(label, "gapright para");
+
+		final JComboBox<String> toleranceCombo = new JComboBox<>();
+		for (double tolerance : TOLERANCES) {
+			toleranceCombo.addItem("1e" + Math.round(Math.log10(tolerance)));
+		}
+		toleranceCombo.setToolTipText(tip);
+		toleranceCombo.setSelectedIndex(getToleranceIndex(conditions.getTolerance()));
+		toleranceCombo.addActionListener(e -> conditions.setTolerance(TOLERANCES[toleranceCombo.getSelectedIndex()]));
+		conditions.addChangeListener(e -> {
+			int index = getToleranceIndex(conditions.getTolerance());
+			if (toleranceCombo.getSelectedIndex() != index) {
+				toleranceCombo.setSelectedIndex(index);
+			}
+		});
+		// The tolerance only applies to the adaptive stepper
+		ActionListener toleranceEnabler = e -> toleranceCombo.setEnabled(
+				SimulationStepperMethodChoiceCombo.getSelectedItem() == SimulationStepperMethod.DP45);
+		SimulationStepperMethodChoiceCombo.addActionListener(toleranceEnabler);
+		toleranceEnabler.actionPerformed(null);
+		subsub.add(toleranceCombo, "span 3, wrap");
+
 		// // Maximum simulation time:
 		label = new JLabel(trans.get("simedtdlg.lbl.MaxSimTime"));
 		tip = trans.get("simedtdlg.lbl.ttip.MaxSimTime");
@@ -220,6 +251,7 @@ class SimulationOptionsPanel extends JPanel {
 				conditions.setTimeStep(preferences.getDouble(
 						ApplicationPreferences.SIMULATION_TIME_STEP,
 						RK4SimulationStepper.RECOMMENDED_TIME_STEP));
+				conditions.setTolerance(preferences.getTolerance());
 				conditions.setMaxSimulationTime(preferences.getDouble(
 						ApplicationPreferences.SIMULATION_MAX_TIME,
 						RK4SimulationStepper.RECOMMENDED_MAX_TIME));
@@ -236,6 +268,7 @@ class SimulationOptionsPanel extends JPanel {
 			public void actionPerformed(ActionEvent e) {
 				ApplicationPreferences preferences = Application.getPreferences();
 				preferences.setTimeStep(conditions.getTimeStep());
+				preferences.setTolerance(conditions.getTolerance());
 				preferences.setMaxSimulationTime(conditions.getMaxSimulationTime());
 				preferences.setGeodeticComputation(conditions.getGeodeticComputation());
 			}
@@ -286,6 +319,19 @@ class SimulationOptionsPanel extends JPanel {
 		textColor = GUIUtil.getUITheme().getTextColor();
 		dimTextColor = GUIUtil.getUITheme().getDimTextColor();
 	}
+
+	/**
+	 * Return the index of the selectable tolerance closest to the given one.
+	 */
+	private static int getToleranceIndex(double tolerance) {
+		int index = 0;
+		for (int i = 1; i < TOLERANCES.length; i++) {
+			if (Math.abs(Math.log(TOLERANCES[i] / tolerance)) < Math.abs(Math.log(TOLERANCES[index] / tolerance))) {
+				index = i;
+			}
+		}
+		return index;
+	}
 	
 	private JPopupMenu getExtensionMenu() {
 		Set<SimulationExtensionProvider> extensions = Application.getInjector().getInstance(new Key<>() {
@@ -32,6 +32,7 @@ import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.SharedRocket;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.customexpression.CustomExpressionSimulationListener;
@@ -131,9 +132,16 @@ public class SimulationRunDialog extends JDialog {
 		simulationMaxVelocity = new double[n];
 		simulationDone = new boolean[n];
 
+		// Simulations of the document rocket share a single snapshot of it
+		SharedRocket sharedRocket = null;
+		if (n > 1) {
+			sharedRocket = SharedRocket.of(document.getRocket());
+		}
+
 		for (int i = 0; i < n; i++) {
 			simulationNames[i] = simulations[i].getName();
-			simulationWorkers[i] = new InteractiveSimulationWorker(document, simulations[i], i);
+			SharedRocket rocket = (simulations[i].getRocket() == document.getRocket()) ? sharedRocket : null;
+			simulationWorkers[i] = new InteractiveSimulationWorker(document, simulations[i], rocket, i);
 			executor.execute(simulationWorkers[i]);
 		}
 
@@ -302,8 +310,8 @@ public class SimulationRunDialog extends JDialog {
 
 		private int progress = 0;
 
-		public InteractiveSimulationWorker(OpenRocketDocument doc, Simulation sim, int index) {
-			super(sim);
+		public InteractiveSimulationWorker(OpenRocketDocument doc, Simulation sim, SharedRocket sharedRocket, int index) {
+			super(sim, sharedRocket);
 			this.document = doc;
 			List<CustomExpression> exprs = document.getCustomExpressions();
 			exprListener = new CustomExpressionSimulationListener(exprs);
@@ -6,6 +6,7 @@ import javax.swing.SwingWorker;
 
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SharedRocket;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationCancelledException;
 import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
@@ -24,10 +25,23 @@ import info.openrocket.core.simulation.listeners.SimulationListener;
 public abstract class SimulationWorker extends SwingWorker<FlightData, SimulationStatus> {
 	
 	protected final Simulation simulation;
+	private final SharedRocket sharedRocket;
 	private Throwable throwable = null;
 	
 	public SimulationWorker(Simulation sim) {
+		this(sim, null);
+	}
+	
+	/**
+	 * Create a worker that simulates a rocket snapshot shared with other workers.
+	 * 
+	 * @param sim			the simulation to run.
+	 * @param sharedRocket	a snapshot of the rocket of the simulation, or <code>null</code>
+	 * 						to simulate a private copy of the rocket.
+	 */
+	public SimulationWorker(Simulation sim, SharedRocket sharedRocket) {
 		this.simulation = sim;
+		this.sharedRocket = sharedRocket;
 	}
 	
 	
@@ -52,7 +66,7 @@ public abstract class SimulationWorker extends SwingWorker<FlightData, Simulatio
 		listeners[listeners.length - 1] = new CancelListener();
 		
 		try {
-			simulation.simulate(listeners);
+			simulation.simulate(sharedRocket, listeners);
 		} catch (Throwable e) {
 			throwable = e;
 			return null;
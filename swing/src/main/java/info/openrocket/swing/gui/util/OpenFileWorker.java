@@ -36,6 +36,8 @@ public class OpenFileWorker extends SwingWorker<OpenRocketDocument, Void> {
 		this.file = file;
 		this.jarURL = null;
 		loader = new GeneralRocketLoader(file);
+		// Show the design without waiting for the stored simulation data
+		loader.setBackgroundDataLoading(true);
 	}
 	
 	
@@ -20,6 +20,7 @@ import info.openrocket.core.plugin.JarMigrationHelper;
 import info.openrocket.core.plugin.PluginHelper;
 import info.openrocket.core.preferences.ApplicationPreferences;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.simulation.FlightDataStore;
 import net.miginfocom.layout.LayoutUtil;
 import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.arch.SystemInfo.Platform;
@@ -222,6 +223,7 @@ public class SwingStartup {
 		// Load defaults
 		((SwingPreferences) Application.getPreferences()).loadDefaultUnits();
 		((SwingPreferences) Application.getPreferences()).loadDefaultComponentMaterials();
+		FlightDataStore.getInstance().setBudget((long) Application.getPreferences().getFlightDataMemoryBudget() << 20);
 
 		Databases.fakeMethod();
 